@@ -4,13 +4,25 @@ GRANT CONNECT ON DATABASE evelinedb TO "evelineerp";
 
 CREATE EXTENSION postgis;
 
+-- Entity ids are the prefix plus the sequence value, zero padded to 5 digits below 100000 and unpadded above it
+-- (p00042, p99999, p100000, ...), so the ids issued before the id space was widened stay valid.
+DROP FUNCTION IF EXISTS format_entity_id(text, bigint);
+CREATE FUNCTION format_entity_id(prefix text, value bigint)
+    RETURNS varchar
+    LANGUAGE 'sql'
+    IMMUTABLE STRICT
+AS $BODY$
+    SELECT prefix || CASE WHEN value < 100000 THEN lpad(value::text, 5, '0') ELSE value::text END;
+$BODY$;
+GRANT EXECUTE ON FUNCTION format_entity_id(text, bigint) TO "evelineerp";
+
 DROP SEQUENCE IF EXISTS provider_id_seq;
-CREATE SEQUENCE provider_id_seq MINVALUE 1 INCREMENT 1 MAXVALUE 99999;
+CREATE SEQUENCE provider_id_seq MINVALUE 1 INCREMENT 1 MAXVALUE 9999999999;
 GRANT USAGE, SELECT ON SEQUENCE provider_id_seq TO "evelineerp";
 
 DROP TABLE IF EXISTS provider;
 CREATE TABLE provider (
-  provider_id varchar(6) PRIMARY KEY NOT NULL DEFAULT 'p'||lpad(nextval('provider_id_seq'::regclass)::TEXT,5,'0'),
+  provider_id varchar(11) PRIMARY KEY NOT NULL DEFAULT format_entity_id('p', nextval('provider_id_seq'::regclass)),
   name varchar(100) NOT NULL,
   description TEXT DEFAULT NULL,
   email varchar(100) NOT NULL,
@@ -28,11 +40,14 @@ GRANT SELECT, INSERT, UPDATE, DELETE ON provider TO "evelineerp";
 DROP INDEX IF EXISTS provider_id_index;
 CREATE INDEX provider_id_index ON provider(provider_id);
 
+DROP INDEX IF EXISTS provider_id_length_index;
+CREATE INDEX provider_id_length_index ON provider USING btree (char_length(provider_id), provider_id);
+
 DROP INDEX IF EXISTS provider_id_active_index;
 CREATE INDEX provider_id_active_index ON provider USING btree(provider_id) WHERE enabled IS TRUE;
 
 DROP INDEX IF EXISTS provider_last_modified_index;
-CREATE INDEX provider_last_modified_index ON provider USING btree (last_modified DESC NULLS LAST);
+CREATE INDEX provider_last_modified_index ON provider USING btree (last_modified DESC NULLS LAST, provider_id DESC);
 
 DROP FUNCTION IF EXISTS insert_create_date();
 CREATE FUNCTION insert_create_date()
@@ -105,12 +120,12 @@ EXECUTE PROCEDURE update_last_modified();
 
 -- Brand
 DROP SEQUENCE IF EXISTS brand_id_seq;
-CREATE SEQUENCE brand_id_seq MINVALUE 1 INCREMENT 1 MAXVALUE 99999;
+CREATE SEQUENCE brand_id_seq MINVALUE 1 INCREMENT 1 MAXVALUE 9999999999;
 GRANT USAGE, SELECT ON SEQUENCE brand_id_seq TO "evelineerp";
 
 DROP TABLE IF EXISTS brand;
 CREATE TABLE brand (
-                       brand_id varchar(6) PRIMARY KEY NOT NULL DEFAULT 'b'||lpad(nextval('brand_id_seq'::regclass)::TEXT,9,'0'),
+                       brand_id varchar(11) PRIMARY KEY NOT NULL DEFAULT format_entity_id('b', nextval('brand_id_seq'::regclass)),
                        name varchar(12) UNIQUE NOT NULL,
                        description TEXT DEFAULT NULL,
                        enabled boolean DEFAULT false,
@@ -124,11 +139,14 @@ GRANT SELECT, INSERT, UPDATE, DELETE ON brand TO "evelineerp";
 DROP INDEX IF EXISTS brand_id_index;
 CREATE INDEX brand_id_index ON brand(brand_id);
 
+DROP INDEX IF EXISTS brand_id_length_index;
+CREATE INDEX brand_id_length_index ON brand USING btree (char_length(brand_id), brand_id);
+
 DROP INDEX IF EXISTS brand_id_active_index;
 CREATE INDEX brand_id_active_index ON brand USING btree(brand_id) WHERE enabled IS TRUE;
 
 DROP INDEX IF EXISTS brand_last_modified_index;
-CREATE INDEX brand_last_modified_index ON brand USING btree (last_modified DESC NULLS LAST);
+CREATE INDEX brand_last_modified_index ON brand USING btree (last_modified DESC NULLS LAST, brand_id DESC);
 
 DROP TRIGGER IF EXISTS brand_insert_create_date ON brand;
 CREATE TRIGGER brand_insert_create_date
@@ -153,13 +171,13 @@ EXECUTE PROCEDURE update_last_modified();
 
 -- Product
 DROP SEQUENCE IF EXISTS product_id_seq;
-CREATE SEQUENCE product_id_seq MINVALUE 1 INCREMENT 1 MAXVALUE 99999;
+CREATE SEQUENCE product_id_seq MINVALUE 1 INCREMENT 1 MAXVALUE 9999999999;
 GRANT USAGE, SELECT ON SEQUENCE product_id_seq TO "evelineerp";
 
 DROP TABLE IF EXISTS product;
 CREATE TABLE product (
-  product_id varchar(6) PRIMARY KEY NOT NULL DEFAULT 's'||lpad(nextval('product_id_seq'::regclass)::TEXT,5,'0'),
-  brand_id varchar(6) NOT NULL,
+  product_id varchar(11) PRIMARY KEY NOT NULL DEFAULT format_entity_id('s', nextval('product_id_seq'::regclass)),
+  brand_id varchar(11) NOT NULL,
   CONSTRAINT brand_id_fk
       FOREIGN KEY(brand_id)
           REFERENCES brand(brand_id),
@@ -181,6 +199,9 @@ GRANT SELECT, INSERT, UPDATE, DELETE ON product TO "evelineerp";
 DROP INDEX IF EXISTS product_id_index;
 CREATE INDEX product_id_index ON product(product_id);
 
+DROP INDEX IF EXISTS product_id_length_index;
+CREATE INDEX product_id_length_index ON product USING btree (char_length(product_id), product_id);
+
 DROP INDEX IF EXISTS product_id_active_index;
 CREATE INDEX product_id_active_index ON product USING btree(product_id) WHERE enabled IS TRUE;
 
@@ -188,7 +209,7 @@ DROP INDEX IF EXISTS upc_index;
 CREATE INDEX upc_index ON product(upc);
 
 DROP INDEX IF EXISTS product_last_modified_index;
-CREATE INDEX product_last_modified_index ON product USING btree (last_modified DESC NULLS LAST);
+CREATE INDEX product_last_modified_index ON product USING btree (last_modified DESC NULLS LAST, product_id DESC);
 
 DROP TRIGGER IF EXISTS product_insert_create_date ON product;
 CREATE TRIGGER product_insert_create_date
@@ -214,8 +235,8 @@ EXECUTE PROCEDURE update_last_modified();
 DROP TABLE IF EXISTS product_provider_assignation;
 CREATE TABLE product_provider_assignation (
     id SERIAL PRIMARY KEY,
-    product_id varchar(6),
-    provider_id varchar(6),
+    product_id varchar(11),
+    provider_id varchar(11),
     CONSTRAINT product_id_fk
         FOREIGN KEY(product_id)
             REFERENCES product(product_id),
@@ -230,7 +251,7 @@ GRANT USAGE, SELECT ON SEQUENCE product_provider_assignation_id_seq TO "evelinee
 -- warehouse
 
 DROP SEQUENCE IF EXISTS warehouse_id_seq;
-CREATE SEQUENCE warehouse_id_seq MINVALUE 1 INCREMENT 1 MAXVALUE 99999;
+CREATE SEQUENCE warehouse_id_seq MINVALUE 1 INCREMENT 1 MAXVALUE 9999999999;
 GRANT USAGE, SELECT ON SEQUENCE warehouse_id_seq TO "evelineerp";
 
 DROP TABLE IF EXISTS warehouse;
@@ -238,7 +259,7 @@ DROP TABLE IF EXISTS warehouse;
 -- postgis 3.1.1
 
 CREATE TABLE warehouse (
-                         warehouse_id varchar(6) PRIMARY KEY NOT NULL DEFAULT 'w'||lpad(nextval('warehouse_id_seq'::regclass)::TEXT,5,'0'),
+                         warehouse_id varchar(11) PRIMARY KEY NOT NULL DEFAULT format_entity_id('w', nextval('warehouse_id_seq'::regclass)),
                          name varchar(100) NOT NULL,
                          description TEXT DEFAULT NULL,
                          address1 TEXT NOT NULL,
@@ -259,6 +280,9 @@ GRANT SELECT, INSERT, UPDATE, DELETE ON warehouse TO "evelineerp";
 DROP INDEX IF EXISTS warehouse_id_index;
 CREATE INDEX warehouse_id_index ON warehouse(warehouse_id);
 
+DROP INDEX IF EXISTS warehouse_id_length_index;
+CREATE INDEX warehouse_id_length_index ON warehouse USING btree (char_length(warehouse_id), warehouse_id);
+
 DROP INDEX IF EXISTS warehouse_id_active_index;
 CREATE INDEX warehouse_id_active_index ON warehouse USING btree(warehouse_id) WHERE enabled IS TRUE;
 
@@ -266,7 +290,7 @@ DROP INDEX IF EXISTS warehouse_name_index;
 CREATE INDEX warehouse_name_index ON warehouse(name);
 
 DROP INDEX IF EXISTS warehouse_last_modified_index;
-CREATE INDEX warehouse_last_modified_index ON warehouse USING btree (last_modified DESC NULLS LAST);
+CREATE INDEX warehouse_last_modified_index ON warehouse USING btree (last_modified DESC NULLS LAST, warehouse_id DESC);
 
 DROP TRIGGER IF EXISTS warehouse_insert_create_date ON warehouse;
 CREATE TRIGGER warehouse_insert_create_date
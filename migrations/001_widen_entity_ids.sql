@@ -0,0 +1,42 @@
+-- Widens the entity id space of an existing evelinedb created before format_entity_id was introduced.
+-- Existing ids (prefix + 5 digits) are kept as they are; values above 99999 are issued unpadded (p100000, ...).
+-- Run as the database owner. The ALTER TABLE statements take short exclusive locks on the tables.
+
+BEGIN;
+
+DROP FUNCTION IF EXISTS format_entity_id(text, bigint);
+CREATE FUNCTION format_entity_id(prefix text, value bigint)
+    RETURNS varchar
+    LANGUAGE 'sql'
+    IMMUTABLE STRICT
+AS $BODY$
+    SELECT prefix || CASE WHEN value < 100000 THEN lpad(value::text, 5, '0') ELSE value::text END;
+$BODY$;
+GRANT EXECUTE ON FUNCTION format_entity_id(text, bigint) TO "evelineerp";
+
+ALTER SEQUENCE provider_id_seq MAXVALUE 9999999999;
+ALTER SEQUENCE brand_id_seq MAXVALUE 9999999999;
+ALTER SEQUENCE product_id_seq MAXVALUE 9999999999;
+ALTER SEQUENCE warehouse_id_seq MAXVALUE 9999999999;
+
+-- Increasing a varchar limit does not rewrite the tables.
+ALTER TABLE provider ALTER COLUMN provider_id TYPE varchar(11);
+ALTER TABLE brand ALTER COLUMN brand_id TYPE varchar(11);
+ALTER TABLE product ALTER COLUMN product_id TYPE varchar(11);
+ALTER TABLE product ALTER COLUMN brand_id TYPE varchar(11);
+ALTER TABLE product_provider_assignation ALTER COLUMN product_id TYPE varchar(11);
+ALTER TABLE product_provider_assignation ALTER COLUMN provider_id TYPE varchar(11);
+ALTER TABLE warehouse ALTER COLUMN warehouse_id TYPE varchar(11);
+
+ALTER TABLE provider ALTER COLUMN provider_id SET DEFAULT format_entity_id('p', nextval('provider_id_seq'::regclass));
+ALTER TABLE brand ALTER COLUMN brand_id SET DEFAULT format_entity_id('b', nextval('brand_id_seq'::regclass));
+ALTER TABLE product ALTER COLUMN product_id SET DEFAULT format_entity_id('s', nextval('product_id_seq'::regclass));
+ALTER TABLE warehouse ALTER COLUMN warehouse_id SET DEFAULT format_entity_id('w', nextval('warehouse_id_seq'::regclass));
+
+-- Ids sort by length first so p99999 comes before p100000 in the keyset paginated listings.
+CREATE INDEX IF NOT EXISTS provider_id_length_index ON provider USING btree (char_length(provider_id), provider_id);
+CREATE INDEX IF NOT EXISTS brand_id_length_index ON brand USING btree (char_length(brand_id), brand_id);
+CREATE INDEX IF NOT EXISTS product_id_length_index ON product USING btree (char_length(product_id), product_id);
+CREATE INDEX IF NOT EXISTS warehouse_id_length_index ON warehouse USING btree (char_length(warehouse_id), warehouse_id);
+
+COMMIT;
@@ -0,0 +1,106 @@
+package net.erp.eveline.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH json results, usually the one of a baseline branch and the one of a change, benchmark by benchmark
+ * and exits with an error when the score or the allocations per operation of any of them regressed more than the
+ * threshold. Usage: {@code BenchmarkComparison <baseline.json> <result.json> [threshold percentage]}.
+ */
+public class BenchmarkComparison {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <result.json> [threshold percentage]");
+            System.exit(2);
+        }
+        final double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        final var baseline = read(new File(args[0]));
+        final var current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s %11s%n", "Benchmark", "Baseline", "Current", "Score", "Allocation");
+        for (final Map.Entry<String, Result> entry : current.entrySet()) {
+            final Result before = baseline.get(entry.getKey());
+            final Result after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s %11s%n", entry.getKey(), "-", after.score, "new", "");
+                continue;
+            }
+            final double scoreChange = after.regressionFrom(before);
+            final double allocationChange = change(before.allocation, after.allocation);
+            final boolean regressed = scoreChange > threshold || allocationChange > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %+10.1f%%%s%n", entry.getKey(), before.score, after.score,
+                    scoreChange, allocationChange, regressed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmarks regressed more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(final File file) throws IOException {
+        final Map<String, Result> results = new TreeMap<>();
+        for (final JsonNode benchmark : new ObjectMapper().readTree(file)) {
+            final var primaryMetric = benchmark.get("primaryMetric");
+            double allocation = Double.NaN;
+            final Iterator<Map.Entry<String, JsonNode>> secondaryMetrics = benchmark.path("secondaryMetrics").fields();
+            while (secondaryMetrics.hasNext()) {
+                final var metric = secondaryMetrics.next();
+                if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                    allocation = metric.getValue().get("score").asDouble();
+                }
+            }
+            results.put(key(benchmark), new Result(benchmark.get("mode").asText(),
+                    primaryMetric.get("score").asDouble(), allocation));
+        }
+        return results;
+    }
+
+    private static String key(final JsonNode benchmark) {
+        final Map<String, String> params = new LinkedHashMap<>();
+        benchmark.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        final String name = benchmark.get("benchmark").asText().replace("net.erp.eveline.benchmark.", "");
+        return params.isEmpty() ? name : name + params;
+    }
+
+    private static double change(final double before, final double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return 0;
+        }
+        return (after - before) / before * 100;
+    }
+
+    private static class Result {
+        private final String mode;
+        private final double score;
+        private final double allocation;
+
+        private Result(final String mode, final double score, final double allocation) {
+            this.mode = mode;
+            this.score = score;
+            this.allocation = allocation;
+        }
+
+        /**
+         * @return how much worse the score is than the one of the baseline, in percentage. Throughput is better when
+         * it grows, every other mode measures time.
+         */
+        private double regressionFrom(final Result baseline) {
+            final double change = change(baseline.score, score);
+            return "thrpt".equals(mode) ? -change : change;
+        }
+    }
+}
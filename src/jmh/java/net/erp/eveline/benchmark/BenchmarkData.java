@@ -0,0 +1,169 @@
+package net.erp.eveline.benchmark;
+
+import net.erp.eveline.data.entity.Brand;
+import net.erp.eveline.data.entity.Product;
+import net.erp.eveline.data.entity.Provider;
+import net.erp.eveline.model.BrandModel;
+import net.erp.eveline.model.ProductModel;
+import net.erp.eveline.model.ProviderModel;
+import net.erp.eveline.model.WarehouseModel;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates catalog data shaped like the production one. The generator is seeded, so every run of a benchmark works
+ * on the same data and the results of two runs can be compared.
+ */
+public class BenchmarkData {
+    private static final OffsetDateTime CREATED = OffsetDateTime.of(2021, 3, 1, 9, 30, 0, 0, ZoneOffset.ofHours(-6));
+    private static final List<String> COMPANY_WORDS = List.of("Distribuidora", "Importadora", "Comercial", "Grupo",
+            "Alimentos", "Lacteos", "Farmacia", "Suministros", "Central", "del Valle", "Costa", "Pacifico");
+    private static final List<String> PRODUCT_WORDS = List.of("Leche", "Cafe", "Arroz", "Frijoles", "Azucar", "Aceite",
+            "Galletas", "Jabon", "Detergente", "Atun", "Pasta", "Salsa", "entera", "integral", "light", "1L", "500g");
+    private static final List<String> DESCRIPTION_WORDS = List.of("Producto", "de", "excelente", "calidad", "para", "el",
+            "hogar", "distribución", "nacional", "envío", "rápido", "café", "orgánico", "niños", "año", "(nuevo)", "50%",
+            "$12.50", "Teléfono:", "Atención", "al", "cliente", "día", "mañana", "única", "presentación", "y", "más");
+    private static final List<String> DOMAINS = List.of("gmail.com", "hotmail.com", "empresa.co.cr", "proveedor.com");
+
+    private final Random random;
+
+    public BenchmarkData(final long seed) {
+        this.random = new Random(seed);
+    }
+
+    public ProviderModel providerModel(final int index) {
+        final var name = words(COMPANY_WORDS, 2, 4);
+        return new ProviderModel()
+                .setId(id('p', index))
+                .setName(name)
+                .setDescription(words(DESCRIPTION_WORDS, 8, 30))
+                .setEmail(email(name))
+                .setTelephone1(digits(8))
+                .setTelephone2(random.nextBoolean() ? digits(8) : null)
+                .setCreateDate(CREATED)
+                .setLastModified(CREATED.plusDays(index % 365))
+                .setLastUser("benchmark.user")
+                .setEnabled(true);
+    }
+
+    public Provider provider(final int index) {
+        final var name = words(COMPANY_WORDS, 2, 4);
+        return new Provider()
+                .setProviderId(id('p', index))
+                .setName(name)
+                .setDescription(words(DESCRIPTION_WORDS, 8, 30))
+                .setEmail(email(name))
+                .setTelephone1(digits(8))
+                .setTelephone2(random.nextBoolean() ? digits(8) : null)
+                .setLastUser("benchmark.user")
+                .setEnabled(true);
+    }
+
+    public BrandModel brandModel(final int index) {
+        return new BrandModel()
+                .setId(id('b', index))
+                .setName(words(COMPANY_WORDS, 1, 2))
+                .setDescription(words(DESCRIPTION_WORDS, 4, 12))
+                .setCreateDate(CREATED)
+                .setLastModified(CREATED)
+                .setLastUser("benchmark.user")
+                .setEnabled(true);
+    }
+
+    public Brand brand(final int index) {
+        return new Brand()
+                .setBrandId(id('b', index))
+                .setName(words(COMPANY_WORDS, 1, 2))
+                .setDescription(words(DESCRIPTION_WORDS, 4, 12))
+                .setCreateDate(CREATED)
+                .setLastModified(CREATED)
+                .setLastUser("benchmark.user")
+                .setEnabled(true);
+    }
+
+    public ProductModel productModel(final int index, final int providers) {
+        final Set<ProviderModel> providerSet = new HashSet<>();
+        for (int idx = 0; idx < providers; idx++) {
+            providerSet.add(providerModel(idx));
+        }
+        return new ProductModel()
+                .setId(id('s', index))
+                .setBrand(brandModel(index % 50))
+                .setUpc(digits(12))
+                .setProviderSet(providerSet)
+                .setTitle(words(PRODUCT_WORDS, 2, 5))
+                .setDescription(words(DESCRIPTION_WORDS, 10, 40))
+                .setCreateDate(CREATED)
+                .setLastModified(CREATED)
+                .setLastUser("benchmark.user")
+                .setEnabled(true);
+    }
+
+    public Product product(final int index, final int providers) {
+        final Set<Provider> providerSet = new HashSet<>();
+        for (int idx = 0; idx < providers; idx++) {
+            providerSet.add(provider(idx));
+        }
+        return new Product()
+                .setProductId(id('s', index))
+                .setBrand(brand(index % 50))
+                .setUpc(digits(12))
+                .setProviderSet(providerSet)
+                .setTitle(words(PRODUCT_WORDS, 2, 5))
+                .setDescription(words(DESCRIPTION_WORDS, 10, 40))
+                .setCreateDate(CREATED)
+                .setLastModified(CREATED)
+                .setLastUser("benchmark.user")
+                .setEnabled(true);
+    }
+
+    public WarehouseModel warehouseModel(final int index) {
+        return new WarehouseModel()
+                .setId(id('w', index))
+                .setName(words(COMPANY_WORDS, 1, 3))
+                .setDescription(words(DESCRIPTION_WORDS, 8, 20))
+                .setAddress1("Del parque central 200m norte, " + words(DESCRIPTION_WORDS, 2, 6))
+                .setTelephone1(digits(8))
+                .setLatitude(9.9 + random.nextDouble())
+                .setLongitude(-84.1 + random.nextDouble())
+                .setNotes(words(DESCRIPTION_WORDS, 0, 20))
+                .setCreateDate(CREATED)
+                .setLastModified(CREATED)
+                .setLastUser("benchmark.user")
+                .setEnabled(true);
+    }
+
+    private static String id(final char prefix, final int index) {
+        return prefix + String.format("%05d", index);
+    }
+
+    private String words(final List<String> dictionary, final int min, final int max) {
+        final int count = min + random.nextInt(max - min + 1);
+        final var text = new StringBuilder();
+        for (int idx = 0; idx < count; idx++) {
+            if (idx > 0) {
+                text.append(' ');
+            }
+            text.append(dictionary.get(random.nextInt(dictionary.size())));
+        }
+        return text.toString();
+    }
+
+    private String email(final String name) {
+        return name.toLowerCase().replace(' ', '.') + random.nextInt(100) + "@" + DOMAINS.get(random.nextInt(DOMAINS.size()));
+    }
+
+    private String digits(final int length) {
+        final var digits = new StringBuilder(length);
+        digits.append(1 + random.nextInt(9));
+        for (int idx = 1; idx < length; idx++) {
+            digits.append(random.nextInt(10));
+        }
+        return digits.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package net.erp.eveline.benchmark;
+
+import net.erp.eveline.common.mapper.ProductMapper;
+import net.erp.eveline.common.mapper.ProviderMapper;
+import net.erp.eveline.common.mapper.WarehouseMapper;
+import net.erp.eveline.data.entity.Product;
+import net.erp.eveline.data.entity.Provider;
+import net.erp.eveline.data.entity.Warehouse;
+import net.erp.eveline.model.ProductModel;
+import net.erp.eveline.model.ProviderModel;
+import net.erp.eveline.model.WarehouseModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to model mapping of the read paths and model to entity mapping of the upserts. Products are mapped with
+ * provider sets of the sizes seen in the catalog, the set mapping dominates the cost of a product.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int providers;
+
+    private Product product;
+    private ProductModel productModel;
+    private List<Provider> providerList;
+    private Set<Provider> providerPage;
+    private ProviderModel providerModel;
+    private Warehouse warehouse;
+    private WarehouseModel warehouseModel;
+
+    @Setup
+    public void setUp() {
+        final var data = new BenchmarkData(42);
+        product = data.product(1, providers);
+        productModel = data.productModel(1, providers);
+        providerList = new ArrayList<>(product.getProviderSet());
+        providerPage = new HashSet<>(providerList);
+        providerModel = data.providerModel(1);
+        warehouseModel = data.warehouseModel(1);
+        warehouse = WarehouseMapper.toEntity(warehouseModel);
+    }
+
+    @Benchmark
+    public ProductModel productToModel() {
+        return ProductMapper.toModel(product);
+    }
+
+    @Benchmark
+    public Product productToEntity() {
+        return ProductMapper.toEntity(productModel, providerPage);
+    }
+
+    @Benchmark
+    public Product productMergedIntoEntity() {
+        return ProductMapper.toEntity(new Product(), productModel, providerList);
+    }
+
+    @Benchmark
+    public Set<ProviderModel> providerPageToModel() {
+        return ProviderMapper.toModel(providerPage);
+    }
+
+    @Benchmark
+    public Provider providerToEntity() {
+        return ProviderMapper.toEntity(providerModel);
+    }
+
+    @Benchmark
+    public WarehouseModel warehouseToModel() {
+        return WarehouseMapper.toModel(warehouse);
+    }
+
+    @Benchmark
+    public Warehouse warehouseToEntity() {
+        return WarehouseMapper.toEntity(warehouseModel);
+    }
+}
@@ -0,0 +1,63 @@
+package net.erp.eveline.benchmark;
+
+import net.erp.eveline.model.ProductModel;
+import net.erp.eveline.model.ProviderModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * equals and hashCode of the models, which run every time a model is added to or looked up in the sets the mappers
+ * and services build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelEqualityBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int providers;
+
+    private ProductModel productModel;
+    private ProductModel equalProductModel;
+    private List<ProviderModel> providerModels;
+
+    @Setup
+    public void setUp() {
+        productModel = new BenchmarkData(42).productModel(1, providers);
+        equalProductModel = new BenchmarkData(42).productModel(1, providers);
+        providerModels = new ArrayList<>(productModel.getProviderSet());
+    }
+
+    @Benchmark
+    public boolean productEquals() {
+        return productModel.equals(equalProductModel);
+    }
+
+    @Benchmark
+    public int productHashCode() {
+        return productModel.hashCode();
+    }
+
+    @Benchmark
+    public Set<ProviderModel> providerSet() {
+        return new HashSet<>(providerModels);
+    }
+}
@@ -0,0 +1,110 @@
+package net.erp.eveline.benchmark;
+
+import net.erp.eveline.model.ActiveProviderModel;
+import net.erp.eveline.model.ProductModel;
+import net.erp.eveline.model.ProviderModel;
+import net.erp.eveline.model.WarehouseModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static net.erp.eveline.common.predicate.CommonPredicates.isDescriptionValid;
+import static net.erp.eveline.common.predicate.ProductPredicates.PRODUCT_UPDATE_VALIDATOR;
+import static net.erp.eveline.common.predicate.ProviderPredicates.ACTIVE_PROVIDER_VALIDATOR;
+import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_INSERT_VALIDATOR;
+import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_UPDATE_VALIDATOR;
+import static net.erp.eveline.common.predicate.ProviderPredicates.isProviderEmailValid;
+import static net.erp.eveline.common.predicate.WarehousePredicates.WAREHOUSE_UPDATE_VALIDATOR;
+
+/**
+ * Validation the services run on every upsert and activation, with the models of a request and with inputs built to
+ * make the email and text expressions backtrack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int providers;
+
+    private ProviderModel providerModel;
+    private ProviderModel newProviderModel;
+    private ProductModel productModel;
+    private WarehouseModel warehouseModel;
+    private Set<ActiveProviderModel> activeProviderSet;
+    private String longDescription;
+    private String backtrackingEmail;
+
+    @Setup
+    public void setUp() {
+        final var data = new BenchmarkData(42);
+        providerModel = data.providerModel(1);
+        newProviderModel = data.providerModel(2).setId(null);
+        productModel = data.productModel(1, providers);
+        warehouseModel = data.warehouseModel(1);
+        activeProviderSet = new HashSet<>();
+        for (int idx = 0; idx < providers; idx++) {
+            final var provider = data.providerModel(idx);
+            activeProviderSet.add(new ActiveProviderModel().setId(provider.getId()).setEnabled(true).setLastUser(provider.getLastUser()));
+        }
+        longDescription = providerModel.getDescription().repeat(20);
+        backtrackingEmail = "a.".repeat(45) + "a@";
+    }
+
+    @Benchmark
+    public long providerForInsert() {
+        return PROVIDER_INSERT_VALIDATOR.check(newProviderModel);
+    }
+
+    @Benchmark
+    public long providerForUpdate() {
+        return PROVIDER_UPDATE_VALIDATOR.check(providerModel);
+    }
+
+    @Benchmark
+    public long productForUpdate() {
+        return PRODUCT_UPDATE_VALIDATOR.check(productModel);
+    }
+
+    @Benchmark
+    public long warehouseForUpdate() {
+        return WAREHOUSE_UPDATE_VALIDATOR.check(warehouseModel);
+    }
+
+    @Benchmark
+    public boolean activeProviderSet() {
+        return ACTIVE_PROVIDER_VALIDATOR.validateSet(activeProviderSet, ActiveProviderModel::getId, new ArrayList<>());
+    }
+
+    @Benchmark
+    public boolean validEmail() {
+        return isProviderEmailValid().test(providerModel.getEmail());
+    }
+
+    @Benchmark
+    public boolean backtrackingEmail() {
+        return isProviderEmailValid().test(backtrackingEmail);
+    }
+
+    @Benchmark
+    public boolean longDescription() {
+        return isDescriptionValid().test(longDescription);
+    }
+}
@@ -0,0 +1,55 @@
+package net.erp.eveline.loadtest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ids of the seeded records. Products and upcs share their positions.
+ */
+public class Catalog {
+    private final List<String> providerIds;
+    private final List<String> brandIds;
+    private final List<String> productIds;
+    private final List<String> upcs;
+    private final List<String> warehouseIds;
+
+    public Catalog(final List<String> providerIds,
+                   final List<String> brandIds,
+                   final List<String> productIds,
+                   final List<String> upcs,
+                   final List<String> warehouseIds) {
+        this.providerIds = providerIds;
+        this.brandIds = brandIds;
+        this.productIds = productIds;
+        this.upcs = upcs;
+        this.warehouseIds = warehouseIds;
+    }
+
+    public String anyProviderId() {
+        return any(providerIds);
+    }
+
+    public String anyBrandId() {
+        return any(brandIds);
+    }
+
+    public int anyProduct() {
+        return ThreadLocalRandom.current().nextInt(productIds.size());
+    }
+
+    public String productId(final int product) {
+        return productIds.get(product);
+    }
+
+    public String upc(final int product) {
+        return upcs.get(product);
+    }
+
+    public String anyWarehouseId() {
+        return any(warehouseIds);
+    }
+
+    private static String any(final List<String> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,77 @@
+package net.erp.eveline.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds the catalog with set based inserts, so hundreds of thousands of rows take seconds. Ids come from the same
+ * sequences the application uses and every product is assigned to the providers that follow it in id order.
+ */
+public class CatalogSeeder {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSeeder.class);
+
+    private static final String SEED_PROVIDERS = "INSERT INTO provider (name, description, email, telephone1, last_user, enabled) " +
+            "SELECT 'Proveedor ' || g, 'Distribuidor de alimentos y artículos del hogar número ' || g, " +
+            "'proveedor' || g || '@eveline.net', lpad((20000000 + g)::text, 8, '0'), 'loadtest', true " +
+            "FROM generate_series(1, ?) g";
+    private static final String SEED_BRANDS = "INSERT INTO brand (name, description, last_user, enabled) " +
+            "SELECT 'Marca ' || g, 'Marca de productos de consumo número ' || g, 'loadtest', true " +
+            "FROM generate_series(1, ?) g";
+    private static final String SEED_PRODUCTS = "INSERT INTO product (brand_id, upc, title, description, last_user, enabled) " +
+            "SELECT b.brand_id, lpad(g::text, 12, '0'), 'Producto ' || g, 'Presentación familiar del producto ' || g, 'loadtest', true " +
+            "FROM generate_series(1, ?) g " +
+            "JOIN (SELECT brand_id, row_number() OVER (ORDER BY char_length(brand_id), brand_id) - 1 AS position FROM brand) b " +
+            "ON b.position = g % ?";
+    private static final String SEED_ASSIGNATIONS = "INSERT INTO product_provider_assignation (product_id, provider_id) " +
+            "SELECT p.product_id, v.provider_id " +
+            "FROM (SELECT product_id, row_number() OVER (ORDER BY char_length(product_id), product_id) - 1 AS position FROM product) p " +
+            "CROSS JOIN generate_series(0, ? - 1) k " +
+            "JOIN (SELECT provider_id, row_number() OVER (ORDER BY char_length(provider_id), provider_id) - 1 AS position FROM provider) v " +
+            "ON v.position = (p.position + k) % ?";
+    private static final String SEED_WAREHOUSES = "INSERT INTO warehouse (name, description, address1, telephone1, last_user, enabled%s) " +
+            "SELECT 'Bodega ' || g, 'Bodega regional número ' || g, 'Del parque central ' || g || '00m norte', " +
+            "lpad((40000000 + g)::text, 8, '0'), 'loadtest', true%s " +
+            "FROM generate_series(1, ?) g";
+    private static final String SPATIAL_LOCATION = "ST_SetSRID(ST_MakePoint(-84.1 + random(), 9.9 + random()), 4326)::geography";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogSeeder(final DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void seed(final LoadTestSettings settings, final boolean spatial) {
+        final long start = System.nanoTime();
+        jdbcTemplate.update(SEED_PROVIDERS, settings.getProviders());
+        jdbcTemplate.update(SEED_BRANDS, settings.getBrands());
+        jdbcTemplate.update(SEED_PRODUCTS, settings.getProducts(), settings.getBrands());
+        jdbcTemplate.update(SEED_ASSIGNATIONS, settings.getProvidersPerProduct(), settings.getProviders());
+        jdbcTemplate.update(spatial
+                        ? String.format(SEED_WAREHOUSES, ", geolocation", ", " + SPATIAL_LOCATION)
+                        : String.format(SEED_WAREHOUSES, "", ""),
+                settings.getWarehouses());
+        for (final String table : List.of("provider", "brand", "product", "product_provider_assignation", "warehouse")) {
+            jdbcTemplate.execute("ANALYZE " + table);
+        }
+        logger.info("Catalog seeded in {} ms | {}", (System.nanoTime() - start) / 1_000_000, settings);
+    }
+
+    /**
+     * @return the ids of what was seeded, for the traffic to address existing records.
+     */
+    public Catalog catalog() {
+        final List<Map<String, Object>> products = jdbcTemplate.queryForList("SELECT product_id, upc FROM product");
+        return new Catalog(
+                jdbcTemplate.queryForList("SELECT provider_id FROM provider", String.class),
+                jdbcTemplate.queryForList("SELECT brand_id FROM brand", String.class),
+                products.stream().map(row -> (String) row.get("product_id")).collect(Collectors.toList()),
+                products.stream().map(row -> (String) row.get("upc")).collect(Collectors.toList()),
+                jdbcTemplate.queryForList("SELECT warehouse_id FROM warehouse", String.class));
+    }
+}
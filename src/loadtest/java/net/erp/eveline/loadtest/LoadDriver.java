@@ -0,0 +1,210 @@
+package net.erp.eveline.loadtest;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Closed loop traffic: every virtual user sends its next request as soon as the previous one is answered, picking a
+ * write with the configured ratio and otherwise a read, spread evenly over the endpoints of the four controllers.
+ * Latencies are only recorded once the warmup is over.
+ */
+public class LoadDriver {
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String JSON = "application/json";
+
+    private final URI baseUri;
+    private final Catalog catalog;
+    private final LoadTestSettings settings;
+    private final HttpClient httpClient;
+    private final List<Operation> reads;
+    private final List<Operation> writes;
+
+    public LoadDriver(final URI baseUri, final Catalog catalog, final LoadTestSettings settings) {
+        this.baseUri = baseUri;
+        this.catalog = catalog;
+        this.settings = settings;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.reads = List.of(
+                get("GET /product/{productId}", c -> "/product/" + c.productId(c.anyProduct())),
+                get("GET /product/upc/{upc}", c -> "/product/upc/" + c.upc(c.anyProduct())),
+                get("GET /product/provider/{providerId}", c -> "/product/provider/" + c.anyProviderId()),
+                get("GET /product/page", c -> "/product/page?size=50"),
+                get("GET /provider/{providerId}", c -> "/provider/" + c.anyProviderId()),
+                get("GET /provider/page", c -> "/provider/page?size=50&sort=LAST_MODIFIED"),
+                get("GET /brand/{brandId}", c -> "/brand/" + c.anyBrandId()),
+                get("GET /brand/page", c -> "/brand/page?size=50"),
+                get("GET /warehouse/{warehouseId}", c -> "/warehouse/" + c.anyWarehouseId()),
+                get("GET /warehouse/page", c -> "/warehouse/page?size=50"));
+        this.writes = List.of(
+                put("PUT /provider", "/provider/", LoadDriver::provider),
+                put("PUT /brand", "/brand/", LoadDriver::brand),
+                put("PUT /product", "/product/", this::product),
+                put("PUT /product/activate", "/product/activate", LoadDriver::productActivation),
+                put("PUT /warehouse", "/warehouse/", LoadDriver::warehouse));
+    }
+
+    public LoadReport run() throws InterruptedException {
+        final var report = new LoadReport(reads.stream().map(Operation::getName).collect(toList()),
+                writes.stream().map(Operation::getName).collect(toList()));
+        final long start = System.nanoTime();
+        final long measureFrom = start + settings.getWarmup().toNanos();
+        final long end = measureFrom + settings.getDuration().toNanos();
+        final var finished = new CountDownLatch(settings.getUsers());
+        logger.info("Driving {} users for {} after a warmup of {}", settings.getUsers(), settings.getDuration(),
+                settings.getWarmup());
+
+        for (int user = 0; user < settings.getUsers(); user++) {
+            final var thread = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        send(next(), report, measureFrom);
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            }, "loadtest-user-" + user);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        finished.await();
+        report.finish(Duration.ofNanos(Math.max(0, System.nanoTime() - measureFrom)));
+        return report;
+    }
+
+    private Operation next() {
+        final var random = ThreadLocalRandom.current();
+        final List<Operation> operations = random.nextDouble() < settings.getWriteRatio() ? writes : reads;
+        return operations.get(random.nextInt(operations.size()));
+    }
+
+    private void send(final Operation operation, final LoadReport report, final long measureFrom) {
+        final HttpRequest request = operation.request(catalog);
+        final long start = System.nanoTime();
+        boolean failed;
+        try {
+            final HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (final Exception ex) {
+            failed = true;
+        }
+        if (start >= measureFrom) {
+            report.record(operation.getName(), System.nanoTime() - start, failed);
+        }
+    }
+
+    private Operation get(final String name, final Function<Catalog, String> path) {
+        return new Operation(name, catalog -> HttpRequest.newBuilder(URI.create(baseUri + path.apply(catalog)))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", JSON)
+                .GET()
+                .build());
+    }
+
+    private Operation put(final String name, final String path, final Function<Catalog, ObjectNode> body) {
+        return new Operation(name, catalog -> HttpRequest.newBuilder(URI.create(baseUri + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", JSON)
+                .header("Content-Type", JSON)
+                .PUT(HttpRequest.BodyPublishers.ofString(body.apply(catalog).toString()))
+                .build());
+    }
+
+    private static ObjectNode provider(final Catalog catalog) {
+        final String providerId = catalog.anyProviderId();
+        return JsonNodeFactory.instance.objectNode()
+                .put("id", providerId)
+                .put("name", "Proveedor " + providerId)
+                .put("description", "Distribuidor de alimentos y artículos del hogar, actualizado por la prueba de carga")
+                .put("email", providerId + "@eveline.net")
+                .put("telephone1", "2" + ThreadLocalRandom.current().nextInt(1000000, 9999999))
+                .put("lastUser", "loadtest")
+                .put("enabled", true);
+    }
+
+    private static ObjectNode brand(final Catalog catalog) {
+        final String brandId = catalog.anyBrandId();
+        return JsonNodeFactory.instance.objectNode()
+                .put("id", brandId)
+                .put("name", "M" + brandId)
+                .put("description", "Marca de productos de consumo, actualizada por la prueba de carga")
+                .put("lastUser", "loadtest")
+                .put("enabled", true);
+    }
+
+    private ObjectNode product(final Catalog catalog) {
+        final int product = catalog.anyProduct();
+        final var productNode = JsonNodeFactory.instance.objectNode()
+                .put("id", catalog.productId(product))
+                .put("upc", catalog.upc(product))
+                .put("title", "Producto " + catalog.upc(product))
+                .put("description", "Presentación familiar, actualizada por la prueba de carga")
+                .put("lastUser", "loadtest")
+                .put("enabled", true);
+        productNode.putObject("brand").put("id", catalog.anyBrandId());
+        final var providerSet = productNode.putArray("providerSet");
+        for (int idx = 0; idx < settings.getProvidersPerProduct(); idx++) {
+            providerSet.addObject().put("id", catalog.anyProviderId());
+        }
+        return productNode;
+    }
+
+    private static ObjectNode productActivation(final Catalog catalog) {
+        return JsonNodeFactory.instance.objectNode()
+                .put("id", catalog.productId(catalog.anyProduct()))
+                .put("enabled", ThreadLocalRandom.current().nextBoolean())
+                .put("lastUser", "loadtest");
+    }
+
+    private static ObjectNode warehouse(final Catalog catalog) {
+        final String warehouseId = catalog.anyWarehouseId();
+        final var random = ThreadLocalRandom.current();
+        return JsonNodeFactory.instance.objectNode()
+                .put("id", warehouseId)
+                .put("name", "Bodega " + warehouseId)
+                .put("description", "Bodega regional, actualizada por la prueba de carga")
+                .put("address1", "Del parque central 200m norte")
+                .put("telephone1", "4" + random.nextInt(1000000, 9999999))
+                .put("latitude", 9.9 + random.nextDouble())
+                .put("longitude", -84.1 + random.nextDouble())
+                .put("lastUser", "loadtest")
+                .put("enabled", true);
+    }
+
+    private static class Operation {
+        private final String name;
+        private final Function<Catalog, HttpRequest> request;
+
+        private Operation(final String name, final Function<Catalog, HttpRequest> request) {
+            this.name = name;
+            this.request = request;
+        }
+
+        private String getName() {
+            return name;
+        }
+
+        private HttpRequest request(final Catalog catalog) {
+            return request.apply(catalog);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package net.erp.eveline.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Latency percentiles, throughput and errors per endpoint and for all of them together. Latencies are kept in
+ * microseconds in HDR histograms, which keep their precision at the tail without storing every sample.
+ */
+public class LoadReport {
+    private static final String ALL = "ALL";
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final String HEADER = "endpoint,requests,errors,throughput_per_second,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms";
+
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+    private Duration measured = Duration.ZERO;
+
+    public LoadReport(final List<String> reads, final List<String> writes) {
+        reads.forEach(name -> endpoints.put(name, new EndpointStats()));
+        writes.forEach(name -> endpoints.put(name, new EndpointStats()));
+        endpoints.put(ALL, new EndpointStats());
+    }
+
+    public void record(final String endpoint, final long latencyNanos, final boolean failed) {
+        final long latencyMicros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_LATENCY_MICROS);
+        endpoints.get(endpoint).record(latencyMicros, failed);
+        endpoints.get(ALL).record(latencyMicros, failed);
+    }
+
+    public void finish(final Duration measured) {
+        this.measured = measured;
+    }
+
+    public void print(final PrintStream out) {
+        out.printf("%-36s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        endpoints.forEach((name, stats) -> out.printf(Locale.ROOT, "%-36s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, stats.requests(), stats.errors(), stats.throughput(measured), stats.percentile(50),
+                stats.percentile(90), stats.percentile(99), stats.percentile(99.9), stats.max()));
+    }
+
+    public void write(final Path file) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        endpoints.forEach((name, stats) -> lines.add(String.format(Locale.ROOT, "\"%s\",%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f",
+                name, stats.requests(), stats.errors(), stats.throughput(measured), stats.percentile(50),
+                stats.percentile(90), stats.percentile(99), stats.percentile(99.9), stats.max())));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, lines, UTF_8);
+    }
+
+    private static class EndpointStats {
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        private void record(final long latencyMicros, final boolean failed) {
+            latencies.recordValue(latencyMicros);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        private long requests() {
+            return latencies.getTotalCount();
+        }
+
+        private long errors() {
+            return errors.sum();
+        }
+
+        private double throughput(final Duration measured) {
+            return measured.isZero() ? 0 : requests() * 1_000_000_000d / measured.toNanos();
+        }
+
+        private double percentile(final double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1000d;
+        }
+
+        private double max() {
+            return latencies.getMaxValue() / 1000d;
+        }
+    }
+}
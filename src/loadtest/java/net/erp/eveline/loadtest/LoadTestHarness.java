@@ -0,0 +1,50 @@
+package net.erp.eveline.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.erp.eveline.EvelineApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the application against an embedded PostgreSQL seeded with a configurable catalog and drives mixed traffic at
+ * it, all in one process and without network access once the build dependencies are in the local repository. The
+ * report is printed and written as csv to {@code loadtest.report}.
+ */
+public class LoadTestHarness {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestHarness.class);
+    private static final String DATABASE = "postgres";
+
+    public static void main(final String[] args) throws Exception {
+        final var settings = LoadTestSettings.fromSystemProperties();
+        try (var postgres = EmbeddedPostgres.builder().start()) {
+            final boolean spatial = new SchemaLoader(postgres.getPostgresDatabase()).load(settings.getSchema());
+            final var seeder = new CatalogSeeder(postgres.getPostgresDatabase());
+            seeder.seed(settings, spatial);
+            final var catalog = seeder.catalog();
+
+            final Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgres.getJdbcUrl(DATABASE, DATABASE));
+            properties.put("spring.datasource.username", DATABASE);
+            properties.put("spring.datasource.password", "");
+            if (!spatial) {
+                properties.put("spring.jpa.mapping-resources", "META-INF/loadtest-orm.xml");
+            }
+            try (var application = new SpringApplicationBuilder(EvelineApplication.class)
+                    .profiles("loadtest")
+                    .properties(properties)
+                    .run(args)) {
+                final int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+                final var report = new LoadDriver(URI.create("http://localhost:" + port + "/eveline-erp"), catalog, settings).run();
+                report.print(System.out);
+                report.write(settings.getReport());
+                logger.info("Load test report written to {}", settings.getReport().toAbsolutePath());
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package net.erp.eveline.loadtest;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Volume of the seeded catalog and shape of the traffic, read from {@code loadtest.*} system properties.
+ */
+public class LoadTestSettings {
+    private final Path schema;
+    private final int providers;
+    private final int brands;
+    private final int products;
+    private final int providersPerProduct;
+    private final int warehouses;
+    private final int users;
+    private final Duration warmup;
+    private final Duration duration;
+    private final double writeRatio;
+    private final Path report;
+
+    private LoadTestSettings(final Path schema,
+                             final int providers,
+                             final int brands,
+                             final int products,
+                             final int providersPerProduct,
+                             final int warehouses,
+                             final int users,
+                             final Duration warmup,
+                             final Duration duration,
+                             final double writeRatio,
+                             final Path report) {
+        this.schema = schema;
+        this.providers = providers;
+        this.brands = brands;
+        this.products = products;
+        this.providersPerProduct = Math.min(providersPerProduct, providers);
+        this.warehouses = warehouses;
+        this.users = users;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.writeRatio = writeRatio;
+        this.report = report;
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Path.of(property("schema", "EvelineDB_script.sql")),
+                Integer.parseInt(property("providers", "1000")),
+                Integer.parseInt(property("brands", "200")),
+                Integer.parseInt(property("products", "20000")),
+                Integer.parseInt(property("providers-per-product", "3")),
+                Integer.parseInt(property("warehouses", "50")),
+                Integer.parseInt(property("users", "16")),
+                DurationStyle.detectAndParse(property("warmup", "10s")),
+                DurationStyle.detectAndParse(property("duration", "60s")),
+                Double.parseDouble(property("write-ratio", "0.2")),
+                Path.of(property("report", "target/loadtest-report.csv")));
+    }
+
+    private static String property(final String name, final String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    public Path getSchema() {
+        return schema;
+    }
+
+    public int getProviders() {
+        return providers;
+    }
+
+    public int getBrands() {
+        return brands;
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    public int getProvidersPerProduct() {
+        return providersPerProduct;
+    }
+
+    public int getWarehouses() {
+        return warehouses;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public double getWriteRatio() {
+        return writeRatio;
+    }
+
+    public Path getReport() {
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.JSON_STYLE)
+                .append("providers", providers)
+                .append("brands", brands)
+                .append("products", products)
+                .append("providersPerProduct", providersPerProduct)
+                .append("warehouses", warehouses)
+                .append("users", users)
+                .append("warmup", warmup)
+                .append("duration", duration)
+                .append("writeRatio", writeRatio)
+                .toString();
+    }
+}
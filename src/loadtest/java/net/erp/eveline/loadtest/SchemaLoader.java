@@ -0,0 +1,115 @@
+package net.erp.eveline.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Creates the catalog schema in the embedded database from the same script used for the real one. The script creates
+ * its own database, which is skipped since the embedded one is used as it is. The embedded binaries may come without
+ * PostGIS, in which case the warehouse location is kept in a plain column and left out of the mapping.
+ */
+public class SchemaLoader {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaLoader.class);
+    private static final String SPATIAL_COLUMN = "GEOGRAPHY(Point) NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaLoader(final DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * @return whether PostGIS is available and the warehouse location can be mapped.
+     */
+    public boolean load(final Path script) throws IOException {
+        boolean spatial = true;
+        for (final String statement : split(Files.readString(script, UTF_8))) {
+            final String upperCase = statement.toUpperCase();
+            if (upperCase.startsWith("CREATE DATABASE") || upperCase.startsWith("GRANT CONNECT ON DATABASE")) {
+                continue;
+            }
+            if (upperCase.startsWith("CREATE EXTENSION POSTGIS")) {
+                spatial = createSpatialExtension();
+                continue;
+            }
+            jdbcTemplate.execute(spatial ? statement : statement.replace(SPATIAL_COLUMN, "bytea"));
+        }
+        return spatial;
+    }
+
+    private boolean createSpatialExtension() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS postgis");
+            return true;
+        } catch (final DataAccessException ex) {
+            logger.warn("PostGIS is not available in the embedded database, warehouse locations are not stored | Cause: {}",
+                    ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Splits the script on the semicolons outside of comments, quotes and the dollar quoted function bodies.
+     */
+    static List<String> split(final String script) {
+        final List<String> statements = new ArrayList<>();
+        final var statement = new StringBuilder();
+        String dollarQuote = null;
+        boolean quoted = false;
+        int idx = 0;
+        while (idx < script.length()) {
+            final char c = script.charAt(idx);
+            if (dollarQuote != null) {
+                if (script.startsWith(dollarQuote, idx)) {
+                    statement.append(dollarQuote);
+                    idx += dollarQuote.length();
+                    dollarQuote = null;
+                    continue;
+                }
+            } else if (quoted) {
+                quoted = c != '\'';
+            } else if (c == '\'') {
+                quoted = true;
+            } else if (c == '-' && script.startsWith("--", idx)) {
+                final int lineEnd = script.indexOf('\n', idx);
+                idx = lineEnd < 0 ? script.length() : lineEnd;
+                continue;
+            } else if (c == '$') {
+                final int tagEnd = script.indexOf('$', idx + 1);
+                if (tagEnd > 0 && script.substring(idx + 1, tagEnd).matches("\\w*")) {
+                    dollarQuote = script.substring(idx, tagEnd + 1);
+                    statement.append(dollarQuote);
+                    idx = tagEnd + 1;
+                    continue;
+                }
+            } else if (c == ';') {
+                addStatement(statements, statement);
+                idx++;
+                continue;
+            }
+            statement.append(c);
+            idx++;
+        }
+        addStatement(statements, statement);
+        return statements;
+    }
+
+    private static void addStatement(final List<String> statements, final StringBuilder statement) {
+        final String trimmed = statement.toString().trim();
+        if (!trimmed.isEmpty()) {
+            statements.add(trimmed);
+        }
+        statement.setLength(0);
+    }
+}
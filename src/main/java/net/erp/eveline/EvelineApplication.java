@@ -6,11 +6,9 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
-import org.springframework.retry.annotation.EnableRetry;
 
 @Configuration
 @EnableAdminServer
-@EnableRetry
 @SpringBootApplication
 @Import({SecurityConfig.class})
 public class EvelineApplication {
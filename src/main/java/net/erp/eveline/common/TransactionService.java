@@ -1,129 +1,223 @@
 package net.erp.eveline.common;
 
-import io.sentry.Sentry;
 import net.erp.eveline.common.exception.NonRetryableException;
 import net.erp.eveline.common.exception.RetryableException;
 import net.erp.eveline.common.exception.ServiceException;
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+import net.erp.eveline.common.execution.Futures;
+import net.erp.eveline.common.execution.RequestClient;
+import net.erp.eveline.common.limit.ConcurrencyLimiter;
+import net.erp.eveline.common.limit.ConcurrencyLimiter.Permit;
+import net.erp.eveline.common.retry.CircuitBreaker;
+import net.erp.eveline.common.retry.RetryBudget;
+import net.erp.eveline.common.retry.RetryPolicy;
+import net.erp.eveline.common.transaction.PayloadLogSampler;
+import net.erp.eveline.common.transaction.TransactionMetrics;
+import net.erp.eveline.common.transaction.TransactionMetrics.Outcome;
+import net.erp.eveline.common.transaction.TransactionProfile;
+import net.erp.eveline.common.transaction.TransactionProfileRegistry;
+import net.erp.eveline.common.transaction.TransactionProfiles;
+import net.erp.eveline.configuration.datasource.PriorityRoutingDataSource;
+import net.erp.eveline.configuration.datasource.ReplicaRoutingDataSource;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.JDBCConnectionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
-import org.springframework.retry.RetryCallback;
-import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.OptimisticLockException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TransactionService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
 
-    private TransactionTemplate readOnlyTransactionTemplate;
-    private TransactionTemplate writeTransactionTemplate;
-    private RetryTemplate retryTemplate;
+    private TransactionProfileRegistry transactionProfileRegistry;
+    private TransactionMetrics transactionMetrics;
+    private PayloadLogSampler payloadLogSampler;
+    private RetryPolicy retryPolicy;
+    private RetryBudget retryBudget;
+    private CircuitBreaker circuitBreaker;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private ScheduledExecutorService retryScheduler;
+    private Executor retryExecutor;
 
-    public <T, B> T performWriteTransaction(final TransactionCallback<T> callback, final B parameter) {
-        return performTransaction(writeTransactionTemplate, callback, parameter);
+    public <T, B> T performWriteTransaction(final String operation, final TransactionCallback<T> callback, final B parameter) {
+        return performTransaction(operation, TransactionProfiles.WRITE, callback, parameter);
     }
 
-    public <B> void performWriteTransactionWithoutResult(final TransactionCallback<Object> callbackWithoutResult, final B parameter) {
-        performTransactionWithoutResult(writeTransactionTemplate, callbackWithoutResult, parameter);
+    public <T, B> CompletableFuture<T> performWriteTransactionAsync(final String operation, final TransactionCallback<T> callback, final B parameter) {
+        return performTransactionAsync(operation, TransactionProfiles.WRITE, callback, parameter);
     }
 
-    public <T, B> T performReadOnlyTransaction(final TransactionCallback<T> callback, final B parameter) {
-        return performTransaction(readOnlyTransactionTemplate, callback, parameter);
+    public <B> void performWriteTransactionWithoutResult(final String operation, final TransactionCallback<Object> callbackWithoutResult, final B parameter) {
+        performTransaction(operation, TransactionProfiles.WRITE, callbackWithoutResult, parameter);
     }
 
-    private <T, B> T performTransaction(final TransactionTemplate transactionTemplate, final TransactionCallback<T> callback, final B parameter) {
-        var parameterSanitized = (parameter == null) ? "null" : parameter.toString();
+    public <T, B> T performReadOnlyTransaction(final String operation, final TransactionCallback<T> callback, final B parameter) {
+        return performTransaction(operation, TransactionProfiles.READ, callback, parameter);
+    }
+
+    /**
+     * Runs a read only transaction exactly once. Meant for streaming reads whose rows are already written to the
+     * client as they are fetched, where a retry would duplicate the output.
+     */
+    public <B> void performReadOnlyTransactionWithoutRetry(final String operation, final TransactionCallback<Object> callback, final B parameter) {
+        performTransactionWithoutRetry(operation, transactionProfileRegistry.resolve(TransactionProfiles.STREAMING_READ), callback, parameter);
+    }
+
+    /**
+     * Runs a write transaction exactly once. Meant for operations that consume their input while running, like a
+     * streamed import body, which cannot be replayed on a retry.
+     */
+    public <T, B> T performWriteTransactionWithoutRetry(final String operation, final TransactionCallback<T> callback, final B parameter) {
+        return performTransactionWithoutRetry(operation, transactionProfileRegistry.resolve(TransactionProfiles.BULK_WRITE), callback, parameter);
+    }
+
+    /**
+     * Runs the transaction with the isolation, timeouts, routing and attempts of the given profile, as resolved by the
+     * {@link TransactionProfileRegistry}, on a connection of the pool of its priority. The operation names the call in
+     * the logs and metrics, the parameter is only rendered for the sampled debug payloads. The caller still waits for
+     * the retries and their pauses, only {@link #performTransactionAsync} lets it go.
+     */
+    public <T, B> T performTransaction(final String operation, final TransactionProfile profile, final TransactionCallback<T> callback, final B parameter) {
+        final var resolvedProfile = transactionProfileRegistry.resolve(profile);
+        if (!resolvedProfile.isRetryable()) {
+            return performTransactionWithoutRetry(operation, resolvedProfile, callback, parameter);
+        }
+        return Futures.join(new RetryingTransaction<>(operation, resolvedProfile, callback, parameter).start());
+    }
+
+    /**
+     * Same as {@link #performTransaction}, but the retries do not keep the caller waiting: the first attempt runs on
+     * the calling thread and, when it has to be retried, the future is completed by the attempts scheduled after it.
+     * Meant for the handlers of the controllers, which hand the future to Spring MVC.
+     */
+    public <T, B> CompletableFuture<T> performTransactionAsync(final String operation, final TransactionProfile profile, final TransactionCallback<T> callback, final B parameter) {
+        final var resolvedProfile = transactionProfileRegistry.resolve(profile);
+        if (!resolvedProfile.isRetryable()) {
+            try {
+                return CompletableFuture.completedFuture(performTransactionWithoutRetry(operation, resolvedProfile, callback, parameter));
+            } catch (final RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }
+        return new RetryingTransaction<>(operation, resolvedProfile, callback, parameter).start();
+    }
+
+    private <T, B> T performTransactionWithoutRetry(final String operation, final TransactionProfile profile, final TransactionCallback<T> callback, final B parameter) {
+        final long start = System.nanoTime();
+        final TransactionTemplate transactionTemplate = transactionProfileRegistry.templateFor(profile);
+        final Permit permit = acquirePermission(operation, profile, start, 0);
         try {
-            return retryTemplate.execute((RetryCallback<T, Throwable>) context -> {
-                try {
-                    logger.info("Executing transaction for: {}", parameterSanitized);
-                    return transactionTemplate.execute(callback);
-                } catch (final Throwable ex) {
-                    var message = "";
-                    if (canRetry(ex)) {
-                        message = String.format("Transaction is going to be retried for: %s | Cause: %s", parameterSanitized, ex.getMessage());
-                        logger.warn(message, ex);
-                        throw new RetryableException(message, ex);
-                    } else {
-                        message = String.format("Transaction is not possible to retry for: %s | Cause: %s", parameterSanitized, ex.getMessage());
-                        logger.warn(message, ex);
-                        throw new NonRetryableException(message, ex);
-                    }
-                }
-            });
-        } catch (RetryableException | NonRetryableException ex) {
-            var message = String.format("Unable to process request probably due to exhaust for: %s", parameterSanitized);
-            logger.warn(message, ex);
-            if (ex instanceof RetryableException) {
-                var retryableEx = new RetryableException(message, ex);
-                Sentry.captureException(retryableEx);
-                throw retryableEx;
-            } else {
-                var nonRetryableEx = new NonRetryableException(message, ex);
-                Sentry.captureException(nonRetryableEx);
-                throw nonRetryableEx;
+            logPayload(operation, parameter);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Executing transaction without retry operation={} profile={}", operation, profile.getName());
             }
-        } catch (Throwable ex) {
-            var message = String.format("Unexpected exception occurred. Unable to perform transaction for: %s | Cause: %s", parameterSanitized, ex.getMessage());
-            logger.warn(message, ex);
-            var serviceEx = new ServiceException(message, ex);
-            Sentry.captureException(serviceEx);
-            throw serviceEx;
+            final T result = PriorityRoutingDataSource.callWith(profile.getPriority(),
+                    () -> transactionTemplate.execute(withProfile(profile, callback)));
+            circuitBreaker.recordSuccess();
+            transactionMetrics.record(operation, Outcome.SUCCESS, 1, start);
+            return result;
+        } catch (final Throwable ex) {
+            recordOutcome(ex, permit);
+            transactionMetrics.record(operation, Outcome.NON_RETRYABLE, 1, start);
+            var nonRetryableEx = new NonRetryableException(failureMessage("is not possible to retry", operation, ex), ex);
+            logger.warn(nonRetryableEx.getMessage(), ex);
+            throw nonRetryableEx;
+        } finally {
+            permit.release();
         }
     }
 
-    private <B> Void performTransactionWithoutResult(final TransactionTemplate transactionTemplate, final TransactionCallback<Object> callback, final B parameter) {
-        var parameterSanitized = (parameter == null) ? "null" : parameter.toString();
+    // Both run before the first statement: the routing is decided when the connection is fetched and the statement
+    // timeout only applies to the statements after it.
+    private <T> TransactionCallback<T> withProfile(final TransactionProfile profile, final TransactionCallback<T> callback) {
+        return status -> {
+            if (profile.isReadOnly() && !profile.isReplicaEligible()) {
+                ReplicaRoutingDataSource.requirePrimary();
+            }
+            transactionProfileRegistry.applyStatementTimeout(profile);
+            return callback.doInTransaction(status);
+        };
+    }
+
+    private boolean canAttemptAfter(final TransactionProfile profile, final int attempts) {
+        return profile.getMaxAttempts() == null
+                ? retryPolicy.canAttemptAfter(attempts)
+                : attempts < profile.getMaxAttempts();
+    }
+
+    // The limiter goes first: a half open breaker lets a single probe through, which must not be lost to a rejection
+    // of the limiter after it.
+    private Permit acquirePermission(final String operation, final TransactionProfile profile, final long start, final int attempts) {
+        Permit permit = null;
         try {
-            return retryTemplate.execute((RetryCallback<Void, Throwable>) context -> {
-                try {
-                    logger.info("Executing transaction without result for: {}", parameterSanitized);
-                    transactionTemplate.execute(callback);
-                    return null;
-                } catch (final Throwable ex) {
-                    var message = "";
-                    if (canRetry(ex)) {
-                        message = String.format("Transaction is going to be retried for: %s | Cause: %s", parameterSanitized, ex.getMessage());
-                        logger.warn(message, ex);
-                        throw new RetryableException(message, ex);
-                    } else {
-                        message = String.format("Transaction is not possible to retry for: %s | Cause: %s", parameterSanitized, ex.getMessage());
-                        logger.warn(message, ex);
-                        throw new NonRetryableException(message, ex);
-                    }
-                }
-            });
-        } catch (RetryableException | NonRetryableException ex) {
-            var message = String.format("Unable to process request probably due to exhaust for: %s", parameterSanitized);
-            logger.warn(message, ex);
-            if (ex instanceof RetryableException) {
-                var retryableEx = new RetryableException(message, ex);
-                Sentry.captureException(retryableEx);
-                throw retryableEx;
-            } else {
-                var nonRetryableEx = new NonRetryableException(message, ex);
-                Sentry.captureException(nonRetryableEx);
-                throw nonRetryableEx;
+            permit = concurrencyLimiter.acquire(profile.getPriority());
+            circuitBreaker.acquirePermission();
+            return permit;
+        } catch (final ServiceUnavailableException ex) {
+            if (permit != null) {
+                permit.cancel();
             }
-        } catch (Throwable ex) {
-            var message = String.format("Unexpected exception occurred. Unable to perform transaction for: %s | Cause: %s", parameterSanitized, ex.getMessage());
-            logger.warn(message, ex);
-            var serviceEx = new ServiceException(message, ex);
-            Sentry.captureException(serviceEx);
-            throw serviceEx;
+            transactionMetrics.record(operation, Outcome.REJECTED, attempts, start);
+            throw ex;
+        }
+    }
+
+    private <B> void logPayload(final String operation, final B parameter) {
+        if (payloadLogSampler.shouldLog(logger)) {
+            logger.debug("Transaction payload operation={} payload={}", operation, parameter);
+        }
+    }
+
+    private ServiceException exhausted(final String operation, final ServiceException cause) {
+        var message = "Unable to process request probably due to exhaust for: " + operation;
+        logger.warn(message, cause);
+        return cause instanceof RetryableException
+                ? new RetryableException(message, cause)
+                : new NonRetryableException(message, cause);
+    }
+
+    // Only built once a transaction gives up, and without the payload, which is kept out of messages sent to clients.
+    private static String failureMessage(final String reason, final String operation, final Throwable ex) {
+        return "Transaction " + reason + " for: " + operation + " | Cause: " + ex.getMessage();
+    }
+
+    private void recordOutcome(final Throwable ex, final Permit permit) {
+        if (isDatabaseUnavailable(ex)) {
+            circuitBreaker.recordFailure();
+            permit.markDropped();
+        } else {
+            circuitBreaker.recordSuccess();
         }
     }
 
+    private static boolean isDatabaseUnavailable(final Throwable ex) {
+        return ExceptionUtils.getThrowableList(ex)
+                .stream()
+                .anyMatch(cause -> cause instanceof CannotCreateTransactionException ||
+                        cause instanceof DataAccessResourceFailureException ||
+                        cause instanceof JDBCConnectionException ||
+                        cause instanceof SQLTransientConnectionException);
+    }
+
     private static boolean canRetry(final DataIntegrityViolationException ex) {
         return ex != null &&
                 ex.getCause() instanceof ConstraintViolationException;
@@ -138,17 +232,158 @@ public class TransactionService {
     }
 
     @Autowired
-    public void setReadOnlyTransactionTemplate(final TransactionTemplate readOnlyTransactionTemplate) {
-        this.readOnlyTransactionTemplate = readOnlyTransactionTemplate;
+    public void setTransactionProfileRegistry(final TransactionProfileRegistry transactionProfileRegistry) {
+        this.transactionProfileRegistry = transactionProfileRegistry;
+    }
+
+    @Autowired
+    public void setTransactionMetrics(final TransactionMetrics transactionMetrics) {
+        this.transactionMetrics = transactionMetrics;
+    }
+
+    @Autowired
+    public void setPayloadLogSampler(final PayloadLogSampler payloadLogSampler) {
+        this.payloadLogSampler = payloadLogSampler;
     }
 
     @Autowired
-    public void setWriteTransactionTemplate(final TransactionTemplate writeTransactionTemplate) {
-        this.writeTransactionTemplate = writeTransactionTemplate;
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
     }
 
     @Autowired
-    public void setRetryTemplate(final RetryTemplate retryTemplate) {
-        this.retryTemplate = retryTemplate;
+    public void setRetryBudget(final RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    @Autowired
+    public void setCircuitBreaker(final CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Autowired
+    public void setConcurrencyLimiter(final ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Autowired
+    public void setRetryScheduler(@Qualifier("transactionRetryScheduler") final ScheduledExecutorService retryScheduler) {
+        this.retryScheduler = retryScheduler;
+    }
+
+    @Autowired
+    public void setRetryExecutor(@Qualifier("transactionRetryExecutor") final Executor retryExecutor) {
+        this.retryExecutor = retryExecutor;
+    }
+
+    /**
+     * The attempts of a retryable transaction. Each one holds a permit of the concurrency limit only while it runs and
+     * the pauses between them are scheduled on the retry scheduler, which hands the next attempt to the retry
+     * executor, so neither a thread nor a permit is held while waiting. The pauses are skipped entirely once the budget or the breaker stop the
+     * retries.
+     */
+    private final class RetryingTransaction<T, B> {
+        private final String operation;
+        private final TransactionProfile profile;
+        private final TransactionTemplate transactionTemplate;
+        private final TransactionCallback<T> callback;
+        private final B parameter;
+        private final long start = System.nanoTime();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private int attempts;
+
+        private RetryingTransaction(final String operation, final TransactionProfile profile, final TransactionCallback<T> callback, final B parameter) {
+            this.operation = operation;
+            this.profile = profile;
+            this.transactionTemplate = transactionProfileRegistry.templateFor(profile);
+            this.callback = withProfile(profile, callback);
+            this.parameter = parameter;
+        }
+
+        private CompletableFuture<T> start() {
+            attempt();
+            return result;
+        }
+
+        private void attempt() {
+            final Permit permit;
+            try {
+                permit = acquirePermission(operation, profile, start, attempts);
+            } catch (final ServiceUnavailableException ex) {
+                result.completeExceptionally(ex);
+                return;
+            }
+            attempts++;
+            T value = null;
+            Throwable failure = null;
+            try {
+                if (attempts == 1) {
+                    retryBudget.recordCall();
+                    logPayload(operation, parameter);
+                }
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Executing transaction operation={} profile={} attempt={}", operation, profile.getName(), attempts);
+                }
+                value = PriorityRoutingDataSource.callWith(profile.getPriority(), () -> transactionTemplate.execute(callback));
+                circuitBreaker.recordSuccess();
+            } catch (final Throwable ex) {
+                recordOutcome(ex, permit);
+                failure = ex;
+            } finally {
+                permit.release();
+            }
+            if (failure == null) {
+                transactionMetrics.record(operation, Outcome.SUCCESS, attempts, start);
+                result.complete(value);
+            } else {
+                retryOrFail(failure);
+            }
+        }
+
+        private void retryOrFail(final Throwable ex) {
+            if (!canRetry(ex)) {
+                transactionMetrics.record(operation, Outcome.NON_RETRYABLE, attempts, start);
+                result.completeExceptionally(exhausted(operation, new NonRetryableException(failureMessage("is not possible to retry", operation, ex), ex)));
+                return;
+            }
+            if (!canAttemptAfter(profile, attempts) || !circuitBreaker.isClosed() || !retryBudget.tryAcquireRetry()) {
+                transactionMetrics.record(operation, Outcome.RETRYABLE, attempts, start);
+                result.completeExceptionally(exhausted(operation, new RetryableException(failureMessage("ran out of retries", operation, ex), ex)));
+                return;
+            }
+            logger.warn("Transaction is going to be retried operation={} attempt={} cause={}", operation, attempts, ex.getMessage());
+            transactionMetrics.countRetry(operation);
+            try {
+                // The client of the request goes along, its reads after the retried write must stay on the primary.
+                final Runnable retry = RequestClient.wrap(this::retry);
+                retryScheduler.schedule(() -> resume(retry, ex), retryPolicy.backOffMillis(attempts), TimeUnit.MILLISECONDS);
+            } catch (final RejectedExecutionException rejectedEx) {
+                interrupted(ex);
+            }
+        }
+
+        // The scheduler only waits out the pause, the attempt runs on the retry executor so a slow one cannot hold back
+        // the timers of the others.
+        private void resume(final Runnable retry, final Throwable ex) {
+            try {
+                retryExecutor.execute(retry);
+            } catch (final RejectedExecutionException rejectedEx) {
+                interrupted(ex);
+            }
+        }
+
+        private void interrupted(final Throwable ex) {
+            transactionMetrics.record(operation, Outcome.RETRYABLE, attempts, start);
+            result.completeExceptionally(exhausted(operation, new RetryableException(failureMessage("was interrupted", operation, ex), ex)));
+        }
+
+        // Nothing thrown on the retry executor may be lost, the caller is waiting on the future.
+        private void retry() {
+            try {
+                attempt();
+            } catch (final RuntimeException | Error ex) {
+                result.completeExceptionally(ex);
+            }
+        }
     }
 }
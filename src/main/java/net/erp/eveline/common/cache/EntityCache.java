@@ -0,0 +1,363 @@
+package net.erp.eveline.common.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded cache of the models of a small, read heavy table, with W-TinyLFU eviction. New entries go through a
+ * small LRU window; the entry leaving the window only stays when the frequency sketch has seen its key more often than
+ * the entry the main space would evict for it. The main space is a segmented LRU: entries hit again move from the
+ * probation to the protected segment. Entries expire once they are older than the time to live, whatever their use.
+ * <p>
+ * Writers invalidate the keys they changed once their transaction commits. Every invalidation moves the generation of
+ * the cache, and a value loaded while it moved is returned but not stored, since it may have been read before the
+ * commit. A single lock guards the cache, it is held for a map lookup and a few link updates and never while loading.
+ */
+public class EntityCache<K, V> {
+    public static final String GETS_COUNTER = "eveline.cache.gets";
+    public static final String EVICTIONS_COUNTER = "eveline.cache.evictions";
+    public static final String SIZE_GAUGE = "eveline.cache.size";
+    public static final String MEMORY_GAUGE = "eveline.cache.memory";
+
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    // A HashMap entry, the node and its links, on top of what the footprint of the value estimates.
+    private static final long ENTRY_BYTES = 80;
+
+    private final String name;
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final long timeToLive;
+    private final ToLongFunction<V> footprint;
+    private final LongSupplier nanoClock;
+    private final FrequencySketch sketch;
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    private final Segment<K, V> window = new Segment<>();
+    private final Segment<K, V> probation = new Segment<>();
+    private final Segment<K, V> protectedSegment = new Segment<>();
+
+    private long generation;
+    private long estimatedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public EntityCache(final String name, final int maximumSize, final Duration timeToLive,
+                       final ToLongFunction<V> footprint, final MeterRegistry meterRegistry) {
+        this(name, maximumSize, timeToLive, footprint, meterRegistry, System::nanoTime);
+    }
+
+    EntityCache(final String name, final int maximumSize, final Duration timeToLive, final ToLongFunction<V> footprint,
+                final MeterRegistry meterRegistry, final LongSupplier nanoClock) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size of a cache must be at least 1.");
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize * WINDOW_PERCENT / 100);
+        this.protectedMaximum = (maximumSize - windowMaximum) * PROTECTED_PERCENT / 100;
+        this.timeToLive = timeToLive.toNanos();
+        this.footprint = footprint;
+        this.nanoClock = nanoClock;
+        this.sketch = new FrequencySketch(maximumSize);
+
+        FunctionCounter.builder(GETS_COUNTER, this, EntityCache::getHits)
+                .description("Lookups of the cache that found a live entry")
+                .tags("cache", name, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder(GETS_COUNTER, this, EntityCache::getMisses)
+                .description("Lookups of the cache that had to load the entry")
+                .tags("cache", name, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder(EVICTIONS_COUNTER, this, EntityCache::getEvictions)
+                .description("Entries evicted to keep the cache within its maximum size")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder(SIZE_GAUGE, this, EntityCache::getSize)
+                .description("Entries in the cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder(MEMORY_GAUGE, this, EntityCache::getEstimatedBytes)
+                .description("Estimated heap used by the entries of the cache")
+                .tag("cache", name)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the live value of the key, null when it is missing or expired.
+     */
+    public synchronized V getIfPresent(final K key) {
+        sketch.increment(key);
+        final Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        if (nanoClock.getAsLong() - node.written > timeToLive) {
+            remove(node);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        onHit(node);
+        return node.value;
+    }
+
+    /**
+     * Returns the value of the key, loading it on a miss. Null loads are returned without being stored.
+     */
+    public V get(final K key, final Function<K, V> loader) {
+        final V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final long loadGeneration = getGeneration();
+        final V loaded = loader.apply(key);
+        if (loaded != null) {
+            put(key, loaded, loadGeneration);
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(final Collection<K> keys) {
+        generation++;
+        for (final K key : keys) {
+            final Node<K, V> node = nodes.get(key);
+            if (node != null) {
+                remove(node);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the keys once the current transaction commits, or right away outside of one. A transaction rolled
+     * back changed nothing and leaves the cache as it was.
+     */
+    public void invalidateAfterCommit(final Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(keys);
+            return;
+        }
+        final List<K> committedKeys = List.copyOf(keys);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(committedKeys);
+            }
+        });
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        nodes.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        estimatedBytes = 0;
+    }
+
+    private synchronized void put(final K key, final V value, final long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        final Node<K, V> existing = nodes.get(key);
+        if (existing != null) {
+            final long bytes = footprint.applyAsLong(value);
+            estimatedBytes += bytes - existing.bytes;
+            existing.value = value;
+            existing.bytes = bytes;
+            existing.written = nanoClock.getAsLong();
+            onHit(existing);
+            return;
+        }
+        final var node = new Node<>(key, value, footprint.applyAsLong(value), nanoClock.getAsLong());
+        nodes.put(key, node);
+        estimatedBytes += node.bytes;
+        window.addLast(node);
+        if (window.size > windowMaximum) {
+            final Node<K, V> candidate = window.removeFirst();
+            probation.addLast(candidate);
+            if (nodes.size() > maximumSize) {
+                evictAgainst(candidate);
+            }
+        }
+    }
+
+    /**
+     * The candidate just left the window: it takes the place of the coldest entry of the main space only when its key
+     * is more frequent, otherwise the candidate is the one evicted.
+     */
+    private void evictAgainst(final Node<K, V> candidate) {
+        Node<K, V> victim = probation.first();
+        if (victim == candidate) {
+            victim = protectedSegment.first() != null ? protectedSegment.first() : candidate;
+        }
+        if (victim != candidate && nanoClock.getAsLong() - victim.written <= timeToLive
+                && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+            victim = candidate;
+        }
+        remove(victim);
+        evictions++;
+    }
+
+    private void onHit(final Node<K, V> node) {
+        if (node.segment == probation) {
+            probation.remove(node);
+            protectedSegment.addLast(node);
+            if (protectedSegment.size > protectedMaximum) {
+                probation.addLast(protectedSegment.removeFirst());
+            }
+        } else {
+            node.segment.moveToLast(node);
+        }
+    }
+
+    private void remove(final Node<K, V> node) {
+        nodes.remove(node.key);
+        node.segment.remove(node);
+        estimatedBytes -= node.bytes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public Duration getTimeToLive() {
+        return Duration.ofNanos(timeToLive);
+    }
+
+    public synchronized int getSize() {
+        return nodes.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes + nodes.size() * ENTRY_BYTES;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized double getHitRatio() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    private synchronized long getGeneration() {
+        return generation;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private long bytes;
+        private long written;
+        private Segment<K, V> segment;
+        private Node<K, V> previous;
+        private Node<K, V> next;
+
+        private Node(final K key, final V value, final long bytes, final long written) {
+            this.key = key;
+            this.value = value;
+            this.bytes = bytes;
+            this.written = written;
+        }
+    }
+
+    /**
+     * A doubly linked list of nodes, least recently used first.
+     */
+    private static final class Segment<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+        private int size;
+
+        private Node<K, V> first() {
+            return head;
+        }
+
+        private void addLast(final Node<K, V> node) {
+            node.segment = this;
+            node.previous = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        private Node<K, V> removeFirst() {
+            final Node<K, V> node = head;
+            remove(node);
+            return node;
+        }
+
+        private void moveToLast(final Node<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        private void remove(final Node<K, V> node) {
+            if (node.previous == null) {
+                head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            node.segment = null;
+            size--;
+        }
+
+        private void clear() {
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+}
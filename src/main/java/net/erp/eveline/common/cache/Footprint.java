@@ -0,0 +1,37 @@
+package net.erp.eveline.common.cache;
+
+/**
+ * Rough heap sizes of the cached models, for the memory gauge of the caches. They assume compressed references and
+ * Latin-1 strings, shared values such as booleans and zone offsets are not counted.
+ */
+public final class Footprint {
+    // The OffsetDateTime, its LocalDateTime and the LocalDate and LocalTime of that.
+    public static final long OFFSET_DATE_TIME = 96;
+
+    private static final long OBJECT_HEADER = 12;
+    private static final long REFERENCE = 4;
+    private static final long STRING = 24;
+    private static final long ARRAY_HEADER = 16;
+
+    private Footprint() {
+    }
+
+    /**
+     * The size of a model with the given number of reference fields, plus the strings among them.
+     */
+    public static long of(final int referenceFields, final String... strings) {
+        long bytes = align(OBJECT_HEADER + REFERENCE * referenceFields);
+        for (final String string : strings) {
+            bytes += of(string);
+        }
+        return bytes;
+    }
+
+    public static long of(final String string) {
+        return string == null ? 0 : STRING + align(ARRAY_HEADER + string.length());
+    }
+
+    private static long align(final long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
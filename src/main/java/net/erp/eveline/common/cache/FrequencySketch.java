@@ -0,0 +1,81 @@
+package net.erp.eveline.common.cache;
+
+/**
+ * Approximate access counts of the keys, seen and unseen, used to decide which entries are worth keeping: a count-min
+ * sketch of four 4 bit counters per key. Once the keys counted reach ten times the size of the cache every counter is
+ * halved, so the counts follow the recent popularity of the keys instead of their whole history. Not thread safe, the
+ * cache guards it.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(final int maximumSize) {
+        final int capacity = Integer.highestOneBit(Math.max(8, maximumSize - 1) << 1);
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = 10 * Math.max(1, maximumSize);
+    }
+
+    int frequency(final Object key) {
+        final int hash = spread(key.hashCode());
+        final int start = (hash & 3) << 2;
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            final int offset = (start + row) << 2;
+            frequency = Math.min(frequency, (int) ((table[indexOf(hash, row)] >>> offset) & 0xfL));
+        }
+        return frequency;
+    }
+
+    void increment(final Object key) {
+        final int hash = spread(key.hashCode());
+        final int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            added |= incrementAt(indexOf(hash, row), (start + row) << 2);
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(final int index, final int offset) {
+        final long mask = 0xfL << offset;
+        if ((table[index] & mask) == mask) {
+            return false;
+        }
+        table[index] += 1L << offset;
+        return true;
+    }
+
+    // Halving drops the odd remainders, a quarter of them is taken back from the additions as well.
+    private void reset() {
+        int odd = 0;
+        for (int index = 0; index < table.length; index++) {
+            odd += Long.bitCount(table[index] & ONE_MASK);
+            table[index] = (table[index] >>> 1) & RESET_MASK;
+        }
+        additions = (additions >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(final int hash, final int row) {
+        long index = (hash + SEEDS[row]) * SEEDS[row];
+        index += index >>> 32;
+        return (int) index & tableMask;
+    }
+
+    private static int spread(final int hashCode) {
+        int hash = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
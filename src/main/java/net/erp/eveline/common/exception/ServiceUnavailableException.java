@@ -0,0 +1,16 @@
+package net.erp.eveline.common.exception;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends ServiceException {
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(final String message, final Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,76 @@
+package net.erp.eveline.common.execution;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes the futures returned by the controllers that are already completed as synchronous responses, skipping the
+ * async dispatch Spring MVC otherwise goes through for every future. Pending futures are left to the async handler.
+ */
+public class CompletedFutureReturnValueHandler implements HandlerMethodReturnValueHandler {
+    private final HandlerMethodReturnValueHandler responseBodyHandler;
+    private final HandlerMethodReturnValueHandler asyncHandler;
+
+    public CompletedFutureReturnValueHandler(final HandlerMethodReturnValueHandler responseBodyHandler,
+                                             final HandlerMethodReturnValueHandler asyncHandler) {
+        this.responseBodyHandler = responseBodyHandler;
+        this.asyncHandler = asyncHandler;
+    }
+
+    @Override
+    public boolean supportsReturnType(final MethodParameter returnType) {
+        return CompletableFuture.class.isAssignableFrom(returnType.getParameterType())
+                && responseBodyHandler.supportsReturnType(returnType);
+    }
+
+    @Override
+    public void handleReturnValue(final Object returnValue,
+                                  final MethodParameter returnType,
+                                  final ModelAndViewContainer mavContainer,
+                                  final NativeWebRequest webRequest) throws Exception {
+        final var future = (CompletableFuture<?>) returnValue;
+        if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+            responseBodyHandler.handleReturnValue(future.join(), new FutureResultParameter(returnType), mavContainer, webRequest);
+        } else {
+            asyncHandler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+        }
+    }
+
+    /**
+     * The return type of the handler method seen as the type of the result of its future.
+     */
+    private static class FutureResultParameter extends MethodParameter {
+        private final ResolvableType resultType;
+
+        private FutureResultParameter(final MethodParameter returnType) {
+            super(returnType);
+            this.resultType = ResolvableType.forMethodParameter(returnType).getGeneric();
+        }
+
+        private FutureResultParameter(final FutureResultParameter original) {
+            super(original);
+            this.resultType = original.resultType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return resultType.toClass();
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return resultType.getType();
+        }
+
+        @Override
+        public FutureResultParameter clone() {
+            return new FutureResultParameter(this);
+        }
+    }
+}
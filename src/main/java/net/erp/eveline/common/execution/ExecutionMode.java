@@ -0,0 +1,21 @@
+package net.erp.eveline.common.execution;
+
+/**
+ * Where the controllers run their handlers.
+ */
+public enum ExecutionMode {
+    /**
+     * On the Tomcat request threads, as a plain servlet application.
+     */
+    PLATFORM,
+    /**
+     * On a virtual thread per request, which parks cheaply while it waits for a connection or a retry backoff.
+     * Needs a JVM with virtual threads; on older ones the bulkheads are used instead.
+     */
+    VIRTUAL,
+    /**
+     * On a bounded executor per entity sized to the database pool. The Tomcat thread is released as soon as the
+     * handler is queued and the response is completed asynchronously.
+     */
+    BULKHEAD
+}
@@ -0,0 +1,28 @@
+package net.erp.eveline.common.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Waits for the future, throwing what failed it as it was thrown instead of wrapped in a
+     * {@link CompletionException}, so callers waiting on it see the same exceptions as before it was asynchronous.
+     */
+    public static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+}
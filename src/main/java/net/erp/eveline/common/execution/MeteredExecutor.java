@@ -0,0 +1,75 @@
+package net.erp.eveline.common.execution;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks on another executor, tracking how many of them wait for a thread, how many run and how long they
+ * waited before starting.
+ */
+public class MeteredExecutor implements Executor {
+    public static final String QUEUED_GAUGE = "eveline.execution.queued";
+    public static final String ACTIVE_GAUGE = "eveline.execution.active";
+    public static final String WAIT_TIMER = "eveline.execution.wait";
+
+    private final ExecutorService delegate;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer wait;
+
+    public MeteredExecutor(final String name, final ExecutorService delegate, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        Gauge.builder(QUEUED_GAUGE, queued, AtomicInteger::get)
+                .description("Tasks waiting for a thread of the executor")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder(ACTIVE_GAUGE, active, AtomicInteger::get)
+                .description("Tasks running on the executor")
+                .tag("executor", name)
+                .register(meterRegistry);
+        this.wait = Timer.builder(WAIT_TIMER)
+                .description("Time tasks waited for a thread of the executor")
+                .tag("executor", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        final long submitted = System.nanoTime();
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                wait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        } catch (final RejectedExecutionException ex) {
+            queued.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+}
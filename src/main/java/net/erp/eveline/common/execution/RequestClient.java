@@ -0,0 +1,43 @@
+package net.erp.eveline.common.execution;
+
+/**
+ * The client of the request running on the current thread, which keys its read-your-writes window. It is set by the
+ * filter of the request and carried along with the handler when it runs on a bulkhead.
+ */
+public final class RequestClient {
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RequestClient() {
+    }
+
+    /**
+     * @return the client of the current request, null outside of one.
+     */
+    public static String get() {
+        return CURRENT.get();
+    }
+
+    public static void set(final String client) {
+        CURRENT.set(client);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the task running with the client of the thread that wraps it.
+     */
+    public static Runnable wrap(final Runnable task) {
+        final String client = CURRENT.get();
+        return () -> {
+            final String previous = CURRENT.get();
+            CURRENT.set(client);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+}
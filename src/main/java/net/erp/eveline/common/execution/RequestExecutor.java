@@ -0,0 +1,98 @@
+package net.erp.eveline.common.execution;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+import static net.erp.eveline.common.execution.ExecutionMode.BULKHEAD;
+
+/**
+ * Runs the handlers of the controllers according to the execution mode. On the Tomcat or virtual threads the handler
+ * runs right away and its result comes back already completed, so it is written as any synchronous response. With
+ * bulkheads the handler is queued on the executor of its entity, with the security context and client of the request;
+ * when that queue is full the request is rejected at once with a 503 instead of piling up.
+ */
+public class RequestExecutor {
+    private static final String OVER_CAPACITY_MESSAGE = "Too many %s requests are waiting, please try again later.";
+
+    private final ExecutionMode mode;
+    private final MeteredExecutor handlerExecutor;
+    private final int bulkheadThreads;
+    private final int bulkheadQueueCapacity;
+    private final Duration retryAfter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, MeteredExecutor> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * @param handlerExecutor the executor Tomcat hands the requests to in the virtual mode, null otherwise.
+     */
+    public RequestExecutor(final ExecutionMode mode,
+                           final MeteredExecutor handlerExecutor,
+                           final int bulkheadThreads,
+                           final int bulkheadQueueCapacity,
+                           final Duration retryAfter,
+                           final MeterRegistry meterRegistry) {
+        this.mode = mode;
+        this.handlerExecutor = handlerExecutor;
+        this.bulkheadThreads = bulkheadThreads;
+        this.bulkheadQueueCapacity = bulkheadQueueCapacity;
+        this.retryAfter = retryAfter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> CompletableFuture<T> supply(final String entity, final Supplier<T> handler) {
+        if (mode != BULKHEAD) {
+            return CompletableFuture.completedFuture(handler.get());
+        }
+        final var bulkhead = bulkhead(entity);
+        try {
+            return CompletableFuture.supplyAsync(handler,
+                    task -> bulkhead.execute(RequestClient.wrap(new DelegatingSecurityContextRunnable(task))));
+        } catch (final RejectedExecutionException ex) {
+            throw new ServiceUnavailableException(format(OVER_CAPACITY_MESSAGE, entity), retryAfter);
+        }
+    }
+
+    /**
+     * Same as {@link #supply}, for handlers whose result is completed later, like a write whose retries are scheduled
+     * instead of waited for.
+     */
+    public <T> CompletableFuture<T> compose(final String entity, final Supplier<CompletableFuture<T>> handler) {
+        return supply(entity, handler).thenCompose(Function.identity());
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    public Optional<MeteredExecutor> getHandlerExecutor() {
+        return Optional.ofNullable(handlerExecutor);
+    }
+
+    public void shutdown() {
+        bulkheads.values().forEach(MeteredExecutor::shutdown);
+        getHandlerExecutor().ifPresent(MeteredExecutor::shutdown);
+    }
+
+    private MeteredExecutor bulkhead(final String entity) {
+        final MeteredExecutor bulkhead = bulkheads.get(entity);
+        return bulkhead != null ? bulkhead : bulkheads.computeIfAbsent(entity, name -> new MeteredExecutor(name,
+                new ThreadPoolExecutor(bulkheadThreads, bulkheadThreads, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(bulkheadQueueCapacity), new CustomizableThreadFactory("bulkhead-" + name + "-")),
+                meterRegistry));
+    }
+}
@@ -0,0 +1,30 @@
+package net.erp.eveline.common.execution;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads are looked up at runtime so the application still builds and runs on JVMs without them.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task, or empty when the JVM has no virtual threads or they
+     * are a preview feature that is not enabled.
+     */
+    public static Optional<ExecutorService> newExecutor() {
+        try {
+            final var factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+            return Optional.of((ExecutorService) factory.invoke());
+        } catch (final Throwable ex) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package net.erp.eveline.common.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+public class NdjsonExport {
+    /**
+     * Rows fetched per round trip by the streaming repository queries. The services also clear the persistence
+     * context every time this many rows have been written so the heap stays flat regardless of the table size.
+     */
+    public static final int EXPORT_FETCH_SIZE = 500;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Writes every model handed over by the exporter as one JSON document per line. Nothing but the current row and
+     * the output buffer is kept in memory.
+     */
+    public static <T> StreamingResponseBody toNdjson(final ObjectMapper objectMapper, final Consumer<Consumer<T>> exporter) {
+        return outputStream -> {
+            final var bufferedOutputStream = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+            exporter.accept(model -> writeLine(objectMapper, bufferedOutputStream, model));
+            bufferedOutputStream.flush();
+        };
+    }
+
+    private static <T> void writeLine(final ObjectMapper objectMapper, final OutputStream outputStream, final T model) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(model));
+            outputStream.write('\n');
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
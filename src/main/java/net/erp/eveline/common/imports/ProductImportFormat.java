@@ -0,0 +1,41 @@
+package net.erp.eveline.common.imports;
+
+import net.erp.eveline.common.exception.BadRequestException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+import static java.util.Optional.ofNullable;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+public enum ProductImportFormat {
+    CSV(ProductImportFormat.TEXT_CSV_VALUE),
+    NDJSON(APPLICATION_NDJSON_VALUE);
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final String IMPORT_FORMAT_INVALID_MESSAGE = "The import body must be sent as " + TEXT_CSV_VALUE + " or " + APPLICATION_NDJSON_VALUE + ".";
+
+    private final MediaType mediaType;
+
+    ProductImportFormat(final String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    /**
+     * Resolves the format out of a Content-Type header, ignoring parameters like the charset.
+     *
+     * @throws BadRequestException when the content type is missing or not supported.
+     */
+    public static ProductImportFormat fromContentType(final String contentType) {
+        try {
+            final var requested = MediaType.parseMediaType(ofNullable(contentType).orElse(""));
+            return Arrays.stream(values())
+                    .filter(format -> format.mediaType.equalsTypeAndSubtype(requested))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException(IMPORT_FORMAT_INVALID_MESSAGE));
+        } catch (final InvalidMediaTypeException ex) {
+            throw new BadRequestException(IMPORT_FORMAT_INVALID_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package net.erp.eveline.common.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.erp.eveline.common.exception.BadRequestException;
+import net.erp.eveline.model.BrandModel;
+import net.erp.eveline.model.ProductModel;
+import net.erp.eveline.model.ProviderModel;
+import net.erp.eveline.security.XSSUtils;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Parses an import body one row at a time, so the memory used does not depend on the size of the body. Rows are
+ * numbered from 1 in the order they appear, leaving out the CSV header and blank lines.
+ */
+public class ProductImportReader {
+    public static final List<String> CSV_COLUMNS = List.of("upc", "title", "description", "sanitaryRegistryNumber", "brandId", "providerIds", "lastUser", "enabled");
+    public static final String CSV_HEADER_INVALID_MESSAGE = "The CSV header must contain the columns: " + String.join(",", CSV_COLUMNS) + ".";
+    public static final String CSV_ROW_INCONSISTENT_MESSAGE = "The row does not have the same number of columns as the header.";
+    public static final String ENABLED_INVALID_MESSAGE = "The enabled column must be either true or false.";
+    public static final String NDJSON_ROW_INVALID_MESSAGE = "The row is not a valid product document: %s";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PROVIDER_ID_SEPARATOR = ";";
+    private static final String NDJSON_ROW_NOT_OBJECT = "a product must be a JSON object";
+
+    /**
+     * Hands every row of the body over to the consumer.
+     *
+     * @return the number of rows read.
+     */
+    public static long read(final InputStream body, final ProductImportFormat format, final ObjectMapper objectMapper, final Consumer<ProductImportRow> consumer) {
+        requireNonNull(body, "Body provided cannot be null.");
+        requireNonNull(consumer, "Consumer provided cannot be null.");
+        try (var reader = new BufferedReader(new InputStreamReader(body, UTF_8), BUFFER_SIZE)) {
+            return format == ProductImportFormat.CSV
+                    ? readCsv(reader, consumer)
+                    : readNdjson(reader, objectMapper, consumer);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static long readCsv(final BufferedReader reader, final Consumer<ProductImportRow> consumer) throws IOException {
+        final CSVFormat csvFormat = CSVFormat.DEFAULT
+                .withFirstRecordAsHeader()
+                .withIgnoreEmptyLines()
+                .withTrim();
+        long rowNumber = 0;
+        try (var parser = new CSVParser(reader, csvFormat)) {
+            if (!parser.getHeaderMap().keySet().containsAll(CSV_COLUMNS)) {
+                throw new BadRequestException(CSV_HEADER_INVALID_MESSAGE);
+            }
+            for (final CSVRecord record : parser) {
+                consumer.accept(toRow(++rowNumber, record));
+            }
+        }
+        return rowNumber;
+    }
+
+    private static ProductImportRow toRow(final long rowNumber, final CSVRecord record) {
+        final var row = new ProductImportRow()
+                .setRowNumber(rowNumber)
+                .setUpc(value(record, "upc"));
+        if (!record.isConsistent()) {
+            return row.addError(CSV_ROW_INCONSISTENT_MESSAGE);
+        }
+
+        final var enabled = value(record, "enabled");
+        if (enabled != null && !"true".equalsIgnoreCase(enabled) && !"false".equalsIgnoreCase(enabled)) {
+            return row.addError(ENABLED_INVALID_MESSAGE);
+        }
+
+        final var brandId = value(record, "brandId");
+        final Set<ProviderModel> providerSet = Arrays.stream(StringUtils.split(StringUtils.defaultString(value(record, "providerIds")), PROVIDER_ID_SEPARATOR))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .map(providerId -> new ProviderModel().setId(providerId))
+                .collect(Collectors.toSet());
+
+        return row.setModel(new ProductModel()
+                .setUpc(row.getUpc())
+                .setTitle(value(record, "title"))
+                .setDescription(value(record, "description"))
+                .setSanitaryRegistryNumber(value(record, "sanitaryRegistryNumber"))
+                .setBrand(brandId == null ? null : new BrandModel().setId(brandId))
+                .setProviderSet(providerSet)
+                .setLastUser(value(record, "lastUser"))
+                .setEnabled(enabled == null ? null : Boolean.valueOf(enabled)));
+    }
+
+    private static String value(final CSVRecord record, final String column) {
+        // CSV bodies are not read by Jackson, so their values are sanitized here.
+        return record.isSet(column) ? StringUtils.trimToNull(XSSUtils.sanitize(record.get(column))) : null;
+    }
+
+    private static long readNdjson(final BufferedReader reader, final ObjectMapper objectMapper, final Consumer<ProductImportRow> consumer) throws IOException {
+        long rowNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            final var row = new ProductImportRow().setRowNumber(++rowNumber);
+            try {
+                final var productModel = objectMapper.readValue(line, ProductModel.class);
+                // A literal null reads as no product at all, the other values that are not objects fail to map.
+                if (productModel == null) {
+                    row.addError(format(NDJSON_ROW_INVALID_MESSAGE, NDJSON_ROW_NOT_OBJECT));
+                } else {
+                    row.setUpc(productModel.getUpc()).setModel(productModel);
+                }
+            } catch (final JsonProcessingException ex) {
+                row.addError(format(NDJSON_ROW_INVALID_MESSAGE, ex.getOriginalMessage()));
+            }
+            consumer.accept(row);
+        }
+        return rowNumber;
+    }
+}
@@ -0,0 +1,68 @@
+package net.erp.eveline.common.imports;
+
+import net.erp.eveline.model.ProductModel;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One data row of an import body. Rows that could not be parsed carry no model, only the parse error.
+ */
+public class ProductImportRow {
+    private long rowNumber;
+    private String upc;
+    private ProductModel model;
+    private final List<String> errors = new ArrayList<>();
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    public ProductImportRow setRowNumber(final long rowNumber) {
+        this.rowNumber = rowNumber;
+        return this;
+    }
+
+    public String getUpc() {
+        return upc;
+    }
+
+    public ProductImportRow setUpc(final String upc) {
+        this.upc = upc;
+        return this;
+    }
+
+    public ProductModel getModel() {
+        return model;
+    }
+
+    public ProductImportRow setModel(final ProductModel model) {
+        this.model = model;
+        return this;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public ProductImportRow addError(final String error) {
+        this.errors.add(error);
+        return this;
+    }
+
+    public boolean isParsed() {
+        return model != null && errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.JSON_STYLE)
+                .append("__class__", this.getClass().getSimpleName())
+                .append("rowNumber", rowNumber)
+                .append("upc", upc)
+                .append("errors", errors)
+                .toString();
+    }
+}
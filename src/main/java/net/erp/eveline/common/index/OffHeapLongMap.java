@@ -0,0 +1,134 @@
+package net.erp.eveline.common.index;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A map of non negative long keys to long values kept in a direct buffer: open addressing with linear probing over
+ * slots of a key and a value, sized for twice the maximum entries so the probes stay short. Removed keys leave a
+ * marker behind; once markers and entries fill three quarters of the slots the table is rebuilt into a fresh buffer.
+ * Not thread safe, the index guards it.
+ */
+final class OffHeapLongMap {
+    static final long MISSING = -1;
+
+    private static final long EMPTY = -1;
+    private static final long REMOVED = -2;
+    private static final int SLOT_BYTES = 2 * Long.BYTES;
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private final int maximumEntries;
+    private final int capacity;
+    private final int mask;
+    private ByteBuffer slots;
+    private int size;
+    private int removed;
+
+    OffHeapLongMap(final int maximumEntries) {
+        if (maximumEntries < 1 || maximumEntries > MAX_CAPACITY / 2) {
+            throw new IllegalArgumentException("The maximum entries must be between 1 and " + MAX_CAPACITY / 2 + ".");
+        }
+        this.maximumEntries = maximumEntries;
+        this.capacity = Integer.highestOneBit(2 * maximumEntries - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = emptySlots(capacity);
+    }
+
+    long get(final long key) {
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            final long slotKey = slots.getLong(slot * SLOT_BYTES);
+            if (slotKey == key) {
+                return slots.getLong(slot * SLOT_BYTES + Long.BYTES);
+            }
+            if (slotKey == EMPTY) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * @return false when the key is new and the map already holds its maximum entries.
+     */
+    boolean put(final long key, final long value) {
+        int reusable = -1;
+        int slot = slotOf(key);
+        for (; ; slot = (slot + 1) & mask) {
+            final long slotKey = slots.getLong(slot * SLOT_BYTES);
+            if (slotKey == key) {
+                slots.putLong(slot * SLOT_BYTES + Long.BYTES, value);
+                return true;
+            }
+            if (slotKey == EMPTY) {
+                break;
+            }
+            if (slotKey == REMOVED && reusable < 0) {
+                reusable = slot;
+            }
+        }
+        if (size == maximumEntries) {
+            return false;
+        }
+        if (reusable >= 0) {
+            slot = reusable;
+            removed--;
+        }
+        slots.putLong(slot * SLOT_BYTES, key);
+        slots.putLong(slot * SLOT_BYTES + Long.BYTES, value);
+        size++;
+        if (size + removed > capacity - capacity / 4) {
+            rebuild();
+        }
+        return true;
+    }
+
+    /**
+     * @return the value the key had, {@link #MISSING} when there was none.
+     */
+    long remove(final long key) {
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            final long slotKey = slots.getLong(slot * SLOT_BYTES);
+            if (slotKey == key) {
+                slots.putLong(slot * SLOT_BYTES, REMOVED);
+                size--;
+                removed++;
+                return slots.getLong(slot * SLOT_BYTES + Long.BYTES);
+            }
+            if (slotKey == EMPTY) {
+                return MISSING;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long reservedBytes() {
+        return (long) capacity * SLOT_BYTES;
+    }
+
+    private void rebuild() {
+        final ByteBuffer previous = slots;
+        slots = emptySlots(capacity);
+        size = 0;
+        removed = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            final long key = previous.getLong(slot * SLOT_BYTES);
+            if (key >= 0) {
+                put(key, previous.getLong(slot * SLOT_BYTES + Long.BYTES));
+            }
+        }
+    }
+
+    private int slotOf(final long key) {
+        final long hash = key * 0x9e3779b97f4a7c15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static ByteBuffer emptySlots(final int capacity) {
+        final ByteBuffer slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        for (int slot = 0; slot < capacity; slot++) {
+            slots.putLong(slot * SLOT_BYTES, EMPTY);
+        }
+        return slots;
+    }
+}
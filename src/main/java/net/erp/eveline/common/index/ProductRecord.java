@@ -0,0 +1,264 @@
+package net.erp.eveline.common.index;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The columns of a product row with the ids of its brand and providers, as kept by the {@link UpcIndex}. It is written
+ * as the upc and product id packed in longs, which is all the index reads to find its keys, followed by the fields in
+ * order: strings as their UTF-8 length and bytes, dates as their epoch second, nano and offset.
+ */
+public class ProductRecord {
+    static final int UPC_OFFSET = 0;
+    static final int PRODUCT_KEY_OFFSET = Long.BYTES;
+
+    private static final int UPC_LENGTH = 12;
+    private static final int NULL_LENGTH = -1;
+    private static final int DATE_TIME_BYTES = 1 + Long.BYTES + 2 * Integer.BYTES;
+
+    private String productId;
+    private String upc;
+    private String brandId;
+    private List<String> providerIds = List.of();
+    private String title;
+    private String description;
+    private OffsetDateTime createDate;
+    private OffsetDateTime lastModified;
+    private String lastUser;
+    private Boolean enabled;
+
+    /**
+     * @return the upc as a number, -1 when it is not made of 12 digits.
+     */
+    public static long upcKey(final String upc) {
+        if (upc == null || upc.length() != UPC_LENGTH) {
+            return -1;
+        }
+        for (int idx = 0; idx < UPC_LENGTH; idx++) {
+            if (upc.charAt(idx) < '0' || upc.charAt(idx) > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(upc);
+    }
+
+    /**
+     * @return the digits of the product id after its prefix as a number, -1 when there are none.
+     */
+    public static long productKey(final String productId) {
+        if (productId == null || productId.length() < 2 || productId.length() > 19) {
+            return -1;
+        }
+        for (int idx = 1; idx < productId.length(); idx++) {
+            if (productId.charAt(idx) < '0' || productId.charAt(idx) > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(productId, 1, productId.length(), 10);
+    }
+
+    byte[] encode() {
+        final List<byte[]> strings = new ArrayList<>(6 + providerIds.size());
+        strings.add(bytes(productId));
+        strings.add(bytes(brandId));
+        strings.add(bytes(title));
+        strings.add(bytes(description));
+        strings.add(bytes(lastUser));
+        providerIds.forEach(providerId -> strings.add(bytes(providerId)));
+        int size = 2 * Long.BYTES + Integer.BYTES + 2 * DATE_TIME_BYTES + 1;
+        for (final byte[] string : strings) {
+            size += Integer.BYTES + (string == null ? 0 : string.length);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(upcKey(upc));
+        buffer.putLong(productKey(productId));
+        for (int idx = 0; idx < 5; idx++) {
+            putString(buffer, strings.get(idx));
+        }
+        buffer.putInt(providerIds.size());
+        for (int idx = 5; idx < strings.size(); idx++) {
+            putString(buffer, strings.get(idx));
+        }
+        putDateTime(buffer, createDate);
+        putDateTime(buffer, lastModified);
+        buffer.put(enabled == null ? 0 : (byte) (enabled ? 2 : 1));
+        return buffer.array();
+    }
+
+    static ProductRecord decode(final ByteBuffer buffer) {
+        final String upc = String.valueOf(buffer.getLong());
+        buffer.getLong();
+        final var record = new ProductRecord()
+                .setUpc("0".repeat(UPC_LENGTH - upc.length()) + upc)
+                .setProductId(getString(buffer))
+                .setBrandId(getString(buffer))
+                .setTitle(getString(buffer))
+                .setDescription(getString(buffer))
+                .setLastUser(getString(buffer));
+        final int providers = buffer.getInt();
+        final List<String> providerIds = new ArrayList<>(providers);
+        for (int idx = 0; idx < providers; idx++) {
+            providerIds.add(getString(buffer));
+        }
+        record.setProviderIds(providerIds)
+                .setCreateDate(getDateTime(buffer))
+                .setLastModified(getDateTime(buffer));
+        final byte enabled = buffer.get();
+        return record.setEnabled(enabled == 0 ? null : enabled == 2);
+    }
+
+    private static byte[] bytes(final String string) {
+        return string == null ? null : string.getBytes(UTF_8);
+    }
+
+    private static void putString(final ByteBuffer buffer, final byte[] string) {
+        if (string == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            buffer.putInt(string.length).put(string);
+        }
+    }
+
+    private static String getString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final byte[] string = new byte[length];
+        buffer.get(string);
+        return new String(string, UTF_8);
+    }
+
+    private static void putDateTime(final ByteBuffer buffer, final OffsetDateTime dateTime) {
+        if (dateTime == null) {
+            buffer.put((byte) 0).putLong(0).putInt(0).putInt(0);
+        } else {
+            buffer.put((byte) 1)
+                    .putLong(dateTime.toEpochSecond())
+                    .putInt(dateTime.getNano())
+                    .putInt(dateTime.getOffset().getTotalSeconds());
+        }
+    }
+
+    private static OffsetDateTime getDateTime(final ByteBuffer buffer) {
+        final boolean present = buffer.get() == 1;
+        final long epochSecond = buffer.getLong();
+        final int nano = buffer.getInt();
+        final int offset = buffer.getInt();
+        return present
+                ? OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), ZoneOffset.ofTotalSeconds(offset))
+                : null;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public ProductRecord setProductId(final String productId) {
+        this.productId = productId;
+        return this;
+    }
+
+    public String getUpc() {
+        return upc;
+    }
+
+    public ProductRecord setUpc(final String upc) {
+        this.upc = upc;
+        return this;
+    }
+
+    public String getBrandId() {
+        return brandId;
+    }
+
+    public ProductRecord setBrandId(final String brandId) {
+        this.brandId = brandId;
+        return this;
+    }
+
+    public List<String> getProviderIds() {
+        return providerIds;
+    }
+
+    public ProductRecord setProviderIds(final List<String> providerIds) {
+        this.providerIds = providerIds;
+        return this;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public ProductRecord setTitle(final String title) {
+        this.title = title;
+        return this;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public ProductRecord setDescription(final String description) {
+        this.description = description;
+        return this;
+    }
+
+    public OffsetDateTime getCreateDate() {
+        return createDate;
+    }
+
+    public ProductRecord setCreateDate(final OffsetDateTime createDate) {
+        this.createDate = createDate;
+        return this;
+    }
+
+    public OffsetDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public ProductRecord setLastModified(final OffsetDateTime lastModified) {
+        this.lastModified = lastModified;
+        return this;
+    }
+
+    public String getLastUser() {
+        return lastUser;
+    }
+
+    public ProductRecord setLastUser(final String lastUser) {
+        this.lastUser = lastUser;
+        return this;
+    }
+
+    public Boolean isEnabled() {
+        return enabled;
+    }
+
+    public ProductRecord setEnabled(final Boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+                .append("productId", productId)
+                .append("upc", upc)
+                .append("brandId", brandId)
+                .append("providerIds", providerIds)
+                .append("lastModified", lastModified)
+                .append("enabled", enabled)
+                .toString();
+    }
+}
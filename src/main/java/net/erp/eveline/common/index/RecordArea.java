@@ -0,0 +1,173 @@
+package net.erp.eveline.common.index;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Length prefixed records appended to direct buffer pages, allocated as they are needed up to the memory budget. A
+ * record is addressed by its page in the high half of a long and its position in the low half. Replaced records stay
+ * where they are as garbage until the area is compacted, which slides the live records down over them in place.
+ * Not thread safe, the index guards it.
+ */
+final class RecordArea {
+    static final long NO_SPACE = -1;
+
+    private static final int MAX_PAGE_BYTES = 1 << 26;
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    private final long budget;
+    private final int pageBytes;
+    private final int maximumPages;
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private final List<Integer> pageLimits = new ArrayList<>();
+    private int current = -1;
+    private long usedBytes;
+    private long garbageBytes;
+
+    RecordArea(final long budget) {
+        if (budget < 1024) {
+            throw new IllegalArgumentException("The memory of the records must be at least 1KB.");
+        }
+        this.budget = budget;
+        this.pageBytes = (int) Math.min(budget, MAX_PAGE_BYTES);
+        this.maximumPages = (int) (budget / pageBytes);
+    }
+
+    /**
+     * @return the address of the record, {@link #NO_SPACE} when it does not fit in what is left of the budget.
+     */
+    long append(final byte[] record) {
+        final int recordBytes = LENGTH_BYTES + record.length;
+        if (recordBytes > pageBytes) {
+            return NO_SPACE;
+        }
+        if (current < 0 || pageBytes - pageLimits.get(current) < recordBytes) {
+            if (current + 1 == maximumPages) {
+                return NO_SPACE;
+            }
+            if (current >= 0) {
+                // The tail left on the page is lost until the next compaction.
+                garbageBytes += pageBytes - pageLimits.get(current);
+                usedBytes += pageBytes - pageLimits.get(current);
+            }
+            current++;
+            if (current == pages.size()) {
+                pages.add(ByteBuffer.allocateDirect(pageBytes));
+                pageLimits.add(0);
+            }
+        }
+        final int position = pageLimits.get(current);
+        final ByteBuffer buffer = pages.get(current);
+        buffer.putInt(position, record.length);
+        buffer.put(position + LENGTH_BYTES, record);
+        pageLimits.set(current, position + recordBytes);
+        usedBytes += recordBytes;
+        return address(current, position);
+    }
+
+    /**
+     * A read only view of the record, safe to read from several threads at once.
+     */
+    ByteBuffer read(final long address) {
+        final ByteBuffer buffer = pages.get(page(address));
+        final int position = position(address);
+        return buffer.slice(position + LENGTH_BYTES, buffer.getInt(position)).asReadOnlyBuffer();
+    }
+
+    boolean matches(final long address, final byte[] record) {
+        return read(address).mismatch(ByteBuffer.wrap(record)) == -1;
+    }
+
+    long readLong(final long address, final int offset) {
+        return pages.get(page(address)).getLong(position(address) + LENGTH_BYTES + offset);
+    }
+
+    void release(final long address) {
+        garbageBytes += LENGTH_BYTES + pages.get(page(address)).getInt(position(address));
+    }
+
+    /**
+     * Slides the live records down over the garbage, keeping their order, and tells the caller where each one moved.
+     */
+    void compact(final LongPredicate live, final Relocation relocation) {
+        if (current < 0) {
+            return;
+        }
+        int targetPage = 0;
+        int targetPosition = 0;
+        byte[] scratch = new byte[0];
+        for (int page = 0; page <= current; page++) {
+            final ByteBuffer buffer = pages.get(page);
+            final int limit = pageLimits.get(page);
+            for (int position = 0; position < limit; ) {
+                final int length = buffer.getInt(position);
+                final int recordBytes = LENGTH_BYTES + length;
+                final long address = address(page, position);
+                if (!live.test(address)) {
+                    position += recordBytes;
+                    continue;
+                }
+                if (pageBytes - targetPosition < recordBytes) {
+                    pageLimits.set(targetPage, targetPosition);
+                    targetPage++;
+                    targetPosition = 0;
+                }
+                if (targetPage != page || targetPosition != position) {
+                    if (scratch.length < recordBytes) {
+                        scratch = new byte[recordBytes];
+                    }
+                    buffer.get(position, scratch, 0, recordBytes);
+                    pages.get(targetPage).put(targetPosition, scratch, 0, recordBytes);
+                    relocation.moved(address, address(targetPage, targetPosition));
+                }
+                targetPosition += recordBytes;
+                position += recordBytes;
+            }
+        }
+        pageLimits.set(targetPage, targetPosition);
+        for (int page = targetPage + 1; page <= current; page++) {
+            pageLimits.set(page, 0);
+        }
+        current = targetPage;
+        usedBytes = (long) targetPage * pageBytes + targetPosition;
+        // Only the tails of the pages filled before the current one are lost, the pages after it stay reserved.
+        garbageBytes = 0;
+        for (int page = 0; page < targetPage; page++) {
+            garbageBytes += pageBytes - pageLimits.get(page);
+        }
+    }
+
+    long getUsedBytes() {
+        return usedBytes;
+    }
+
+    long getGarbageBytes() {
+        return garbageBytes;
+    }
+
+    long getReservedBytes() {
+        return (long) pages.size() * pageBytes;
+    }
+
+    long getBudget() {
+        return budget;
+    }
+
+    private static long address(final int page, final int position) {
+        return ((long) page << 32) | position;
+    }
+
+    private static int page(final long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int position(final long address) {
+        return (int) address;
+    }
+
+    interface Relocation {
+        void moved(long from, long to);
+    }
+}
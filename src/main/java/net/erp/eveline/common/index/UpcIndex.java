@@ -0,0 +1,218 @@
+package net.erp.eveline.common.index;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Products by upc kept outside of the heap, so millions of them cost the collector nothing. The upcs and the product
+ * ids are mapped as longs to the address of the product record, both in tables sized once for the maximum products,
+ * and the records live in pages of at most the record memory. Lookups share a read lock and decode the record they
+ * find, writers hold the write lock while they replace a record and its keys. Products that do not fit are left out
+ * and counted as rejections, so their lookups fall back to the database.
+ */
+public class UpcIndex {
+    public static final String SIZE_GAUGE = "eveline.upc.index.size";
+    public static final String MEMORY_GAUGE = "eveline.upc.index.memory";
+    public static final String LOOKUPS_COUNTER = "eveline.upc.index.lookups";
+    public static final String REJECTIONS_COUNTER = "eveline.upc.index.rejections";
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final OffHeapLongMap upcs;
+    private final OffHeapLongMap products;
+    private final RecordArea records;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private volatile boolean ready;
+
+    public UpcIndex(final int maximumProducts, final long recordMemory, final MeterRegistry meterRegistry) {
+        this.upcs = new OffHeapLongMap(maximumProducts);
+        this.products = new OffHeapLongMap(maximumProducts);
+        this.records = new RecordArea(recordMemory);
+
+        Gauge.builder(SIZE_GAUGE, this, UpcIndex::getSize)
+                .description("Products in the upc index")
+                .register(meterRegistry);
+        Gauge.builder(MEMORY_GAUGE, this, UpcIndex::getReservedBytes)
+                .description("Memory outside of the heap taken by the upc index")
+                .baseUnit("bytes")
+                .tag("state", "reserved")
+                .register(meterRegistry);
+        Gauge.builder(MEMORY_GAUGE, this, UpcIndex::getUsedBytes)
+                .description("Memory outside of the heap taken by the upc index")
+                .baseUnit("bytes")
+                .tag("state", "used")
+                .register(meterRegistry);
+        FunctionCounter.builder(LOOKUPS_COUNTER, hits, LongAdder::sum)
+                .description("Lookups served by the upc index")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder(LOOKUPS_COUNTER, misses, LongAdder::sum)
+                .description("Lookups served by the upc index")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder(REJECTIONS_COUNTER, rejections, LongAdder::sum)
+                .description("Products left out of the upc index for lack of room")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the product with the upc, empty when it is not indexed or the index is not built yet.
+     */
+    public Optional<ProductRecord> find(final String upc) {
+        final long upcKey = ProductRecord.upcKey(upc);
+        if (!ready || upcKey < 0) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            final long address = upcs.get(upcKey);
+            if (address == OffHeapLongMap.MISSING) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(ProductRecord.decode(records.read(address)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the record of the product, dropping its previous upc and any other product still holding the new one.
+     * A record equal to the one indexed is left in place, and so is one modified before it: a refresh that read the
+     * row before a write committed must not undo the reload of that write.
+     *
+     * @return false when the product was left out of the index.
+     */
+    public boolean put(final ProductRecord record) {
+        final long upcKey = ProductRecord.upcKey(record.getUpc());
+        final long productKey = ProductRecord.productKey(record.getProductId());
+        if (upcKey < 0 || productKey < 0) {
+            rejections.increment();
+            return false;
+        }
+        final byte[] encoded = record.encode();
+        lock.writeLock().lock();
+        try {
+            final long previous = products.get(productKey);
+            if (previous != OffHeapLongMap.MISSING && (records.matches(previous, encoded) || isOlder(record, previous))) {
+                return true;
+            }
+            removeProduct(productKey);
+            final long holder = upcs.get(upcKey);
+            if (holder != OffHeapLongMap.MISSING) {
+                removeProduct(records.readLong(holder, ProductRecord.PRODUCT_KEY_OFFSET));
+            }
+
+            long address = records.append(encoded);
+            // Compacting pays off only once a good part of the pages is garbage, a full index rejects instead.
+            if (address == RecordArea.NO_SPACE && records.getGarbageBytes() > records.getBudget() / 8) {
+                compact();
+                address = records.append(encoded);
+            }
+            if (address == RecordArea.NO_SPACE || !upcs.put(upcKey, address)) {
+                if (address != RecordArea.NO_SPACE) {
+                    records.release(address);
+                }
+                rejections.increment();
+                return false;
+            }
+            products.put(productKey, address);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProducts(final Collection<String> productIds) {
+        lock.writeLock().lock();
+        try {
+            for (final String productId : productIds) {
+                final long productKey = ProductRecord.productKey(productId);
+                if (productKey >= 0) {
+                    removeProduct(productKey);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts serving lookups, once every product has been put.
+     */
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getSize() {
+        return (int) read(upcs::size);
+    }
+
+    public long getUsedBytes() {
+        return read(() -> records.getUsedBytes() - records.getGarbageBytes());
+    }
+
+    public long getReservedBytes() {
+        return read(() -> upcs.reservedBytes() + products.reservedBytes() + records.getReservedBytes());
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    private void removeProduct(final long productKey) {
+        final long address = products.remove(productKey);
+        if (address == OffHeapLongMap.MISSING) {
+            return;
+        }
+        final long upcKey = records.readLong(address, ProductRecord.UPC_OFFSET);
+        if (upcs.get(upcKey) == address) {
+            upcs.remove(upcKey);
+        }
+        records.release(address);
+    }
+
+    private boolean isOlder(final ProductRecord record, final long address) {
+        final OffsetDateTime indexed = ProductRecord.decode(records.read(address)).getLastModified();
+        return record.getLastModified() != null && indexed != null && record.getLastModified().isBefore(indexed);
+    }
+
+    private void compact() {
+        records.compact(address -> upcs.get(records.readLong(address, ProductRecord.UPC_OFFSET)) == address,
+                (from, to) -> {
+                    upcs.put(records.readLong(to, ProductRecord.UPC_OFFSET), to);
+                    products.put(records.readLong(to, ProductRecord.PRODUCT_KEY_OFFSET), to);
+                });
+    }
+
+    private long read(final LongSupplier supplier) {
+        lock.readLock().lock();
+        try {
+            return supplier.getAsLong();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
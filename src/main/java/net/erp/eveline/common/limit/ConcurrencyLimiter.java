@@ -0,0 +1,245 @@
+package net.erp.eveline.common.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the transactions running at once with a limit that follows the latency of the database, in the way of a
+ * gradient limiter. The latencies of the calls are averaged over short windows and compared with a long moving average
+ * of those windows: while a window stays within the tolerance of the long average the limit grows by about its square
+ * root, and as it gets slower the limit shrinks in proportion, down to half per window. A window with calls that failed
+ * because the database is unavailable shrinks the limit regardless of their latency.
+ * <p>
+ * Every priority may only use its share of the limit, and a call over it is rejected at once with a 503 instead of
+ * waiting for a connection. Bulk calls hold their permit as long as any other call but do not feed the averages, their
+ * latency depends on the size of their input.
+ */
+public class ConcurrencyLimiter {
+    public static final String LIMIT_GAUGE = "eveline.transaction.limit";
+    public static final String IN_FLIGHT_GAUGE = "eveline.transaction.in-flight";
+    public static final String REJECTION_COUNTER = "eveline.transaction.limit.rejections";
+
+    private static final String REJECTED_MESSAGE = "The service is overloaded, the request was rejected without reaching the database.";
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double LONG_WINDOW_ALPHA = 2.0 / (100 + 1);
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long windowNanos;
+    private final Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+    private final Duration retryAfter;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRtt;
+    private long windowStart;
+    private int windowSamples;
+    private int windowRttSamples;
+    private long windowRttSum;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    /**
+     * @param tolerance  how much slower than the long average a window may get before the limit shrinks.
+     * @param smoothing  the weight of every window in the limit, between 0 and 1.
+     * @param window     how often the limit is updated, windows with fewer than ten calls are extended.
+     * @param writeShare the share of the limit writes may use.
+     * @param bulkShare  the share of the limit bulk calls may use.
+     */
+    public ConcurrencyLimiter(final int initialLimit,
+                              final int minLimit,
+                              final int maxLimit,
+                              final double tolerance,
+                              final double smoothing,
+                              final Duration window,
+                              final double writeShare,
+                              final double bulkShare,
+                              final Duration retryAfter,
+                              final MeterRegistry meterRegistry) {
+        this(initialLimit, minLimit, maxLimit, tolerance, smoothing, window, writeShare, bulkShare, retryAfter,
+                meterRegistry, System::nanoTime);
+    }
+
+    ConcurrencyLimiter(final int initialLimit,
+                       final int minLimit,
+                       final int maxLimit,
+                       final double tolerance,
+                       final double smoothing,
+                       final Duration window,
+                       final double writeShare,
+                       final double bulkShare,
+                       final Duration retryAfter,
+                       final MeterRegistry meterRegistry,
+                       final LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("The concurrency limit needs a minimum of at least one and not over its maximum.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowNanos = window.toNanos();
+        this.retryAfter = retryAfter;
+        this.nanoClock = nanoClock;
+        this.limit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+        this.windowStart = nanoClock.getAsLong();
+        shares.put(Priority.READ, 1.0);
+        shares.put(Priority.WRITE, writeShare);
+        shares.put(Priority.BULK, bulkShare);
+        for (final Priority priority : Priority.values()) {
+            Gauge.builder(LIMIT_GAUGE, this, limiter -> limiter.getLimit(priority))
+                    .description("Transactions of the priority that may run at once")
+                    .tag("priority", priority.getTag())
+                    .register(meterRegistry);
+            rejections.put(priority, Counter.builder(REJECTION_COUNTER)
+                    .description("Transactions rejected because the limit of their priority was reached")
+                    .tag("priority", priority.getTag())
+                    .register(meterRegistry));
+        }
+        Gauge.builder(IN_FLIGHT_GAUGE, inFlight, AtomicInteger::get)
+                .description("Transactions running or waiting for a connection")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the permit of the call, which must be released once the transaction ends.
+     * @throws ServiceUnavailableException when the limit of the priority is reached.
+     */
+    public Permit acquire(final Priority priority) {
+        final int priorityLimit = getLimit(priority);
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= priorityLimit) {
+                rejections.get(priority).increment();
+                throw new ServiceUnavailableException(REJECTED_MESSAGE, retryAfter);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(priority, current + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getLimit(final Priority priority) {
+        return Math.max(1, (int) (limit * shares.get(priority)));
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getRejections(final Priority priority) {
+        return rejections.get(priority).count();
+    }
+
+    private synchronized void onSample(final long rttNanos, final int inFlightAtStart) {
+        windowRttSamples++;
+        windowRttSum += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        endWindowIfDue();
+    }
+
+    private synchronized void onDropped() {
+        windowDropped = true;
+        endWindowIfDue();
+    }
+
+    private void endWindowIfDue() {
+        windowSamples++;
+        final long now = nanoClock.getAsLong();
+        if (now - windowStart < windowNanos || windowSamples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        if (windowDropped) {
+            limit = clamp(limit * DROP_RATIO);
+        } else {
+            updateLimit((double) windowRttSum / windowRttSamples);
+        }
+        windowStart = now;
+        windowSamples = 0;
+        windowRttSamples = 0;
+        windowRttSum = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+
+    private void updateLimit(final double shortRtt) {
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) * LONG_WINDOW_ALPHA;
+        // Once the latency recovers the long average is brought down faster, so it does not keep the limit high
+        // after a slow period.
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        // With most of the limit unused the latency says nothing about how much more the database takes.
+        if (windowMaxInFlight < limit / 2) {
+            return;
+        }
+        final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / shortRtt));
+        final double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    private double clamp(final double value) {
+        return Math.min(Math.max(value, minLimit), maxLimit);
+    }
+
+    /**
+     * A call admitted by the limiter. Releasing it adds the latency of the call to the window, or marks the window as
+     * dropped when the call was.
+     */
+    public final class Permit {
+        private final Priority priority;
+        private final int inFlightAtStart;
+        private final long start = nanoClock.getAsLong();
+        private boolean dropped;
+        private boolean released;
+
+        private Permit(final Priority priority, final int inFlightAtStart) {
+            this.priority = priority;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void markDropped() {
+            dropped = true;
+        }
+
+        /**
+         * Gives the permit back without a sample, for calls rejected before they reached the database.
+         */
+        public void cancel() {
+            if (!released) {
+                released = true;
+                inFlight.decrementAndGet();
+            }
+        }
+
+        public void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            if (dropped) {
+                onDropped();
+            } else if (priority != Priority.BULK) {
+                onSample(nanoClock.getAsLong() - start, inFlightAtStart);
+            }
+        }
+    }
+}
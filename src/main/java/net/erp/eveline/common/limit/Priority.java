@@ -0,0 +1,28 @@
+package net.erp.eveline.common.limit;
+
+import java.util.Locale;
+
+/**
+ * The classes the concurrency limiter admits transactions by. Under load the bulk transactions are shed first, then the
+ * writes; the cheap reads may use the whole limit.
+ */
+public enum Priority {
+    /**
+     * Lookups, listings and pages.
+     */
+    READ,
+    /**
+     * Upserts and activations.
+     */
+    WRITE,
+    /**
+     * Exports and imports, which hold a connection for as long as their input or output lasts.
+     */
+    BULK;
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -4,6 +4,8 @@ import net.erp.eveline.data.entity.Brand;
 import net.erp.eveline.model.ActiveBrandModel;
 import net.erp.eveline.model.BrandModel;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -29,6 +31,20 @@ public class BrandMapper {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * A copy of the model, so a cached one is never handed out to be changed.
+     */
+    public static BrandModel copy(final BrandModel brandModel) {
+        return new BrandModel()
+                .setId(brandModel.getId())
+                .setName(brandModel.getName())
+                .setDescription(brandModel.getDescription())
+                .setCreateDate(brandModel.getCreateDate())
+                .setLastModified(brandModel.getLastModified())
+                .setLastUser(brandModel.getLastUser())
+                .setEnabled(brandModel.getEnabled());
+    }
+
     public static ActiveBrandModel toActiveModel(final Brand brand) {
         return new ActiveBrandModel()
                 .setId(brand.getBrandId())
@@ -36,6 +52,13 @@ public class BrandMapper {
                 .setLastUser(brand.getLastUser());
     }
 
+    public static ActiveBrandModel toActiveModel(final ResultSet resultSet, final int rowNum) throws SQLException {
+        return new ActiveBrandModel()
+                .setId(resultSet.getString("id"))
+                .setEnabled(resultSet.getBoolean("enabled"))
+                .setLastUser(resultSet.getString("last_user"));
+    }
+
     public static Set<ActiveBrandModel> toActiveModel(final Set<Brand> brandSet) {
         return brandSet.stream()
                 .map(BrandMapper::toActiveModel)
@@ -0,0 +1,42 @@
+package net.erp.eveline.common.mapper;
+
+import net.erp.eveline.common.pagination.PageCursor;
+import net.erp.eveline.common.pagination.PageSort;
+import net.erp.eveline.model.PageModel;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+
+public class PageMapper {
+
+    /**
+     * Builds a page out of the rows returned by a keyset query. Repositories are asked for {@code size + 1} rows so
+     * the extra row tells whether a next page exists without issuing a count query.
+     */
+    public static <E, M> PageModel<M> toPageModel(final List<E> rows,
+                                                  final int size,
+                                                  final PageSort sort,
+                                                  final Function<E, String> idExtractor,
+                                                  final Function<E, OffsetDateTime> lastModifiedExtractor,
+                                                  final Function<E, M> mapper) {
+        final boolean hasNext = rows.size() > size;
+        final List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        final List<M> items = pageRows.stream()
+                .map(mapper)
+                .collect(toList());
+
+        String nextCursor = null;
+        if (hasNext) {
+            final E last = pageRows.get(pageRows.size() - 1);
+            nextCursor = PageCursor.after(sort, idExtractor.apply(last), lastModifiedExtractor.apply(last)).encode();
+        }
+
+        return new PageModel<M>()
+                .setItems(items)
+                .setNextCursor(nextCursor)
+                .setSize(items.size());
+    }
+}
@@ -1,10 +1,19 @@
 package net.erp.eveline.common.mapper;
 
+import net.erp.eveline.common.index.ProductRecord;
 import net.erp.eveline.data.entity.Product;
 import net.erp.eveline.data.entity.Provider;
 import net.erp.eveline.model.ActiveProductModel;
+import net.erp.eveline.model.BrandModel;
 import net.erp.eveline.model.ProductModel;
+import net.erp.eveline.model.ProviderModel;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -15,6 +24,9 @@ import java.util.stream.Collectors;
 // speed up the transaction and re-evaluating how this relationship should be done in code.
 // Also small details like including the set in the toString method might increment transaction throughput without the
 // developer noticing.
+// The ProductRepository read paths fetch the brand and providerSet up front (join fetch / entity graphs, and batch
+// fetching for the native page queries), so mapping what they return does not issue a query per product. Mapping
+// products loaded any other way can still trigger lazy loads.
 public class ProductMapper {
     public static ProductModel toModel(final Product product) {
         return new ProductModel()
@@ -36,6 +48,34 @@ public class ProductMapper {
                 .collect(Collectors.toSet());
     }
 
+    public static ProductModel toModel(final ProductRecord record, final BrandModel brand, final Set<ProviderModel> providers) {
+        return new ProductModel()
+                .setId(record.getProductId())
+                .setBrand(brand)
+                .setProviderSet(providers)
+                .setTitle(record.getTitle())
+                .setUpc(record.getUpc())
+                .setDescription(record.getDescription())
+                .setCreateDate(record.getCreateDate())
+                .setLastModified(record.getLastModified())
+                .setEnabled(record.isEnabled())
+                .setLastUser(record.getLastUser());
+    }
+
+    public static ProductRecord toRecord(final ResultSet resultSet, final int rowNum) throws SQLException {
+        return new ProductRecord()
+                .setProductId(resultSet.getString("product_id"))
+                .setUpc(resultSet.getString("upc"))
+                .setBrandId(resultSet.getString("brand_id"))
+                .setProviderIds(Arrays.asList((String[]) resultSet.getArray("provider_ids").getArray()))
+                .setTitle(resultSet.getString("title"))
+                .setDescription(resultSet.getString("description"))
+                .setCreateDate(resultSet.getObject("create_date", OffsetDateTime.class))
+                .setLastModified(resultSet.getObject("last_modified", OffsetDateTime.class))
+                .setEnabled(resultSet.getObject("enabled", Boolean.class))
+                .setLastUser(resultSet.getString("last_user"));
+    }
+
     public static ActiveProductModel toActiveModel(final Product product) {
         return new ActiveProductModel()
                 .setId(product.getProductId())
@@ -43,6 +83,13 @@ public class ProductMapper {
                 .setLastUser(product.getLastUser());
     }
 
+    public static ActiveProductModel toActiveModel(final ResultSet resultSet, final int rowNum) throws SQLException {
+        return new ActiveProductModel()
+                .setId(resultSet.getString("id"))
+                .setEnabled(resultSet.getBoolean("enabled"))
+                .setLastUser(resultSet.getString("last_user"));
+    }
+
     public static Product toEntity(final ProductModel productModel, final Set<Provider> providers) {
         final Product entity = new Product()
                 .setProductId(productModel.getId())
@@ -79,6 +126,42 @@ public class ProductMapper {
         return entity;
     }
 
+    /**
+     * Applies the model onto a product loaded in the current persistence context. Only the providers added or removed
+     * are touched in its providerSet, so the flush writes just those assignation rows instead of the whole set.
+     */
+    public static Product toEntity(final Product product, final ProductModel productModel, final Collection<Provider> providers) {
+        final Set<String> providerIds = productModel.getProviderSet()
+                .stream()
+                .map(ProviderModel::getId)
+                .collect(Collectors.toSet());
+        final Set<String> currentProviderIds = product.getProviderSet()
+                .stream()
+                .map(Provider::getProviderId)
+                .collect(Collectors.toSet());
+
+        if (!currentProviderIds.equals(providerIds)) {
+            product.getProviderSet().removeIf(provider -> !providerIds.contains(provider.getProviderId()));
+            providers.stream()
+                    .filter(provider -> !currentProviderIds.contains(provider.getProviderId()))
+                    .forEach(product.getProviderSet()::add);
+        }
+
+        if (!Objects.equals(product.getBrand().getBrandId(), productModel.getBrand().getId())) {
+            product.setBrand(BrandMapper.toEntity(productModel.getBrand()));
+        }
+
+        product.setUpc(productModel.getUpc())
+                .setTitle(productModel.getTitle())
+                .setDescription(productModel.getDescription())
+                .setLastUser(productModel.getLastUser());
+
+        if (Optional.ofNullable(productModel.isEnabled()).isPresent()) {
+            product.setEnabled(productModel.isEnabled());
+        }
+        return product;
+    }
+
     public static Set<Product> toEntity(final Set<ProductModel> productModelSet) {
         return productModelSet
                 .stream()
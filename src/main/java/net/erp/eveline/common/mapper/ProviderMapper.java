@@ -4,6 +4,8 @@ import net.erp.eveline.data.entity.Provider;
 import net.erp.eveline.model.ActiveProviderModel;
 import net.erp.eveline.model.ProviderModel;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Optional;
 import java.util.Set;
 
@@ -26,6 +28,24 @@ public class ProviderMapper {
                 .setLastUser(provider.getLastUser());
     }
 
+    /**
+     * A copy of the model, so a cached one is never handed out to be changed.
+     */
+    public static ProviderModel copy(final ProviderModel providerModel) {
+        return new ProviderModel()
+                .setId(providerModel.getId())
+                .setName(providerModel.getName())
+                .setDescription(providerModel.getDescription())
+                .setEmail(providerModel.getEmail())
+                .setTelephone1(providerModel.getTelephone1())
+                .setTelephone2(providerModel.getTelephone2())
+                .setTelephone3(providerModel.getTelephone3())
+                .setCreateDate(providerModel.getCreateDate())
+                .setLastModified(providerModel.getLastModified())
+                .setEnabled(providerModel.isEnabled())
+                .setLastUser(providerModel.getLastUser());
+    }
+
     public static ActiveProviderModel toActiveModel(final Provider provider) {
         return new ActiveProviderModel()
                 .setId(provider.getProviderId())
@@ -33,6 +53,13 @@ public class ProviderMapper {
                 .setLastUser(provider.getLastUser());
     }
 
+    public static ActiveProviderModel toActiveModel(final ResultSet resultSet, final int rowNum) throws SQLException {
+        return new ActiveProviderModel()
+                .setId(resultSet.getString("id"))
+                .setEnabled(resultSet.getBoolean("enabled"))
+                .setLastUser(resultSet.getString("last_user"));
+    }
+
     public static Set<ActiveProviderModel> toActiveModel(final Set<Provider> providerSet) {
         return providerSet.stream()
                 .map(ProviderMapper::toActiveModel)
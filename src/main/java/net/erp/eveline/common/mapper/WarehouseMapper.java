@@ -4,6 +4,8 @@ import net.erp.eveline.data.entity.Warehouse;
 import net.erp.eveline.model.ActiveWarehouseModel;
 import net.erp.eveline.model.WarehouseModel;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -42,6 +44,13 @@ public class WarehouseMapper {
                 .setLastUser(warehouse.getLastUser());
     }
 
+    public static ActiveWarehouseModel toActiveModel(final ResultSet resultSet, final int rowNum) throws SQLException {
+        return new ActiveWarehouseModel()
+                .setId(resultSet.getString("id"))
+                .setEnabled(resultSet.getBoolean("enabled"))
+                .setLastUser(resultSet.getString("last_user"));
+    }
+
     public static Set<ActiveWarehouseModel> toActiveModel(final Set<Warehouse> warehouseSet) {
         return warehouseSet.stream()
                 .map(WarehouseMapper::toActiveModel)
@@ -0,0 +1,102 @@
+package net.erp.eveline.common.pagination;
+
+import net.erp.eveline.common.exception.BadRequestException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Opaque position inside a keyset paginated listing. The cursor carries the sort key values of the last row returned
+ * so the next page can be resolved with a single index range scan instead of an OFFSET scan.
+ */
+public class PageCursor {
+    public static final String PAGE_CURSOR_INVALID_MESSAGE = "The cursor provided is not valid for the requested sort.";
+
+    private static final String SEPARATOR = "|";
+
+    private final PageSort sort;
+    private final String id;
+    private final OffsetDateTime lastModified;
+
+    private PageCursor(final PageSort sort, final String id, final OffsetDateTime lastModified) {
+        this.sort = requireNonNull(sort, "Sort provided cannot be null.");
+        this.id = id;
+        this.lastModified = lastModified;
+    }
+
+    public static PageCursor first(final PageSort sort) {
+        return new PageCursor(sort, null, null);
+    }
+
+    public static PageCursor after(final PageSort sort, final String id, final OffsetDateTime lastModified) {
+        return new PageCursor(sort, requireNonNull(id, "Id provided cannot be null."), lastModified);
+    }
+
+    /**
+     * Decodes a cursor previously emitted by {@link #encode()}. A blank token means the first page.
+     *
+     * @throws BadRequestException when the token is malformed or was emitted for another sort.
+     */
+    public static PageCursor decode(final String token, final PageSort sort) {
+        if (StringUtils.isBlank(token)) {
+            return first(sort);
+        }
+        try {
+            final var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final var parts = StringUtils.splitPreserveAllTokens(raw, SEPARATOR);
+            final var tokenSort = PageSort.valueOf(parts[0]);
+            if (tokenSort != sort) {
+                throw new BadRequestException(PAGE_CURSOR_INVALID_MESSAGE);
+            }
+            if (sort == PageSort.ID && parts.length == 2 && !parts[1].isBlank()) {
+                return after(sort, parts[1], null);
+            }
+            if (sort == PageSort.LAST_MODIFIED && parts.length == 3 && !parts[2].isBlank()) {
+                return after(sort, parts[2], OffsetDateTime.parse(parts[1]));
+            }
+        } catch (final IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException(PAGE_CURSOR_INVALID_MESSAGE, ex);
+        }
+        throw new BadRequestException(PAGE_CURSOR_INVALID_MESSAGE);
+    }
+
+    public String encode() {
+        final String raw = sort == PageSort.ID
+                ? sort.name() + SEPARATOR + id
+                : sort.name() + SEPARATOR + lastModified + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public PageSort getSort() {
+        return sort;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public OffsetDateTime getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.JSON_STYLE)
+                .append("__class__", this.getClass().getSimpleName())
+                .append("sort", sort)
+                .append("id", id)
+                .append("lastModified", lastModified)
+                .toString();
+    }
+}
@@ -0,0 +1,15 @@
+package net.erp.eveline.common.pagination;
+
+/**
+ * Stable orderings supported by the keyset paginated endpoints.
+ * <ul>
+ *     <li>{@link #ID}: ascending by id length and then id, so p99999 comes before p100000, served by the
+ *     {@code *_id_length_index} indexes.</li>
+ *     <li>{@link #LAST_MODIFIED}: most recently modified first with the id as tie breaker, served by the
+ *     {@code *_last_modified_index} indexes.</li>
+ * </ul>
+ */
+public enum PageSort {
+    ID,
+    LAST_MODIFIED
+}
@@ -5,11 +5,13 @@ import net.erp.eveline.model.BrandModel;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 import static java.util.Optional.ofNullable;
 import static net.erp.eveline.common.predicate.CommonPredicates.*;
 import static net.erp.eveline.common.predicate.CommonPredicates.isLastUserValid;
+import static net.erp.eveline.common.predicate.TextMatchers.NAME_CHARS;
+import static net.erp.eveline.common.predicate.TextMatchers.entityIdTrimmed;
+import static net.erp.eveline.common.predicate.TextMatchers.matchesTrimmed;
 
 public class BrandPredicates {
     public static final String BRAND_MODEL_INVALID_MESSAGE = "The brandModel is invalid. Please verify the fields are correct.";
@@ -20,20 +22,31 @@ public class BrandPredicates {
     public static final String BRAND_LAST_USER_INVALID_MESSAGE = "The lastUser field might be null or is not a valid input.";
     public static final String BRAND_ENABLED_INVALID_MESSAGE = "Enabled field must not be null";
 
-    private static final Pattern brandIdPattern = Pattern.compile("b[0-9]{5}");
-    private static final Pattern namePattern = Pattern.compile("[\\w\\s&-]+");
+    private static final Predicate<String> brandIdValid = brandId -> ofNullable(brandId).isPresent()
+            && brandId.length() >= MIN_ENTITY_ID_LENGTH
+            && brandId.length() <= MAX_ENTITY_ID_LENGTH
+            && entityIdTrimmed('b', brandId);
+    private static final Predicate<String> brandNameValid = name -> ofNullable(name).isPresent()
+            && name.length() >= 3
+            && name.length() <= 100
+            && matchesTrimmed(NAME_CHARS, name, false);
+
+    public static final ModelValidator<BrandModel> BRAND_INSERT_VALIDATOR =
+            brandValidator(BRAND_ID_INVALID_AT_INSERT_MESSAGE, isBrandIdValidAtInsert());
+    public static final ModelValidator<BrandModel> BRAND_UPDATE_VALIDATOR =
+            brandValidator(BRAND_ID_INVALID_MESSAGE, brandIdValid);
+    public static final ModelValidator<ActiveBrandModel> ACTIVE_BRAND_VALIDATOR = ModelValidator.<ActiveBrandModel>builder()
+            .rule(BRAND_ID_INVALID_MESSAGE, ActiveBrandModel::getId, brandIdValid)
+            .rule(BRAND_LAST_USER_INVALID_MESSAGE, ActiveBrandModel::getLastUser, isLastUserValid())
+            .rule(BRAND_ENABLED_INVALID_MESSAGE, ActiveBrandModel::isEnabled, isEnabledValid())
+            .build();
 
     public static Predicate<String> isBrandIdValid() {
-        return brandId -> ofNullable(brandId).isPresent()
-                && brandId.length() == 6
-                && brandIdPattern.matcher(brandId.trim()).matches();
+        return brandIdValid;
     }
 
     public static Predicate<String> isBrandNameValid() {
-        return name -> ofNullable(name).isPresent()
-                && name.length() >= 3
-                && name.length() <= 100
-                && namePattern.matcher(name.trim()).matches();
+        return brandNameValid;
     }
 
     public static Predicate<Boolean> isEnabledValid() {
@@ -50,71 +63,29 @@ public class BrandPredicates {
 
 
     public static Predicate<BrandModel> isBrandModelValidForInsert(final List<String> errorList) {
-        return brandModel -> {
-            boolean idValid = isBrandIdValidAtInsert().test(brandModel.getId());
-            if (!idValid) {
-                errorList.add(BRAND_ID_INVALID_AT_INSERT_MESSAGE);
-            }
-            return evaluateModel(errorList, brandModel, idValid);
-        };
+        return BRAND_INSERT_VALIDATOR.predicate(errorList);
     }
 
 
     public static Predicate<BrandModel> isBrandModelValidForUpdate(final List<String> errorList) {
-        return brandModel -> {
-            boolean idValid = isBrandIdValid().test(brandModel.getId());
-            if (!idValid) {
-                errorList.add(BRAND_ID_INVALID_MESSAGE);
-            }
-            return evaluateModel(errorList, brandModel, idValid);
-        };
+        return BRAND_UPDATE_VALIDATOR.predicate(errorList);
     }
 
-    private static boolean evaluateModel(List<String> errorList, BrandModel brandModel, boolean idValid) {
-        boolean nameValid = isBrandNameValid().test(brandModel.getName());
-        boolean descriptionValid = isDescriptionValid().test(brandModel.getDescription());
-        boolean lastUserValid = isLastUserValid().test(brandModel.getLastUser());
-
-        if (!nameValid) {
-            errorList.add(BRAND_NAME_INVALID_MESSAGE);
-        }
-        if (!descriptionValid) {
-            errorList.add(BRAND_DESCRIPTION_INVALID_MESSAGE);
-        }
-        if (!lastUserValid) {
-            errorList.add(BRAND_LAST_USER_INVALID_MESSAGE);
-        }
-
-        return idValid
-                && nameValid
-                && descriptionValid
-                && lastUserValid;
+    private static ModelValidator<BrandModel> brandValidator(final String idMessage, final Predicate<String> idValid) {
+        return ModelValidator.<BrandModel>builder()
+                .rule(idMessage, BrandModel::getId, idValid)
+                .rule(BRAND_NAME_INVALID_MESSAGE, BrandModel::getName, brandNameValid)
+                .rule(BRAND_DESCRIPTION_INVALID_MESSAGE, BrandModel::getDescription, isDescriptionValid())
+                .rule(BRAND_LAST_USER_INVALID_MESSAGE, BrandModel::getLastUser, isLastUserValid())
+                .build();
     }
 
     public static Predicate<ActiveBrandModel> isActiveBrandModelValid(final List<String> errorList) {
-        return activeBrandModel -> {
-            boolean idValid = isBrandIdValid().test(activeBrandModel.getId());
-            boolean lastUserValid = isLastUserValid().test(activeBrandModel.getLastUser());
-            boolean enabledValid = isEnabledValid().test(activeBrandModel.isEnabled());
-
-            if (!idValid) {
-                errorList.add(BRAND_ID_INVALID_MESSAGE);
-            }
-            if (!lastUserValid) {
-                errorList.add(BRAND_LAST_USER_INVALID_MESSAGE);
-            }
-            if (!enabledValid) {
-                errorList.add(BRAND_ENABLED_INVALID_MESSAGE);
-            }
-
-            return idValid && lastUserValid && enabledValid;
-        };
+        return ACTIVE_BRAND_VALIDATOR.predicate(errorList);
     }
 
     public static Predicate<Set<ActiveBrandModel>> isActiveBrandSetValid(final List<String> errorList) {
-        return activeBrandModelSet -> ofNullable(activeBrandModelSet).isPresent()
-                && activeBrandModelSet.stream()
-                .allMatch(activeBrandModel -> isActiveBrandModelValid(errorList).test(activeBrandModel));
+        return activeBrandModelSet -> ACTIVE_BRAND_VALIDATOR.validateSet(activeBrandModelSet, ActiveBrandModel::getId, errorList);
     }
 
 
@@ -1,35 +1,80 @@
 package net.erp.eveline.common.predicate;
 
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 import static java.util.Optional.ofNullable;
+import static net.erp.eveline.common.predicate.TextMatchers.LAST_USER_CHARS;
+import static net.erp.eveline.common.predicate.TextMatchers.TEXT_CHARS;
+import static net.erp.eveline.common.predicate.TextMatchers.digits;
+import static net.erp.eveline.common.predicate.TextMatchers.matches;
+import static net.erp.eveline.common.predicate.TextMatchers.matchesTrimmed;
 
 public class CommonPredicates {
-    static final Pattern texFieldPattern = Pattern.compile("[\\wáéíóúÁÉÍÓÚüÜñÑ$₡€@%|\\s()\\[\\]{}¡!¿?\";,&/.:'<>_+-]*");
-    static final Pattern phonePattern = Pattern.compile("\\d{8,25}");
-    static final Pattern lastUserPattern = Pattern.compile("[\\w.]+");
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final String PAGE_SIZE_INVALID_MESSAGE = "The page size must be between 1 and " + MAX_PAGE_SIZE + ".";
+    public static final int MAX_BATCH_SIZE = 500;
+    public static final String BATCH_SIZE_INVALID_MESSAGE = "A batch must contain at most " + MAX_BATCH_SIZE + " items.";
+    public static final String BATCH_ITEM_NULL_MESSAGE = "The batch item must not be null.";
+    public static final String BATCH_ID_REPEATED_MESSAGE = "The id is repeated in the batch, only its first occurrence is processed.";
+    public static final String ACTIVE_SET_ID_REPEATED_MESSAGE = "Every id of an active status set must be unique.";
+    public static final String BATCH_ITEM_NOT_FOUND_MESSAGE = "Unable to update a record with the id specified: %s";
+
+    static final int MIN_ENTITY_ID_LENGTH = 6;
+    static final int MAX_ENTITY_ID_LENGTH = 11;
+
+    private static final Predicate<String> lastUserValid = lastUser -> ofNullable(lastUser).isPresent()
+            && lastUser.length() >= 3
+            && lastUser.length() <= 100
+            && matches(LAST_USER_CHARS, lastUser, false);
+    private static final Predicate<String> descriptionValid = description -> ofNullable(description).isEmpty()
+            || matchesTrimmed(TEXT_CHARS, description, true);
+    private static final Predicate<String> phoneValid = telephone -> ofNullable(telephone).isPresent()
+            && digits(telephone, 8, 25);
+    private static final Predicate<String> optionalPhoneValid = telephone -> ofNullable(telephone).isEmpty()
+            || digits(telephone, 8, 25);
 
     public static Predicate<String> isLastUserValid() {
-        return lastUser -> ofNullable(lastUser).isPresent()
-                && lastUser.length() >= 3
-                && lastUser.length() <= 100
-                && lastUserPattern.matcher(lastUser).matches();
+        return lastUserValid;
     }
 
     public static Predicate<String> isDescriptionValid() {
-        return description -> ofNullable(description).isEmpty()
-                || texFieldPattern.matcher(description.trim()).matches();
+        return descriptionValid;
     }
 
     public static Predicate<String> isPhoneValid() {
-        return telephone -> ofNullable(telephone).isPresent()
-                && phonePattern.matcher(telephone).matches();
+        return phoneValid;
     }
 
     public static Predicate<String> isOptionalPhoneValid() {
-        return telephone -> ofNullable(telephone).isEmpty()
-                || phonePattern.matcher(telephone).matches();
+        return optionalPhoneValid;
+    }
+
+    public static Predicate<Integer> isPageSizeValid() {
+        return size -> ofNullable(size).isPresent()
+                && size >= 1
+                && size <= MAX_PAGE_SIZE;
+    }
+
+    public static Predicate<List<?>> isBatchSizeValid() {
+        return batch -> ofNullable(batch).isPresent()
+                && batch.size() <= MAX_BATCH_SIZE;
+    }
+
+    static String trim(final String value) {
+        return value == null ? null : value.trim();
+    }
+
+    public static <M> Predicate<Set<M>> areActiveSetIdsUnique(final Function<M, String> idExtractor, final List<String> errorList) {
+        return activeModelSet -> {
+            boolean idsUnique = activeModelSet.stream().map(idExtractor).distinct().count() == activeModelSet.size();
+            if (!idsUnique) {
+                errorList.add(ACTIVE_SET_ID_REPEATED_MESSAGE);
+            }
+            return idsUnique;
+        };
     }
 
 }
@@ -0,0 +1,121 @@
+package net.erp.eveline.common.predicate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static net.erp.eveline.common.predicate.CommonPredicates.ACTIVE_SET_ID_REPEATED_MESSAGE;
+
+/**
+ * The rules of a model, built once per model and operation. Checking a model evaluates every rule and returns the
+ * failed ones as a bitmask; the messages of the failures are only looked up when there are any, in the order the rules
+ * were added.
+ */
+public final class ModelValidator<M> {
+    private static final int MAX_RULES = Long.SIZE;
+
+    private final List<Predicate<M>> rules;
+    private final List<String> messages;
+
+    private ModelValidator(final List<Predicate<M>> rules, final List<String> messages) {
+        this.rules = List.copyOf(rules);
+        this.messages = List.copyOf(messages);
+    }
+
+    public static <M> Builder<M> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return a bitmask with the bit of every failed rule set, zero when the model is valid.
+     */
+    public long check(final M model) {
+        long failures = 0;
+        for (int rule = 0; rule < rules.size(); rule++) {
+            if (!rules.get(rule).test(model)) {
+                failures |= 1L << rule;
+            }
+        }
+        return failures;
+    }
+
+    public List<String> messages(final long failures) {
+        final List<String> failureMessages = new ArrayList<>(Long.bitCount(failures));
+        for (long remaining = failures; remaining != 0; remaining &= remaining - 1) {
+            failureMessages.add(messages.get(Long.numberOfTrailingZeros(remaining)));
+        }
+        return failureMessages;
+    }
+
+    /**
+     * Checks the model and adds the messages of its failures to the error list.
+     */
+    public boolean validate(final M model, final List<String> errorList) {
+        final long failures = check(model);
+        if (failures != 0) {
+            errorList.addAll(messages(failures));
+        }
+        return failures == 0;
+    }
+
+    public Predicate<M> predicate(final List<String> errorList) {
+        return model -> validate(model, errorList);
+    }
+
+    /**
+     * Validates a whole set in one pass: every model is checked and its id recorded as it goes. The messages of the
+     * first invalid model are added to the error list; when every model is valid but an id is repeated, the repeated
+     * id message is.
+     */
+    public boolean validateSet(final Collection<M> models, final Function<M, String> idExtractor, final List<String> errorList) {
+        if (models == null) {
+            return false;
+        }
+        final var ids = new HashSet<String>(models.size() * 2);
+        boolean idsUnique = true;
+        for (final M model : models) {
+            if (!validate(model, errorList)) {
+                return false;
+            }
+            idsUnique &= ids.add(idExtractor.apply(model));
+        }
+        if (!idsUnique) {
+            errorList.add(ACTIVE_SET_ID_REPEATED_MESSAGE);
+        }
+        return idsUnique;
+    }
+
+    public static class Builder<M> {
+        private final List<Predicate<M>> rules = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a rule that must hold for a model to be valid and the message reported when it does not.
+         */
+        public Builder<M> rule(final String message, final Predicate<M> rule) {
+            if (rules.size() == MAX_RULES) {
+                throw new IllegalStateException("A model validator supports at most " + MAX_RULES + " rules.");
+            }
+            rules.add(rule);
+            messages.add(message);
+            return this;
+        }
+
+        /**
+         * Adds a rule over one field of the model.
+         */
+        public <F> Builder<M> rule(final String message, final Function<M, F> field, final Predicate<F> rule) {
+            return rule(message, model -> rule.test(field.apply(model)));
+        }
+
+        public ModelValidator<M> build() {
+            return new ModelValidator<>(rules, messages);
+        }
+    }
+}
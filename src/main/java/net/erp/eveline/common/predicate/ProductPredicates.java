@@ -5,14 +5,18 @@ import net.erp.eveline.model.BrandModel;
 import net.erp.eveline.model.ProductModel;
 
 import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 import static java.util.Optional.ofNullable;
 import static net.erp.eveline.common.predicate.BrandPredicates.BRAND_ID_INVALID_MESSAGE;
 import static net.erp.eveline.common.predicate.BrandPredicates.isBrandIdValid;
 import static net.erp.eveline.common.predicate.CommonPredicates.*;
 import static net.erp.eveline.common.predicate.ProviderPredicates.isProviderSetValid;
+import static net.erp.eveline.common.predicate.TextMatchers.TITLE_CHARS;
+import static net.erp.eveline.common.predicate.TextMatchers.digitsTrimmed;
+import static net.erp.eveline.common.predicate.TextMatchers.entityIdTrimmed;
+import static net.erp.eveline.common.predicate.TextMatchers.matchesTrimmed;
 
 public class ProductPredicates {
     public static final String PRODUCT_MODEL_INVALID_MESSAGE = "The productModel is invalid. Please verify the fields are correct.";
@@ -25,28 +29,36 @@ public class ProductPredicates {
     public static final String PRODUCT_ENABLED_INVALID_MESSAGE = "Enabled field must not be null.";
     public static final String PRODUCT_PROVIDER_SET_INVALID_MESSAGE = "ProviderSet must have a valid set of ID and must not be null.";
 
-    private static final Pattern productIdPattern = Pattern.compile("s[0-9]{5}");
-    private static final Pattern productUpcPattern = Pattern.compile("[0-9]{12}");
-    private static final Pattern productTitlePattern = Pattern.compile("[\\w\\s-]+");
+    private static final Predicate<String> productIdValid = productId -> ofNullable(productId).isPresent()
+            && productId.length() >= MIN_ENTITY_ID_LENGTH
+            && productId.length() <= MAX_ENTITY_ID_LENGTH
+            && entityIdTrimmed('s', productId);
+    private static final Predicate<String> productTitleValid = title -> ofNullable(title).isPresent()
+            && title.length() >= 2
+            && title.length() <= 100
+            && matchesTrimmed(TITLE_CHARS, title, false);
+    private static final Predicate<String> productUpcValid = productUpc -> ofNullable(productUpc).isPresent()
+            && productUpc.length() == 12
+            && digitsTrimmed(productUpc, 12);
+    private static final Predicate<BrandModel> brandValid = brand -> ofNullable(brand).isPresent()
+            && isBrandIdValid().test(brand.getId());
+
+    public static final ModelValidator<ProductModel> PRODUCT_INSERT_VALIDATOR =
+            productValidator(PRODUCT_ID_INVALID_AT_INSERT_MESSAGE, isProductIdValidAtInsert());
+    public static final ModelValidator<ProductModel> PRODUCT_UPDATE_VALIDATOR =
+            productValidator(PRODUCT_ID_INVALID_MESSAGE, productIdValid);
+    public static final ModelValidator<ActiveProductModel> ACTIVE_PRODUCT_VALIDATOR = ModelValidator.<ActiveProductModel>builder()
+            .rule(PRODUCT_ID_INVALID_MESSAGE, ActiveProductModel::getId, productIdValid)
+            .rule(PRODUCT_LAST_USER_INVALID_MESSAGE, ActiveProductModel::getLastUser, isLastUserValid())
+            .rule(PRODUCT_ENABLED_INVALID_MESSAGE, ActiveProductModel::isEnabled, isEnabledValid())
+            .build();
 
     public static Predicate<ProductModel> isProductModelValidForInsert(final List<String> errorList) {
-        return productModel -> {
-            boolean idValid = isProductIdValidAtInsert().test(productModel.getId());
-            if (!idValid) {
-                errorList.add(PRODUCT_ID_INVALID_AT_INSERT_MESSAGE);
-            }
-            return evaluateModel(errorList, productModel, idValid);
-        };
+        return PRODUCT_INSERT_VALIDATOR.predicate(errorList);
     }
 
     public static Predicate<ProductModel> isProductModelValidForUpdate(final List<String> errorList) {
-        return productModel -> {
-            boolean idValid = isProductIdValid().test(productModel.getId());
-            if (!idValid) {
-                errorList.add(PRODUCT_ID_INVALID_MESSAGE);
-            }
-            return evaluateModel(errorList, productModel, idValid);
-        };
+        return PRODUCT_UPDATE_VALIDATOR.predicate(errorList);
     }
 
     public static Predicate<String> isProductIdValidAtInsert() {
@@ -54,41 +66,23 @@ public class ProductPredicates {
     }
 
     public static Predicate<ActiveProductModel> isActiveProductModelValid(final List<String> errorList) {
-        return activateProductModel -> {
-            boolean idValid = isProductIdValid().test(activateProductModel.getId());
-            boolean lastUserValid = isLastUserValid().test(activateProductModel.getLastUser());
-            boolean enabledValid = isEnabledValid().test(activateProductModel.isEnabled());
-
-            if (!idValid) {
-                errorList.add(PRODUCT_ID_INVALID_MESSAGE);
-            }
-            if (!lastUserValid) {
-                errorList.add(PRODUCT_LAST_USER_INVALID_MESSAGE);
-            }
-            if (!enabledValid) {
-                errorList.add(PRODUCT_ENABLED_INVALID_MESSAGE);
-            }
-
-            return idValid && lastUserValid && enabledValid;
-        };
+        return ACTIVE_PRODUCT_VALIDATOR.predicate(errorList);
+    }
+
+    public static Predicate<Set<ActiveProductModel>> isActiveProductSetValid(final List<String> errorList) {
+        return activeProductModelSet -> ACTIVE_PRODUCT_VALIDATOR.validateSet(activeProductModelSet, ActiveProductModel::getId, errorList);
     }
 
     public static Predicate<String> isProductIdValid() {
-        return productId -> ofNullable(productId).isPresent()
-                && productId.length() == 6
-                && productIdPattern.matcher(productId.trim()).matches();
+        return productIdValid;
     }
 
     public static Predicate<String> isProductTitleValid() {
-        return title -> ofNullable(title).isPresent()
-                && title.length() >= 2
-                && title.length() <= 100
-                && productTitlePattern.matcher(title.trim()).matches();
+        return productTitleValid;
     }
 
     public static Predicate<BrandModel> isBrandValid() {
-        return brand -> ofNullable(brand).isPresent()
-                && isBrandIdValid().test(brand.getId());
+        return brandValid;
     }
 
     public static Predicate<Boolean> isEnabledValid() {
@@ -96,46 +90,19 @@ public class ProductPredicates {
     }
 
     public static Predicate<String> isProductUpcValid() {
-        return productUpc -> ofNullable(productUpc).isPresent()
-                && productUpc.length() == 12
-                && productUpcPattern.matcher(productUpc.trim()).matches();
+        return productUpcValid;
     }
 
-
-    private static boolean evaluateModel(final List<String> errorList, final ProductModel productModel, boolean idValid) {
-        boolean titleValid = isProductTitleValid().test(productModel.getTitle().trim());
-        boolean brandValid = isBrandValid().test(productModel.getBrand());
-        boolean descriptionValid = isDescriptionValid().test(productModel.getDescription());
-        boolean lastUserValid = isLastUserValid().test(productModel.getLastUser());
-        boolean upcValid = isProductUpcValid().test(productModel.getUpc());
-        boolean isProviderSetValid = isProviderSetValid().test(productModel.getProviderSet());
-
-        if (!titleValid) {
-            errorList.add(PRODUCT_TITLE_INVALID_MESSAGE);
-        }
-        if (!brandValid) {
-            errorList.add(BRAND_ID_INVALID_MESSAGE);
-        }
-        if (!descriptionValid) {
-            errorList.add(PRODUCT_DESCRIPTION_INVALID_MESSAGE);
-        }
-        if (!upcValid) {
-            errorList.add(PRODUCT_UPC_INVALID_MESSAGE);
-        }
-        if (!lastUserValid) {
-            errorList.add(PRODUCT_LAST_USER_INVALID_MESSAGE);
-        }
-        if (!isProviderSetValid) {
-            errorList.add(PRODUCT_PROVIDER_SET_INVALID_MESSAGE);
-        }
-
-        return idValid
-                && titleValid
-                && brandValid
-                && descriptionValid
-                && upcValid
-                && lastUserValid
-                && isProviderSetValid;
+    private static ModelValidator<ProductModel> productValidator(final String idMessage, final Predicate<String> idValid) {
+        return ModelValidator.<ProductModel>builder()
+                .rule(idMessage, ProductModel::getId, idValid)
+                .rule(PRODUCT_TITLE_INVALID_MESSAGE, productModel -> productTitleValid.test(trim(productModel.getTitle())))
+                .rule(BRAND_ID_INVALID_MESSAGE, ProductModel::getBrand, brandValid)
+                .rule(PRODUCT_DESCRIPTION_INVALID_MESSAGE, ProductModel::getDescription, isDescriptionValid())
+                .rule(PRODUCT_UPC_INVALID_MESSAGE, ProductModel::getUpc, productUpcValid)
+                .rule(PRODUCT_LAST_USER_INVALID_MESSAGE, ProductModel::getLastUser, isLastUserValid())
+                .rule(PRODUCT_PROVIDER_SET_INVALID_MESSAGE, ProductModel::getProviderSet, isProviderSetValid())
+                .build();
     }
 
 }
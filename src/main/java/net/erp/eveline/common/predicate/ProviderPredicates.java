@@ -6,10 +6,13 @@ import net.erp.eveline.model.ProviderModel;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 import static java.util.Optional.ofNullable;
 import static net.erp.eveline.common.predicate.CommonPredicates.*;
+import static net.erp.eveline.common.predicate.TextMatchers.PROVIDER_NAME_CHARS;
+import static net.erp.eveline.common.predicate.TextMatchers.emailTrimmed;
+import static net.erp.eveline.common.predicate.TextMatchers.entityIdTrimmed;
+import static net.erp.eveline.common.predicate.TextMatchers.matchesTrimmed;
 
 public class ProviderPredicates {
 
@@ -24,103 +27,79 @@ public class ProviderPredicates {
     public static final String PROVIDER_LAST_USER_INVALID_MESSAGE = "The lastUser field might be null or is not a valid input.";
     public static final String PROVIDER_ENABLED_INVALID_MESSAGE = "Enabled field must not be null";
 
-    private static final Pattern providerIdPattern = Pattern.compile("p[0-9]{5}");
-    private static final Pattern namePattern = Pattern.compile("[\\w\\s&.-]+");
-    private static final Pattern emailPattern = Pattern.compile("^[\\w!#$%&’*+/=?`{|}~^-]+(?:\\.[\\w!#$%&’*+/=?`{|}~^-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,6}$");
+    private static final Predicate<String> providerIdValid = providerId -> ofNullable(providerId).isPresent()
+            && providerId.length() >= MIN_ENTITY_ID_LENGTH
+            && providerId.length() <= MAX_ENTITY_ID_LENGTH
+            && entityIdTrimmed('p', providerId);
+    private static final Predicate<String> providerNameValid = name -> ofNullable(name).isPresent()
+            && name.length() >= 3
+            && name.length() <= 100
+            && matchesTrimmed(PROVIDER_NAME_CHARS, name, false);
+    private static final Predicate<String> providerEmailValid = email -> ofNullable(email).isPresent()
+            && email.length() >= 3
+            && email.length() <= 100
+            && emailTrimmed(email);
+    private static final Predicate<Set<ProviderModel>> providerSetValid = providers -> {
+        if (ofNullable(providers).isEmpty()) {
+            return false;
+        }
+        for (final ProviderModel provider : providers) {
+            if (!providerIdValid.test(provider.getId())) {
+                return false;
+            }
+        }
+        return true;
+    };
+
+    public static final ModelValidator<ProviderModel> PROVIDER_INSERT_VALIDATOR =
+            providerValidator(PROVIDER_ID_INVALID_AT_INSERT_MESSAGE, isProviderIdValidAtInsert());
+    public static final ModelValidator<ProviderModel> PROVIDER_UPDATE_VALIDATOR =
+            providerValidator(PROVIDER_ID_INVALID_MESSAGE, providerIdValid);
+    public static final ModelValidator<ActiveProviderModel> ACTIVE_PROVIDER_VALIDATOR = ModelValidator.<ActiveProviderModel>builder()
+            .rule(PROVIDER_ID_INVALID_MESSAGE, ActiveProviderModel::getId, providerIdValid)
+            .rule(PROVIDER_LAST_USER_INVALID_MESSAGE, ActiveProviderModel::getLastUser, isLastUserValid())
+            .rule(PROVIDER_ENABLED_INVALID_MESSAGE, ActiveProviderModel::isEnabled, isEnabledValid())
+            .build();
 
     public static Predicate<ProviderModel> isProviderModelValid() {
         return providerModel -> isProviderIdValid().test(providerModel.getId());
     }
 
     public static Predicate<ProviderModel> isProviderModelValidForInsert(final List<String> errorList) {
-        return providerModel -> {
-            boolean idValid = isProviderIdValidAtInsert().test(providerModel.getId());
-            if (!idValid) {
-                errorList.add(PROVIDER_ID_INVALID_AT_INSERT_MESSAGE);
-            }
-            return evaluateModel(errorList, providerModel, idValid);
-        };
+        return PROVIDER_INSERT_VALIDATOR.predicate(errorList);
     }
 
     public static Predicate<ProviderModel> isProviderModelValidForUpdate(final List<String> errorList) {
-        return providerModel -> {
-            boolean idValid = isProviderIdValid().test(providerModel.getId());
-            if (!idValid) {
-                errorList.add(PROVIDER_ID_INVALID_MESSAGE);
-            }
-            return evaluateModel(errorList, providerModel, idValid);
-        };
+        return PROVIDER_UPDATE_VALIDATOR.predicate(errorList);
     }
 
-    private static boolean evaluateModel(List<String> errorList, ProviderModel providerModel, boolean idValid) {
-        boolean nameValid = isProviderNameValid().test(providerModel.getName().trim());
-        boolean descriptionValid = isDescriptionValid().test(providerModel.getDescription().trim());
-        boolean emailValid = isProviderEmailValid().test(providerModel.getEmail().trim());
-        boolean telephone1Valid = isPhoneValid().test(providerModel.getTelephone1());
-        boolean telephone2Valid = isOptionalPhoneValid().test(providerModel.getTelephone2());
-        boolean telephone3Valid = isOptionalPhoneValid().test(providerModel.getTelephone3());
-        boolean lastUserValid = isLastUserValid().test(providerModel.getLastUser());
-
-        if (!nameValid) {
-            errorList.add(PROVIDER_NAME_INVALID_MESSAGE);
-        }
-        if (!descriptionValid) {
-            errorList.add(PROVIDER_DESCRIPTION_INVALID_MESSAGE);
-        }
-        if (!emailValid) {
-            errorList.add(PROVIDER_EMAIL_INVALID_MESSAGE);
-        }
-        if (!telephone1Valid) {
-            errorList.add(PROVIDER_PHONE_INVALID_MESSAGE);
-        }
-        if (!telephone2Valid) {
-            errorList.add(PROVIDER_NULL_PHONE_INVALID_MESSAGE);
-        }
-        if (!telephone3Valid) {
-            errorList.add(PROVIDER_NULL_PHONE_INVALID_MESSAGE);
-        }
-        if (!lastUserValid) {
-            errorList.add(PROVIDER_LAST_USER_INVALID_MESSAGE);
-        }
-
-        return idValid && nameValid && descriptionValid && emailValid && telephone1Valid && telephone2Valid && telephone3Valid && lastUserValid;
+    private static ModelValidator<ProviderModel> providerValidator(final String idMessage, final Predicate<String> idValid) {
+        return ModelValidator.<ProviderModel>builder()
+                .rule(idMessage, ProviderModel::getId, idValid)
+                .rule(PROVIDER_NAME_INVALID_MESSAGE, providerModel -> providerNameValid.test(trim(providerModel.getName())))
+                .rule(PROVIDER_DESCRIPTION_INVALID_MESSAGE, ProviderModel::getDescription, isDescriptionValid())
+                .rule(PROVIDER_EMAIL_INVALID_MESSAGE, providerModel -> providerEmailValid.test(trim(providerModel.getEmail())))
+                .rule(PROVIDER_PHONE_INVALID_MESSAGE, ProviderModel::getTelephone1, isPhoneValid())
+                .rule(PROVIDER_NULL_PHONE_INVALID_MESSAGE, ProviderModel::getTelephone2, isOptionalPhoneValid())
+                .rule(PROVIDER_NULL_PHONE_INVALID_MESSAGE, ProviderModel::getTelephone3, isOptionalPhoneValid())
+                .rule(PROVIDER_LAST_USER_INVALID_MESSAGE, ProviderModel::getLastUser, isLastUserValid())
+                .build();
     }
 
     public static Predicate<ActiveProviderModel> isActiveProviderModelValid(final List<String> errorList) {
-        return activeProviderModel -> {
-            boolean idValid = isProviderIdValid().test(activeProviderModel.getId());
-            boolean lastUserValid = isLastUserValid().test(activeProviderModel.getLastUser());
-            boolean enabledValid = isEnabledValid().test(activeProviderModel.isEnabled());
-
-            if (!idValid) {
-                errorList.add(PROVIDER_ID_INVALID_MESSAGE);
-            }
-            if (!lastUserValid) {
-                errorList.add(PROVIDER_LAST_USER_INVALID_MESSAGE);
-            }
-            if (!enabledValid) {
-                errorList.add(PROVIDER_ENABLED_INVALID_MESSAGE);
-            }
-
-            return idValid && lastUserValid && enabledValid;
-        };
+        return ACTIVE_PROVIDER_VALIDATOR.predicate(errorList);
     }
 
     public static Predicate<Set<ActiveProviderModel>> isActiveProviderSetValid(final List<String> errorList) {
-        return activeProviderModelSet -> ofNullable(activeProviderModelSet).isPresent()
-                && activeProviderModelSet.stream()
-                .allMatch(activeProviderModel -> isActiveProviderModelValid(errorList).test(activeProviderModel));
+        return activeProviderModelSet -> ACTIVE_PROVIDER_VALIDATOR.validateSet(activeProviderModelSet, ActiveProviderModel::getId, errorList);
     }
 
     public static Predicate<String> isProviderIdValid() {
-        return providerId -> ofNullable(providerId).isPresent()
-                && providerId.length() == 6
-                && providerIdPattern.matcher(providerId.trim()).matches();
+        return providerIdValid;
     }
 
     public static Predicate<Set<ProviderModel>> isProviderSetValid() {
-        return providers -> ofNullable(providers).isPresent()
-                && providers.stream().allMatch(provider -> isProviderIdValid().test(provider.getId()));
+        return providerSetValid;
     }
 
     public static Predicate<String> isProviderIdValidAtInsert() {
@@ -128,19 +107,11 @@ public class ProviderPredicates {
     }
 
     public static Predicate<String> isProviderNameValid() {
-        return name -> ofNullable(name).isPresent()
-                && name.length() >= 3
-                && name.length() <= 100
-                && namePattern.matcher(name.trim()).matches();
+        return providerNameValid;
     }
 
-
-
     public static Predicate<String> isProviderEmailValid() {
-        return email -> ofNullable(email).isPresent()
-                && email.length() >= 3
-                && email.length() <= 100
-                && emailPattern.matcher(email.trim()).matches();
+        return providerEmailValid;
     }
 
     public static Predicate<Boolean> isEnabledValid() {
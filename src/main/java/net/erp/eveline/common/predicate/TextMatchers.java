@@ -0,0 +1,186 @@
+package net.erp.eveline.common.predicate;
+
+/**
+ * Linear time matchers for the fields the predicates validate. Each one scans its input once, without backtracking
+ * and without allocating, and accepts exactly what the regular expression in its comment accepts.
+ */
+final class TextMatchers {
+    private static final String WORD = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_";
+    private static final String SPACE = " \t\n\u000B\f\r";
+
+    // [\w\s&.-]
+    static final CharClass PROVIDER_NAME_CHARS = new CharClass(WORD + SPACE + "&.-");
+    // [\w\s&-]
+    static final CharClass NAME_CHARS = new CharClass(WORD + SPACE + "&-");
+    // [\w\s-]
+    static final CharClass TITLE_CHARS = new CharClass(WORD + SPACE + "-");
+    // [\w.]
+    static final CharClass LAST_USER_CHARS = new CharClass(WORD + ".");
+    // [\wáéíóúÁÉÍÓÚüÜñÑ$₡€@%|\s()\[\]{}¡!¿?";,&/.:'<>_+-]
+    static final CharClass TEXT_CHARS = new CharClass(WORD + SPACE + "áéíóúÁÉÍÓÚüÜñÑ$₡€@%|()[]{}¡!¿?\";,&/.:'<>_+-");
+    // [\w!#$%&’*+/=?`{|}~^-]
+    private static final CharClass EMAIL_LOCAL_CHARS = new CharClass(WORD + "!#$%&’*+/=?`{|}~^-");
+    // [a-zA-Z0-9-]
+    private static final CharClass DOMAIN_LABEL_CHARS = new CharClass(WORD.replace("_", "") + "-");
+    // [a-zA-Z]
+    private static final CharClass LETTERS = new CharClass(WORD.substring(0, 52));
+
+    private TextMatchers() {
+    }
+
+    /**
+     * {@code class+} over the whole value, or {@code class*} when empty values are allowed.
+     */
+    static boolean matches(final CharClass chars, final String value, final boolean allowEmpty) {
+        return matches(chars, value, 0, value.length(), allowEmpty);
+    }
+
+    /**
+     * Same as {@link #matches(CharClass, String, boolean)} on {@code value.trim()}, without building the trimmed copy.
+     */
+    static boolean matchesTrimmed(final CharClass chars, final String value, final boolean allowEmpty) {
+        final int start = trimStart(value);
+        return matches(chars, value, start, trimEnd(value, start), allowEmpty);
+    }
+
+    /**
+     * {@code \d{min,max}} over the whole value.
+     */
+    static boolean digits(final String value, final int min, final int max) {
+        return digits(value, 0, value.length(), min, max);
+    }
+
+    /**
+     * {@code [0-9]{length}} on {@code value.trim()}.
+     */
+    static boolean digitsTrimmed(final String value, final int length) {
+        final int start = trimStart(value);
+        return digits(value, start, trimEnd(value, start), length, length);
+    }
+
+    /**
+     * {@code <prefix>(?:[0-9]{5}|[1-9][0-9]{5,9})} on {@code value.trim()}.
+     */
+    static boolean entityIdTrimmed(final char prefix, final String value) {
+        final int start = trimStart(value);
+        final int end = trimEnd(value, start);
+        final int digits = end - start - 1;
+        if (digits < 5 || digits > 10 || value.charAt(start) != prefix) {
+            return false;
+        }
+        return (digits == 5 || value.charAt(start + 1) != '0') && digits(value, start + 1, end, digits, digits);
+    }
+
+    /**
+     * {@code ^[\w!#$%&’*+/=?`{|}~^-]+(?:\.[\w!#$%&’*+/=?`{|}~^-]+)*@(?:[a-zA-Z0-9-]+\.)+[a-zA-Z]{2,6}$} on
+     * {@code value.trim()}. Neither part may contain an @, so the value splits at its only one; the local part is a
+     * list of non empty atoms and the domain a list of at least two non empty labels, the last one of 2 to 6 letters.
+     */
+    static boolean emailTrimmed(final String value) {
+        final int start = trimStart(value);
+        final int end = trimEnd(value, start);
+        final int at = value.indexOf('@', start);
+        if (at < 0 || at >= end) {
+            return false;
+        }
+        return dotSeparated(EMAIL_LOCAL_CHARS, value, start, at) && domain(value, at + 1, end);
+    }
+
+    private static boolean dotSeparated(final CharClass chars, final String value, final int start, final int end) {
+        int atomLength = 0;
+        for (int idx = start; idx < end; idx++) {
+            final char c = value.charAt(idx);
+            if (c == '.') {
+                if (atomLength == 0) {
+                    return false;
+                }
+                atomLength = 0;
+            } else if (chars.contains(c)) {
+                atomLength++;
+            } else {
+                return false;
+            }
+        }
+        return atomLength > 0;
+    }
+
+    private static boolean domain(final String value, final int start, final int end) {
+        final int lastDot = value.lastIndexOf('.', end - 1);
+        if (lastDot <= start) {
+            return false;
+        }
+        final int topLevelLength = end - lastDot - 1;
+        return topLevelLength >= 2 && topLevelLength <= 6
+                && matches(LETTERS, value, lastDot + 1, end, false)
+                && dotSeparated(DOMAIN_LABEL_CHARS, value, start, lastDot);
+    }
+
+    private static boolean matches(final CharClass chars, final String value, final int start, final int end,
+                                   final boolean allowEmpty) {
+        if (start == end) {
+            return allowEmpty;
+        }
+        for (int idx = start; idx < end; idx++) {
+            if (!chars.contains(value.charAt(idx))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean digits(final String value, final int start, final int end, final int min, final int max) {
+        final int length = end - start;
+        if (length < min || length > max) {
+            return false;
+        }
+        for (int idx = start; idx < end; idx++) {
+            final char c = value.charAt(idx);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same bounds String.trim() uses: every character up to the space is trimmed.
+    private static int trimStart(final String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(final String value, final int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * A regular expression character class: a lookup table for ASCII and a short list for the rest.
+     */
+    static final class CharClass {
+        private final boolean[] ascii = new boolean[128];
+        private final String others;
+
+        CharClass(final String chars) {
+            final var others = new StringBuilder();
+            for (int idx = 0; idx < chars.length(); idx++) {
+                final char c = chars.charAt(idx);
+                if (c < 128) {
+                    ascii[c] = true;
+                } else {
+                    others.append(c);
+                }
+            }
+            this.others = others.toString();
+        }
+
+        boolean contains(final char c) {
+            return c < 128 ? ascii[c] : others.indexOf(c) >= 0;
+        }
+    }
+}
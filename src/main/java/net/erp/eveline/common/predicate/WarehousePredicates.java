@@ -6,10 +6,14 @@ import net.erp.eveline.model.WarehouseModel;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 import static java.util.Optional.ofNullable;
 import static net.erp.eveline.common.predicate.CommonPredicates.*;
+import static net.erp.eveline.common.predicate.TextMatchers.NAME_CHARS;
+import static net.erp.eveline.common.predicate.TextMatchers.TEXT_CHARS;
+import static net.erp.eveline.common.predicate.TextMatchers.entityIdTrimmed;
+import static net.erp.eveline.common.predicate.TextMatchers.matches;
+import static net.erp.eveline.common.predicate.TextMatchers.matchesTrimmed;
 
 public class WarehousePredicates {
     public static final String WAREHOUSE_MODEL_INVALID_MESSAGE = "The warehouseModel is invalid. Please verify the fields are correct.";
@@ -27,36 +31,51 @@ public class WarehousePredicates {
     public static final String WAREHOUSE_LONGITUDE_INVALID_MESSAGE = "Longitude field must not be null";
     public static final String WAREHOUSE_LATITUDE_INVALID_MESSAGE = "Latitude field must not be null";
 
-    private static final Pattern warehouseIdPattern = Pattern.compile("w[0-9]{5}");
-    private static final Pattern namePattern = Pattern.compile("[\\w\\s&-]+");
+    private static final Predicate<String> warehouseIdValid = warehouseId -> ofNullable(warehouseId).isPresent()
+            && warehouseId.length() >= MIN_ENTITY_ID_LENGTH
+            && warehouseId.length() <= MAX_ENTITY_ID_LENGTH
+            && entityIdTrimmed('w', warehouseId);
+    private static final Predicate<String> warehouseNameValid = name -> ofNullable(name).isPresent()
+            && name.length() >= 3
+            && name.length() <= 100
+            && matchesTrimmed(NAME_CHARS, name, false);
+    private static final Predicate<String> warehouseAddressValid = address -> ofNullable(address).isPresent()
+            && !address.isBlank()
+            && matchesTrimmed(TEXT_CHARS, address, true);
+    private static final Predicate<String> warehouseOptionalAddressValid = address -> ofNullable(address).isEmpty()
+            || matchesTrimmed(TEXT_CHARS, address, true);
+    private static final Predicate<String> warehouseOptionalNotesValid = notes -> ofNullable(notes).isEmpty()
+            || matches(TEXT_CHARS, notes, true);
+    private static final Predicate<Double> axisValid = axis -> ofNullable(axis).isPresent();
+
+    public static final ModelValidator<WarehouseModel> WAREHOUSE_INSERT_VALIDATOR =
+            warehouseValidator(WAREHOUSE_ID_INVALID_AT_INSERT_MESSAGE, isWarehouseIdValidAtInsert());
+    public static final ModelValidator<WarehouseModel> WAREHOUSE_UPDATE_VALIDATOR =
+            warehouseValidator(WAREHOUSE_ID_INVALID_MESSAGE, warehouseIdValid);
+    public static final ModelValidator<ActiveWarehouseModel> ACTIVE_WAREHOUSE_VALIDATOR = ModelValidator.<ActiveWarehouseModel>builder()
+            .rule(WAREHOUSE_ID_INVALID_MESSAGE, ActiveWarehouseModel::getId, warehouseIdValid)
+            .rule(WAREHOUSE_LAST_USER_INVALID_MESSAGE, ActiveWarehouseModel::getLastUser, isLastUserValid())
+            .rule(WAREHOUSE_ENABLED_INVALID_MESSAGE, ActiveWarehouseModel::isEnabled, isEnabledValid())
+            .build();
 
     public static Predicate<String> isWarehouseIdValid() {
-        return warehouseId -> ofNullable(warehouseId).isPresent()
-                && warehouseId.length() == 6
-                && warehouseIdPattern.matcher(warehouseId.trim()).matches();
+        return warehouseIdValid;
     }
 
     public static Predicate<String> isWarehouseNameValid() {
-        return name -> ofNullable(name).isPresent()
-                && name.length() >= 3
-                && name.length() <= 100
-                && namePattern.matcher(name.trim()).matches();
+        return warehouseNameValid;
     }
 
     public static Predicate<String> isWarehouseAddressValid() {
-        return address -> ofNullable(address).isPresent()
-                && !address.isBlank()
-                && texFieldPattern.matcher(address.trim()).matches();
+        return warehouseAddressValid;
     }
 
     public static Predicate<String> isWarehouseOptionalAddressValid() {
-        return address -> ofNullable(address).isEmpty()
-                || texFieldPattern.matcher(address.trim()).matches();
+        return warehouseOptionalAddressValid;
     }
 
     public static Predicate<String> isWarehouseOptionalNotesValid() {
-        return notes -> ofNullable(notes).isEmpty()
-                || texFieldPattern.matcher(notes).matches();
+        return warehouseOptionalNotesValid;
     }
 
     public static Predicate<Boolean> isEnabledValid() {
@@ -68,7 +87,7 @@ public class WarehousePredicates {
     }
 
     public static Predicate<Double> isAxisValid() {
-        return axis -> ofNullable(axis).isPresent();
+        return axisValid;
     }
 
     public static Predicate<WarehouseModel> isWarehouseModelValid() {
@@ -77,108 +96,36 @@ public class WarehousePredicates {
 
 
     public static Predicate<WarehouseModel> isWarehouseModelValidForInsert(final List<String> errorList) {
-        return warehouseModel -> {
-            boolean idValid = isWarehouseIdValidAtInsert().test(warehouseModel.getId());
-            if (!idValid) {
-                errorList.add(WAREHOUSE_ID_INVALID_AT_INSERT_MESSAGE);
-            }
-            return evaluateModel(errorList, warehouseModel, idValid);
-        };
+        return WAREHOUSE_INSERT_VALIDATOR.predicate(errorList);
     }
 
 
     public static Predicate<WarehouseModel> isWarehouseModelValidForUpdate(final List<String> errorList) {
-        return warehouseModel -> {
-            boolean idValid = isWarehouseIdValid().test(warehouseModel.getId());
-            if (!idValid) {
-                errorList.add(WAREHOUSE_ID_INVALID_MESSAGE);
-            }
-            return evaluateModel(errorList, warehouseModel, idValid);
-        };
+        return WAREHOUSE_UPDATE_VALIDATOR.predicate(errorList);
     }
 
-    private static boolean evaluateModel(List<String> errorList, WarehouseModel warehouseModel, boolean idValid) {
-        boolean nameValid = isWarehouseNameValid().test(warehouseModel.getName().trim());
-        boolean descriptionValid = isDescriptionValid().test(warehouseModel.getDescription());
-        boolean address1Valid = isWarehouseAddressValid().test(warehouseModel.getAddress1());
-        boolean address2Valid = isWarehouseOptionalAddressValid().test(warehouseModel.getAddress2());
-        boolean telephone1Valid = isPhoneValid().test(warehouseModel.getTelephone1());
-        boolean telephone2Valid = isOptionalPhoneValid().test(warehouseModel.getTelephone2());
-        boolean longitudeValid = isAxisValid().test(warehouseModel.getLongitude());
-        boolean latitudeValid = isAxisValid().test(warehouseModel.getLatitude());
-        boolean notesValid = isWarehouseOptionalNotesValid().test(warehouseModel.getNotes());
-        boolean lastUserValid = isLastUserValid().test(warehouseModel.getLastUser());
-
-        if (!nameValid) {
-            errorList.add(WAREHOUSE_NAME_INVALID_MESSAGE);
-        }
-        if (!descriptionValid) {
-            errorList.add(WAREHOUSE_DESCRIPTION_INVALID_MESSAGE);
-        }
-        if (!address1Valid) {
-            errorList.add(WAREHOUSE_NULL_ADDRESS_INVALID_MESSAGE);
-        }
-        if (!address2Valid) {
-            errorList.add(WAREHOUSE_ADDRESS_INVALID_MESSAGE);
-        }
-        if (!telephone1Valid) {
-            errorList.add(WAREHOUSE_NULL_PHONE_INVALID_MESSAGE);
-        }
-        if (!telephone2Valid) {
-            errorList.add(WAREHOUSE_PHONE_INVALID_MESSAGE);
-        }
-        if (!notesValid) {
-            errorList.add(WAREHOUSE_NOTES_INVALID_MESSAGE);
-        }
-        if (!lastUserValid) {
-            errorList.add(WAREHOUSE_LAST_USER_INVALID_MESSAGE);
-        }
-
-        if (!longitudeValid) {
-            errorList.add(WAREHOUSE_LONGITUDE_INVALID_MESSAGE);
-        }
-
-        if (!latitudeValid) {
-            errorList.add(WAREHOUSE_LATITUDE_INVALID_MESSAGE);
-        }
-
-        return idValid
-                && nameValid
-                && descriptionValid
-                && address1Valid
-                && address2Valid
-                && telephone1Valid
-                && telephone2Valid
-                && notesValid
-                && lastUserValid
-                && longitudeValid
-                && latitudeValid;
+    private static ModelValidator<WarehouseModel> warehouseValidator(final String idMessage, final Predicate<String> idValid) {
+        return ModelValidator.<WarehouseModel>builder()
+                .rule(idMessage, WarehouseModel::getId, idValid)
+                .rule(WAREHOUSE_NAME_INVALID_MESSAGE, warehouseModel -> warehouseNameValid.test(trim(warehouseModel.getName())))
+                .rule(WAREHOUSE_DESCRIPTION_INVALID_MESSAGE, WarehouseModel::getDescription, isDescriptionValid())
+                .rule(WAREHOUSE_NULL_ADDRESS_INVALID_MESSAGE, WarehouseModel::getAddress1, warehouseAddressValid)
+                .rule(WAREHOUSE_ADDRESS_INVALID_MESSAGE, WarehouseModel::getAddress2, warehouseOptionalAddressValid)
+                .rule(WAREHOUSE_NULL_PHONE_INVALID_MESSAGE, WarehouseModel::getTelephone1, isPhoneValid())
+                .rule(WAREHOUSE_PHONE_INVALID_MESSAGE, WarehouseModel::getTelephone2, isOptionalPhoneValid())
+                .rule(WAREHOUSE_NOTES_INVALID_MESSAGE, WarehouseModel::getNotes, warehouseOptionalNotesValid)
+                .rule(WAREHOUSE_LAST_USER_INVALID_MESSAGE, WarehouseModel::getLastUser, isLastUserValid())
+                .rule(WAREHOUSE_LONGITUDE_INVALID_MESSAGE, WarehouseModel::getLongitude, axisValid)
+                .rule(WAREHOUSE_LATITUDE_INVALID_MESSAGE, WarehouseModel::getLatitude, axisValid)
+                .build();
     }
 
     public static Predicate<ActiveWarehouseModel> isActiveWarehouseModelValid(final List<String> errorList) {
-        return activeWarehouseModel -> {
-            boolean idValid = isWarehouseIdValid().test(activeWarehouseModel.getId());
-            boolean lastUserValid = isLastUserValid().test(activeWarehouseModel.getLastUser());
-            boolean enabledValid = isEnabledValid().test(activeWarehouseModel.isEnabled());
-
-            if (!idValid) {
-                errorList.add(WAREHOUSE_ID_INVALID_MESSAGE);
-            }
-            if (!lastUserValid) {
-                errorList.add(WAREHOUSE_LAST_USER_INVALID_MESSAGE);
-            }
-            if (!enabledValid) {
-                errorList.add(WAREHOUSE_ENABLED_INVALID_MESSAGE);
-            }
-
-            return idValid && lastUserValid && enabledValid;
-        };
+        return ACTIVE_WAREHOUSE_VALIDATOR.predicate(errorList);
     }
 
     public static Predicate<Set<ActiveWarehouseModel>> isActiveWarehouseSetValid(final List<String> errorList) {
-        return activeWarehouseModelSet -> ofNullable(activeWarehouseModelSet).isPresent()
-                && activeWarehouseModelSet.stream()
-                .allMatch(activeWarehouseModel -> isActiveWarehouseModelValid(errorList).test(activeWarehouseModel));
+        return activeWarehouseModelSet -> ACTIVE_WAREHOUSE_VALIDATOR.validateSet(activeWarehouseModelSet, ActiveWarehouseModel::getId, errorList);
     }
 
 
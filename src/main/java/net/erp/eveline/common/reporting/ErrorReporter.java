@@ -0,0 +1,228 @@
+package net.erp.eveline.common.reporting;
+
+import io.sentry.SentryEvent;
+import net.erp.eveline.common.exception.BadRequestException;
+import net.erp.eveline.common.exception.NotFoundException;
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Sits in front of Sentry so a burst of failures does not become a burst of events. Client errors are not reported,
+ * the same failure is only reported once per deduplication window along with how many times it was suppressed, the
+ * rest is sampled and the events are built and sent from a bounded background queue. A full queue drops the event,
+ * the request thread never waits on reporting.
+ */
+public class ErrorReporter implements DisposableBean {
+    public enum Classification {CLIENT_ERROR, UNAVAILABLE, SERVER_ERROR}
+
+    private static final Logger logger = LoggerFactory.getLogger(ErrorReporter.class);
+
+    private final long dedupWindowNanos;
+    private final double sampleRate;
+    private final int maxFingerprints;
+    private final Executor executor;
+    private final Consumer<SentryEvent> sender;
+    private final LongSupplier nanoClock;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong reported = new AtomicLong();
+    private final AtomicLong ignored = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ErrorReporter(final Duration dedupWindow,
+                         final double sampleRate,
+                         final int maxFingerprints,
+                         final int queueCapacity,
+                         final Consumer<SentryEvent> sender) {
+        this(dedupWindow, sampleRate, maxFingerprints, reportingExecutor(queueCapacity), sender, System::nanoTime);
+    }
+
+    ErrorReporter(final Duration dedupWindow,
+                  final double sampleRate,
+                  final int maxFingerprints,
+                  final Executor executor,
+                  final Consumer<SentryEvent> sender,
+                  final LongSupplier nanoClock) {
+        this.dedupWindowNanos = dedupWindow.toNanos();
+        this.sampleRate = sampleRate;
+        this.maxFingerprints = maxFingerprints;
+        this.executor = executor;
+        this.sender = sender;
+        this.nanoClock = nanoClock;
+    }
+
+    public void report(final Throwable ex) {
+        if (classify(ex) != Classification.SERVER_ERROR) {
+            ignored.incrementAndGet();
+            return;
+        }
+        final String fingerprint = fingerprint(ex);
+        final long suppressed = admit(fingerprint);
+        if (suppressed < 0) {
+            deduplicated.incrementAndGet();
+            return;
+        }
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.incrementAndGet();
+            return;
+        }
+        try {
+            executor.execute(() -> send(ex, fingerprint, suppressed));
+        } catch (final RejectedExecutionException rejectedEx) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public static Classification classify(final Throwable ex) {
+        for (final Throwable cause : ExceptionUtils.getThrowableList(ex)) {
+            if (cause instanceof NotFoundException || cause instanceof BadRequestException) {
+                return Classification.CLIENT_ERROR;
+            }
+            if (cause instanceof ServiceUnavailableException) {
+                return Classification.UNAVAILABLE;
+            }
+        }
+        return Classification.SERVER_ERROR;
+    }
+
+    /**
+     * The same failure keeps its root cause type and the frame it was thrown from, while its messages usually carry
+     * the ids of the request, so only the former are part of the fingerprint.
+     */
+    static String fingerprint(final Throwable ex) {
+        final Throwable rootCause = ExceptionUtils.getRootCause(ex);
+        final var fingerprint = new StringBuilder(ex.getClass().getName());
+        if (rootCause != ex) {
+            fingerprint.append('|').append(rootCause.getClass().getName());
+        }
+        final StackTraceElement[] stackTrace = rootCause.getStackTrace();
+        if (stackTrace.length > 0) {
+            fingerprint.append('|').append(stackTrace[0].getClassName())
+                    .append('.').append(stackTrace[0].getMethodName())
+                    .append(':').append(stackTrace[0].getLineNumber());
+        }
+        return fingerprint.toString();
+    }
+
+    public long getReported() {
+        return reported.get();
+    }
+
+    public long getIgnored() {
+        return ignored.get();
+    }
+
+    public long getDeduplicated() {
+        return deduplicated.get();
+    }
+
+    public long getSampledOut() {
+        return sampledOut.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return how many times the fingerprint was suppressed since its last report when it has to be reported now, or
+     * a negative value while its window is still open.
+     */
+    private long admit(final String fingerprint) {
+        final long now = nanoClock.getAsLong();
+        final Window window = windows.get(fingerprint);
+        if (window != null) {
+            return window.admit(now);
+        }
+        // New fingerprints take the lock so the map never grows past the maximum, failures that find it full of open
+        // windows are reported without being deduplicated.
+        synchronized (windows) {
+            final Window created = windows.get(fingerprint);
+            if (created != null) {
+                return created.admit(now);
+            }
+            if (windows.size() >= maxFingerprints) {
+                windows.values().removeIf(expired -> expired.isExpired(now));
+                if (windows.size() >= maxFingerprints) {
+                    return 0;
+                }
+            }
+            windows.put(fingerprint, new Window(now));
+            return 0;
+        }
+    }
+
+    private void send(final Throwable ex, final String fingerprint, final long suppressed) {
+        try {
+            final var event = new SentryEvent(ex);
+            event.setFingerprints(List.of(fingerprint));
+            if (suppressed > 0) {
+                event.setExtra("suppressedSinceLastReport", suppressed);
+            }
+            sender.accept(event);
+            reported.incrementAndGet();
+        } catch (final RuntimeException sendEx) {
+            logger.warn("Unable to report error to Sentry | Cause: {}", sendEx.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private static ExecutorService reportingExecutor(final int queueCapacity) {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    final var thread = new Thread(runnable, "error-reporter");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private class Window {
+        private long openedAt;
+        private long suppressed;
+
+        private Window(final long openedAt) {
+            this.openedAt = openedAt;
+        }
+
+        private synchronized long admit(final long now) {
+            if (now - openedAt < dedupWindowNanos) {
+                suppressed++;
+                return -1;
+            }
+            final long suppressedInWindow = suppressed;
+            openedAt = now;
+            suppressed = 0;
+            return suppressedInWindow;
+        }
+
+        private synchronized boolean isExpired(final long now) {
+            return now - openedAt >= dedupWindowNanos;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package net.erp.eveline.common.retry;
+
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Opens after a number of consecutive failures that show the database is unavailable and rejects every call while
+ * open, instead of letting each request wait on the pool. Once the open duration passes a single probe call is let
+ * through: its success closes the breaker and its failure opens it again.
+ */
+public class CircuitBreaker {
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long timesOpened;
+    private long rejectedCalls;
+
+    public CircuitBreaker(final int failureThreshold, final Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(final int failureThreshold, final Duration openDuration, final LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            final long remaining = openedAt + openDurationNanos - nanoClock.getAsLong();
+            if (remaining > 0) {
+                throw reject(Duration.ofNanos(remaining));
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                throw reject(Duration.ofNanos(openDurationNanos));
+            }
+            probeInFlight = true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            logger.warn("Circuit breaker closed, the database is reachable again.");
+            state = State.CLOSED;
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            logger.warn("Circuit breaker opened after {} consecutive failures reaching the database.", consecutiveFailures);
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            probeInFlight = false;
+            timesOpened++;
+        }
+    }
+
+    public synchronized boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+
+    public synchronized long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    private ServiceUnavailableException reject(final Duration retryAfter) {
+        rejectedCalls++;
+        return new ServiceUnavailableException("The database is unavailable, the request was rejected without reaching it.", retryAfter);
+    }
+}
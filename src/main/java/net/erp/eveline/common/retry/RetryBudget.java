@@ -0,0 +1,93 @@
+package net.erp.eveline.common.retry;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the retries of the whole application to a ratio of the calls seen in a sliding window, plus a small floor so
+ * low traffic can still retry. When the database is struggling, retries stop adding load once the budget is spent.
+ */
+public class RetryBudget {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double retryRatio;
+    private final int minRetriesPerSecond;
+    private final LongSupplier nanoClock;
+    private final long[] bucketSeconds;
+    private final long[] calls;
+    private final long[] retries;
+    private long rejectedRetries;
+
+    public RetryBudget(final double retryRatio, final int minRetriesPerSecond, final Duration window) {
+        this(retryRatio, minRetriesPerSecond, window, System::nanoTime);
+    }
+
+    RetryBudget(final double retryRatio, final int minRetriesPerSecond, final Duration window, final LongSupplier nanoClock) {
+        final int windowSeconds = (int) Math.max(1, window.toSeconds());
+        this.retryRatio = retryRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.nanoClock = nanoClock;
+        this.bucketSeconds = new long[windowSeconds];
+        this.calls = new long[windowSeconds];
+        this.retries = new long[windowSeconds];
+    }
+
+    public synchronized void recordCall() {
+        calls[currentBucket()]++;
+    }
+
+    public synchronized boolean tryAcquireRetry() {
+        final int bucket = currentBucket();
+        if (sum(retries) >= allowedRetries()) {
+            rejectedRetries++;
+            return false;
+        }
+        retries[bucket]++;
+        return true;
+    }
+
+    public synchronized long getCalls() {
+        currentBucket();
+        return sum(calls);
+    }
+
+    public synchronized long getRetries() {
+        currentBucket();
+        return sum(retries);
+    }
+
+    public synchronized long getRejectedRetries() {
+        return rejectedRetries;
+    }
+
+    private double allowedRetries() {
+        return (double) minRetriesPerSecond * bucketSeconds.length + retryRatio * sum(calls);
+    }
+
+    private int currentBucket() {
+        final long second = nanoClock.getAsLong() / NANOS_PER_SECOND;
+        final int bucket = (int) Math.floorMod(second, (long) bucketSeconds.length);
+        if (bucketSeconds[bucket] != second) {
+            bucketSeconds[bucket] = second;
+            calls[bucket] = 0;
+            retries[bucket] = 0;
+        }
+        // buckets that were not touched for a whole window are stale
+        for (int idx = 0; idx < bucketSeconds.length; idx++) {
+            if (second - bucketSeconds[idx] >= bucketSeconds.length) {
+                bucketSeconds[idx] = second - bucketSeconds.length;
+                calls[idx] = 0;
+                retries[idx] = 0;
+            }
+        }
+        return bucket;
+    }
+
+    private static long sum(final long[] values) {
+        long total = 0;
+        for (final long value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
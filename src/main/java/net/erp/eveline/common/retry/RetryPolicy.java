@@ -0,0 +1,37 @@
+package net.erp.eveline.common.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter: the pause before a retry is a random value between zero and the exponential
+ * ceiling, so callers that failed together do not retry together.
+ */
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long initialIntervalMillis;
+    private final long maxIntervalMillis;
+
+    public RetryPolicy(final int maxAttempts, final Duration initialInterval, final Duration maxInterval) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("A retry policy needs at least one attempt.");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialIntervalMillis = initialInterval.toMillis();
+        this.maxIntervalMillis = Math.max(initialIntervalMillis, maxInterval.toMillis());
+    }
+
+    public boolean canAttemptAfter(final int attempts) {
+        return attempts < maxAttempts;
+    }
+
+    public long backOffMillis(final int attempts) {
+        final int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        final long ceiling = Math.min(maxIntervalMillis, initialIntervalMillis << exponent);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+}
@@ -0,0 +1,26 @@
+package net.erp.eveline.common.transaction;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether the payload of a call is written to the debug log. Rendering a model with its relations is one of
+ * the most expensive things a request does, so even with debug enabled only a sample of the payloads is logged.
+ */
+public class PayloadLogSampler {
+    private final double sampleRate;
+
+    public PayloadLogSampler(final double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("The payload sample rate must be between 0 and 1.");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public boolean shouldLog(final Logger logger) {
+        return logger.isDebugEnabled()
+                && sampleRate > 0
+                && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
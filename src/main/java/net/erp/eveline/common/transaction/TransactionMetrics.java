@@ -0,0 +1,77 @@
+package net.erp.eveline.common.transaction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every transaction of the services by operation, outcome and the attempts it took, and counts its retries.
+ * Meters are looked up once per operation and kept, so recording does not allocate once they exist.
+ */
+public class TransactionMetrics {
+    public static final String TRANSACTION_TIMER = "eveline.transaction";
+    public static final String RETRY_COUNTER = "eveline.transaction.retries";
+    // Higher attempt counts share the last tag so the number of series stays bounded.
+    static final int MAX_ATTEMPTS_TAG = 10;
+
+    public enum Outcome {
+        SUCCESS, RETRYABLE, NON_RETRYABLE, REJECTED;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OperationMeters> operations = new ConcurrentHashMap<>();
+
+    public TransactionMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(final String operation, final Outcome outcome, final int attempts, final long startNanos) {
+        meters(operation).timer(outcome, attempts).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void countRetry(final String operation) {
+        meters(operation).retries.increment();
+    }
+
+    private OperationMeters meters(final String operation) {
+        final OperationMeters meters = operations.get(operation);
+        return meters != null ? meters : operations.computeIfAbsent(operation, OperationMeters::new);
+    }
+
+    private class OperationMeters {
+        private final String operation;
+        private final Counter retries;
+        private final Timer[][] timers = new Timer[Outcome.values().length][MAX_ATTEMPTS_TAG + 1];
+
+        private OperationMeters(final String operation) {
+            this.operation = operation;
+            this.retries = Counter.builder(RETRY_COUNTER)
+                    .description("Attempts of a transaction that failed and were retried")
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+        }
+
+        // Two threads may build the same timer at once, the registry hands both the same meter.
+        private Timer timer(final Outcome outcome, final int attempts) {
+            final int attemptsTag = Math.min(Math.max(attempts, 0), MAX_ATTEMPTS_TAG);
+            Timer timer = timers[outcome.ordinal()][attemptsTag];
+            if (timer == null) {
+                timer = Timer.builder(TRANSACTION_TIMER)
+                        .description("Time spent in a transaction including its retries")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome.tag)
+                        .tag("attempts", String.valueOf(attemptsTag))
+                        .register(meterRegistry);
+                timers[outcome.ordinal()][attemptsTag] = timer;
+            }
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package net.erp.eveline.common.transaction;
+
+import net.erp.eveline.common.limit.Priority;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.transaction.annotation.Isolation;
+
+import java.time.Duration;
+
+/**
+ * How the transaction of a service operation runs: its isolation, how long it may take, whether it only reads and can
+ * be served by a replica, how many times it is attempted, how long a single statement may run and the priority it is
+ * admitted with under load.
+ * <p>
+ * Profiles are immutable, the {@code with} methods return a copy so the shared constants cannot be changed.
+ */
+public final class TransactionProfile {
+    private final String name;
+    private final Isolation isolation;
+    private final Duration timeout;
+    private final boolean readOnly;
+    private final boolean replicaEligible;
+    private final Integer maxAttempts;
+    private final Duration statementTimeout;
+    private final Priority priority;
+
+    private TransactionProfile(final String name,
+                               final Isolation isolation,
+                               final Duration timeout,
+                               final boolean readOnly,
+                               final boolean replicaEligible,
+                               final Integer maxAttempts,
+                               final Duration statementTimeout,
+                               final Priority priority) {
+        if (maxAttempts != null && maxAttempts < 1) {
+            throw new IllegalArgumentException("A transaction profile needs at least one attempt.");
+        }
+        this.name = name;
+        this.isolation = isolation;
+        this.timeout = timeout;
+        this.readOnly = readOnly;
+        this.replicaEligible = readOnly && replicaEligible;
+        this.maxAttempts = maxAttempts;
+        this.statementTimeout = statementTimeout;
+        this.priority = priority;
+    }
+
+    /**
+     * A read committed write transaction without timeouts, attempted as many times as the retry policy allows.
+     */
+    public static TransactionProfile named(final String name) {
+        return new TransactionProfile(name, Isolation.READ_COMMITTED, null, false, false, null, null, Priority.WRITE);
+    }
+
+    public TransactionProfile withIsolation(final Isolation isolation) {
+        return new TransactionProfile(name, isolation, timeout, readOnly, replicaEligible, maxAttempts, statementTimeout,
+                priority);
+    }
+
+    public TransactionProfile withTimeout(final Duration timeout) {
+        return new TransactionProfile(name, isolation, timeout, readOnly, replicaEligible, maxAttempts, statementTimeout,
+                priority);
+    }
+
+    /**
+     * Read only transactions are routed to a replica unless the profile asks for the primary.
+     */
+    public TransactionProfile withReadOnly(final boolean readOnly, final boolean replicaEligible) {
+        return new TransactionProfile(name, isolation, timeout, readOnly, replicaEligible, maxAttempts, statementTimeout,
+                priority);
+    }
+
+    public TransactionProfile withMaxAttempts(final Integer maxAttempts) {
+        return new TransactionProfile(name, isolation, timeout, readOnly, replicaEligible, maxAttempts, statementTimeout,
+                priority);
+    }
+
+    public TransactionProfile withStatementTimeout(final Duration statementTimeout) {
+        return new TransactionProfile(name, isolation, timeout, readOnly, replicaEligible, maxAttempts, statementTimeout,
+                priority);
+    }
+
+    public TransactionProfile withPriority(final Priority priority) {
+        return new TransactionProfile(name, isolation, timeout, readOnly, replicaEligible, maxAttempts, statementTimeout,
+                priority);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Isolation getIsolation() {
+        return isolation;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public boolean isReplicaEligible() {
+        return replicaEligible;
+    }
+
+    /**
+     * @return the attempts of the profile, or {@code null} when the retry policy decides them.
+     */
+    public Integer getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Duration getStatementTimeout() {
+        return statementTimeout;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public boolean isRetryable() {
+        return maxAttempts == null || maxAttempts > 1;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("name", name)
+                .append("isolation", isolation)
+                .append("timeout", timeout)
+                .append("readOnly", readOnly)
+                .append("replicaEligible", replicaEligible)
+                .append("maxAttempts", maxAttempts)
+                .append("statementTimeout", statementTimeout)
+                .append("priority", priority)
+                .toString();
+    }
+}
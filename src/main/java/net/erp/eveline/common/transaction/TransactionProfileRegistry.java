@@ -0,0 +1,65 @@
+package net.erp.eveline.common.transaction;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Resolves the profile a service operation declares to the one in effect, which may have been overridden by
+ * configuration, and keeps one {@link TransactionTemplate} per profile.
+ */
+public class TransactionProfileRegistry {
+
+    private final PlatformTransactionManager transactionManager;
+    private final Map<String, TransactionProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<String, TransactionTemplate> templates = new ConcurrentHashMap<>();
+    private Consumer<Duration> statementTimeoutApplier;
+
+    public TransactionProfileRegistry(final PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public void register(final TransactionProfile profile) {
+        profiles.put(profile.getName(), profile);
+        templates.remove(profile.getName());
+    }
+
+    public TransactionProfile resolve(final TransactionProfile declared) {
+        return profiles.getOrDefault(declared.getName(), declared);
+    }
+
+    public TransactionTemplate templateFor(final TransactionProfile profile) {
+        return templates.computeIfAbsent(profile.getName(), name -> createTemplate(resolve(profile)));
+    }
+
+    /**
+     * Limits the statements of the current transaction to the statement timeout of the profile. Must run inside the
+     * transaction, before its first statement.
+     */
+    public void applyStatementTimeout(final TransactionProfile profile) {
+        if (profile.getStatementTimeout() != null && statementTimeoutApplier != null) {
+            statementTimeoutApplier.accept(profile.getStatementTimeout());
+        }
+    }
+
+    public void setStatementTimeoutApplier(final Consumer<Duration> statementTimeoutApplier) {
+        this.statementTimeoutApplier = statementTimeoutApplier;
+    }
+
+    private TransactionTemplate createTemplate(final TransactionProfile profile) {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setName(profile.getName());
+        transactionTemplate.setIsolationLevel(profile.getIsolation().value());
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        transactionTemplate.setReadOnly(profile.isReadOnly());
+        if (profile.getTimeout() != null) {
+            transactionTemplate.setTimeout((int) Math.max(1, profile.getTimeout().toSeconds()));
+        }
+        return transactionTemplate;
+    }
+}
@@ -0,0 +1,81 @@
+package net.erp.eveline.common.transaction;
+
+import net.erp.eveline.common.limit.Priority;
+import org.springframework.transaction.annotation.Isolation;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The transaction profiles the services declare for their operations. Their settings can be overridden by name with
+ * the {@code eveline.transaction.profiles} properties.
+ */
+public final class TransactionProfiles {
+
+    /**
+     * Lookups by id or code: one short statement, served by a replica.
+     */
+    public static final TransactionProfile HOT_READ = TransactionProfile.named("hot-read")
+            .withReadOnly(true, true)
+            .withPriority(Priority.READ)
+            .withTimeout(Duration.ofSeconds(2));
+
+    /**
+     * Listings and pages: a few statements, served by a replica.
+     */
+    public static final TransactionProfile READ = TransactionProfile.named("read")
+            .withReadOnly(true, true)
+            .withPriority(Priority.READ)
+            .withTimeout(Duration.ofSeconds(10));
+
+    /**
+     * Reads that must see what was just committed, like reloading what a write changed, kept on the primary.
+     */
+    public static final TransactionProfile PRIMARY_READ = TransactionProfile.named("primary-read")
+            .withReadOnly(true, false)
+            .withPriority(Priority.READ)
+            .withTimeout(Duration.ofSeconds(10));
+
+    /**
+     * Exports whose rows are written to the client while they are fetched, so they run once and without a timeout.
+     */
+    public static final TransactionProfile STREAMING_READ = TransactionProfile.named("streaming-read")
+            .withReadOnly(true, true)
+            .withMaxAttempts(1)
+            .withPriority(Priority.BULK);
+
+    /**
+     * Writes whose values do not depend on what the transaction read before.
+     */
+    public static final TransactionProfile WRITE = TransactionProfile.named("write")
+            .withTimeout(Duration.ofSeconds(10));
+
+    /**
+     * Writes that read an entity and save it back, where a concurrent change in between must fail the transaction and
+     * be retried instead of being silently overwritten.
+     */
+    public static final TransactionProfile CONFLICTING_WRITE = TransactionProfile.named("conflicting-write")
+            .withIsolation(Isolation.REPEATABLE_READ)
+            .withTimeout(Duration.ofSeconds(10));
+
+    /**
+     * Imports that consume their input while running, so they run once. The whole import may take long, a single
+     * statement may not.
+     */
+    public static final TransactionProfile BULK_WRITE = TransactionProfile.named("bulk-write")
+            .withMaxAttempts(1)
+            .withStatementTimeout(Duration.ofSeconds(30))
+            .withPriority(Priority.BULK);
+
+    public static final List<TransactionProfile> ALL = List.of(HOT_READ, READ, PRIMARY_READ, STREAMING_READ, WRITE, CONFLICTING_WRITE, BULK_WRITE);
+
+    private TransactionProfiles() {
+    }
+
+    public static TransactionProfile byName(final String name) {
+        return ALL.stream()
+                .filter(profile -> profile.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown transaction profile: %s", name)));
+    }
+}
@@ -0,0 +1,46 @@
+package net.erp.eveline.configuration.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.erp.eveline.common.cache.EntityCache;
+import net.erp.eveline.common.cache.Footprint;
+import net.erp.eveline.model.BrandModel;
+import net.erp.eveline.model.ProviderModel;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.OffsetDateTime;
+
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfiguration {
+
+    @Bean
+    public EntityCache<String, BrandModel> getBrandCache(final EntityCacheProperties properties,
+                                                         final MeterRegistry meterRegistry) {
+        return new EntityCache<>("brand", properties.getBrands().getMaximumSize(),
+                properties.getBrands().getTimeToLive(), EntityCacheConfiguration::footprint, meterRegistry);
+    }
+
+    @Bean
+    public EntityCache<String, ProviderModel> getProviderCache(final EntityCacheProperties properties,
+                                                               final MeterRegistry meterRegistry) {
+        return new EntityCache<>("provider", properties.getProviders().getMaximumSize(),
+                properties.getProviders().getTimeToLive(), EntityCacheConfiguration::footprint, meterRegistry);
+    }
+
+    private static long footprint(final BrandModel brand) {
+        return Footprint.of(7, brand.getId(), brand.getName(), brand.getDescription(), brand.getLastUser())
+                + footprint(brand.getCreateDate()) + footprint(brand.getLastModified());
+    }
+
+    private static long footprint(final ProviderModel provider) {
+        return Footprint.of(11, provider.getId(), provider.getName(), provider.getDescription(), provider.getEmail(),
+                provider.getTelephone1(), provider.getTelephone2(), provider.getTelephone3(), provider.getLastUser())
+                + footprint(provider.getCreateDate()) + footprint(provider.getLastModified());
+    }
+
+    private static long footprint(final OffsetDateTime dateTime) {
+        return dateTime == null ? 0 : Footprint.OFFSET_DATE_TIME;
+    }
+}
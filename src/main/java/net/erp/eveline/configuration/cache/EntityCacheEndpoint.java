@@ -0,0 +1,44 @@
+package net.erp.eveline.configuration.cache;
+
+import net.erp.eveline.common.cache.EntityCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the size, hit ratio and estimated memory of the entity caches under {@code /actuator/entitycaches}.
+ */
+@Component
+@Endpoint(id = "entitycaches")
+public class EntityCacheEndpoint {
+    private List<EntityCache<?, ?>> entityCaches;
+
+    @ReadOperation
+    public Map<String, Object> entityCaches() {
+        final Map<String, Object> state = new LinkedHashMap<>();
+        for (final EntityCache<?, ?> cache : entityCaches) {
+            final Map<String, Object> cacheState = new LinkedHashMap<>();
+            cacheState.put("size", cache.getSize());
+            cacheState.put("maximumSize", cache.getMaximumSize());
+            cacheState.put("timeToLive", cache.getTimeToLive());
+            cacheState.put("hitRatio", cache.getHitRatio());
+            cacheState.put("hits", cache.getHits());
+            cacheState.put("misses", cache.getMisses());
+            cacheState.put("evictions", cache.getEvictions());
+            cacheState.put("expirations", cache.getExpirations());
+            cacheState.put("estimatedBytes", cache.getEstimatedBytes());
+            state.put(cache.getName(), cacheState);
+        }
+        return state;
+    }
+
+    @Autowired
+    public void setEntityCaches(final List<EntityCache<?, ?>> entityCaches) {
+        this.entityCaches = entityCaches;
+    }
+}
@@ -0,0 +1,60 @@
+package net.erp.eveline.configuration.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The caches of the brand and provider models. Writers invalidate what they change, the time to live bounds how long
+ * a change made elsewhere, or still on its way to a replica, can go unseen.
+ */
+@ConfigurationProperties(prefix = "eveline.cache")
+public class EntityCacheProperties {
+    private Cache brands = new Cache(2000, Duration.ofMinutes(10));
+    private Cache providers = new Cache(2000, Duration.ofMinutes(10));
+
+    public Cache getBrands() {
+        return brands;
+    }
+
+    public void setBrands(final Cache brands) {
+        this.brands = brands;
+    }
+
+    public Cache getProviders() {
+        return providers;
+    }
+
+    public void setProviders(final Cache providers) {
+        this.providers = providers;
+    }
+
+    public static class Cache {
+        private int maximumSize;
+        private Duration timeToLive;
+
+        public Cache() {
+        }
+
+        private Cache(final int maximumSize, final Duration timeToLive) {
+            this.maximumSize = maximumSize;
+            this.timeToLive = timeToLive;
+        }
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(final int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(final Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+}
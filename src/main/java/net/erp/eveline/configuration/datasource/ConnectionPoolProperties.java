@@ -0,0 +1,70 @@
+package net.erp.eveline.configuration.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The pools the write and bulk transactions take their connections from. The reads use the pool configured under
+ * {@code spring.datasource.hikari}, the other pools copy its settings and override these.
+ */
+@ConfigurationProperties(prefix = "eveline.datasource.pools")
+public class ConnectionPoolProperties {
+    private Pool write = new Pool(4, 1, Duration.ofSeconds(5));
+    private Pool bulk = new Pool(2, 0, Duration.ofSeconds(30));
+
+    public Pool getWrite() {
+        return write;
+    }
+
+    public void setWrite(final Pool write) {
+        this.write = write;
+    }
+
+    public Pool getBulk() {
+        return bulk;
+    }
+
+    public void setBulk(final Pool bulk) {
+        this.bulk = bulk;
+    }
+
+    public static class Pool {
+        private int maximumPoolSize;
+        private int minimumIdle;
+        private Duration connectionTimeout;
+
+        public Pool() {
+        }
+
+        private Pool(final int maximumPoolSize, final int minimumIdle, final Duration connectionTimeout) {
+            this.maximumPoolSize = maximumPoolSize;
+            this.minimumIdle = minimumIdle;
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(final int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public int getMinimumIdle() {
+            return minimumIdle;
+        }
+
+        public void setMinimumIdle(final int minimumIdle) {
+            this.minimumIdle = minimumIdle;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(final Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package net.erp.eveline.configuration.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.erp.eveline.common.execution.RequestClient;
+import net.erp.eveline.common.limit.Priority;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Optional.ofNullable;
+
+@Configuration
+@EnableConfigurationProperties({ReplicaProperties.class, ConnectionPoolProperties.class})
+public class DataSourceConfiguration {
+
+    /**
+     * The pool of the reads, and of the connections taken outside of a transaction.
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource writeDataSource(@Qualifier("primaryDataSource") final HikariDataSource primaryDataSource,
+                                            final ConnectionPoolProperties connectionPoolProperties) {
+        return pool(primaryDataSource, "write", connectionPoolProperties.getWrite());
+    }
+
+    @Bean
+    public HikariDataSource bulkDataSource(@Qualifier("primaryDataSource") final HikariDataSource primaryDataSource,
+                                           final ConnectionPoolProperties connectionPoolProperties) {
+        return pool(primaryDataSource, "bulk", connectionPoolProperties.getBulk());
+    }
+
+    @Bean
+    public PriorityRoutingDataSource priorityRoutingDataSource(
+            @Qualifier("primaryDataSource") final HikariDataSource primaryDataSource,
+            @Qualifier("writeDataSource") final HikariDataSource writeDataSource,
+            @Qualifier("bulkDataSource") final HikariDataSource bulkDataSource) {
+        final Map<Priority, DataSource> pools = new EnumMap<>(Priority.class);
+        pools.put(Priority.READ, primaryDataSource);
+        pools.put(Priority.WRITE, writeDataSource);
+        pools.put(Priority.BULK, bulkDataSource);
+        return new PriorityRoutingDataSource(pools);
+    }
+
+    /**
+     * Every replica gets a pool for the reads and another one for the bulk reads, with the limits of the bulk pool of
+     * the primary. Writes never reach them.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") final HikariDataSource primaryDataSource,
+            final PriorityRoutingDataSource priorityRoutingDataSource,
+            final ReplicaProperties replicaProperties,
+            final ConnectionPoolProperties connectionPoolProperties) {
+        final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        final Map<String, DataSource> bulkReplicas = new LinkedHashMap<>();
+        for (int idx = 0; idx < replicaProperties.getReplicas().size(); idx++) {
+            final var replicaProperty = replicaProperties.getReplicas().get(idx);
+            // Replica pools share the primary pool settings; the pool starts lazily so a replica that is down at
+            // startup only fails its health check.
+            final var replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setPoolName(primaryDataSource.getPoolName() + "-replica-" + idx);
+            replica.setJdbcUrl(replicaProperty.getUrl());
+            replica.setUsername(ofNullable(replicaProperty.getUsername()).orElse(primaryDataSource.getUsername()));
+            replica.setPassword(ofNullable(replicaProperty.getPassword()).orElse(primaryDataSource.getPassword()));
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+            bulkReplicas.put(replica.getPoolName(), pool(replica, "bulk", connectionPoolProperties.getBulk()));
+        }
+        return new ReplicaRoutingDataSource(priorityRoutingDataSource, replicas, bulkReplicas, RequestClient::get,
+                replicaProperties.getReadYourWritesWindow(), replicaProperties.getHealthCheckInterval(),
+                replicaProperties.getHealthCheckTimeout());
+    }
+
+    /**
+     * Without replicas every read is served by the primary already, so the clients are not told apart.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestClientFilter> getRequestClientFilter(final ReplicaProperties replicaProperties) {
+        final var registration = new FilterRegistrationBean<>(new RequestClientFilter());
+        registration.setEnabled(!replicaProperties.getReplicas().isEmpty());
+        return registration;
+    }
+
+    /**
+     * Without replicas the pools of the primary are used directly; with them, connections are only routed once the
+     * first statement runs, when the read only flag of the transaction is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(final PriorityRoutingDataSource priorityRoutingDataSource,
+                                 final ReplicaRoutingDataSource replicaRoutingDataSource,
+                                 final ReplicaProperties replicaProperties) {
+        if (replicaProperties.getReplicas().isEmpty()) {
+            return priorityRoutingDataSource;
+        }
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // The pool starts lazily, on the first transaction of its priority.
+    private static HikariDataSource pool(final HikariDataSource source, final String name,
+                                         final ConnectionPoolProperties.Pool poolProperties) {
+        final var pool = new HikariDataSource();
+        source.copyStateTo(pool);
+        pool.setPoolName(source.getPoolName() + "-" + name);
+        pool.setMaximumPoolSize(poolProperties.getMaximumPoolSize());
+        pool.setMinimumIdle(Math.min(poolProperties.getMinimumIdle(), poolProperties.getMaximumPoolSize()));
+        pool.setConnectionTimeout(poolProperties.getConnectionTimeout().toMillis());
+        return pool;
+    }
+}
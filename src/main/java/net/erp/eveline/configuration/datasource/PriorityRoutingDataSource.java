@@ -0,0 +1,54 @@
+package net.erp.eveline.configuration.datasource;
+
+import net.erp.eveline.common.limit.Priority;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Hands out the connections of every priority from its own pool, so the bulk transactions, which hold their connection
+ * for as long as their input or output lasts, can never take the ones the point lookups need. The priority is bound to
+ * the thread for the length of a transaction; connections taken outside of one come from the read pool.
+ */
+public class PriorityRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Priority> CURRENT_PRIORITY = new ThreadLocal<>();
+
+    public PriorityRoutingDataSource(final Map<Priority, DataSource> pools) {
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Priority.READ));
+        setLenientFallback(false);
+    }
+
+    /**
+     * Runs the action with the connections it takes coming from the pool of the priority. Connections are taken when
+     * a transaction begins, or on its first statement behind a lazy proxy, so the whole transaction must run inside.
+     */
+    public static <T> T callWith(final Priority priority, final Supplier<T> action) {
+        final Priority previous = CURRENT_PRIORITY.get();
+        CURRENT_PRIORITY.set(priority);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_PRIORITY.remove();
+            } else {
+                CURRENT_PRIORITY.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return the priority the connections of the thread are taken with, null outside of {@link #callWith}.
+     */
+    static Priority currentPriority() {
+        return CURRENT_PRIORITY.get();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentPriority();
+    }
+}
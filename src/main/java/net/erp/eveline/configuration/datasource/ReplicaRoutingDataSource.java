@@ -0,0 +1,239 @@
+package net.erp.eveline.configuration.datasource;
+
+import net.erp.eveline.common.limit.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends the connections of read only transactions to the healthy replicas in round robin and everything else to the
+ * primary. Meant to sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so the
+ * target is picked on the first statement, once the transaction and its read only flag are bound to the thread.
+ * <p>
+ * After a write transaction commits, the reads of the same client stay on the primary for the read-your-writes
+ * window, which hides the replication lag from it.
+ * <p>
+ * Like on the primary, the bulk reads of a replica take their connections from a pool of their own, so an export
+ * cannot take the connections the lookups routed to the same replica need.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final Object PRIMARY_REQUIRED = new Object();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final Supplier<String> clientKeySupplier;
+    private final long readYourWritesWindowNanos;
+    private final Duration healthCheckInterval;
+    private final int healthCheckTimeoutSeconds;
+    private ScheduledExecutorService healthCheckExecutor;
+
+    /**
+     * @param bulkReplicas the pools of the bulk reads by the name of their replica, the replicas without one serve
+     *                     them from their only pool.
+     */
+    public ReplicaRoutingDataSource(final DataSource primary,
+                                    final Map<String, DataSource> replicas,
+                                    final Map<String, DataSource> bulkReplicas,
+                                    final Supplier<String> clientKeySupplier,
+                                    final Duration readYourWritesWindow,
+                                    final Duration healthCheckInterval,
+                                    final Duration healthCheckTimeout) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource,
+                bulkReplicas.getOrDefault(name, dataSource))));
+        this.clientKeySupplier = clientKeySupplier;
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        this.healthCheckInterval = healthCheckInterval;
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(DataSource::getConnection);
+    }
+
+    /**
+     * Routed the same way, the credentials are handed to the primary or replica picked.
+     */
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return getConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection getConnection(final ConnectionSource source) throws SQLException {
+        final Replica replica = route();
+        if (replica == null) {
+            return source.from(primary);
+        }
+        try {
+            return source.from(PriorityRoutingDataSource.currentPriority() == Priority.BULK
+                    ? replica.bulkDataSource
+                    : replica.dataSource);
+        } catch (final SQLException ex) {
+            logger.warn("Replica {} is not available, routing the read to the primary. | Cause: {}", replica.name, ex.getMessage());
+            replica.healthy = false;
+            return source.from(primary);
+        }
+    }
+
+    /**
+     * Keeps the current read only transaction on the primary, for reads that cannot tolerate the replication lag.
+     * Must be called before the first statement of the transaction.
+     */
+    public static void requirePrimary() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(PRIMARY_REQUIRED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PRIMARY_REQUIRED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PRIMARY_REQUIRED);
+            }
+        });
+    }
+
+    /**
+     * Checks every replica and updates its health. Runs on the health check interval, replicas that fail it stop
+     * receiving reads until they pass it again.
+     */
+    public void checkReplicas() {
+        for (final Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(healthCheckTimeoutSeconds);
+            } catch (final SQLException ex) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                logger.warn("Replica {} is now {}.", replica.name, healthy ? "healthy" : "unhealthy");
+            }
+            replica.healthy = healthy;
+        }
+        final long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    private Replica route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit();
+            return null;
+        }
+        if (TransactionSynchronizationManager.hasResource(PRIMARY_REQUIRED) || isPinned(clientKeySupplier.get())) {
+            return null;
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            final Replica replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private boolean isPinned(final String clientKey) {
+        if (clientKey == null) {
+            return false;
+        }
+        final Long until = pinnedUntil.get(clientKey);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private void pinAfterCommit() {
+        if (readYourWritesWindowNanos <= 0 || replicas.isEmpty()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        final String clientKey = clientKeySupplier.get();
+        // Writes outside of a request, like scheduled jobs, have no client whose reads could follow them.
+        if (clientKey == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, clientKey);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaRoutingDataSource.this);
+                if (status == STATUS_COMMITTED) {
+                    pinnedUntil.put(clientKey, System.nanoTime() + readYourWritesWindowNanos);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheckExecutor.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (healthCheckExecutor != null) {
+            healthCheckExecutor.shutdownNow();
+        }
+        for (final Replica replica : replicas) {
+            close(replica.dataSource);
+            if (replica.bulkDataSource != replica.dataSource) {
+                close(replica.bulkDataSource);
+            }
+        }
+    }
+
+    private static void close(final DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable) {
+            ((AutoCloseable) dataSource).close();
+        }
+    }
+
+    private interface ConnectionSource {
+        Connection from(DataSource dataSource) throws SQLException;
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final DataSource bulkDataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(final String name, final DataSource dataSource, final DataSource bulkDataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.bulkDataSource = bulkDataSource;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package net.erp.eveline.configuration.datasource;
+
+import net.erp.eveline.common.execution.RequestClient;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Identifies the client of every request for its read-your-writes window. Clients may name themselves with the
+ * client header, otherwise the client cookie is used. A client that sends neither is only given a new cookie on a
+ * write, which is what opens the window, so its next requests read what it wrote while other clients keep reading from
+ * the replicas; its reads go without a client and are never pinned to the primary.
+ */
+public class RequestClientFilter extends OncePerRequestFilter {
+    public static final String CLIENT_HEADER = "X-Client-Id";
+    public static final String CLIENT_COOKIE = "EVELINE_CLIENT";
+
+    private static final int MAX_CLIENT_LENGTH = 64;
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain chain) throws ServletException, IOException {
+        RequestClient.set(resolveClient(request, response));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestClient.clear();
+        }
+    }
+
+    private static String resolveClient(final HttpServletRequest request, final HttpServletResponse response) {
+        final String header = request.getHeader(CLIENT_HEADER);
+        if (isValid(header)) {
+            return "header:" + header;
+        }
+        final Cookie cookie = WebUtils.getCookie(request, CLIENT_COOKIE);
+        if (cookie != null && isValid(cookie.getValue())) {
+            return "cookie:" + cookie.getValue();
+        }
+        if (READ_METHODS.contains(request.getMethod())) {
+            return null;
+        }
+        final String client = UUID.randomUUID().toString();
+        final var newCookie = new Cookie(CLIENT_COOKIE, client);
+        newCookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+        newCookie.setHttpOnly(true);
+        response.addCookie(newCookie);
+        return "cookie:" + client;
+    }
+
+    private static boolean isValid(final String client) {
+        return client != null && !client.isBlank() && client.length() <= MAX_CLIENT_LENGTH;
+    }
+}
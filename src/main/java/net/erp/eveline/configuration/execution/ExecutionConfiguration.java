@@ -0,0 +1,90 @@
+package net.erp.eveline.configuration.execution;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.erp.eveline.common.execution.CompletedFutureReturnValueHandler;
+import net.erp.eveline.common.execution.ExecutionMode;
+import net.erp.eveline.common.execution.MeteredExecutor;
+import net.erp.eveline.common.execution.RequestExecutor;
+import net.erp.eveline.common.execution.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.DeferredResultMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Optional.ofNullable;
+
+@Configuration
+@EnableConfigurationProperties(ExecutionProperties.class)
+public class ExecutionConfiguration {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfiguration.class);
+
+    /**
+     * Without a size the bulkheads get as many threads as the read pool has connections, so the handlers queue in
+     * memory instead of on the pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public RequestExecutor getRequestExecutor(final ExecutionProperties properties,
+                                              @Qualifier("primaryDataSource") final HikariDataSource primaryDataSource,
+                                              final MeterRegistry meterRegistry) {
+        var mode = properties.getMode();
+        MeteredExecutor handlerExecutor = null;
+        if (mode == ExecutionMode.VIRTUAL) {
+            final var virtualExecutor = VirtualThreads.newExecutor();
+            if (virtualExecutor.isPresent()) {
+                handlerExecutor = new MeteredExecutor("virtual", virtualExecutor.get(), meterRegistry);
+            } else {
+                logger.warn("Virtual threads are not available on Java {}, requests run on the bulkheads instead",
+                        Runtime.version());
+                mode = ExecutionMode.BULKHEAD;
+            }
+        }
+        final int bulkheadThreads = ofNullable(properties.getBulkheadThreads()).orElse(primaryDataSource.getMaximumPoolSize());
+        logger.info("Requests run in {} mode", mode);
+        return new RequestExecutor(mode, handlerExecutor, bulkheadThreads, properties.getBulkheadQueueCapacity(),
+                properties.getRetryAfter(), meterRegistry);
+    }
+
+    /**
+     * In the virtual mode Tomcat hands every request to a new virtual thread instead of its worker pool.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> getVirtualThreadCustomizer(final RequestExecutor requestExecutor) {
+        return protocolHandler -> requestExecutor.getHandlerExecutor().ifPresent(protocolHandler::setExecutor);
+    }
+
+    @Bean
+    public SmartInitializingSingleton getCompletedFutureRegistration(final ObjectProvider<RequestMappingHandlerAdapter> adapters) {
+        return () -> adapters.orderedStream().forEach(ExecutionConfiguration::registerCompletedFutureHandler);
+    }
+
+    private static void registerCompletedFutureHandler(final RequestMappingHandlerAdapter adapter) {
+        final List<HandlerMethodReturnValueHandler> handlers = Objects.requireNonNull(adapter.getReturnValueHandlers());
+        final var responseBodyHandler = handlers.stream()
+                .filter(RequestResponseBodyMethodProcessor.class::isInstance)
+                .findFirst();
+        final var asyncHandler = handlers.stream()
+                .filter(DeferredResultMethodReturnValueHandler.class::isInstance)
+                .findFirst();
+        if (responseBodyHandler.isEmpty() || asyncHandler.isEmpty()) {
+            return;
+        }
+        final List<HandlerMethodReturnValueHandler> orderedHandlers = new ArrayList<>(handlers.size() + 1);
+        orderedHandlers.add(new CompletedFutureReturnValueHandler(responseBodyHandler.get(), asyncHandler.get()));
+        orderedHandlers.addAll(handlers);
+        adapter.setReturnValueHandlers(orderedHandlers);
+    }
+}
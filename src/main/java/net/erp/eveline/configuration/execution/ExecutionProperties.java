@@ -0,0 +1,46 @@
+package net.erp.eveline.configuration.execution;
+
+import net.erp.eveline.common.execution.ExecutionMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "eveline.execution")
+public class ExecutionProperties {
+    private ExecutionMode mode = ExecutionMode.PLATFORM;
+    private Integer bulkheadThreads;
+    private int bulkheadQueueCapacity = 1000;
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    public void setMode(final ExecutionMode mode) {
+        this.mode = mode;
+    }
+
+    public Integer getBulkheadThreads() {
+        return bulkheadThreads;
+    }
+
+    public void setBulkheadThreads(final Integer bulkheadThreads) {
+        this.bulkheadThreads = bulkheadThreads;
+    }
+
+    public int getBulkheadQueueCapacity() {
+        return bulkheadQueueCapacity;
+    }
+
+    public void setBulkheadQueueCapacity(final int bulkheadQueueCapacity) {
+        this.bulkheadQueueCapacity = bulkheadQueueCapacity;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(final Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,25 @@
+package net.erp.eveline.configuration.index;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.erp.eveline.common.index.UpcIndex;
+import net.erp.eveline.service.product.ProductUpcIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "eveline.product.upc-index", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(UpcIndexProperties.class)
+public class UpcIndexConfiguration {
+
+    @Bean
+    public UpcIndex getUpcIndex(final UpcIndexProperties properties, final MeterRegistry meterRegistry) {
+        return new UpcIndex(properties.getMaximumProducts(), properties.getRecordMemory().toBytes(), meterRegistry);
+    }
+
+    @Bean
+    public ProductUpcIndex getProductUpcIndex(final UpcIndex upcIndex, final UpcIndexProperties properties) {
+        return new ProductUpcIndex(upcIndex, properties.getRefreshInterval(), properties.getRefreshOverlap());
+    }
+}
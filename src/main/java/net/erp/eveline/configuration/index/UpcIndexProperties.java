@@ -0,0 +1,59 @@
+package net.erp.eveline.configuration.index;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * The off heap index of the products by upc. Its tables are sized for the maximum products up front, the records of
+ * the products take at most the record memory, and whatever does not fit is looked up in the database.
+ */
+@ConfigurationProperties(prefix = "eveline.product.upc-index")
+public class UpcIndexProperties {
+    private boolean enabled;
+    private int maximumProducts = 1_000_000;
+    private DataSize recordMemory = DataSize.ofMegabytes(256);
+    private Duration refreshInterval = Duration.ofSeconds(10);
+    private Duration refreshOverlap = Duration.ofMinutes(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaximumProducts() {
+        return maximumProducts;
+    }
+
+    public void setMaximumProducts(final int maximumProducts) {
+        this.maximumProducts = maximumProducts;
+    }
+
+    public DataSize getRecordMemory() {
+        return recordMemory;
+    }
+
+    public void setRecordMemory(final DataSize recordMemory) {
+        this.recordMemory = recordMemory;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(final Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public Duration getRefreshOverlap() {
+        return refreshOverlap;
+    }
+
+    public void setRefreshOverlap(final Duration refreshOverlap) {
+        this.refreshOverlap = refreshOverlap;
+    }
+}
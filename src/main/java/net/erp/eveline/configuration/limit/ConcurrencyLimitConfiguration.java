@@ -0,0 +1,20 @@
+package net.erp.eveline.configuration.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.erp.eveline.common.limit.ConcurrencyLimiter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfiguration {
+
+    @Bean
+    public ConcurrencyLimiter getConcurrencyLimiter(final ConcurrencyLimitProperties properties,
+                                                    final MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiter(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                properties.getTolerance(), properties.getSmoothing(), properties.getWindow(),
+                properties.getWriteShare(), properties.getBulkShare(), properties.getRetryAfter(), meterRegistry);
+    }
+}
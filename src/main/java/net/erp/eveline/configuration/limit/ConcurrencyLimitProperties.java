@@ -0,0 +1,90 @@
+package net.erp.eveline.configuration.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "eveline.transaction.limit")
+public class ConcurrencyLimitProperties {
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+    private double tolerance = 1.5;
+    private double smoothing = 0.2;
+    private Duration window = Duration.ofMillis(500);
+    private double writeShare = 0.8;
+    private double bulkShare = 0.25;
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(final int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(final int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(final int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(final double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(final double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(final Duration window) {
+        this.window = window;
+    }
+
+    public double getWriteShare() {
+        return writeShare;
+    }
+
+    public void setWriteShare(final double writeShare) {
+        this.writeShare = writeShare;
+    }
+
+    public double getBulkShare() {
+        return bulkShare;
+    }
+
+    public void setBulkShare(final double bulkShare) {
+        this.bulkShare = bulkShare;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(final Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
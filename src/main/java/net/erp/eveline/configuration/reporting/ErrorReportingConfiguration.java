@@ -0,0 +1,18 @@
+package net.erp.eveline.configuration.reporting;
+
+import io.sentry.Sentry;
+import net.erp.eveline.common.reporting.ErrorReporter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ErrorReportingProperties.class)
+public class ErrorReportingConfiguration {
+
+    @Bean
+    public ErrorReporter getErrorReporter(final ErrorReportingProperties properties) {
+        return new ErrorReporter(properties.getDedupWindow(), properties.getSampleRate(), properties.getMaxFingerprints(),
+                properties.getQueueCapacity(), Sentry::captureEvent);
+    }
+}
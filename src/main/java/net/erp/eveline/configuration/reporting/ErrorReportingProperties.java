@@ -0,0 +1,45 @@
+package net.erp.eveline.configuration.reporting;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "eveline.error-reporting")
+public class ErrorReportingProperties {
+    private Duration dedupWindow = Duration.ofMinutes(1);
+    private double sampleRate = 1;
+    private int maxFingerprints = 1000;
+    private int queueCapacity = 256;
+
+    public Duration getDedupWindow() {
+        return dedupWindow;
+    }
+
+    public void setDedupWindow(final Duration dedupWindow) {
+        this.dedupWindow = dedupWindow;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(final double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getMaxFingerprints() {
+        return maxFingerprints;
+    }
+
+    public void setMaxFingerprints(final int maxFingerprints) {
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
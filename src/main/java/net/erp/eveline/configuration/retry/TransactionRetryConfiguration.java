@@ -0,0 +1,56 @@
+package net.erp.eveline.configuration.retry;
+
+import net.erp.eveline.common.retry.CircuitBreaker;
+import net.erp.eveline.common.retry.RetryBudget;
+import net.erp.eveline.common.retry.RetryPolicy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(TransactionRetryProperties.class)
+public class TransactionRetryConfiguration {
+
+    @Bean
+    public RetryPolicy getRetryPolicy(final TransactionRetryProperties properties) {
+        return new RetryPolicy(properties.getMaxAttempts(), properties.getInitialInterval(), properties.getMaxInterval());
+    }
+
+    @Bean
+    public RetryBudget getRetryBudget(final TransactionRetryProperties properties) {
+        return new RetryBudget(properties.getBudgetRatio(), properties.getBudgetMinRetriesPerSecond(), properties.getBudgetWindow());
+    }
+
+    @Bean
+    public CircuitBreaker getCircuitBreaker(final TransactionRetryProperties properties) {
+        return new CircuitBreaker(properties.getBreakerFailureThreshold(), properties.getBreakerOpenDuration());
+    }
+
+    /**
+     * Waits out the pauses between the attempts of the transactions, then hands each attempt to the retry executor.
+     * Shutting it down still runs the hand overs already scheduled, so no caller is left waiting on a future nobody
+     * completes.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService transactionRetryScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("transaction-retry-timer-"));
+    }
+
+    /**
+     * Runs the retried attempts, connection wait included. Once its threads and queue are taken the retries fail
+     * instead of piling up.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService transactionRetryExecutor(final TransactionRetryProperties properties) {
+        return new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), new CustomizableThreadFactory("transaction-retry-"));
+    }
+}
@@ -0,0 +1,78 @@
+package net.erp.eveline.configuration.retry;
+
+import net.erp.eveline.common.limit.ConcurrencyLimiter;
+import net.erp.eveline.common.limit.Priority;
+import net.erp.eveline.common.retry.CircuitBreaker;
+import net.erp.eveline.common.retry.RetryBudget;
+import net.erp.eveline.common.retry.RetryPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the retry, circuit breaker and concurrency limit state of the transactions under
+ * {@code /actuator/transactions}.
+ */
+@Component
+@Endpoint(id = "transactions")
+public class TransactionRetryEndpoint {
+    private RetryPolicy retryPolicy;
+    private RetryBudget retryBudget;
+    private CircuitBreaker circuitBreaker;
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @ReadOperation
+    public Map<String, Object> transactions() {
+        final Map<String, Object> breaker = new LinkedHashMap<>();
+        breaker.put("state", circuitBreaker.getState());
+        breaker.put("consecutiveFailures", circuitBreaker.getConsecutiveFailures());
+        breaker.put("timesOpened", circuitBreaker.getTimesOpened());
+        breaker.put("rejectedCalls", circuitBreaker.getRejectedCalls());
+
+        final Map<String, Object> retries = new LinkedHashMap<>();
+        retries.put("maxAttempts", retryPolicy.getMaxAttempts());
+        retries.put("callsInWindow", retryBudget.getCalls());
+        retries.put("retriesInWindow", retryBudget.getRetries());
+        retries.put("rejectedRetries", retryBudget.getRejectedRetries());
+
+        final Map<String, Object> limit = new LinkedHashMap<>();
+        limit.put("limit", concurrencyLimiter.getLimit());
+        limit.put("inFlight", concurrencyLimiter.getInFlight());
+        for (final Priority priority : Priority.values()) {
+            final Map<String, Object> priorityLimit = new LinkedHashMap<>();
+            priorityLimit.put("limit", concurrencyLimiter.getLimit(priority));
+            priorityLimit.put("rejectedCalls", (long) concurrencyLimiter.getRejections(priority));
+            limit.put(priority.getTag(), priorityLimit);
+        }
+
+        final Map<String, Object> state = new LinkedHashMap<>();
+        state.put("circuitBreaker", breaker);
+        state.put("retries", retries);
+        state.put("concurrencyLimit", limit);
+        return state;
+    }
+
+    @Autowired
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    @Autowired
+    public void setRetryBudget(final RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    @Autowired
+    public void setCircuitBreaker(final CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Autowired
+    public void setConcurrencyLimiter(final ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+}
@@ -0,0 +1,99 @@
+package net.erp.eveline.configuration.retry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "eveline.transaction.retry")
+public class TransactionRetryProperties {
+    private int maxAttempts = 4;
+    private Duration initialInterval = Duration.ofMillis(50);
+    private Duration maxInterval = Duration.ofSeconds(1);
+    private double budgetRatio = 0.2;
+    private int budgetMinRetriesPerSecond = 5;
+    private Duration budgetWindow = Duration.ofSeconds(10);
+    private int breakerFailureThreshold = 5;
+    private Duration breakerOpenDuration = Duration.ofSeconds(30);
+    private int threads = 4;
+    private int queueCapacity = 100;
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(final int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialInterval() {
+        return initialInterval;
+    }
+
+    public void setInitialInterval(final Duration initialInterval) {
+        this.initialInterval = initialInterval;
+    }
+
+    public Duration getMaxInterval() {
+        return maxInterval;
+    }
+
+    public void setMaxInterval(final Duration maxInterval) {
+        this.maxInterval = maxInterval;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(final double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    public int getBudgetMinRetriesPerSecond() {
+        return budgetMinRetriesPerSecond;
+    }
+
+    public void setBudgetMinRetriesPerSecond(final int budgetMinRetriesPerSecond) {
+        this.budgetMinRetriesPerSecond = budgetMinRetriesPerSecond;
+    }
+
+    public Duration getBudgetWindow() {
+        return budgetWindow;
+    }
+
+    public void setBudgetWindow(final Duration budgetWindow) {
+        this.budgetWindow = budgetWindow;
+    }
+
+    public int getBreakerFailureThreshold() {
+        return breakerFailureThreshold;
+    }
+
+    public void setBreakerFailureThreshold(final int breakerFailureThreshold) {
+        this.breakerFailureThreshold = breakerFailureThreshold;
+    }
+
+    public Duration getBreakerOpenDuration() {
+        return breakerOpenDuration;
+    }
+
+    public void setBreakerOpenDuration(final Duration breakerOpenDuration) {
+        this.breakerOpenDuration = breakerOpenDuration;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
@@ -1,40 +1,52 @@
 package net.erp.eveline.configuration.transactions;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import net.erp.eveline.common.transaction.PayloadLogSampler;
+import net.erp.eveline.common.transaction.TransactionMetrics;
+import net.erp.eveline.common.transaction.TransactionProfileRegistry;
+import net.erp.eveline.common.transaction.TransactionProfiles;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.TransactionDefinition;
-import org.springframework.transaction.support.TransactionTemplate;
 
 @Configuration
+@EnableConfigurationProperties(TransactionProfileProperties.class)
 public class TransactionManagerConfig {
 
     private PlatformTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
 
-    @Qualifier("writeTransactionTemplate")
-    @Bean("writeTransactionTemplate")
-    public TransactionTemplate getWriteTransactionTemplate() {
-        var writeTransactionTemplate = new TransactionTemplate(transactionManager);
-        writeTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
-        writeTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
-        writeTransactionTemplate.setReadOnly(false);
-        return writeTransactionTemplate;
+    @Bean
+    public TransactionProfileRegistry getTransactionProfileRegistry(final TransactionProfileProperties properties) {
+        var registry = new TransactionProfileRegistry(transactionManager);
+        // SET LOCAL only lasts until the transaction ends, so the pooled connection goes back without the limit.
+        registry.setStatementTimeoutApplier(statementTimeout ->
+                jdbcTemplate.execute("SET LOCAL statement_timeout = " + statementTimeout.toMillis()));
+        properties.getProfiles().forEach((name, override) ->
+                registry.register(override.applyTo(TransactionProfiles.byName(name))));
+        return registry;
     }
 
-    @Qualifier("readOnlyTransactionTemplate")
-    @Bean("readOnlyTransactionTemplate")
-    public TransactionTemplate getReadOnlyTransactionTemplate() {
-        var readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
-        readOnlyTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
-        readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
-        readOnlyTransactionTemplate.setReadOnly(true);
-        return readOnlyTransactionTemplate;
+    @Bean
+    public TransactionMetrics getTransactionMetrics(final MeterRegistry meterRegistry) {
+        return new TransactionMetrics(meterRegistry);
+    }
+
+    @Bean
+    public PayloadLogSampler getPayloadLogSampler(final TransactionProfileProperties properties) {
+        return new PayloadLogSampler(properties.getPayloadLogSampleRate());
     }
 
     @Autowired
     public void setTransactionManager(final PlatformTransactionManager transactionManager) {
         this.transactionManager = transactionManager;
     }
+
+    @Autowired
+    public void setJdbcTemplate(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
 }
@@ -0,0 +1,116 @@
+package net.erp.eveline.configuration.transactions;
+
+import net.erp.eveline.common.limit.Priority;
+import net.erp.eveline.common.transaction.TransactionProfile;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.transaction.annotation.Isolation;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "eveline.transaction")
+public class TransactionProfileProperties {
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+    private double payloadLogSampleRate = 0.01;
+
+    public Map<String, Profile> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(final Map<String, Profile> profiles) {
+        this.profiles = profiles;
+    }
+
+    public double getPayloadLogSampleRate() {
+        return payloadLogSampleRate;
+    }
+
+    public void setPayloadLogSampleRate(final double payloadLogSampleRate) {
+        this.payloadLogSampleRate = payloadLogSampleRate;
+    }
+
+    /**
+     * Overrides of a declared profile, settings left empty keep the declared value. Whether a profile only reads is
+     * part of the operation and cannot be overridden.
+     */
+    public static class Profile {
+        private Isolation isolation;
+        private Duration timeout;
+        private Boolean replicaEligible;
+        private Integer maxAttempts;
+        private Duration statementTimeout;
+        private Priority priority;
+
+        public TransactionProfile applyTo(final TransactionProfile declared) {
+            var profile = declared;
+            if (isolation != null) {
+                profile = profile.withIsolation(isolation);
+            }
+            if (timeout != null) {
+                profile = profile.withTimeout(timeout);
+            }
+            if (replicaEligible != null) {
+                profile = profile.withReadOnly(profile.isReadOnly(), replicaEligible);
+            }
+            if (maxAttempts != null) {
+                profile = profile.withMaxAttempts(maxAttempts);
+            }
+            if (statementTimeout != null) {
+                profile = profile.withStatementTimeout(statementTimeout);
+            }
+            if (priority != null) {
+                profile = profile.withPriority(priority);
+            }
+            return profile;
+        }
+
+        public Isolation getIsolation() {
+            return isolation;
+        }
+
+        public void setIsolation(final Isolation isolation) {
+            this.isolation = isolation;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(final Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Boolean getReplicaEligible() {
+            return replicaEligible;
+        }
+
+        public void setReplicaEligible(final Boolean replicaEligible) {
+            this.replicaEligible = replicaEligible;
+        }
+
+        public Integer getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(final Integer maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getStatementTimeout() {
+            return statementTimeout;
+        }
+
+        public void setStatementTimeout(final Duration statementTimeout) {
+            this.statementTimeout = statementTimeout;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public void setPriority(final Priority priority) {
+            this.priority = priority;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package net.erp.eveline.controller;
 
-import io.sentry.Sentry;
 import net.erp.eveline.common.exception.BadRequestException;
 import net.erp.eveline.common.exception.NotFoundException;
 import net.erp.eveline.common.exception.RestError;
 import net.erp.eveline.common.exception.ServiceException;
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+import net.erp.eveline.common.reporting.ErrorReporter;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -16,10 +19,12 @@ import java.util.Optional;
 @ControllerAdvice
 public class AdviceHandler {
 
+    private ErrorReporter errorReporter;
+
     @ExceptionHandler(ServiceException.class)
     @ResponseBody
     public RestError handleServiceException(final ServiceException se, final HttpServletResponse response) {
-        Sentry.captureException(se);
+        errorReporter.report(se);
         return handleExceptionTraversingCause(se, response)
                 .orElseGet(() -> {
                     response.setStatus(500);
@@ -30,7 +35,6 @@ public class AdviceHandler {
     @ExceptionHandler(NotFoundException.class)
     @ResponseBody
     public RestError handleNotFoundException(final NotFoundException nfe, final HttpServletResponse response) {
-        Sentry.captureException(nfe);
         response.setStatus(404);
         return new RestError(404, nfe.getMessage());
     }
@@ -38,11 +42,24 @@ public class AdviceHandler {
     @ExceptionHandler(BadRequestException.class)
     @ResponseBody
     public RestError handleBadRequestException(final BadRequestException bre, final HttpServletResponse response) {
-        Sentry.captureException(bre);
         response.setStatus(400);
         return new RestError(400, bre.getMessage());
     }
 
+    // Rejections of an open circuit breaker are expected while it lasts, they are not reported to Sentry one by one.
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseBody
+    public RestError handleServiceUnavailableException(final ServiceUnavailableException sue, final HttpServletResponse response) {
+        response.setStatus(503);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, sue.getRetryAfter().toSeconds())));
+        return new RestError(503, sue.getMessage());
+    }
+
+    @Autowired
+    public void setErrorReporter(final ErrorReporter errorReporter) {
+        this.errorReporter = errorReporter;
+    }
+
     private Optional<RestError> handleExceptionTraversingCause(final ServiceException se, final HttpServletResponse response) {
         final Optional<Throwable> rootCauseOptional = Optional.ofNullable(ExceptionUtils.getRootCause(se));
         if (rootCauseOptional.isPresent()) {
@@ -1,53 +1,97 @@
 package net.erp.eveline.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.erp.eveline.common.execution.RequestExecutor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.model.ActiveBrandModel;
+import net.erp.eveline.model.BatchItemModel;
 import net.erp.eveline.model.BrandModel;
+import net.erp.eveline.model.PageModel;
 import net.erp.eveline.service.brand.BrandService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import static net.erp.eveline.common.export.NdjsonExport.toNdjson;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequestMapping("/brand")
 @CrossOrigin
 public class BrandController {
     private BrandService brandService;
+    private ObjectMapper objectMapper;
+    private RequestExecutor requestExecutor;
 
     @GetMapping(value = "/", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public Set<BrandModel> getBrands() {
-        return brandService.findAll();
+    public CompletableFuture<Set<BrandModel>> getBrands() {
+        return requestExecutor.supply("brand", brandService::findAll);
+    }
+
+    @GetMapping(value = "/page", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompletableFuture<PageModel<BrandModel>> getBrandPage(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "50") final Integer size,
+            @RequestParam(defaultValue = "ID") final PageSort sort) {
+        return requestExecutor.supply("brand", () -> brandService.findPage(cursor, size, sort));
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportBrands() {
+        return toNdjson(objectMapper, brandService::exportAll);
     }
 
     @GetMapping(value = "/{brandId}", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public BrandModel getBrand(@PathVariable final String brandId){
-        return brandService.getBrandModel(brandId);
+    public CompletableFuture<BrandModel> getBrand(@PathVariable final String brandId){
+        return requestExecutor.supply("brand", () -> brandService.getBrandModel(brandId));
     }
 
     @PutMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public BrandModel upsertBrand(@RequestBody final BrandModel brandModel) {
-        return brandService.upsertBrandModel(brandModel);
+    public CompletableFuture<BrandModel> upsertBrand(@RequestBody final BrandModel brandModel) {
+        return requestExecutor.compose("brand", () -> brandService.upsertBrandModel(brandModel));
+    }
+
+    @PutMapping(value = "/batch", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompletableFuture<List<BatchItemModel<BrandModel>>> upsertBrands(
+            @RequestBody final List<BrandModel> brandModels) {
+        return requestExecutor.compose("brand", () -> brandService.upsertBrandModels(brandModels));
     }
 
     @PutMapping(value = "/activate", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ActiveBrandModel activateBrand(@RequestBody final ActiveBrandModel activeBrandModel) {
-        return brandService.activateBrand(activeBrandModel);
+    public CompletableFuture<ActiveBrandModel> activateBrand(@RequestBody final ActiveBrandModel activeBrandModel) {
+        return requestExecutor.compose("brand", () -> brandService.activateBrand(activeBrandModel));
     }
 
     @PutMapping(value = "/activateSet", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public Set<ActiveBrandModel> activateBrand(@RequestBody final Set<ActiveBrandModel> activeBrandModelSet) {
-        return brandService.activateBrandSet(activeBrandModelSet);
+    public CompletableFuture<Set<ActiveBrandModel>> activateBrand(
+            @RequestBody final Set<ActiveBrandModel> activeBrandModelSet) {
+        return requestExecutor.compose("brand", () -> brandService.activateBrandSet(activeBrandModelSet));
     }
 
     @Autowired
     public void setBrandService(BrandService brandService) {
         this.brandService = brandService;
     }
+
+    @Autowired
+    public void setObjectMapper(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Autowired
+    public void setRequestExecutor(final RequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
 }
@@ -1,66 +1,122 @@
 package net.erp.eveline.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.erp.eveline.common.execution.RequestExecutor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.model.ActiveProductModel;
+import net.erp.eveline.model.PageModel;
+import net.erp.eveline.model.ProductImportReportModel;
 import net.erp.eveline.model.ProductModel;
 import net.erp.eveline.service.product.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import static net.erp.eveline.common.export.NdjsonExport.toNdjson;
+import static net.erp.eveline.common.imports.ProductImportFormat.TEXT_CSV_VALUE;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequestMapping("/product")
 @CrossOrigin
 public class ProductController {
     private ProductService productService;
+    private ObjectMapper objectMapper;
+    private RequestExecutor requestExecutor;
 
     @GetMapping(value = "/", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public Set<ProductModel> getBrands() {
-        return productService.findAll();
+    public CompletableFuture<Set<ProductModel>> getBrands() {
+        return requestExecutor.supply("product", productService::findAll);
+    }
+
+    @GetMapping(value = "/page", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompletableFuture<PageModel<ProductModel>> getProductPage(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "50") final Integer size,
+            @RequestParam(defaultValue = "ID") final PageSort sort) {
+        return requestExecutor.supply("product", () -> productService.findPage(cursor, size, sort));
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportProducts() {
+        return toNdjson(objectMapper, productService::exportAll);
     }
 
     @GetMapping(value = "/provider/{providerId}", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public Set<ProductModel> getProductsByProvider(@PathVariable final String providerId) {
-        return productService.findAllByProvider(providerId);
+    public CompletableFuture<Set<ProductModel>> getProductsByProvider(@PathVariable final String providerId) {
+        return requestExecutor.supply("product", () -> productService.findAllByProvider(providerId));
     }
 
     @GetMapping(value = "/{productId}", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ProductModel getProduct(@PathVariable final String productId) {
-        return productService.getProductModel(productId);
+    public CompletableFuture<ProductModel> getProduct(@PathVariable final String productId) {
+        return requestExecutor.supply("product", () -> productService.getProductModel(productId));
     }
 
     @GetMapping(value = "/upc/{upc}", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ProductModel getProductByUpc(@PathVariable final String upc) {
-        return productService.findByUpc(upc);
+    public CompletableFuture<ProductModel> getProductByUpc(@PathVariable final String upc) {
+        return requestExecutor.supply("product", () -> productService.findByUpc(upc));
     }
 
     @PutMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ProductModel upsertProduct(@RequestBody final ProductModel productModel) {
-        return productService.upsertProductModel(productModel);
+    public CompletableFuture<ProductModel> upsertProduct(@RequestBody final ProductModel productModel) {
+        return requestExecutor.compose("product", () -> productService.upsertProductModel(productModel));
+    }
+
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE}, produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ProductImportReportModel importProducts(@RequestHeader(CONTENT_TYPE) final String contentType,
+                                                   final InputStream body) {
+        return productService.importProducts(body, contentType);
     }
 
     @PutMapping(value = "/activate", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ActiveProductModel activateProvider(@RequestBody final ActiveProductModel activeProviderModel) {
-        return productService.activateProduct(activeProviderModel);
+    public CompletableFuture<ActiveProductModel> activateProvider(
+            @RequestBody final ActiveProductModel activeProviderModel) {
+        return requestExecutor.compose("product", () -> productService.activateProduct(activeProviderModel));
+    }
+
+    @PutMapping(value = "/activateSet", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompletableFuture<Set<ActiveProductModel>> activateProductSet(
+            @RequestBody final Set<ActiveProductModel> activeProductModelSet) {
+        return requestExecutor.compose("product", () -> productService.activateProductSet(activeProductModelSet));
     }
 
     @Autowired
     public void setProductService(ProductService productService) {
         this.productService = productService;
     }
+
+    @Autowired
+    public void setObjectMapper(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Autowired
+    public void setRequestExecutor(final RequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
 }
@@ -1,6 +1,11 @@
 package net.erp.eveline.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.erp.eveline.common.execution.RequestExecutor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.model.ActiveProviderModel;
+import net.erp.eveline.model.BatchItemModel;
+import net.erp.eveline.model.PageModel;
 import net.erp.eveline.model.ProviderModel;
 import net.erp.eveline.service.provider.ProviderService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,12 +15,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import static net.erp.eveline.common.export.NdjsonExport.toNdjson;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequestMapping("/provider")
@@ -23,39 +34,74 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 public class ProviderController {
 
     private ProviderService providerService;
+    private ObjectMapper objectMapper;
+    private RequestExecutor requestExecutor;
 
     @GetMapping(value = "/", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public Set<ProviderModel> getProviders() {
-        return providerService.findAll();
+    public CompletableFuture<Set<ProviderModel>> getProviders() {
+        return requestExecutor.supply("provider", providerService::findAll);
+    }
+
+    @GetMapping(value = "/page", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompletableFuture<PageModel<ProviderModel>> getProviderPage(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "50") final Integer size,
+            @RequestParam(defaultValue = "ID") final PageSort sort) {
+        return requestExecutor.supply("provider", () -> providerService.findPage(cursor, size, sort));
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportProviders() {
+        return toNdjson(objectMapper, providerService::exportAll);
     }
 
     @GetMapping(value = "/{providerId}", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ProviderModel getProvider(@PathVariable final String providerId) {
-        return providerService.getProviderModel(providerId);
+    public CompletableFuture<ProviderModel> getProvider(@PathVariable final String providerId) {
+        return requestExecutor.supply("provider", () -> providerService.getProviderModel(providerId));
     }
 
     @PutMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ProviderModel upsertProvider(@RequestBody final ProviderModel providerModel) {
-        return providerService.upsertProviderModel(providerModel);
+    public CompletableFuture<ProviderModel> upsertProvider(@RequestBody final ProviderModel providerModel) {
+        return requestExecutor.compose("provider", () -> providerService.upsertProviderModel(providerModel));
+    }
+
+    @PutMapping(value = "/batch", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompletableFuture<List<BatchItemModel<ProviderModel>>> upsertProviders(
+            @RequestBody final List<ProviderModel> providerModels) {
+        return requestExecutor.compose("provider", () -> providerService.upsertProviderModels(providerModels));
     }
 
     @PutMapping(value = "/activate", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ActiveProviderModel activateProvider(@RequestBody final ActiveProviderModel activeProviderModel) {
-        return providerService.activateProvider(activeProviderModel);
+    public CompletableFuture<ActiveProviderModel> activateProvider(
+            @RequestBody final ActiveProviderModel activeProviderModel) {
+        return requestExecutor.compose("provider", () -> providerService.activateProvider(activeProviderModel));
     }
 
     @PutMapping(value = "/activateSet", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public Set<ActiveProviderModel> activateProvider(@RequestBody final Set<ActiveProviderModel> activeProviderModelSet) {
-        return providerService.activateProviderSet(activeProviderModelSet);
+    public CompletableFuture<Set<ActiveProviderModel>> activateProvider(
+            @RequestBody final Set<ActiveProviderModel> activeProviderModelSet) {
+        return requestExecutor.compose("provider", () -> providerService.activateProviderSet(activeProviderModelSet));
     }
 
     @Autowired
     public void setProviderService(final ProviderService providerService) {
         this.providerService = providerService;
     }
+
+    @Autowired
+    public void setObjectMapper(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Autowired
+    public void setRequestExecutor(final RequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
 }
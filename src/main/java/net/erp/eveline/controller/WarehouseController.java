@@ -1,53 +1,99 @@
 package net.erp.eveline.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.erp.eveline.common.execution.RequestExecutor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.model.ActiveWarehouseModel;
+import net.erp.eveline.model.BatchItemModel;
+import net.erp.eveline.model.PageModel;
 import net.erp.eveline.model.WarehouseModel;
 import net.erp.eveline.service.warehouse.WarehouseService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import static net.erp.eveline.common.export.NdjsonExport.toNdjson;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequestMapping("/warehouse")
 @CrossOrigin
 public class WarehouseController {
     private WarehouseService warehouseService;
+    private ObjectMapper objectMapper;
+    private RequestExecutor requestExecutor;
 
     @GetMapping(value = "/", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public Set<WarehouseModel> getWarehouses() {
-        return warehouseService.findAll();
+    public CompletableFuture<Set<WarehouseModel>> getWarehouses() {
+        return requestExecutor.supply("warehouse", warehouseService::findAll);
+    }
+
+    @GetMapping(value = "/page", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompletableFuture<PageModel<WarehouseModel>> getWarehousePage(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "50") final Integer size,
+            @RequestParam(defaultValue = "ID") final PageSort sort) {
+        return requestExecutor.supply("warehouse", () -> warehouseService.findPage(cursor, size, sort));
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportWarehouses() {
+        return toNdjson(objectMapper, warehouseService::exportAll);
     }
 
     @GetMapping(value = "/{warehouseId}", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public WarehouseModel getWarehouse(@PathVariable final String warehouseId){
-        return warehouseService.getWarehouseModel(warehouseId);
+    public CompletableFuture<WarehouseModel> getWarehouse(@PathVariable final String warehouseId){
+        return requestExecutor.supply("warehouse", () -> warehouseService.getWarehouseModel(warehouseId));
     }
 
     @PutMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public WarehouseModel upsertWarehouse(@RequestBody final WarehouseModel warehouseModel) {
-        return warehouseService.upsertWarehouseModel(warehouseModel);
+    public CompletableFuture<WarehouseModel> upsertWarehouse(@RequestBody final WarehouseModel warehouseModel) {
+        return requestExecutor.compose("warehouse", () -> warehouseService.upsertWarehouseModel(warehouseModel));
+    }
+
+    @PutMapping(value = "/batch", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompletableFuture<List<BatchItemModel<WarehouseModel>>> upsertWarehouses(
+            @RequestBody final List<WarehouseModel> warehouseModels) {
+        return requestExecutor.compose("warehouse", () -> warehouseService.upsertWarehouseModels(warehouseModels));
     }
 
     @PutMapping(value = "/activate", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ActiveWarehouseModel activateWarehouse(@RequestBody final ActiveWarehouseModel activeWarehouseModel) {
-        return warehouseService.activateWarehouse(activeWarehouseModel);
+    public CompletableFuture<ActiveWarehouseModel> activateWarehouse(
+            @RequestBody final ActiveWarehouseModel activeWarehouseModel) {
+        return requestExecutor.compose("warehouse", () -> warehouseService.activateWarehouse(activeWarehouseModel));
     }
 
     @PutMapping(value = "/activateSet", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     @ResponseBody
-    public Set<ActiveWarehouseModel> activateWarehouse(@RequestBody final Set<ActiveWarehouseModel> activeWarehouseModelSet) {
-        return warehouseService.activateWarehouseSet(activeWarehouseModelSet);
+    public CompletableFuture<Set<ActiveWarehouseModel>> activateWarehouse(
+            @RequestBody final Set<ActiveWarehouseModel> activeWarehouseModelSet) {
+        return requestExecutor.compose("warehouse",
+                () -> warehouseService.activateWarehouseSet(activeWarehouseModelSet));
     }
 
     @Autowired
     public void setWarehouseService(WarehouseService warehouseService) {
         this.warehouseService = warehouseService;
     }
+
+    @Autowired
+    public void setObjectMapper(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Autowired
+    public void setRequestExecutor(final RequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
 }
@@ -2,9 +2,13 @@ package net.erp.eveline.data.generators;
 
 import org.hibernate.HibernateException;
 import org.hibernate.MappingException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.id.Configurable;
 import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.service.ServiceRegistry;
 import org.hibernate.type.Type;
 import org.slf4j.Logger;
@@ -12,41 +16,89 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.Statement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Properties;
 
 import static java.lang.String.format;
 
+/**
+ * Generates prefixed ids out of a database sequence. Values are reserved in blocks of {@code block_size} with a single
+ * round trip and handed out from memory. Every value still comes from {@code nextval}, so ids stay unique across
+ * application nodes; values reserved but not used before a restart are simply skipped.
+ */
 public class CustomGenerator implements IdentifierGenerator, Configurable {
 
+    public static final String BLOCK_SIZE_PARAMETER = "block_size";
+    public static final int DEFAULT_BLOCK_SIZE = 20;
+    public static final long MAX_ID_VALUE = 9_999_999_999L;
+
     private static final Logger logger = LoggerFactory.getLogger(CustomGenerator.class);
+    private final Deque<Long> reserved = new ArrayDeque<>();
     private String prefix;
     private String sequence;
+    private int blockSize;
+    private String blockQuery;
 
     @Override
-    public Serializable generate(SharedSessionContractImplementor session, Object obj) throws HibernateException {
-
-        Connection connection = session.connection();
-        try {
-            Statement statement = connection.createStatement();
+    public synchronized Serializable generate(SharedSessionContractImplementor session, Object obj) throws HibernateException {
+        if (reserved.isEmpty()) {
+            reserveBlock(session.connection());
+        }
+        return formatId(prefix, reserved.poll());
+    }
 
-            ResultSet rs = statement.executeQuery("SELECT nextval('" + sequence + "')");
+    /**
+     * Same format as the {@code format_entity_id} database function: 5 zero padded digits below 100000 and the plain
+     * value above it, which keeps the ids issued before the id space was widened valid.
+     */
+    static String formatId(final String prefix, final long value) {
+        if (value < 1 || value > MAX_ID_VALUE) {
+            throw new HibernateException(format("Value %d is out of the id range for prefix %s.", value, prefix));
+        }
+        return prefix + format("%05d", value);
+    }
 
-            if (rs.next()) {
-                return prefix + format("%05d", rs.getInt(1));
+    private void reserveBlock(final Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement(blockQuery)) {
+            if (blockSize > 1) {
+                statement.setInt(1, blockSize);
             }
-        } catch (Exception ex) {
-            var message = format("Unable to generate providerId. | Cause: %s", ex.getMessage());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    reserved.add(rs.getLong(1));
+                }
+            }
+        } catch (SQLException ex) {
+            var message = format("Unable to generate id for sequence %s. | Cause: %s", sequence, ex.getMessage());
             logger.warn(message, ex);
             throw new HibernateException(message, ex);
         }
-        return null;
+        if (reserved.isEmpty()) {
+            throw new HibernateException(format("Sequence %s did not return any value.", sequence));
+        }
+        logger.debug("Reserved {} ids from sequence {}.", reserved.size(), sequence);
     }
 
     @Override
     public void configure(Type type, Properties properties, ServiceRegistry serviceRegistry) throws MappingException {
         prefix = properties.getProperty("prefix");
         sequence = properties.getProperty("sequence");
+        blockSize = ConfigurationHelper.getInt(BLOCK_SIZE_PARAMETER, properties, DEFAULT_BLOCK_SIZE);
+        if (blockSize < 1) {
+            throw new MappingException(format("The %s of sequence %s must be at least 1.", BLOCK_SIZE_PARAMETER, sequence));
+        }
+
+        final Dialect dialect = serviceRegistry.getService(JdbcEnvironment.class).getDialect();
+        if (dialect instanceof PostgreSQL81Dialect && blockSize > 1) {
+            blockQuery = "SELECT nextval('" + sequence + "') FROM generate_series(1, ?) ORDER BY 1";
+        } else {
+            // Dialects without generate_series (the H2 test database) reserve one value per round trip.
+            blockSize = 1;
+            blockQuery = dialect.getSequenceNextValString(sequence);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package net.erp.eveline.data.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Set based activation. The enabled flag and last user of every requested row are written with a single UPDATE that
+ * joins the table against the request bound as arrays, and the rows actually updated come back through RETURNING.
+ */
+@Repository
+public class ActivationRepository {
+
+    public enum ActivationTable {
+        BRAND("brand", "brand_id"),
+        PRODUCT("product", "product_id"),
+        PROVIDER("provider", "provider_id"),
+        WAREHOUSE("warehouse", "warehouse_id");
+
+        private final String activateQuery;
+
+        ActivationTable(final String table, final String idColumn) {
+            // Every row carries its own flag and user, so the values are unnested alongside the ids instead of
+            // matching a single pair with id = ANY(?).
+            this.activateQuery = "UPDATE " + table + " t SET enabled = v.enabled, last_user = v.last_user " +
+                    "FROM unnest(?::varchar[], ?::boolean[], ?::varchar[]) AS v(id, enabled, last_user) " +
+                    "WHERE t." + idColumn + " = v.id " +
+                    "RETURNING t." + idColumn + " AS id, t.enabled, t.last_user";
+        }
+    }
+
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Updates the enabled flag and last user of the models given in one statement.
+     *
+     * @return the rows updated; ids that do not exist are simply missing from it.
+     */
+    public <M> List<M> activate(final ActivationTable table,
+                                final Collection<M> models,
+                                final Function<M, String> idExtractor,
+                                final Function<M, Boolean> enabledExtractor,
+                                final Function<M, String> lastUserExtractor,
+                                final RowMapper<M> rowMapper) {
+        final Object[] ids = models.stream().map(idExtractor).toArray();
+        final Object[] enabled = models.stream().map(enabledExtractor).toArray();
+        final Object[] lastUsers = models.stream().map(lastUserExtractor).toArray();
+        return jdbcTemplate.query(connection -> {
+            final var statement = connection.prepareStatement(table.activateQuery);
+            statement.setArray(1, connection.createArrayOf("varchar", ids));
+            statement.setArray(2, connection.createArrayOf("boolean", enabled));
+            statement.setArray(3, connection.createArrayOf("varchar", lastUsers));
+            return statement;
+        }, rowMapper);
+    }
+
+    @Autowired
+    public void setJdbcTemplate(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+}
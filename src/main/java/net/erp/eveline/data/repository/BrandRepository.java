@@ -2,9 +2,39 @@ package net.erp.eveline.data.repository;
 
 import net.erp.eveline.data.entity.Brand;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Set;
+import javax.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static net.erp.eveline.common.export.NdjsonExport.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface BrandRepository extends JpaRepository<Brand, String> {
-    boolean existsAllByBrandIdIn(final Set<String> brandsId);
+
+    @Query(value = "SELECT * FROM brand WHERE (char_length(brand_id), brand_id) > (char_length(:afterId), :afterId) " +
+            "ORDER BY char_length(brand_id), brand_id LIMIT :limit",
+            nativeQuery = true)
+    List<Brand> findPageOrderById(@Param("afterId") final String afterId, @Param("limit") final int limit);
+
+    @Query(value = "SELECT * FROM brand WHERE last_modified IS NOT NULL " +
+            "ORDER BY last_modified DESC NULLS LAST, brand_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Brand> findFirstPageOrderByLastModified(@Param("limit") final int limit);
+
+    @Query(value = "SELECT * FROM brand WHERE (last_modified, brand_id) < (:lastModified, :afterId) " +
+            "ORDER BY last_modified DESC NULLS LAST, brand_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Brand> findPageOrderByLastModified(@Param("lastModified") final OffsetDateTime lastModified,
+                                            @Param("afterId") final String afterId,
+                                            @Param("limit") final int limit);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT b FROM Brand b ORDER BY LENGTH(b.brandId), b.brandId")
+    Stream<Brand> streamAll();
 }
@@ -0,0 +1,192 @@
+package net.erp.eveline.data.repository;
+
+import net.erp.eveline.common.imports.ProductImportRow;
+import net.erp.eveline.model.ImportErrorModel;
+import net.erp.eveline.model.ProductImportReportModel;
+import net.erp.eveline.model.ProductModel;
+import net.erp.eveline.model.ProviderModel;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Set based product import. Rows are streamed with COPY into a temporary staging table that only lives until the
+ * import transaction ends, checked against the catalog with a single UPDATE and merged with a single statement, so
+ * the cost per row is a COPY line instead of an ORM flush and its round trips.
+ */
+@Repository
+public class ProductImportRepository {
+    public static final String BRAND_NOT_FOUND_MESSAGE = "The brand provided does not exist.";
+    public static final String PROVIDER_NOT_FOUND_MESSAGE = "Not all providers provided exist.";
+    public static final String UPC_REPEATED_MESSAGE = "The upc is repeated further down in the body, only its last row is imported.";
+    public static final String SANITARY_REGISTRY_NUMBER_TAKEN_MESSAGE = "The sanitary registry number already belongs to another product.";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_TABLE = "CREATE TEMPORARY TABLE product_import_staging (" +
+            "row_number bigint NOT NULL, " +
+            "upc varchar(12) NOT NULL, " +
+            "title varchar(100) NOT NULL, " +
+            "description text, " +
+            "sanitary_registry_number varchar(100), " +
+            "brand_id varchar(11) NOT NULL, " +
+            "provider_ids varchar(11)[] NOT NULL, " +
+            "last_user varchar(100) NOT NULL, " +
+            "enabled boolean, " +
+            "errors text[] NOT NULL DEFAULT '{}'" +
+            ") ON COMMIT DROP";
+
+    private static final String COPY_STAGING = "COPY product_import_staging " +
+            "(row_number, upc, title, description, sanitary_registry_number, brand_id, provider_ids, last_user, enabled) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    // Indexes are built once the rows are in, which is cheaper than maintaining them through the COPY.
+    private static final String[] PREPARE_STAGING = {
+            "CREATE INDEX ON product_import_staging (upc, row_number)",
+            "CREATE INDEX ON product_import_staging (sanitary_registry_number)",
+            "ANALYZE product_import_staging"
+    };
+
+    // The checks of a staged row, written against the alias given so the sanitary registry number check can apply
+    // them to the other rows as well.
+    private static final String BRAND_EXISTS = "EXISTS (SELECT 1 FROM brand b WHERE b.brand_id = %1$s.brand_id)";
+    private static final String PROVIDER_MISSING = "EXISTS (SELECT 1 FROM unnest(%1$s.provider_ids) AS i(provider_id) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM provider p WHERE p.provider_id = i.provider_id))";
+    private static final String UPC_REPEATED = "EXISTS (SELECT 1 FROM product_import_staging l " +
+            "WHERE l.upc = %1$s.upc AND l.row_number > %1$s.row_number)";
+    private static final String SANITARY_REGISTRY_NUMBER_OF_PRODUCT = "EXISTS (SELECT 1 FROM product p " +
+            "WHERE p.sanitary_registry_number = %1$s.sanitary_registry_number AND p.upc <> %1$s.upc)";
+
+    // A sanitary registry number repeated in the body is taken by its first row that is merged, rows rejected for any
+    // other reason do not hold it.
+    private static final String CLASSIFY_STAGING = "UPDATE product_import_staging s SET errors = array_remove(ARRAY[" +
+            "CASE WHEN NOT " + String.format(BRAND_EXISTS, "s") + " THEN ?::text END, " +
+            "CASE WHEN " + String.format(PROVIDER_MISSING, "s") + " THEN ?::text END, " +
+            "CASE WHEN " + String.format(UPC_REPEATED, "s") + " THEN ?::text END, " +
+            "CASE WHEN s.sanitary_registry_number IS NOT NULL AND (" + String.format(SANITARY_REGISTRY_NUMBER_OF_PRODUCT, "s") +
+            "    OR EXISTS (SELECT 1 FROM product_import_staging o WHERE o.sanitary_registry_number = s.sanitary_registry_number " +
+            "        AND o.upc <> s.upc AND o.row_number < s.row_number " +
+            "        AND " + String.format(BRAND_EXISTS, "o") +
+            "        AND NOT " + String.format(PROVIDER_MISSING, "o") +
+            "        AND NOT " + String.format(UPC_REPEATED, "o") +
+            "        AND NOT " + String.format(SANITARY_REGISTRY_NUMBER_OF_PRODUCT, "o") + ")) THEN ?::text END" +
+            "]::text[], NULL)";
+
+    // New upcs take an id from the sequence and existing ones keep theirs; the provider assignations of every merged
+    // product are replaced by the ones in the body. The insert trigger keeps setting create_date and last_modified.
+    private static final String MERGE_STAGING = "WITH upserted AS (" +
+            "    INSERT INTO product AS p (product_id, brand_id, upc, title, description, sanitary_registry_number, last_user, enabled) " +
+            "    SELECT COALESCE(e.product_id, format_entity_id('s', nextval('product_id_seq'))), s.brand_id, s.upc, s.title, " +
+            "        s.description, s.sanitary_registry_number, s.last_user, COALESCE(s.enabled, false) " +
+            "    FROM product_import_staging s LEFT JOIN product e ON e.upc = s.upc " +
+            "    WHERE cardinality(s.errors) = 0 " +
+            "    ON CONFLICT (upc) DO UPDATE SET brand_id = EXCLUDED.brand_id, title = EXCLUDED.title, " +
+            "        description = EXCLUDED.description, sanitary_registry_number = EXCLUDED.sanitary_registry_number, " +
+            "        last_user = EXCLUDED.last_user, enabled = EXCLUDED.enabled " +
+            "    RETURNING p.product_id, p.upc, (p.xmax = 0) AS inserted" +
+            "), removed AS (" +
+            "    DELETE FROM product_provider_assignation a USING upserted u WHERE a.product_id = u.product_id" +
+            "), assigned AS (" +
+            "    INSERT INTO product_provider_assignation (product_id, provider_id) " +
+            "    SELECT u.product_id, unnest(s.provider_ids) FROM upserted u " +
+            "    JOIN product_import_staging s ON s.upc = u.upc AND cardinality(s.errors) = 0" +
+            ") " +
+            "SELECT count(*) FILTER (WHERE inserted) AS inserted, count(*) FILTER (WHERE NOT inserted) AS updated FROM upserted";
+
+    private static final String FIND_REJECTED = "SELECT row_number, upc, errors FROM product_import_staging " +
+            "WHERE cardinality(errors) > 0 ORDER BY row_number";
+
+    private JdbcTemplate jdbcTemplate;
+
+    public void createStagingTable() {
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+    }
+
+    /**
+     * Streams the rows handed over by the source into the staging table with a single COPY.
+     *
+     * @return the number of rows copied.
+     */
+    public long copyToStaging(final Consumer<Consumer<ProductImportRow>> source) {
+        final Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            final var copyStream = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_STAGING, COPY_BUFFER_SIZE);
+            try (var printer = new CSVPrinter(new OutputStreamWriter(copyStream, UTF_8), CSVFormat.POSTGRESQL_CSV)) {
+                final long[] rows = {0};
+                source.accept(row -> {
+                    print(printer, row);
+                    rows[0]++;
+                });
+                return rows[0];
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        for (final String statement : PREPARE_STAGING) {
+            jdbcTemplate.execute(statement);
+        }
+        return copied == null ? 0 : copied;
+    }
+
+    /**
+     * Flags the staged rows that cannot be merged: unknown brand or providers, upcs repeated in the body and sanitary
+     * registry numbers that belong to another product.
+     */
+    public void classifyStaging() {
+        jdbcTemplate.update(CLASSIFY_STAGING, BRAND_NOT_FOUND_MESSAGE, PROVIDER_NOT_FOUND_MESSAGE, UPC_REPEATED_MESSAGE,
+                SANITARY_REGISTRY_NUMBER_TAKEN_MESSAGE);
+    }
+
+    public ProductImportReportModel mergeStaging() {
+        return jdbcTemplate.queryForObject(MERGE_STAGING, (rs, rowNum) -> new ProductImportReportModel()
+                .setInserted(rs.getLong("inserted"))
+                .setUpdated(rs.getLong("updated")));
+    }
+
+    public List<ImportErrorModel> findRejectedStaging() {
+        return jdbcTemplate.query(FIND_REJECTED, (rs, rowNum) -> new ImportErrorModel()
+                .setRow(rs.getLong("row_number"))
+                .setUpc(rs.getString("upc"))
+                .setMessages(Arrays.asList((String[]) rs.getArray("errors").getArray())));
+    }
+
+    private static void print(final CSVPrinter printer, final ProductImportRow row) {
+        final ProductModel productModel = row.getModel();
+        final var providerIds = productModel.getProviderSet()
+                .stream()
+                .map(ProviderModel::getId)
+                .collect(Collectors.joining(",", "{", "}"));
+        try {
+            printer.printRecord(row.getRowNumber(),
+                    productModel.getUpc().trim(),
+                    productModel.getTitle().trim(),
+                    productModel.getDescription(),
+                    productModel.getSanitaryRegistryNumber(),
+                    productModel.getBrand().getId(),
+                    providerIds,
+                    productModel.getLastUser(),
+                    productModel.isEnabled());
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Autowired
+    public void setJdbcTemplate(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+}
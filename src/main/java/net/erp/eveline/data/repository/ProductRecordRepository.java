@@ -0,0 +1,69 @@
+package net.erp.eveline.data.repository;
+
+import net.erp.eveline.common.index.ProductRecord;
+import net.erp.eveline.common.mapper.ProductMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import static net.erp.eveline.common.export.NdjsonExport.EXPORT_FETCH_SIZE;
+
+/**
+ * Product rows with the ids of their providers aggregated in the same row, read straight into {@link ProductRecord}s
+ * without going through the persistence context, for the upc index.
+ */
+@Repository
+public class ProductRecordRepository {
+    private static final String SELECT_RECORDS = "SELECT p.product_id, p.upc, p.brand_id, p.title, p.description, " +
+            "p.create_date, p.last_modified, p.last_user, p.enabled, " +
+            "ARRAY(SELECT a.provider_id FROM product_provider_assignation a WHERE a.product_id = p.product_id) AS provider_ids " +
+            "FROM product p";
+
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Streams every product, fetching the rows in batches instead of loading them all at once.
+     */
+    public void streamAll(final Consumer<ProductRecord> consumer) {
+        jdbcTemplate.query(connection -> {
+            final var statement = connection.prepareStatement(SELECT_RECORDS);
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            return statement;
+        }, handler(consumer));
+    }
+
+    public void findByIds(final Collection<String> productIds, final Consumer<ProductRecord> consumer) {
+        final Object[] ids = productIds.toArray();
+        jdbcTemplate.query(connection -> {
+            final var statement = connection.prepareStatement(SELECT_RECORDS + " WHERE p.product_id = ANY(?)");
+            statement.setArray(1, connection.createArrayOf("varchar", ids));
+            return statement;
+        }, handler(consumer));
+    }
+
+    /**
+     * Products modified at or after the moment given, found through the index on last_modified.
+     */
+    public void findModifiedSince(final OffsetDateTime lastModified, final Consumer<ProductRecord> consumer) {
+        jdbcTemplate.query(connection -> {
+            final var statement = connection.prepareStatement(SELECT_RECORDS + " WHERE p.last_modified >= ?");
+            statement.setObject(1, lastModified);
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            return statement;
+        }, handler(consumer));
+    }
+
+    private static RowCallbackHandler handler(final Consumer<ProductRecord> consumer) {
+        return resultSet -> consumer.accept(ProductMapper.toRecord(resultSet, resultSet.getRow()));
+    }
+
+    @Autowired
+    public void setJdbcTemplate(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+}
@@ -1,13 +1,67 @@
 package net.erp.eveline.data.repository;
 
 import net.erp.eveline.data.entity.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import static net.erp.eveline.common.export.NdjsonExport.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface ProductRepository extends JpaRepository<Product, String> {
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("SELECT DISTINCT p FROM Product p JOIN FETCH p.brand LEFT JOIN FETCH p.providerSet")
+    List<Product> findAll();
+
+    @EntityGraph(attributePaths = {"brand", "providerSet"})
+    Optional<Product> findById(final String productId);
+
+    @EntityGraph(attributePaths = {"brand", "providerSet"})
     Optional<Product> findByUpc(final String upc);
 
-    Set<Product> findByProviderSetProviderId(final String providerId);
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("SELECT DISTINCT p FROM Product p JOIN FETCH p.brand LEFT JOIN FETCH p.providerSet " +
+            "WHERE p.productId IN (SELECT a.productId FROM Product a JOIN a.providerSet ap WHERE ap.providerId = :providerId)")
+    Set<Product> findByProviderSetProviderId(@Param("providerId") final String providerId);
+
+    @Query(value = "SELECT * FROM product WHERE (char_length(product_id), product_id) > (char_length(:afterId), :afterId) " +
+            "ORDER BY char_length(product_id), product_id LIMIT :limit",
+            nativeQuery = true)
+    List<Product> findPageOrderById(@Param("afterId") final String afterId, @Param("limit") final int limit);
+
+    @Query(value = "SELECT * FROM product WHERE last_modified IS NOT NULL " +
+            "ORDER BY last_modified DESC NULLS LAST, product_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Product> findFirstPageOrderByLastModified(@Param("limit") final int limit);
+
+    @Query(value = "SELECT * FROM product WHERE (last_modified, product_id) < (:lastModified, :afterId) " +
+            "ORDER BY last_modified DESC NULLS LAST, product_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Product> findPageOrderByLastModified(@Param("lastModified") final OffsetDateTime lastModified,
+                                              @Param("afterId") final String afterId,
+                                              @Param("limit") final int limit);
+
+    // Ordered by char_length as product_id_length_index is, LENGTH would render as length() and miss the index.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT p FROM Product p JOIN FETCH p.brand ORDER BY FUNCTION('char_length', p.productId), p.productId")
+    Stream<Product> streamAll();
+
+    /**
+     * Loads the provider sets of products already in the persistence context, in a single query for all of them.
+     */
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.providerSet WHERE p.productId IN :productIds")
+    List<Product> fetchProviderSets(@Param("productIds") final Collection<String> productIds);
 }
@@ -2,10 +2,40 @@ package net.erp.eveline.data.repository;
 
 import net.erp.eveline.data.entity.Provider;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Set;
+import javax.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static net.erp.eveline.common.export.NdjsonExport.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface ProviderRepository extends JpaRepository<Provider, String> {
 
-    boolean existsAllByProviderIdIn(final Set<String> providerIds);
+
+    @Query(value = "SELECT * FROM provider WHERE (char_length(provider_id), provider_id) > (char_length(:afterId), :afterId) " +
+            "ORDER BY char_length(provider_id), provider_id LIMIT :limit",
+            nativeQuery = true)
+    List<Provider> findPageOrderById(@Param("afterId") final String afterId, @Param("limit") final int limit);
+
+    @Query(value = "SELECT * FROM provider WHERE last_modified IS NOT NULL " +
+            "ORDER BY last_modified DESC NULLS LAST, provider_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Provider> findFirstPageOrderByLastModified(@Param("limit") final int limit);
+
+    @Query(value = "SELECT * FROM provider WHERE (last_modified, provider_id) < (:lastModified, :afterId) " +
+            "ORDER BY last_modified DESC NULLS LAST, provider_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Provider> findPageOrderByLastModified(@Param("lastModified") final OffsetDateTime lastModified,
+                                               @Param("afterId") final String afterId,
+                                               @Param("limit") final int limit);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT p FROM Provider p ORDER BY LENGTH(p.providerId), p.providerId")
+    Stream<Provider> streamAll();
 }
@@ -3,11 +3,40 @@ package net.erp.eveline.data.repository;
 import net.erp.eveline.data.entity.Warehouse;
 import net.erp.eveline.model.WarehouseModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Set;
+import javax.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static net.erp.eveline.common.export.NdjsonExport.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface WarehouseRepository extends JpaRepository<Warehouse, String> {
 
-    boolean existsAllByWarehouseIdIn(final Set<String> providerIds);
 
+    @Query(value = "SELECT * FROM warehouse WHERE (char_length(warehouse_id), warehouse_id) > (char_length(:afterId), :afterId) " +
+            "ORDER BY char_length(warehouse_id), warehouse_id LIMIT :limit",
+            nativeQuery = true)
+    List<Warehouse> findPageOrderById(@Param("afterId") final String afterId, @Param("limit") final int limit);
+
+    @Query(value = "SELECT * FROM warehouse WHERE last_modified IS NOT NULL " +
+            "ORDER BY last_modified DESC NULLS LAST, warehouse_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Warehouse> findFirstPageOrderByLastModified(@Param("limit") final int limit);
+
+    @Query(value = "SELECT * FROM warehouse WHERE (last_modified, warehouse_id) < (:lastModified, :afterId) " +
+            "ORDER BY last_modified DESC NULLS LAST, warehouse_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Warehouse> findPageOrderByLastModified(@Param("lastModified") final OffsetDateTime lastModified,
+                                                @Param("afterId") final String afterId,
+                                                @Param("limit") final int limit);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT w FROM Warehouse w ORDER BY LENGTH(w.warehouseId), w.warehouseId")
+    Stream<Warehouse> streamAll();
 }
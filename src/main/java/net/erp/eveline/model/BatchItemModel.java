@@ -0,0 +1,96 @@
+package net.erp.eveline.model;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.List;
+
+/**
+ * Outcome of one item of a batch request. The index is the position of the item in the request body.
+ */
+public class BatchItemModel<T> {
+    public enum Outcome {
+        INSERTED,
+        UPDATED,
+        INVALID,
+        NOT_FOUND
+    }
+
+    private Integer index;
+    private Outcome outcome;
+    private T item;
+    private List<String> errors;
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public BatchItemModel<T> setIndex(final Integer index) {
+        this.index = index;
+        return this;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public BatchItemModel<T> setOutcome(final Outcome outcome) {
+        this.outcome = outcome;
+        return this;
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    public BatchItemModel<T> setItem(final T item) {
+        this.item = item;
+        return this;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public BatchItemModel<T> setErrors(final List<String> errors) {
+        this.errors = errors;
+        return this;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BatchItemModel<?> that = (BatchItemModel<?>) o;
+
+        return new EqualsBuilder()
+                .append(index, that.index)
+                .append(outcome, that.outcome)
+                .append(item, that.item)
+                .append(errors, that.errors)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(index)
+                .append(outcome)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.JSON_STYLE)
+                .append("__class__", this.getClass().getSimpleName())
+                .append("index", index)
+                .append("outcome", outcome)
+                .append("item", item)
+                .append("errors", errors)
+                .toString();
+    }
+}
@@ -0,0 +1,74 @@
+package net.erp.eveline.model;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.List;
+
+public class ImportErrorModel {
+    private Long row;
+    private String upc;
+    private List<String> messages;
+
+    public Long getRow() {
+        return row;
+    }
+
+    public ImportErrorModel setRow(final Long row) {
+        this.row = row;
+        return this;
+    }
+
+    public String getUpc() {
+        return upc;
+    }
+
+    public ImportErrorModel setUpc(final String upc) {
+        this.upc = upc;
+        return this;
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    public ImportErrorModel setMessages(final List<String> messages) {
+        this.messages = messages;
+        return this;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ImportErrorModel that = (ImportErrorModel) o;
+
+        return new EqualsBuilder()
+                .append(row, that.row)
+                .append(upc, that.upc)
+                .append(messages, that.messages)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(row)
+                .append(upc)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.JSON_STYLE)
+                .append("__class__", this.getClass().getSimpleName())
+                .append("row", row)
+                .append("upc", upc)
+                .append("messages", messages)
+                .toString();
+    }
+}
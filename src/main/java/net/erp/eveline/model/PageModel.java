@@ -0,0 +1,73 @@
+package net.erp.eveline.model;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.List;
+
+public class PageModel<T> {
+    private List<T> items;
+    private String nextCursor;
+    private Integer size;
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public PageModel<T> setItems(final List<T> items) {
+        this.items = items;
+        return this;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public PageModel<T> setNextCursor(final String nextCursor) {
+        this.nextCursor = nextCursor;
+        return this;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public PageModel<T> setSize(final Integer size) {
+        this.size = size;
+        return this;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PageModel<?> that = (PageModel<?>) o;
+
+        return new EqualsBuilder()
+                .append(items, that.items)
+                .append(nextCursor, that.nextCursor)
+                .append(size, that.size)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(nextCursor)
+                .append(size)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.JSON_STYLE)
+                .append("__class__", this.getClass().getSimpleName())
+                .append("size", size)
+                .append("nextCursor", nextCursor)
+                .toString();
+    }
+}
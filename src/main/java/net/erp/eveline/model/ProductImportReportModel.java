@@ -0,0 +1,99 @@
+package net.erp.eveline.model;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.List;
+
+public class ProductImportReportModel {
+    private Long received;
+    private Long inserted;
+    private Long updated;
+    private Long rejected;
+    private List<ImportErrorModel> errors;
+
+    public Long getReceived() {
+        return received;
+    }
+
+    public ProductImportReportModel setReceived(final Long received) {
+        this.received = received;
+        return this;
+    }
+
+    public Long getInserted() {
+        return inserted;
+    }
+
+    public ProductImportReportModel setInserted(final Long inserted) {
+        this.inserted = inserted;
+        return this;
+    }
+
+    public Long getUpdated() {
+        return updated;
+    }
+
+    public ProductImportReportModel setUpdated(final Long updated) {
+        this.updated = updated;
+        return this;
+    }
+
+    public Long getRejected() {
+        return rejected;
+    }
+
+    public ProductImportReportModel setRejected(final Long rejected) {
+        this.rejected = rejected;
+        return this;
+    }
+
+    public List<ImportErrorModel> getErrors() {
+        return errors;
+    }
+
+    public ProductImportReportModel setErrors(final List<ImportErrorModel> errors) {
+        this.errors = errors;
+        return this;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ProductImportReportModel that = (ProductImportReportModel) o;
+
+        return new EqualsBuilder()
+                .append(received, that.received)
+                .append(inserted, that.inserted)
+                .append(updated, that.updated)
+                .append(rejected, that.rejected)
+                .append(errors, that.errors)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(received)
+                .append(inserted)
+                .append(updated)
+                .append(rejected)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.JSON_STYLE)
+                .append("__class__", this.getClass().getSimpleName())
+                .append("received", received)
+                .append("inserted", inserted)
+                .append("updated", updated)
+                .append("rejected", rejected)
+                .toString();
+    }
+}
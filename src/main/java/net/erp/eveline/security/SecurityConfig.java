@@ -65,6 +65,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                                 new AntPathRequestMatcher(this.adminServer.getContextPath() + "/actuator/**"),
                                 new AntPathRequestMatcher("/provider/**", PUT.toString()),
                                 new AntPathRequestMatcher("/product/**", PUT.toString()),
+                                new AntPathRequestMatcher("/product/import", POST.toString()),
                                 new AntPathRequestMatcher("/warehouse/**", PUT.toString()),
                                 new AntPathRequestMatcher("/brand/**", PUT.toString())
                         ))
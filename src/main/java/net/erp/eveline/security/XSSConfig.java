@@ -0,0 +1,32 @@
+package net.erp.eveline.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+public class XSSConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public XSSConfig(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The sanitizing converter goes right before the regular Jackson one, so the converters ahead of it, like the
+     * String one, keep reading the bodies they read.
+     */
+    @Override
+    public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+        int jackson = 0;
+        while (jackson < converters.size() && !(converters.get(jackson) instanceof MappingJackson2HttpMessageConverter)) {
+            jackson++;
+        }
+        converters.add(jackson, new XSSMessageConverter(objectMapper));
+    }
+}
@@ -0,0 +1,43 @@
+package net.erp.eveline.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Reads the JSON request bodies of the controllers in {@link #CONTROLLER_PACKAGE} with a copy of the application
+ * mapper that sanitizes every string value. Bodies of any other handler, like the Spring Boot Admin endpoints, and
+ * every response are left to the regular Jackson converter.
+ */
+public class XSSMessageConverter extends MappingJackson2HttpMessageConverter {
+    public static final String CONTROLLER_PACKAGE = "net.erp.eveline.controller";
+
+    public XSSMessageConverter(final ObjectMapper objectMapper) {
+        super(objectMapper.copy().registerModule(new XSSModule()));
+    }
+
+    @Override
+    public boolean canRead(final Type type, final Class<?> contextClass, final MediaType mediaType) {
+        return contextClass != null
+                && CONTROLLER_PACKAGE.equals(contextClass.getPackageName())
+                && super.canRead(type, contextClass, mediaType);
+    }
+
+    // Without the handler there is no telling whether the body belongs to a business controller.
+    @Override
+    public boolean canRead(final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(final Type type, final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+}
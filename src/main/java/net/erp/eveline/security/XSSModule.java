@@ -0,0 +1,16 @@
+package net.erp.eveline.security;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Registered only in the copies of the application {@link com.fasterxml.jackson.databind.ObjectMapper} that read the
+ * request bodies of the business controllers and the product imports, see {@link XSSMessageConverter}. Spring Boot
+ * Admin and everything else reading JSON keep their values as they are.
+ */
+public class XSSModule extends SimpleModule {
+
+    public XSSModule() {
+        super(XSSModule.class.getSimpleName());
+        addDeserializer(String.class, new XSSStringDeserializer());
+    }
+}
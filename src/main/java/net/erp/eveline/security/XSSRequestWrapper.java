@@ -1,85 +1,25 @@
 package net.erp.eveline.security;
 
-import org.apache.commons.io.IOUtils;
-
-import javax.servlet.ReadListener;
-import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Collections.enumeration;
-import static net.erp.eveline.security.XSSUtils.stripXSS;
 
 
 public class XSSRequestWrapper extends HttpServletRequestWrapper {
 
 //    private static final Logger logger = LoggerFactory.getLogger(XSSRequestWrapper.class);
 
-    private byte[] rawData;
-    private final HttpServletRequest request;
-    private final ResettableServletInputStream servletStream;
-    private final String UTF8ENCODING = "UTF-8";
+    // The same headers and parameters are read several times per request by the security, server and MVC layers.
+    private Map<String, String> sanitized;
 
     public XSSRequestWrapper(final HttpServletRequest request) {
         super(request);
-        this.request = request;
-        this.servletStream = new ResettableServletInputStream();
-    }
-
-    public void resetInputStream(final byte[] newRawData) {
-        rawData = newRawData;
-        servletStream.stream = new ByteArrayInputStream(newRawData);
-    }
-
-    @Override
-    public ServletInputStream getInputStream() throws IOException {
-        if (rawData == null) {
-            rawData = IOUtils.toByteArray(this.request.getReader(), UTF8ENCODING);
-            servletStream.stream = new ByteArrayInputStream(rawData);
-        }
-        return servletStream;
-    }
-
-    @Override
-    public BufferedReader getReader() throws IOException {
-        if (rawData == null) {
-            rawData = IOUtils.toByteArray(this.request.getReader(), UTF8ENCODING);
-            servletStream.stream = new ByteArrayInputStream(rawData);
-        }
-        return new BufferedReader(new InputStreamReader(servletStream));
-    }
-
-    private static class ResettableServletInputStream extends ServletInputStream {
-
-        private InputStream stream;
-
-        @Override
-        public int read() throws IOException {
-            return stream.read();
-        }
-
-        @Override
-        public boolean isFinished() {
-            return false;
-        }
-
-        @Override
-        public boolean isReady() {
-            return false;
-        }
-
-        @Override
-        public void setReadListener(final ReadListener readListener) {
-
-        }
     }
 
     @Override
@@ -91,7 +31,7 @@ public class XSSRequestWrapper extends HttpServletRequestWrapper {
         int count = values.length;
         String[] encodedValues = new String[count];
         for (int i = 0; i < count; i++) {
-            encodedValues[i] = stripXSS(values[i]);
+            encodedValues[i] = sanitize(values[i]);
         }
         return encodedValues;
     }
@@ -99,13 +39,13 @@ public class XSSRequestWrapper extends HttpServletRequestWrapper {
     @Override
     public String getParameter(final String parameter) {
         var value = super.getParameter(parameter);
-        return stripXSS(value);
+        return sanitize(value);
     }
 
     @Override
     public String getHeader(final String name) {
         var value = super.getHeader(name);
-        return stripXSS(value);
+        return sanitize(value);
     }
 
     @Override
@@ -116,10 +56,22 @@ public class XSSRequestWrapper extends HttpServletRequestWrapper {
             String header = headers.nextElement();
             String[] tokens = header.split(",");
             for (String token : tokens) {
-                result.add(stripXSS(token));
+                result.add(sanitize(token));
             }
         }
         return enumeration(result);
     }
 
-}
\ No newline at end of file
+    /**
+     * Values made of safe characters are returned as they are, the rest are sanitized once per request.
+     */
+    private String sanitize(final String value) {
+        if (value == null || XSSUtils.isSafe(value)) {
+            return value;
+        }
+        if (sanitized == null) {
+            sanitized = new HashMap<>();
+        }
+        return sanitized.computeIfAbsent(value, XSSUtils::stripXSSFully);
+    }
+}
@@ -0,0 +1,24 @@
+package net.erp.eveline.security;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Sanitizes every JSON string value as it is read, so request bodies are neither buffered nor rescanned as a whole
+ * and the markup of the document itself is never touched.
+ */
+public class XSSStringDeserializer extends StdScalarDeserializer<String> {
+
+    public XSSStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+        return XSSUtils.sanitize(StringDeserializer.instance.deserialize(parser, context));
+    }
+}
@@ -6,13 +6,121 @@ import org.owasp.esapi.ESAPI;
 
 public class XSSUtils {
 
+    // UTF-8 accented letters read as Windows-1252 start with this character, the next one tells which letter it was.
+    private static final char MOJIBAKE_LEAD = 'Ã';
+    private static final boolean[] SAFE_ASCII = new boolean[0x80];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            SAFE_ASCII[c] = true;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            SAFE_ASCII[c] = true;
+            SAFE_ASCII[Character.toUpperCase(c)] = true;
+        }
+        for (final char c : "-_.,:;/=+*()?!@#$[]{}|~^".toCharArray()) {
+            SAFE_ASCII[c] = true;
+        }
+    }
+
     public static String stripXSS(final String value) {
         if (value == null) {
             return null;
         }
+        return isSafe(value) ? value : stripXSSFully(value);
+    }
+
+    /**
+     * A value is safe when neither ESAPI nor Jsoup would change it: it has no markup, entity, percent or escape
+     * characters, and no whitespace Jsoup would collapse or trim. Most headers, ids and names are, and skip both.
+     */
+    static boolean isSafe(final String value) {
+        final int length = value.length();
+        for (int idx = 0; idx < length; idx++) {
+            final char c = value.charAt(idx);
+            if (c == ' ') {
+                if (idx == 0 || idx == length - 1 || value.charAt(idx - 1) == ' ') {
+                    return false;
+                }
+            } else if (!isSafeChar(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSafeChar(final char c) {
+        if (c < 0x80) {
+            return SAFE_ASCII[c];
+        }
+        return Character.isLetterOrDigit(c);
+    }
+
+    static String stripXSSFully(final String value) {
         var encode = ESAPI.encoder()
                 .canonicalize(value)
                 .replaceAll("\0", "");
         return Jsoup.clean(encode, Whitelist.none());
     }
+
+    /**
+     * Repairs the mojibake of a single value and strips its markup. The repair goes first, Jsoup would turn the
+     * no-break space that follows the lead of an 'à' into an entity.
+     */
+    public static String sanitize(final String value) {
+        return stripXSS(repairMojibake(value));
+    }
+
+    /**
+     * Repairs the Spanish letters of a UTF-8 text that was decoded as Windows-1252 in a single pass. Accents other
+     * than the acute are dropped, as the catalog does not use them.
+     */
+    public static String repairMojibake(final String value) {
+        if (value == null) {
+            return null;
+        }
+        int lead = value.indexOf(MOJIBAKE_LEAD);
+        if (lead < 0) {
+            return value;
+        }
+        final var repaired = new StringBuilder(value.length());
+        int start = 0;
+        while (lead >= 0 && lead + 1 < value.length()) {
+            final char letter = mojibakeLetter(value.charAt(lead + 1));
+            if (letter != 0) {
+                repaired.append(value, start, lead).append(letter);
+                start = lead + 2;
+            }
+            lead = value.indexOf(MOJIBAKE_LEAD, letter != 0 ? lead + 2 : lead + 1);
+        }
+        return start == 0 ? value : repaired.append(value, start, value.length()).toString();
+    }
+
+    private static char mojibakeLetter(final char second) {
+        switch (second) {
+            case '¡': return 'á';
+            case '©': return 'é';
+            case '\u00AD': return 'í';
+            case '³': return 'ó';
+            case 'º': return 'ú';
+            case '\u0081': return 'Á';
+            case '‰': return 'É';
+            case '\u008D': return 'Í';
+            case '“': return 'Ó';
+            case 'š': return 'Ú';
+            case '\u00A0': return 'a';
+            case '¨': return 'e';
+            case '¬': return 'i';
+            case '²': return 'o';
+            case '¹': return 'u';
+            case '€': return 'A';
+            case 'ˆ': return 'E';
+            case 'Œ': return 'I';
+            case '’': return 'O';
+            case '™': return 'U';
+            case '±': return 'ñ';
+            case '‘': return 'Ñ';
+            default: return 0;
+        }
+    }
 }
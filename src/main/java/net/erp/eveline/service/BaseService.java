@@ -1,9 +1,31 @@
 package net.erp.eveline.service;
 
 import net.erp.eveline.common.exception.BadRequestException;
+import net.erp.eveline.common.exception.NotFoundException;
+import net.erp.eveline.common.predicate.ModelValidator;
+import net.erp.eveline.data.repository.ActivationRepository;
+import net.erp.eveline.data.repository.ActivationRepository.ActivationTable;
+import net.erp.eveline.model.BatchItemModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.RowMapper;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptySet;
+import static net.erp.eveline.common.predicate.CommonPredicates.BATCH_ID_REPEATED_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.BATCH_ITEM_NOT_FOUND_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.BATCH_ITEM_NULL_MESSAGE;
+import static net.erp.eveline.model.BatchItemModel.Outcome.INSERTED;
+import static net.erp.eveline.model.BatchItemModel.Outcome.INVALID;
+import static net.erp.eveline.model.BatchItemModel.Outcome.NOT_FOUND;
+import static net.erp.eveline.model.BatchItemModel.Outcome.UPDATED;
 
 public class BaseService {
     protected <T> void validate(final T object, final Predicate<T> predicate, final String invalidMessage) {
@@ -13,4 +35,124 @@ public class BaseService {
     protected <T> void validate(final T object, final Predicate<T> predicate, final List<String> errors) {
         if (!predicate.test(object)) throw new BadRequestException(String.join(" | ", errors));
     }
+
+    protected <T> void validate(final T object, final ModelValidator<T> validator) {
+        final long failures = validator.check(object);
+        if (failures != 0) throw new BadRequestException(String.join(" | ", validator.messages(failures)));
+    }
+
+    protected <T> void validateSet(final Set<T> objects, final ModelValidator<T> validator, final Function<T, String> idExtractor) {
+        final List<String> errors = new ArrayList<>();
+        if (!validator.validateSet(objects, idExtractor, errors)) throw new BadRequestException(String.join(" | ", errors));
+    }
+
+    /**
+     * Validates every item of a batch in a single pass. Items without id are validated for insert and the rest for
+     * update; invalid items are reported instead of failing the whole batch. Valid items allocate no error list.
+     */
+    protected <M> List<BatchItemModel<M>> validateBatch(final List<M> models,
+                                                        final Function<M, String> idExtractor,
+                                                        final ModelValidator<M> insertValidator,
+                                                        final ModelValidator<M> updateValidator) {
+        final Set<String> ids = new HashSet<>();
+        final List<BatchItemModel<M>> items = new ArrayList<>(models.size());
+        for (int index = 0; index < models.size(); index++) {
+            final M model = models.get(index);
+            final var item = new BatchItemModel<M>().setIndex(index).setItem(model);
+            List<String> errors = null;
+            if (model == null) {
+                errors = List.of(BATCH_ITEM_NULL_MESSAGE);
+            } else {
+                final String id = idExtractor.apply(model);
+                final var validator = id == null ? insertValidator : updateValidator;
+                final long failures = validator.check(model);
+                if (failures != 0) {
+                    errors = validator.messages(failures);
+                } else if (id != null && !ids.add(id)) {
+                    errors = List.of(BATCH_ID_REPEATED_MESSAGE);
+                }
+                item.setOutcome(id == null ? INSERTED : UPDATED);
+            }
+            if (errors != null) {
+                item.setOutcome(INVALID).setErrors(errors);
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Persists the valid items of a batch with one lookup for the ids to update and one saveAll, so the statements
+     * reach the database as JDBC batches. Meant to run inside a write transaction; it never modifies the items given,
+     * which keeps the callback safe to retry.
+     */
+    protected <M, E> List<BatchItemModel<M>> saveBatch(final List<BatchItemModel<M>> items,
+                                                       final JpaRepository<E, String> repository,
+                                                       final Function<M, String> idExtractor,
+                                                       final Function<E, String> entityIdExtractor,
+                                                       final Function<M, E> toEntity,
+                                                       final Function<E, M> toModel) {
+        final Set<String> ids = items.stream()
+                .filter(item -> item.getOutcome() == UPDATED)
+                .map(item -> idExtractor.apply(item.getItem()))
+                .collect(Collectors.toSet());
+        final Set<String> existingIds = ids.isEmpty()
+                ? emptySet()
+                : repository.findAllById(ids).stream().map(entityIdExtractor).collect(Collectors.toSet());
+
+        final List<BatchItemModel<M>> results = new ArrayList<>(items.size());
+        final List<BatchItemModel<M>> accepted = new ArrayList<>(items.size());
+        final List<E> entities = new ArrayList<>(items.size());
+        for (final BatchItemModel<M> item : items) {
+            final var result = new BatchItemModel<M>()
+                    .setIndex(item.getIndex())
+                    .setOutcome(item.getOutcome())
+                    .setItem(item.getItem())
+                    .setErrors(item.getErrors());
+            if (result.getOutcome() == UPDATED && !existingIds.contains(idExtractor.apply(item.getItem()))) {
+                result.setOutcome(NOT_FOUND).setErrors(List.of(format(BATCH_ITEM_NOT_FOUND_MESSAGE, idExtractor.apply(item.getItem()))));
+            } else if (result.getOutcome() != INVALID) {
+                accepted.add(result);
+                entities.add(toEntity.apply(item.getItem()));
+            }
+            results.add(result);
+        }
+
+        final List<E> saved = repository.saveAll(entities);
+        for (int idx = 0; idx < accepted.size(); idx++) {
+            accepted.get(idx).setItem(toModel.apply(saved.get(idx)));
+        }
+        return results;
+    }
+
+    /**
+     * @return the ids of the items a batch saved over existing rows.
+     */
+    protected <M> List<String> updatedIds(final List<BatchItemModel<M>> results, final Function<M, String> idExtractor) {
+        return results.stream()
+                .filter(item -> item.getOutcome() == UPDATED)
+                .map(item -> idExtractor.apply(item.getItem()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Activates a whole set with a single statement. Meant to run inside a write transaction: when any id does not
+     * exist a NotFoundException is thrown and the statement is rolled back with it.
+     */
+    protected <M> Set<M> activateSet(final ActivationRepository activationRepository,
+                                     final ActivationTable table,
+                                     final Set<M> models,
+                                     final Function<M, String> idExtractor,
+                                     final Function<M, Boolean> enabledExtractor,
+                                     final Function<M, String> lastUserExtractor,
+                                     final RowMapper<M> rowMapper) {
+        final Set<String> ids = models.stream().map(idExtractor).collect(Collectors.toSet());
+        final List<M> activated = activationRepository.activate(table, models, idExtractor, enabledExtractor, lastUserExtractor, rowMapper);
+        if (activated.size() != ids.size()) {
+            final Set<String> missingIds = new HashSet<>(ids);
+            activated.stream().map(idExtractor).forEach(missingIds::remove);
+            throw new NotFoundException(format("Unable to update the records with the ids specified since they were not found: %s", missingIds));
+        }
+        return Set.copyOf(activated);
+    }
 }
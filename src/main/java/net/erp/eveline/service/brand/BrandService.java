@@ -1,18 +1,30 @@
 package net.erp.eveline.service.brand;
 
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.model.ActiveBrandModel;
+import net.erp.eveline.model.BatchItemModel;
 import net.erp.eveline.model.BrandModel;
+import net.erp.eveline.model.PageModel;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface BrandService {
     Set<BrandModel> findAll();
 
+    PageModel<BrandModel> findPage(final String cursor, final Integer size, final PageSort sort);
+
+    void exportAll(final Consumer<BrandModel> consumer);
+
     BrandModel getBrandModel(final String brandId);
 
-    BrandModel upsertBrandModel(final BrandModel brandModel);
+    CompletableFuture<BrandModel> upsertBrandModel(final BrandModel brandModel);
+
+    CompletableFuture<List<BatchItemModel<BrandModel>>> upsertBrandModels(final List<BrandModel> brandModels);
 
-    ActiveBrandModel activateBrand(final ActiveBrandModel activeBrandModel);
+    CompletableFuture<ActiveBrandModel> activateBrand(final ActiveBrandModel activeBrandModel);
 
-    Set<ActiveBrandModel> activateBrandSet(final Set<ActiveBrandModel> activeBrandModelSet);
+    CompletableFuture<Set<ActiveBrandModel>> activateBrandSet(final Set<ActiveBrandModel> activeBrandModelSet);
 }
@@ -1,78 +1,148 @@
 package net.erp.eveline.service.brand;
 
 import net.erp.eveline.common.TransactionService;
+import net.erp.eveline.common.cache.EntityCache;
 import net.erp.eveline.common.exception.NotFoundException;
 import net.erp.eveline.common.mapper.BrandMapper;
+import net.erp.eveline.common.pagination.PageCursor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.data.entity.Brand;
+import net.erp.eveline.data.repository.ActivationRepository;
 import net.erp.eveline.data.repository.BrandRepository;
 import net.erp.eveline.model.ActiveBrandModel;
+import net.erp.eveline.model.BatchItemModel;
 import net.erp.eveline.model.BrandModel;
+import net.erp.eveline.model.PageModel;
 import net.erp.eveline.service.BaseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static java.util.Collections.emptySet;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.toSet;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static net.erp.eveline.common.export.NdjsonExport.EXPORT_FETCH_SIZE;
+import static net.erp.eveline.common.mapper.PageMapper.toPageModel;
 import static net.erp.eveline.common.mapper.BrandMapper.*;
+import static net.erp.eveline.common.predicate.CommonPredicates.BATCH_SIZE_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.PAGE_SIZE_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.isBatchSizeValid;
+import static net.erp.eveline.common.predicate.CommonPredicates.isPageSizeValid;
+import static net.erp.eveline.model.BatchItemModel.Outcome.INVALID;
 import static net.erp.eveline.common.predicate.BrandPredicates.*;
-import static net.erp.eveline.common.predicate.BrandPredicates.isActiveBrandSetValid;
+import static net.erp.eveline.common.transaction.TransactionProfiles.CONFLICTING_WRITE;
+import static net.erp.eveline.common.transaction.TransactionProfiles.PRIMARY_READ;
+import static net.erp.eveline.data.repository.ActivationRepository.ActivationTable.BRAND;
 
 @Service
 public class BrandServiceImpl  extends BaseService implements BrandService {
     private static final Logger logger = LoggerFactory.getLogger(BrandServiceImpl.class);
     private BrandRepository brandRepository;
+    private ActivationRepository activationRepository;
     private TransactionService transactionService;
+    private EntityManager entityManager;
+    private EntityCache<String, BrandModel> brandCache;
 
     @Override
     public Set<BrandModel> findAll() {
         logger.info("Obtaining all brands.");
-        return transactionService.performReadOnlyTransaction(status -> {
-            logger.info("Requesting all brands.");
+        return transactionService.performReadOnlyTransaction("brand.findAll", status -> {
+            logger.debug("Requesting all brands.");
             Set<Brand> brands = Set.copyOf(brandRepository.findAll());
-            logger.info("Retrieved all brands successfully.");
+            logger.debug("Retrieved all brands successfully.");
             return toModel(brands);
         }, null);
     }
 
+    @Override
+    public PageModel<BrandModel> findPage(final String cursor, final Integer size, final PageSort sort) {
+        logger.info("Requesting page of {} brands sorted by {}.", size, sort);
+        validate(size, isPageSizeValid(), PAGE_SIZE_INVALID_MESSAGE);
+        final var pageCursor = PageCursor.decode(cursor, ofNullable(sort).orElse(PageSort.ID));
+        return transactionService.performReadOnlyTransaction("brand.findPage", status -> {
+            final List<Brand> brands = findPageRows(pageCursor, size + 1);
+            logger.debug("Retrieved {} brands for page successfully.", brands.size());
+            return toPageModel(brands, size, pageCursor.getSort(), Brand::getBrandId, Brand::getLastModified, BrandMapper::toModel);
+        }, pageCursor);
+    }
+
+    private List<Brand> findPageRows(final PageCursor pageCursor, final int limit) {
+        if (pageCursor.getSort() == PageSort.ID) {
+            return brandRepository.findPageOrderById(pageCursor.isFirst() ? "" : pageCursor.getId(), limit);
+        }
+        return pageCursor.isFirst()
+                ? brandRepository.findFirstPageOrderByLastModified(limit)
+                : brandRepository.findPageOrderByLastModified(pageCursor.getLastModified(), pageCursor.getId(), limit);
+    }
+
+    @Override
+    public void exportAll(final Consumer<BrandModel> consumer) {
+        requireNonNull(consumer, "Consumer provided cannot be null.");
+        logger.info("Requesting export of all brands.");
+        transactionService.performReadOnlyTransactionWithoutRetry("brand.export", status -> {
+            long exported = 0;
+            try (Stream<Brand> brands = brandRepository.streamAll()) {
+                final Iterator<Brand> iterator = brands.iterator();
+                while (iterator.hasNext()) {
+                    consumer.accept(toModel(iterator.next()));
+                    if (++exported % EXPORT_FETCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            logger.debug("Exported {} brands successfully.", exported);
+            return null;
+        }, "brand export");
+    }
+
 
     @Override
     public BrandModel getBrandModel(String brandId) {
         logger.info("Requesting brand matching id {}.", brandId);
         validate(brandId, isBrandIdValid(), BRAND_ID_INVALID_MESSAGE);
-        return transactionService.performReadOnlyTransaction(status -> {
+        return copy(brandCache.get(brandId, this::loadBrandModel));
+    }
+
+    // Loaded from the primary: a replica behind the write that just invalidated the entry would cache the old row
+    // for the whole time to live.
+    private BrandModel loadBrandModel(final String brandId) {
+        return transactionService.performTransaction("brand.get", PRIMARY_READ, status -> {
             Brand brand = brandRepository.findById(brandId)
                     .orElseThrow(() -> new NotFoundException(format("Unable to find a brand with the id specified: %s", brandId)));
 
-            logger.info("Retrieved {} brand for brandId {} successfully.", brand, brandId);
+            logger.debug("Retrieved {} brand for brandId {} successfully.", brand, brandId);
             return toModel(brand);
         }, brandId);
     }
 
     @Override
-    public BrandModel upsertBrandModel(BrandModel brandModel) {
-        logger.info("Upsert operation for model: {}", brandModel);
+    public CompletableFuture<BrandModel> upsertBrandModel(BrandModel brandModel) {
+        logger.debug("Upsert operation for model: {}", brandModel);
         requireNonNull(brandModel, "Model provided cannot be null or empty.");
-        List<String> errorList = new ArrayList<>();
         final var brandId = ofNullable(brandModel.getId());
         if (brandId.isPresent()) {
-            validate(brandModel, isBrandModelValidForUpdate(errorList), errorList);
+            validate(brandModel, BRAND_UPDATE_VALIDATOR);
         } else {
-            validate(brandModel, isBrandModelValidForInsert(errorList), errorList);
+            validate(brandModel, BRAND_INSERT_VALIDATOR);
         }
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing upsert transaction for model: {}", brandModel);
+        return transactionService.performWriteTransactionAsync("brand.upsert", status -> {
+            logger.debug("Performing upsert transaction for model: {}", brandModel);
             BrandModel result;
             if (brandId.isPresent()) {
-                validate(brandModel, isBrandModelValidForUpdate(errorList), errorList);
                 // Try to perform the update
                 final var brandExists = brandRepository.existsById(brandId.get());
                 if (!brandExists) {
@@ -80,68 +150,81 @@ public class BrandServiceImpl  extends BaseService implements BrandService {
                 }
 
                 // Definitely update the record on the DB.
-                logger.info("Preparing to update brand: {}", brandModel);
+                logger.debug("Preparing to update brand: {}", brandModel);
                 result = BrandMapper.toModel(brandRepository.save(toEntity(brandModel)));
-                logger.info("Successful update operation for brand: {}", brandModel);
+                brandCache.invalidateAfterCommit(List.of(brandId.get()));
+                logger.debug("Successful update operation for brand: {}", brandModel);
             } else {
-                validate(brandModel, isBrandModelValidForInsert(errorList), errorList);
                 // Try to perform insert if the rest of the values is valid
-                logger.info("Preparing to insert brand: {}", brandModel);
+                logger.debug("Preparing to insert brand: {}", brandModel);
                 result = BrandMapper.toModel(brandRepository.save(toEntity(brandModel)));
-                logger.info("Successful insert operation for brand: {}", brandModel);
+                logger.debug("Successful insert operation for brand: {}", brandModel);
             }
-            logger.info("Upsert operation completed for model: {}", brandModel);
+            logger.debug("Upsert operation completed for model: {}", brandModel);
             return result;
         }, brandModel);
     }
 
     @Override
-    public ActiveBrandModel activateBrand(final ActiveBrandModel activeBrandModel) {
-        logger.info("Activation operation for model: {}", activeBrandModel);
+    public CompletableFuture<List<BatchItemModel<BrandModel>>> upsertBrandModels(final List<BrandModel> brandModels) {
+        requireNonNull(brandModels, "Models provided cannot be null.");
+        logger.info("Batch upsert operation for {} brands.", brandModels.size());
+        validate(brandModels, isBatchSizeValid(), BATCH_SIZE_INVALID_MESSAGE);
+        final var items = validateBatch(brandModels, BrandModel::getId,
+                BRAND_INSERT_VALIDATOR, BRAND_UPDATE_VALIDATOR);
+        if (items.stream().allMatch(item -> item.getOutcome() == INVALID)) {
+            logger.debug("No valid brands to upsert in batch of {}.", items.size());
+            return completedFuture(items);
+        }
+
+        return transactionService.performWriteTransactionAsync("brand.upsertBatch", status -> {
+            logger.debug("Performing batch upsert transaction for {} brands.", items.size());
+            final var result = saveBatch(items, brandRepository, BrandModel::getId, Brand::getBrandId, BrandMapper::toEntity, BrandMapper::toModel);
+            brandCache.invalidateAfterCommit(updatedIds(result, BrandModel::getId));
+            logger.debug("Batch upsert operation completed for {} brands.", result.size());
+            return result;
+        }, format("batch upsert of %d brands", brandModels.size()));
+    }
+
+    @Override
+    public CompletableFuture<ActiveBrandModel> activateBrand(final ActiveBrandModel activeBrandModel) {
+        logger.debug("Activation operation for model: {}", activeBrandModel);
         requireNonNull(activeBrandModel, "Active status brand cannot be null or empty.");
-        List<String> errorList = new ArrayList<>();
-        validate(activeBrandModel, isActiveBrandModelValid(errorList), errorList);
+        validate(activeBrandModel, ACTIVE_BRAND_VALIDATOR);
 
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing brand activation transaction for model: {}", activeBrandModel);
+        return transactionService.performTransactionAsync("brand.activate", CONFLICTING_WRITE, status -> {
+            logger.debug("Performing brand activation transaction for model: {}", activeBrandModel);
             final var optionalBrand = brandRepository.findById(activeBrandModel.getId());
             if (optionalBrand.isEmpty()) {
                 throw new NotFoundException(String.format("Unable to update a brand with the id specified: %s", activeBrandModel.getId()));
             }
 
             var result = toActiveModel(brandRepository.save(toEntity(optionalBrand.get(), activeBrandModel)));
+            brandCache.invalidateAfterCommit(List.of(activeBrandModel.getId()));
 
-            logger.info("Brand activation operation completed for result: {}", activeBrandModel);
+            logger.debug("Brand activation operation completed for result: {}", activeBrandModel);
             return result;
         }, activeBrandModel);
     }
 
     @Override
-    public Set<ActiveBrandModel> activateBrandSet(final Set<ActiveBrandModel> activeBrandModelSet) {
-        logger.info("Activation operation for set of models: {}", activeBrandModelSet);
+    public CompletableFuture<Set<ActiveBrandModel>> activateBrandSet(final Set<ActiveBrandModel> activeBrandModelSet) {
+        logger.debug("Activation operation for set of models: {}", activeBrandModelSet);
         requireNonNull(activeBrandModelSet, "Active status set provided cannot be null or empty.");
         if (activeBrandModelSet.isEmpty()) {
-            return emptySet();
+            return completedFuture(emptySet());
         }
-        List<String> errorList = new ArrayList<>();
-        validate(activeBrandModelSet, isActiveBrandSetValid(errorList), errorList);
-
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing brand activation transaction for set of models: {}", activeBrandModelSet);
-            final var brandIds = activeBrandModelSet.stream().map(ActiveBrandModel::getId).collect(toSet());
-            final Boolean existsAllById = brandRepository.existsAllByBrandIdIn(brandIds);
-            if (!existsAllById) {
-                throw new NotFoundException(String.format("Unable to update brands with the ids specified: %s", brandIds));
-            }
-
-            final var brandSet = Set.copyOf(brandRepository.findAllById(brandIds));
-            if (brandSet.isEmpty()) {
-                throw new NotFoundException(String.format("Unable to update all brands with the ids specified since none where found: %s", brandIds));
-            }
+        validateSet(activeBrandModelSet, ACTIVE_BRAND_VALIDATOR, ActiveBrandModel::getId);
 
-            var result = toActiveModel(Set.copyOf(brandRepository.saveAll(BrandMapper.toEntity(brandSet, activeBrandModelSet))));
+        return transactionService.performWriteTransactionAsync("brand.activateSet", status -> {
+            logger.debug("Performing brand activation transaction for set of models: {}", activeBrandModelSet);
+            var result = activateSet(activationRepository, BRAND, activeBrandModelSet, ActiveBrandModel::getId,
+                    ActiveBrandModel::isEnabled, ActiveBrandModel::getLastUser, BrandMapper::toActiveModel);
+            brandCache.invalidateAfterCommit(activeBrandModelSet.stream()
+                    .map(ActiveBrandModel::getId)
+                    .collect(Collectors.toList()));
 
-            logger.info("Brand activation operation completed for results: {}", activeBrandModelSet);
+            logger.debug("Brand activation operation completed for results: {}", activeBrandModelSet);
             return result;
         }, activeBrandModelSet);
     }
@@ -152,8 +235,23 @@ public class BrandServiceImpl  extends BaseService implements BrandService {
         this.brandRepository = brandRepository;
     }
 
+    @Autowired
+    public void setActivationRepository(final ActivationRepository activationRepository) {
+        this.activationRepository = activationRepository;
+    }
+
     @Autowired
     public void setTransactionService(TransactionService transactionService) {
         this.transactionService = transactionService;
     }
+
+    @PersistenceContext
+    public void setEntityManager(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Autowired
+    public void setBrandCache(final EntityCache<String, BrandModel> brandCache) {
+        this.brandCache = brandCache;
+    }
 }
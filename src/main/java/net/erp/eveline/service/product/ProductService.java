@@ -1,20 +1,34 @@
 package net.erp.eveline.service.product;
 
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.model.ActiveProductModel;
+import net.erp.eveline.model.ProductImportReportModel;
 import net.erp.eveline.model.ProductModel;
+import net.erp.eveline.model.PageModel;
 
+import java.io.InputStream;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface ProductService {
     Set<ProductModel> findAllByProvider(final String providerId);
 
     Set<ProductModel> findAll();
 
+    PageModel<ProductModel> findPage(final String cursor, final Integer size, final PageSort sort);
+
+    void exportAll(final Consumer<ProductModel> consumer);
+
     ProductModel getProductModel(final String productId);
 
-    ProductModel upsertProductModel(final ProductModel productModel);
+    CompletableFuture<ProductModel> upsertProductModel(final ProductModel productModel);
 
-    ActiveProductModel activateProduct(final ActiveProductModel activeProductModel);
+    CompletableFuture<ActiveProductModel> activateProduct(final ActiveProductModel activeProductModel);
+
+    CompletableFuture<Set<ActiveProductModel>> activateProductSet(final Set<ActiveProductModel> activeProductModelSet);
 
     ProductModel findByUpc(final String upc);
+
+    ProductImportReportModel importProducts(final InputStream body, final String contentType);
 }
@@ -1,44 +1,77 @@
 package net.erp.eveline.service.product;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import net.erp.eveline.common.TransactionService;
+import net.erp.eveline.common.cache.EntityCache;
 import net.erp.eveline.common.exception.BadRequestException;
 import net.erp.eveline.common.exception.NotFoundException;
+import net.erp.eveline.common.imports.ProductImportFormat;
+import net.erp.eveline.common.imports.ProductImportReader;
 import net.erp.eveline.common.mapper.ProductMapper;
+import net.erp.eveline.common.pagination.PageCursor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.data.entity.Product;
 import net.erp.eveline.data.entity.Provider;
+import net.erp.eveline.data.repository.ActivationRepository;
+import net.erp.eveline.data.repository.ProductImportRepository;
 import net.erp.eveline.data.repository.ProductRepository;
 import net.erp.eveline.data.repository.ProviderRepository;
 import net.erp.eveline.model.ActiveProductModel;
+import net.erp.eveline.model.ImportErrorModel;
+import net.erp.eveline.model.PageModel;
+import net.erp.eveline.model.ProductImportReportModel;
 import net.erp.eveline.model.ProductModel;
+import net.erp.eveline.model.ProviderModel;
 import net.erp.eveline.service.BaseService;
 import net.erp.eveline.service.provider.ProviderServiceImpl;
+import net.erp.eveline.security.XSSModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.io.InputStream;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static net.erp.eveline.common.export.NdjsonExport.EXPORT_FETCH_SIZE;
+import static net.erp.eveline.common.mapper.PageMapper.toPageModel;
 import static net.erp.eveline.common.mapper.ProductMapper.toActiveModel;
 import static net.erp.eveline.common.mapper.ProductMapper.toEntity;
 import static net.erp.eveline.common.mapper.ProductMapper.toModel;
+import static net.erp.eveline.common.predicate.CommonPredicates.PAGE_SIZE_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.isPageSizeValid;
+import static net.erp.eveline.common.predicate.ProductPredicates.ACTIVE_PRODUCT_VALIDATOR;
 import static net.erp.eveline.common.predicate.ProductPredicates.PRODUCT_ID_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.ProductPredicates.PRODUCT_INSERT_VALIDATOR;
 import static net.erp.eveline.common.predicate.ProductPredicates.PRODUCT_UPC_INVALID_MESSAGE;
-import static net.erp.eveline.common.predicate.ProductPredicates.isActiveProductModelValid;
+import static net.erp.eveline.common.predicate.ProductPredicates.PRODUCT_UPDATE_VALIDATOR;
 import static net.erp.eveline.common.predicate.ProductPredicates.isProductIdValid;
-import static net.erp.eveline.common.predicate.ProductPredicates.isProductModelValidForInsert;
-import static net.erp.eveline.common.predicate.ProductPredicates.isProductModelValidForUpdate;
 import static net.erp.eveline.common.predicate.ProductPredicates.isProductUpcValid;
 import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_ID_INVALID_MESSAGE;
 import static net.erp.eveline.common.predicate.ProviderPredicates.isProviderIdValid;
+import static net.erp.eveline.common.transaction.TransactionProfiles.CONFLICTING_WRITE;
+import static net.erp.eveline.common.transaction.TransactionProfiles.HOT_READ;
+import static net.erp.eveline.data.repository.ActivationRepository.ActivationTable.PRODUCT;
 
 @Service
 public class ProductServiceImpl extends BaseService implements ProductService {
@@ -46,33 +79,98 @@ public class ProductServiceImpl extends BaseService implements ProductService {
 
     private ProductRepository productRepository;
     private ProviderRepository providerRepository;
+    private ProductImportRepository productImportRepository;
+    private ActivationRepository activationRepository;
     private TransactionService transactionService;
+    private EntityManager entityManager;
+    private ObjectMapper objectMapper;
+    private EntityCache<String, ProviderModel> providerCache;
+    private ProductUpcIndex productUpcIndex;
 
     @Override
     public Set<ProductModel> findAll() {
         logger.info("Obtaining all products.");
-        return transactionService.performReadOnlyTransaction(status -> {
-            logger.info("Requesting all products.");
+        return transactionService.performReadOnlyTransaction("product.findAll", status -> {
+            logger.debug("Requesting all products.");
             Set<Product> products = Set.copyOf(productRepository.findAll());
-            logger.info("Retrieved all products successfully.");
+            logger.debug("Retrieved all products successfully.");
             return ProductMapper.toModel(products);
         }, null);
     }
 
+    @Override
+    public PageModel<ProductModel> findPage(final String cursor, final Integer size, final PageSort sort) {
+        logger.info("Requesting page of {} products sorted by {}.", size, sort);
+        validate(size, isPageSizeValid(), PAGE_SIZE_INVALID_MESSAGE);
+        final var pageCursor = PageCursor.decode(cursor, ofNullable(sort).orElse(PageSort.ID));
+        return transactionService.performReadOnlyTransaction("product.findPage", status -> {
+            final List<Product> products = findPageRows(pageCursor, size + 1);
+            logger.debug("Retrieved {} products for page successfully.", products.size());
+            return toPageModel(products, size, pageCursor.getSort(), Product::getProductId, Product::getLastModified, ProductMapper::toModel);
+        }, pageCursor);
+    }
+
+    private List<Product> findPageRows(final PageCursor pageCursor, final int limit) {
+        if (pageCursor.getSort() == PageSort.ID) {
+            return productRepository.findPageOrderById(pageCursor.isFirst() ? "" : pageCursor.getId(), limit);
+        }
+        return pageCursor.isFirst()
+                ? productRepository.findFirstPageOrderByLastModified(limit)
+                : productRepository.findPageOrderByLastModified(pageCursor.getLastModified(), pageCursor.getId(), limit);
+    }
+
+    @Override
+    public void exportAll(final Consumer<ProductModel> consumer) {
+        requireNonNull(consumer, "Consumer provided cannot be null.");
+        logger.info("Requesting export of all products.");
+        transactionService.performReadOnlyTransactionWithoutRetry("product.export", status -> {
+            long exported = 0;
+            final List<Product> chunk = new ArrayList<>(EXPORT_FETCH_SIZE);
+            try (Stream<Product> products = productRepository.streamAll()) {
+                final Iterator<Product> iterator = products.iterator();
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() == EXPORT_FETCH_SIZE) {
+                        exported += exportChunk(chunk, consumer);
+                    }
+                }
+                exported += exportChunk(chunk, consumer);
+            }
+            logger.debug("Exported {} products successfully.", exported);
+            return null;
+        }, "product export");
+    }
+
+    // The provider sets of the chunk are fetched with one query, then the chunk leaves the persistence context before
+    // the stream reads the next row.
+    private int exportChunk(final List<Product> chunk, final Consumer<ProductModel> consumer) {
+        final int size = chunk.size();
+        if (size == 0) {
+            return 0;
+        }
+        productRepository.fetchProviderSets(chunk.stream().map(Product::getProductId).collect(Collectors.toList()));
+        chunk.forEach(product -> consumer.accept(toModel(product)));
+        chunk.clear();
+        entityManager.clear();
+        return size;
+    }
+
 
     @Override
     public Set<ProductModel> findAllByProvider(final String providerId) {
         logger.info("Requesting all products for provider {}.", providerId);
         validate(providerId, isProviderIdValid(), PROVIDER_ID_INVALID_MESSAGE);
-        return transactionService.performReadOnlyTransaction(status -> {
-            final Optional<Provider> optionalProvider = providerRepository.findById(providerId);
+        return transactionService.performReadOnlyTransaction("product.findAllByProvider", status -> {
+            // A provider in the cache exists, only the ones missing from it are looked up.
+            final boolean providerExists = providerCache.getIfPresent(providerId) != null
+                    || providerRepository.findById(providerId).isPresent();
             Set<Product> products;
-            if (optionalProvider.isPresent()) {
+            if (providerExists) {
                 products = productRepository.findByProviderSetProviderId(providerId);
-                logger.info("Retrieved {} products for provider {} successfully.", products.size(), providerId);
+                logger.debug("Retrieved {} products for provider {} successfully.", products.size(), providerId);
                 return toModel(products);
             }
-            logger.info("Retrieved {} products for provider {} successfully.", 0, providerId);
+            logger.debug("Retrieved {} products for provider {} successfully.", 0, providerId);
             return emptySet();
         }, providerId);
     }
@@ -81,11 +179,11 @@ public class ProductServiceImpl extends BaseService implements ProductService {
     public ProductModel getProductModel(final String productId) {
         logger.info("Requesting product matching id {}.", productId);
         validate(productId, isProductIdValid(), PRODUCT_ID_INVALID_MESSAGE);
-        return transactionService.performReadOnlyTransaction(status -> {
+        return transactionService.performTransaction("product.get", HOT_READ, status -> {
             Product product = productRepository.findById(productId)
                     .orElseThrow(() -> new NotFoundException(format("Unable to find a product with the id specified: %s", productId)));
 
-            logger.info("Retrieved {} product for productId {} successfully.", product, productId);
+            logger.debug("Retrieved {} product for productId {} successfully.", product, productId);
             return toModel(product);
         }, productId);
     }
@@ -94,87 +192,166 @@ public class ProductServiceImpl extends BaseService implements ProductService {
     public ProductModel findByUpc(final String upc) {
         logger.info("Requesting product matching upc {}.", upc);
         validate(upc, isProductUpcValid(), PRODUCT_UPC_INVALID_MESSAGE);
-        return transactionService.performReadOnlyTransaction(status -> {
+        final Optional<ProductModel> indexed = productUpcIndex == null ? Optional.empty() : productUpcIndex.find(upc);
+        if (indexed.isPresent()) {
+            logger.debug("Retrieved {} product for upc {} from the upc index.", indexed.get(), upc);
+            return indexed.get();
+        }
+        return transactionService.performTransaction("product.findByUpc", HOT_READ, status -> {
             Product product = productRepository.findByUpc(upc)
                     .orElseThrow(() -> new NotFoundException(format("Unable to find a product with the upc specified: %s", upc)));
 
-            logger.info("Retrieved {} product for upc {} successfully.", product, upc);
+            logger.debug("Retrieved {} product for upc {} successfully.", product, upc);
             return toModel(product);
         }, upc);
     }
 
     @Override
-    public ProductModel upsertProductModel(final ProductModel productModel) {
-        logger.info("Upsert operation for model: {}", productModel);
+    public CompletableFuture<ProductModel> upsertProductModel(final ProductModel productModel) {
+        logger.debug("Upsert operation for model: {}", productModel);
         requireNonNull(productModel, "Model provided cannot be null or empty.");
-        List<String> errorList = new ArrayList<>();
         final var productId = ofNullable(productModel.getId());
         if (productId.isPresent()) {
-            validate(productModel, isProductModelValidForUpdate(errorList), errorList);
+            validate(productModel, PRODUCT_UPDATE_VALIDATOR);
         } else {
-            validate(productModel, isProductModelValidForInsert(errorList), errorList);
+            validate(productModel, PRODUCT_INSERT_VALIDATOR);
         }
 
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing upsert transaction for model: {}", productModel);
+        return transactionService.performTransactionAsync("product.upsert", CONFLICTING_WRITE, status -> {
+            logger.debug("Performing upsert transaction for model: {}", productModel);
             ProductModel result;
 
-            final boolean allProvidersExist = productModel.getProviderSet()
+            // A single query both checks and loads every referenced provider.
+            final Set<String> providerIds = productModel.getProviderSet()
                     .stream()
-                    .allMatch(provider -> providerRepository.existsById(provider.getId()));
+                    .map(ProviderModel::getId)
+                    .collect(Collectors.toSet());
+            final List<Provider> providers = providerIds.isEmpty() ? emptyList() : providerRepository.findAllById(providerIds);
 
-            if (!allProvidersExist) {
-                String message = format("Unable to process operation since not all providers are valid or exist for product: %s", productModel);
-                logger.info(message);
-                throw new BadRequestException(message);
+            if (providers.size() != providerIds.size()) {
+                logger.debug("Unable to process operation since not all providers are valid or exist for product: {}", productModel);
+                throw new BadRequestException(format("Unable to process operation since not all providers are valid or exist for product: %s", productModel));
             }
 
-            final var providerIds = productModel.getProviderSet().stream().map((providerModel -> providerModel.getId()));
-            final var providerEntitySet = Set.copyOf(providerRepository.findAllById(providerIds.collect(Collectors.toSet())));
-
             if (productId.isPresent()) {
                 // Try to perform the update
+                final var product = productRepository.findById(productId.get())
+                        .orElseThrow(() -> new NotFoundException(format("Unable to update product with the id specified: %s", productId)));
 
-                final var optionalProduct = productRepository.findById(productId.get());
-                if (optionalProduct.isEmpty()) {
-                    throw new NotFoundException(format("Unable to update product with the id specified: %s", productId));
-                }
-
-                // Definitely update the record on the DB.
-                logger.info("Preparing to update product: {}", productModel);
-                result = ProductMapper.toModel(productRepository.save(toEntity(productModel, providerEntitySet)));
-                logger.info("Successful update operation for product: {}", productModel);
+                // Definitely update the record on the DB, writing only the assignations that changed.
+                logger.debug("Preparing to update product: {}", productModel);
+                result = ProductMapper.toModel(productRepository.save(toEntity(product, productModel, providers)));
+                logger.debug("Successful update operation for product: {}", productModel);
 
             } else {
                 // Try to perform insert if the rest of the values is valid
-                logger.info("Preparing to insert product: {}", productModel);
-                result = ProductMapper.toModel(productRepository.save(toEntity(productModel, providerEntitySet)));
-                logger.info("Successful insert operation for product: {}", productModel);
+                logger.debug("Preparing to insert product: {}", productModel);
+                result = ProductMapper.toModel(productRepository.save(toEntity(productModel, new HashSet<>(providers))));
+                logger.debug("Successful insert operation for product: {}", productModel);
             }
 
-            logger.info("Upsert operation completed for model: {}", productModel);
+            logger.debug("Upsert operation completed for model: {}", productModel);
             return result;
-        }, productModel);
+        }, productModel).thenApply(upserted -> {
+            refreshUpcIndex(Set.of(upserted.getId()));
+            return upserted;
+        });
     }
 
     @Override
-    public ActiveProductModel activateProduct(final ActiveProductModel activeProductModel) {
-        logger.info("Activation operation for model: {}", activeProductModel);
+    public CompletableFuture<ActiveProductModel> activateProduct(final ActiveProductModel activeProductModel) {
+        logger.debug("Activation operation for model: {}", activeProductModel);
         requireNonNull(activeProductModel, "Active status provided cannot be null or empty.");
-        List<String> errorList = new ArrayList<>();
-        validate(activeProductModel, isActiveProductModelValid(errorList), errorList);
+        validate(activeProductModel, ACTIVE_PRODUCT_VALIDATOR);
 
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing product activation transaction for model: {}", activeProductModel);
+        return transactionService.performTransactionAsync("product.activate", CONFLICTING_WRITE, status -> {
+            logger.debug("Performing product activation transaction for model: {}", activeProductModel);
 
             final Product product = productRepository.findById(activeProductModel.getId())
                     .orElseThrow(() -> new NotFoundException(String.format("Unable to update a provider with the id specified: %s", activeProductModel.getId())));
 
             var result = toActiveModel(productRepository.save(ProductMapper.toEntity(product, activeProductModel)));
 
-            logger.info("Product activation operation completed for result: {}", activeProductModel);
+            logger.debug("Product activation operation completed for result: {}", activeProductModel);
+            return result;
+        }, activeProductModel).thenApply(activated -> {
+            refreshUpcIndex(Set.of(activated.getId()));
+            return activated;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Set<ActiveProductModel>> activateProductSet(final Set<ActiveProductModel> activeProductModelSet) {
+        logger.debug("Activation operation for set of models: {}", activeProductModelSet);
+        requireNonNull(activeProductModelSet, "Active status set provided cannot be null or empty.");
+        if (activeProductModelSet.isEmpty()) {
+            return completedFuture(emptySet());
+        }
+        validateSet(activeProductModelSet, ACTIVE_PRODUCT_VALIDATOR, ActiveProductModel::getId);
+
+        return transactionService.performWriteTransactionAsync("product.activateSet", status -> {
+            logger.debug("Performing product activation transaction for set of models: {}", activeProductModelSet);
+            var result = activateSet(activationRepository, PRODUCT, activeProductModelSet, ActiveProductModel::getId,
+                    ActiveProductModel::isEnabled, ActiveProductModel::getLastUser, ProductMapper::toActiveModel);
+
+            logger.debug("Product activation operation completed for results: {}", activeProductModelSet);
             return result;
-        }, activeProductModel);
+        }, activeProductModelSet).thenApply(activated -> {
+            refreshUpcIndex(activated.stream().map(ActiveProductModel::getId).collect(Collectors.toSet()));
+            return activated;
+        });
+    }
+
+    @Override
+    public ProductImportReportModel importProducts(final InputStream body, final String contentType) {
+        requireNonNull(body, "Body provided cannot be null.");
+        final var format = ProductImportFormat.fromContentType(contentType);
+        logger.info("Requesting {} product import.", format);
+
+        final OffsetDateTime start = OffsetDateTime.now();
+        final ProductImportReportModel imported = transactionService.performWriteTransactionWithoutRetry("product.import", status -> {
+            final List<ImportErrorModel> errors = new ArrayList<>();
+            productImportRepository.createStagingTable();
+            final long copied = productImportRepository.copyToStaging(staging ->
+                    ProductImportReader.read(body, format, objectMapper, row -> {
+                        final long failures = row.isParsed() ? PRODUCT_INSERT_VALIDATOR.check(row.getModel()) : 0;
+                        if (row.isParsed() && failures == 0) {
+                            staging.accept(row);
+                        } else {
+                            final List<String> errorList = new ArrayList<>(row.getErrors());
+                            errorList.addAll(PRODUCT_INSERT_VALIDATOR.messages(failures));
+                            errors.add(new ImportErrorModel()
+                                    .setRow(row.getRowNumber())
+                                    .setUpc(row.getUpc())
+                                    .setMessages(errorList));
+                        }
+                    }));
+            final long received = copied + errors.size();
+            logger.debug("Staged {} of {} product rows received.", copied, received);
+
+            productImportRepository.classifyStaging();
+            final ProductImportReportModel report = productImportRepository.mergeStaging();
+            errors.addAll(productImportRepository.findRejectedStaging());
+            errors.sort(Comparator.comparing(ImportErrorModel::getRow));
+
+            report.setReceived(received)
+                    .setRejected((long) errors.size())
+                    .setErrors(errors);
+            logger.info("Product import completed: {}", report);
+            return report;
+        }, format + " product import");
+        // The import does not tell which products it changed, they are the ones modified since it started.
+        if (productUpcIndex != null) {
+            productUpcIndex.refreshModifiedSince(start);
+        }
+        return imported;
+    }
+
+    // Runs once the write committed, so the reload reads what it wrote.
+    private void refreshUpcIndex(final Set<String> productIds) {
+        if (productUpcIndex != null) {
+            productUpcIndex.refresh(productIds);
+        }
     }
 
     @Autowired
@@ -187,8 +364,39 @@ public class ProductServiceImpl extends BaseService implements ProductService {
         this.providerRepository = providerRepository;
     }
 
+    @Autowired
+    public void setProductImportRepository(final ProductImportRepository productImportRepository) {
+        this.productImportRepository = productImportRepository;
+    }
+
+    @Autowired
+    public void setActivationRepository(final ActivationRepository activationRepository) {
+        this.activationRepository = activationRepository;
+    }
+
     @Autowired
     public void setTransactionService(final TransactionService transactionService) {
         this.transactionService = transactionService;
     }
+
+    @PersistenceContext
+    public void setEntityManager(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Autowired
+    public void setObjectMapper(final ObjectMapper objectMapper) {
+        // NDJSON imports are read like the request bodies of the controllers, sanitizing their values.
+        this.objectMapper = objectMapper.copy().registerModule(new XSSModule());
+    }
+
+    @Autowired
+    public void setProviderCache(final EntityCache<String, ProviderModel> providerCache) {
+        this.providerCache = providerCache;
+    }
+
+    @Autowired(required = false)
+    public void setProductUpcIndex(final ProductUpcIndex productUpcIndex) {
+        this.productUpcIndex = productUpcIndex;
+    }
 }
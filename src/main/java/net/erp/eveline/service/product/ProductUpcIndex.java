@@ -0,0 +1,223 @@
+package net.erp.eveline.service.product;
+
+import net.erp.eveline.common.TransactionService;
+import net.erp.eveline.common.cache.EntityCache;
+import net.erp.eveline.common.exception.ServiceException;
+import net.erp.eveline.common.index.ProductRecord;
+import net.erp.eveline.common.index.UpcIndex;
+import net.erp.eveline.common.mapper.BrandMapper;
+import net.erp.eveline.common.mapper.ProductMapper;
+import net.erp.eveline.common.mapper.ProviderMapper;
+import net.erp.eveline.data.repository.ProductRecordRepository;
+import net.erp.eveline.model.BrandModel;
+import net.erp.eveline.model.ProductModel;
+import net.erp.eveline.model.ProviderModel;
+import net.erp.eveline.service.brand.BrandService;
+import net.erp.eveline.service.provider.ProviderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static net.erp.eveline.common.transaction.TransactionProfiles.PRIMARY_READ;
+
+/**
+ * Keeps the {@link UpcIndex} in step with the product table. Once the application is ready the index is built from a
+ * streaming scan of every product, then the products modified since the latest modification it has seen, minus the
+ * refresh overlap, are read again on every refresh interval, which covers the changes made by other instances. The
+ * writes of this instance reload what they changed as soon as they commit. Until it is built, or when it misses, the
+ * lookups fall back to the database.
+ */
+public class ProductUpcIndex implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ProductUpcIndex.class);
+    private static final OffsetDateTime EPOCH = Instant.EPOCH.atOffset(ZoneOffset.UTC);
+
+    private final UpcIndex upcIndex;
+    private final Duration refreshInterval;
+    private final Duration refreshOverlap;
+    private final AtomicReference<OffsetDateTime> watermark = new AtomicReference<>();
+    private ProductRecordRepository productRecordRepository;
+    private TransactionService transactionService;
+    private BrandService brandService;
+    private ProviderService providerService;
+    private EntityCache<String, BrandModel> brandCache;
+    private EntityCache<String, ProviderModel> providerCache;
+    private ScheduledExecutorService refreshExecutor;
+
+    public ProductUpcIndex(final UpcIndex upcIndex, final Duration refreshInterval, final Duration refreshOverlap) {
+        this.upcIndex = upcIndex;
+        this.refreshInterval = refreshInterval;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    /**
+     * @return the product with the upc, its brand and providers taken from their caches; empty when the index does
+     * not have it or they cannot be resolved.
+     */
+    public Optional<ProductModel> find(final String upc) {
+        return upcIndex.find(upc).flatMap(record -> {
+            try {
+                final Set<ProviderModel> providers = record.getProviderIds()
+                        .stream()
+                        .map(this::getProviderModel)
+                        .collect(Collectors.toSet());
+                return Optional.of(ProductMapper.toModel(record, getBrandModel(record.getBrandId()), providers));
+            } catch (final ServiceException ex) {
+                logger.warn("Unable to resolve product {} from the upc index, looking it up in the database. | Cause: {}",
+                        record.getProductId(), ex.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Reloads the products given from the primary, meant to run once the transaction that changed them committed.
+     * When the reload fails they stay out of the index until the next refresh picks them up.
+     */
+    public void refresh(final Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        upcIndex.removeProducts(productIds);
+        try {
+            transactionService.performTransaction("product.upcIndexRefresh", PRIMARY_READ, status -> {
+                productRecordRepository.findByIds(productIds, this::index);
+                return null;
+            }, productIds);
+        } catch (final RuntimeException ex) {
+            logger.warn("Unable to refresh products {} in the upc index. | Cause: {}", productIds, ex.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the products modified since the moment given, minus the refresh overlap. Meant for writes that do not
+     * know which products they changed, like an import.
+     */
+    public void refreshModifiedSince(final OffsetDateTime since) {
+        try {
+            catchUp(since);
+        } catch (final RuntimeException ex) {
+            logger.warn("Unable to refresh the products modified since {} in the upc index. | Cause: {}", since, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        if (refreshExecutor != null) {
+            return;
+        }
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "upc-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshExecutor.scheduleWithFixedDelay(this::buildOrRefresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    // A failed build is started over on the next interval, the index keeps missing until one completes.
+    private void buildOrRefresh() {
+        try {
+            if (upcIndex.isReady()) {
+                catchUp(watermark.get());
+            } else {
+                build();
+            }
+        } catch (final RuntimeException ex) {
+            logger.warn("Unable to {} the upc index, retrying in {}. | Cause: {}",
+                    upcIndex.isReady() ? "refresh" : "build", refreshInterval, ex.getMessage());
+        }
+    }
+
+    private void build() {
+        logger.info("Building the upc index.");
+        final long start = System.nanoTime();
+        transactionService.performReadOnlyTransactionWithoutRetry("product.upcIndexBuild", status -> {
+            productRecordRepository.streamAll(this::index);
+            return null;
+        }, "upc index build");
+        upcIndex.markReady();
+        logger.info("Built the upc index with {} products in {} ms, {} left out.", upcIndex.getSize(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), upcIndex.getRejections());
+    }
+
+    private void catchUp(final OffsetDateTime since) {
+        final OffsetDateTime from = (since == null ? EPOCH : since).minus(refreshOverlap);
+        transactionService.performTransaction("product.upcIndexCatchUp", PRIMARY_READ, status -> {
+            productRecordRepository.findModifiedSince(from, this::index);
+            return null;
+        }, from);
+    }
+
+    private void index(final ProductRecord record) {
+        upcIndex.put(record);
+        if (record.getLastModified() != null) {
+            watermark.accumulateAndGet(record.getLastModified(),
+                    (current, lastModified) -> current == null || lastModified.isAfter(current) ? lastModified : current);
+        }
+    }
+
+    // Lookups hit the caches straight away, the services that log every request only load what they miss.
+    private BrandModel getBrandModel(final String brandId) {
+        return Optional.ofNullable(brandCache.getIfPresent(brandId))
+                .map(BrandMapper::copy)
+                .orElseGet(() -> brandService.getBrandModel(brandId));
+    }
+
+    private ProviderModel getProviderModel(final String providerId) {
+        return Optional.ofNullable(providerCache.getIfPresent(providerId))
+                .map(ProviderMapper::copy)
+                .orElseGet(() -> providerService.getProviderModel(providerId));
+    }
+
+    @Autowired
+    public void setProductRecordRepository(final ProductRecordRepository productRecordRepository) {
+        this.productRecordRepository = productRecordRepository;
+    }
+
+    @Autowired
+    public void setTransactionService(final TransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @Autowired
+    public void setBrandService(final BrandService brandService) {
+        this.brandService = brandService;
+    }
+
+    @Autowired
+    public void setProviderService(final ProviderService providerService) {
+        this.providerService = providerService;
+    }
+
+    @Autowired
+    public void setBrandCache(final EntityCache<String, BrandModel> brandCache) {
+        this.brandCache = brandCache;
+    }
+
+    @Autowired
+    public void setProviderCache(final EntityCache<String, ProviderModel> providerCache) {
+        this.providerCache = providerCache;
+    }
+}
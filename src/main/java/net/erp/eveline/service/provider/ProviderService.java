@@ -1,19 +1,31 @@
 package net.erp.eveline.service.provider;
 
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.model.ActiveProviderModel;
+import net.erp.eveline.model.BatchItemModel;
 import net.erp.eveline.model.ProviderModel;
+import net.erp.eveline.model.PageModel;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface ProviderService {
 
     Set<ProviderModel> findAll();
 
+    PageModel<ProviderModel> findPage(final String cursor, final Integer size, final PageSort sort);
+
+    void exportAll(final Consumer<ProviderModel> consumer);
+
     ProviderModel getProviderModel(final String providerId);
 
-    ProviderModel upsertProviderModel(final ProviderModel providerModel);
+    CompletableFuture<ProviderModel> upsertProviderModel(final ProviderModel providerModel);
+
+    CompletableFuture<List<BatchItemModel<ProviderModel>>> upsertProviderModels(final List<ProviderModel> providerModels);
 
-    ActiveProviderModel activateProvider(final ActiveProviderModel activeProviderModel);
+    CompletableFuture<ActiveProviderModel> activateProvider(final ActiveProviderModel activeProviderModel);
 
-    Set<ActiveProviderModel> activateProviderSet(final Set<ActiveProviderModel> activeProviderModelSet);
+    CompletableFuture<Set<ActiveProviderModel>> activateProviderSet(final Set<ActiveProviderModel> activeProviderModelSet);
 }
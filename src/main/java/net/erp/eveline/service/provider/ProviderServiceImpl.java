@@ -1,10 +1,17 @@
 package net.erp.eveline.service.provider;
 
 import net.erp.eveline.common.TransactionService;
+import net.erp.eveline.common.cache.EntityCache;
 import net.erp.eveline.common.exception.NotFoundException;
+import net.erp.eveline.common.mapper.ProviderMapper;
+import net.erp.eveline.common.pagination.PageCursor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.data.entity.Provider;
+import net.erp.eveline.data.repository.ActivationRepository;
 import net.erp.eveline.data.repository.ProviderRepository;
 import net.erp.eveline.model.ActiveProviderModel;
+import net.erp.eveline.model.BatchItemModel;
+import net.erp.eveline.model.PageModel;
 import net.erp.eveline.model.ProviderModel;
 import net.erp.eveline.service.BaseService;
 import org.slf4j.Logger;
@@ -12,24 +19,42 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static java.lang.String.format;
 import static java.util.Collections.emptySet;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.toSet;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static net.erp.eveline.common.export.NdjsonExport.EXPORT_FETCH_SIZE;
+import static net.erp.eveline.common.mapper.PageMapper.toPageModel;
+import static net.erp.eveline.common.mapper.ProviderMapper.copy;
 import static net.erp.eveline.common.mapper.ProviderMapper.toActiveModel;
 import static net.erp.eveline.common.mapper.ProviderMapper.toEntity;
 import static net.erp.eveline.common.mapper.ProviderMapper.toModel;
+import static net.erp.eveline.common.predicate.CommonPredicates.BATCH_SIZE_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.PAGE_SIZE_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.isBatchSizeValid;
+import static net.erp.eveline.common.predicate.CommonPredicates.isPageSizeValid;
+import static net.erp.eveline.model.BatchItemModel.Outcome.INVALID;
+import static net.erp.eveline.common.predicate.ProviderPredicates.ACTIVE_PROVIDER_VALIDATOR;
 import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_ID_INVALID_MESSAGE;
-import static net.erp.eveline.common.predicate.ProviderPredicates.isActiveProviderModelValid;
-import static net.erp.eveline.common.predicate.ProviderPredicates.isActiveProviderSetValid;
+import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_INSERT_VALIDATOR;
+import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_UPDATE_VALIDATOR;
 import static net.erp.eveline.common.predicate.ProviderPredicates.isProviderIdValid;
-import static net.erp.eveline.common.predicate.ProviderPredicates.isProviderModelValidForInsert;
-import static net.erp.eveline.common.predicate.ProviderPredicates.isProviderModelValidForUpdate;
+import static net.erp.eveline.common.transaction.TransactionProfiles.CONFLICTING_WRITE;
+import static net.erp.eveline.common.transaction.TransactionProfiles.PRIMARY_READ;
+import static net.erp.eveline.data.repository.ActivationRepository.ActivationTable.PROVIDER;
 
 @Service
 public class ProviderServiceImpl extends BaseService implements ProviderService {
@@ -37,49 +62,97 @@ public class ProviderServiceImpl extends BaseService implements ProviderService
     private static final Logger logger = LoggerFactory.getLogger(ProviderServiceImpl.class);
 
     private ProviderRepository providerRepository;
+    private ActivationRepository activationRepository;
     private TransactionService transactionService;
+    private EntityManager entityManager;
+    private EntityCache<String, ProviderModel> providerCache;
 
     @Override
     public Set<ProviderModel> findAll() {
         logger.info("Obtaining all providers.");
-        return transactionService.performReadOnlyTransaction(status -> {
-            logger.info("Requesting all providers.");
+        return transactionService.performReadOnlyTransaction("provider.findAll", status -> {
+            logger.debug("Requesting all providers.");
             Set<Provider> providers = Set.copyOf(providerRepository.findAll());
-            logger.info("Retrieved all providers successfully.");
+            logger.debug("Retrieved all providers successfully.");
             return toModel(providers);
         }, null);
     }
 
+    @Override
+    public PageModel<ProviderModel> findPage(final String cursor, final Integer size, final PageSort sort) {
+        logger.info("Requesting page of {} providers sorted by {}.", size, sort);
+        validate(size, isPageSizeValid(), PAGE_SIZE_INVALID_MESSAGE);
+        final var pageCursor = PageCursor.decode(cursor, ofNullable(sort).orElse(PageSort.ID));
+        return transactionService.performReadOnlyTransaction("provider.findPage", status -> {
+            final List<Provider> providers = findPageRows(pageCursor, size + 1);
+            logger.debug("Retrieved {} providers for page successfully.", providers.size());
+            return toPageModel(providers, size, pageCursor.getSort(), Provider::getProviderId, Provider::getLastModified, ProviderMapper::toModel);
+        }, pageCursor);
+    }
+
+    private List<Provider> findPageRows(final PageCursor pageCursor, final int limit) {
+        if (pageCursor.getSort() == PageSort.ID) {
+            return providerRepository.findPageOrderById(pageCursor.isFirst() ? "" : pageCursor.getId(), limit);
+        }
+        return pageCursor.isFirst()
+                ? providerRepository.findFirstPageOrderByLastModified(limit)
+                : providerRepository.findPageOrderByLastModified(pageCursor.getLastModified(), pageCursor.getId(), limit);
+    }
+
+    @Override
+    public void exportAll(final Consumer<ProviderModel> consumer) {
+        requireNonNull(consumer, "Consumer provided cannot be null.");
+        logger.info("Requesting export of all providers.");
+        transactionService.performReadOnlyTransactionWithoutRetry("provider.export", status -> {
+            long exported = 0;
+            try (Stream<Provider> providers = providerRepository.streamAll()) {
+                final Iterator<Provider> iterator = providers.iterator();
+                while (iterator.hasNext()) {
+                    consumer.accept(toModel(iterator.next()));
+                    if (++exported % EXPORT_FETCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            logger.debug("Exported {} providers successfully.", exported);
+            return null;
+        }, "provider export");
+    }
+
     @Override
     public ProviderModel getProviderModel(final String providerId) {
         logger.info("Obtaining provider for id: {}", providerId);
         validate(providerId, isProviderIdValid(), PROVIDER_ID_INVALID_MESSAGE);
-        return transactionService.performReadOnlyTransaction(status -> {
-            logger.info("Performing transaction for Id: {}", providerId);
+        return copy(providerCache.get(providerId, this::loadProviderModel));
+    }
+
+    // Read from the primary so a lagging replica cannot put back the row an upsert or activation just invalidated.
+    private ProviderModel loadProviderModel(final String providerId) {
+        return transactionService.performTransaction("provider.get", PRIMARY_READ, status -> {
+            logger.debug("Performing transaction for Id: {}", providerId);
             final Optional<Provider> optionalProvider = providerRepository.findById(providerId);
             if (optionalProvider.isEmpty()) {
                 throw new NotFoundException(String.format("Unable to find a provider with the id specified: %s", providerId));
             }
             var providerModel = toModel(optionalProvider.get());
-            logger.info("Retrieving provider info: {}", providerModel);
+            logger.debug("Retrieving provider info: {}", providerModel);
             return providerModel;
         }, providerId);
     }
 
     @Override
-    public ProviderModel upsertProviderModel(final ProviderModel providerModel) {
-        logger.info("Upsert operation for model: {}", providerModel);
+    public CompletableFuture<ProviderModel> upsertProviderModel(final ProviderModel providerModel) {
+        logger.debug("Upsert operation for model: {}", providerModel);
         requireNonNull(providerModel, "Model provided cannot be null or empty.");
-        List<String> errorList = new ArrayList<>();
         final var providerId = ofNullable(providerModel.getId());
         if (providerId.isPresent()) {
-            validate(providerModel, isProviderModelValidForUpdate(errorList), errorList);
+            validate(providerModel, PROVIDER_UPDATE_VALIDATOR);
         } else {
-            validate(providerModel, isProviderModelValidForInsert(errorList), errorList);
+            validate(providerModel, PROVIDER_INSERT_VALIDATOR);
         }
 
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing upsert transaction for model: {}", providerModel);
+        return transactionService.performWriteTransactionAsync("provider.upsert", status -> {
+            logger.debug("Performing upsert transaction for model: {}", providerModel);
             ProviderModel result;
             if (providerId.isPresent()) {
                 // Try to perform the update
@@ -90,69 +163,83 @@ public class ProviderServiceImpl extends BaseService implements ProviderService
                 }
 
                 // Definitely update the record on the DB.
-                logger.info("Preparing to update provider: {}", providerModel);
+                logger.debug("Preparing to update provider: {}", providerModel);
                 result = toModel(providerRepository.save(toEntity(providerModel)));
-                logger.info("Successful update operation for provider: {}", providerModel);
+                providerCache.invalidateAfterCommit(List.of(providerId.get()));
+                logger.debug("Successful update operation for provider: {}", providerModel);
 
             } else {
                 // Try to perform insert if the rest of the values is valid
-                logger.info("Preparing to insert provider: {}", providerModel);
+                logger.debug("Preparing to insert provider: {}", providerModel);
                 result = toModel(providerRepository.save(toEntity(providerModel)));
-                logger.info("Successful insert operation for provider: {}", providerModel);
+                logger.debug("Successful insert operation for provider: {}", providerModel);
             }
 
-            logger.info("Upsert operation completed for model: {}", providerModel);
+            logger.debug("Upsert operation completed for model: {}", providerModel);
             return result;
         }, providerModel);
     }
 
     @Override
-    public ActiveProviderModel activateProvider(final ActiveProviderModel activeProviderModel) {
-        logger.info("Activation operation for model: {}", activeProviderModel);
+    public CompletableFuture<List<BatchItemModel<ProviderModel>>> upsertProviderModels(final List<ProviderModel> providerModels) {
+        requireNonNull(providerModels, "Models provided cannot be null.");
+        logger.info("Batch upsert operation for {} providers.", providerModels.size());
+        validate(providerModels, isBatchSizeValid(), BATCH_SIZE_INVALID_MESSAGE);
+        final var items = validateBatch(providerModels, ProviderModel::getId,
+                PROVIDER_INSERT_VALIDATOR, PROVIDER_UPDATE_VALIDATOR);
+        if (items.stream().allMatch(item -> item.getOutcome() == INVALID)) {
+            logger.debug("No valid providers to upsert in batch of {}.", items.size());
+            return completedFuture(items);
+        }
+
+        return transactionService.performWriteTransactionAsync("provider.upsertBatch", status -> {
+            logger.debug("Performing batch upsert transaction for {} providers.", items.size());
+            final var result = saveBatch(items, providerRepository, ProviderModel::getId, Provider::getProviderId, ProviderMapper::toEntity, ProviderMapper::toModel);
+            providerCache.invalidateAfterCommit(updatedIds(result, ProviderModel::getId));
+            logger.debug("Batch upsert operation completed for {} providers.", result.size());
+            return result;
+        }, format("batch upsert of %d providers", providerModels.size()));
+    }
+
+    @Override
+    public CompletableFuture<ActiveProviderModel> activateProvider(final ActiveProviderModel activeProviderModel) {
+        logger.debug("Activation operation for model: {}", activeProviderModel);
         requireNonNull(activeProviderModel, "Active status provided cannot be null or empty.");
-        List<String> errorList = new ArrayList<>();
-        validate(activeProviderModel, isActiveProviderModelValid(errorList), errorList);
+        validate(activeProviderModel, ACTIVE_PROVIDER_VALIDATOR);
 
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing provider activation transaction for model: {}", activeProviderModel);
+        return transactionService.performTransactionAsync("provider.activate", CONFLICTING_WRITE, status -> {
+            logger.debug("Performing provider activation transaction for model: {}", activeProviderModel);
             final var optionalProvider = providerRepository.findById(activeProviderModel.getId());
             if (optionalProvider.isEmpty()) {
                 throw new NotFoundException(String.format("Unable to update a provider with the id specified: %s", activeProviderModel.getId()));
             }
 
             var result = toActiveModel(providerRepository.save(toEntity(optionalProvider.get(), activeProviderModel)));
+            providerCache.invalidateAfterCommit(List.of(activeProviderModel.getId()));
 
-            logger.info("Provider activation operation completed for result: {}", activeProviderModel);
+            logger.debug("Provider activation operation completed for result: {}", activeProviderModel);
             return result;
         }, activeProviderModel);
     }
 
     @Override
-    public Set<ActiveProviderModel> activateProviderSet(final Set<ActiveProviderModel> activeProviderModelSet) {
-        logger.info("Activation operation for set of models: {}", activeProviderModelSet);
+    public CompletableFuture<Set<ActiveProviderModel>> activateProviderSet(final Set<ActiveProviderModel> activeProviderModelSet) {
+        logger.debug("Activation operation for set of models: {}", activeProviderModelSet);
         requireNonNull(activeProviderModelSet, "Active status set provided cannot be null or empty.");
         if (activeProviderModelSet.isEmpty()) {
-            return emptySet();
+            return completedFuture(emptySet());
         }
-        List<String> errorList = new ArrayList<>();
-        validate(activeProviderModelSet, isActiveProviderSetValid(errorList), errorList);
-
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing provider activation transaction for set of models: {}", activeProviderModelSet);
-            final var providerIds = activeProviderModelSet.stream().map(ActiveProviderModel::getId).collect(toSet());
-            final var existsAllById = providerRepository.existsAllByProviderIdIn(providerIds);
-            if (!existsAllById) {
-                throw new NotFoundException(String.format("Unable to update providers with the ids specified: %s", providerIds));
-            }
-
-            final var providerSet = Set.copyOf(providerRepository.findAllById(providerIds));
-            if (providerSet.isEmpty()) {
-                throw new NotFoundException(String.format("Unable to update all providers with the ids specified since none where found: %s", providerIds));
-            }
+        validateSet(activeProviderModelSet, ACTIVE_PROVIDER_VALIDATOR, ActiveProviderModel::getId);
 
-            var result = toActiveModel(Set.copyOf(providerRepository.saveAll(toEntity(providerSet, activeProviderModelSet))));
+        return transactionService.performWriteTransactionAsync("provider.activateSet", status -> {
+            logger.debug("Performing provider activation transaction for set of models: {}", activeProviderModelSet);
+            var result = activateSet(activationRepository, PROVIDER, activeProviderModelSet, ActiveProviderModel::getId,
+                    ActiveProviderModel::isEnabled, ActiveProviderModel::getLastUser, ProviderMapper::toActiveModel);
+            providerCache.invalidateAfterCommit(activeProviderModelSet.stream()
+                    .map(ActiveProviderModel::getId)
+                    .collect(Collectors.toList()));
 
-            logger.info("Provider activation operation completed for results: {}", activeProviderModelSet);
+            logger.debug("Provider activation operation completed for results: {}", activeProviderModelSet);
             return result;
         }, activeProviderModelSet);
     }
@@ -162,9 +249,24 @@ public class ProviderServiceImpl extends BaseService implements ProviderService
         this.providerRepository = providerRepository;
     }
 
+    @Autowired
+    public void setActivationRepository(final ActivationRepository activationRepository) {
+        this.activationRepository = activationRepository;
+    }
+
     @Autowired
 
     public void setTransactionService(final TransactionService transactionService) {
         this.transactionService = transactionService;
     }
+
+    @PersistenceContext
+    public void setEntityManager(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Autowired
+    public void setProviderCache(final EntityCache<String, ProviderModel> providerCache) {
+        this.providerCache = providerCache;
+    }
 }
@@ -1,18 +1,30 @@
 package net.erp.eveline.service.warehouse;
 
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.model.ActiveWarehouseModel;
+import net.erp.eveline.model.BatchItemModel;
 import net.erp.eveline.model.WarehouseModel;
+import net.erp.eveline.model.PageModel;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface WarehouseService {
     Set<WarehouseModel> findAll();
 
+    PageModel<WarehouseModel> findPage(final String cursor, final Integer size, final PageSort sort);
+
+    void exportAll(final Consumer<WarehouseModel> consumer);
+
     WarehouseModel getWarehouseModel(final String warehouseId);
 
-    WarehouseModel upsertWarehouseModel(final WarehouseModel warehouseModel);
+    CompletableFuture<WarehouseModel> upsertWarehouseModel(final WarehouseModel warehouseModel);
+
+    CompletableFuture<List<BatchItemModel<WarehouseModel>>> upsertWarehouseModels(final List<WarehouseModel> warehouseModels);
 
-    ActiveWarehouseModel activateWarehouse(final ActiveWarehouseModel activeWarehouseModel);
+    CompletableFuture<ActiveWarehouseModel> activateWarehouse(final ActiveWarehouseModel activeWarehouseModel);
 
-    Set<ActiveWarehouseModel> activateWarehouseSet(final Set<ActiveWarehouseModel> activeWarehouseModelSet);
+    CompletableFuture<Set<ActiveWarehouseModel>> activateWarehouseSet(final Set<ActiveWarehouseModel> activeWarehouseModelSet);
 }
@@ -3,81 +3,142 @@ package net.erp.eveline.service.warehouse;
 import net.erp.eveline.common.TransactionService;
 import net.erp.eveline.common.exception.NotFoundException;
 import net.erp.eveline.common.mapper.WarehouseMapper;
+import net.erp.eveline.common.pagination.PageCursor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.data.entity.Warehouse;
+import net.erp.eveline.data.repository.ActivationRepository;
 import net.erp.eveline.data.repository.WarehouseRepository;
 import net.erp.eveline.model.ActiveWarehouseModel;
+import net.erp.eveline.model.BatchItemModel;
+import net.erp.eveline.model.PageModel;
 import net.erp.eveline.model.WarehouseModel;
 import net.erp.eveline.service.BaseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static java.util.Collections.emptySet;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.toSet;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static net.erp.eveline.common.export.NdjsonExport.EXPORT_FETCH_SIZE;
+import static net.erp.eveline.common.mapper.PageMapper.toPageModel;
 import static net.erp.eveline.common.mapper.WarehouseMapper.toActiveModel;
 import static net.erp.eveline.common.mapper.WarehouseMapper.toEntity;
 import static net.erp.eveline.common.mapper.WarehouseMapper.toModel;
+import static net.erp.eveline.common.predicate.CommonPredicates.BATCH_SIZE_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.PAGE_SIZE_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.isBatchSizeValid;
+import static net.erp.eveline.common.predicate.CommonPredicates.isPageSizeValid;
+import static net.erp.eveline.model.BatchItemModel.Outcome.INVALID;
 import static net.erp.eveline.common.predicate.WarehousePredicates.WAREHOUSE_ID_INVALID_MESSAGE;
 import static net.erp.eveline.common.predicate.WarehousePredicates.isWarehouseIdValid;
-import static net.erp.eveline.common.predicate.WarehousePredicates.isWarehouseModelValidForUpdate;
-import static net.erp.eveline.common.predicate.WarehousePredicates.isWarehouseModelValidForInsert;
-import static net.erp.eveline.common.predicate.WarehousePredicates.isActiveWarehouseModelValid;
-import static net.erp.eveline.common.predicate.WarehousePredicates.isActiveWarehouseSetValid;
+import static net.erp.eveline.common.predicate.WarehousePredicates.WAREHOUSE_UPDATE_VALIDATOR;
+import static net.erp.eveline.common.predicate.WarehousePredicates.WAREHOUSE_INSERT_VALIDATOR;
+import static net.erp.eveline.common.predicate.WarehousePredicates.ACTIVE_WAREHOUSE_VALIDATOR;
+import static net.erp.eveline.common.transaction.TransactionProfiles.CONFLICTING_WRITE;
+import static net.erp.eveline.common.transaction.TransactionProfiles.HOT_READ;
+import static net.erp.eveline.data.repository.ActivationRepository.ActivationTable.WAREHOUSE;
 
 @Service
 public class WarehouseServiceImpl extends BaseService implements WarehouseService {
     private static final Logger logger = LoggerFactory.getLogger(WarehouseServiceImpl.class);
     private WarehouseRepository warehouseRepository;
+    private ActivationRepository activationRepository;
     private TransactionService transactionService;
+    private EntityManager entityManager;
 
     @Override
     public Set<WarehouseModel> findAll() {
         logger.info("Obtaining all warehouses.");
-        return transactionService.performReadOnlyTransaction(status -> {
-            logger.info("Requesting all warehouses.");
+        return transactionService.performReadOnlyTransaction("warehouse.findAll", status -> {
+            logger.debug("Requesting all warehouses.");
             Set<Warehouse> warehouses = Set.copyOf(warehouseRepository.findAll());
-            logger.info("Retrieved all warehouses successfully.");
+            logger.debug("Retrieved all warehouses successfully.");
             return toModel(warehouses);
         }, null);
     }
 
+    @Override
+    public PageModel<WarehouseModel> findPage(final String cursor, final Integer size, final PageSort sort) {
+        logger.info("Requesting page of {} warehouses sorted by {}.", size, sort);
+        validate(size, isPageSizeValid(), PAGE_SIZE_INVALID_MESSAGE);
+        final var pageCursor = PageCursor.decode(cursor, ofNullable(sort).orElse(PageSort.ID));
+        return transactionService.performReadOnlyTransaction("warehouse.findPage", status -> {
+            final List<Warehouse> warehouses = findPageRows(pageCursor, size + 1);
+            logger.debug("Retrieved {} warehouses for page successfully.", warehouses.size());
+            return toPageModel(warehouses, size, pageCursor.getSort(), Warehouse::getWarehouseId, Warehouse::getLastModified, WarehouseMapper::toModel);
+        }, pageCursor);
+    }
+
+    private List<Warehouse> findPageRows(final PageCursor pageCursor, final int limit) {
+        if (pageCursor.getSort() == PageSort.ID) {
+            return warehouseRepository.findPageOrderById(pageCursor.isFirst() ? "" : pageCursor.getId(), limit);
+        }
+        return pageCursor.isFirst()
+                ? warehouseRepository.findFirstPageOrderByLastModified(limit)
+                : warehouseRepository.findPageOrderByLastModified(pageCursor.getLastModified(), pageCursor.getId(), limit);
+    }
+
+    @Override
+    public void exportAll(final Consumer<WarehouseModel> consumer) {
+        requireNonNull(consumer, "Consumer provided cannot be null.");
+        logger.info("Requesting export of all warehouses.");
+        transactionService.performReadOnlyTransactionWithoutRetry("warehouse.export", status -> {
+            long exported = 0;
+            try (Stream<Warehouse> warehouses = warehouseRepository.streamAll()) {
+                final Iterator<Warehouse> iterator = warehouses.iterator();
+                while (iterator.hasNext()) {
+                    consumer.accept(toModel(iterator.next()));
+                    if (++exported % EXPORT_FETCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            logger.debug("Exported {} warehouses successfully.", exported);
+            return null;
+        }, "warehouse export");
+    }
+
 
     @Override
     public WarehouseModel getWarehouseModel(String warehouseId) {
         logger.info("Requesting warehouse matching id {}.", warehouseId);
         validate(warehouseId, isWarehouseIdValid(), WAREHOUSE_ID_INVALID_MESSAGE);
-        return transactionService.performReadOnlyTransaction(status -> {
+        return transactionService.performTransaction("warehouse.get", HOT_READ, status -> {
             Warehouse warehouse = warehouseRepository.findById(warehouseId)
                     .orElseThrow(() -> new NotFoundException(format("Unable to find a warehouse with the id specified: %s", warehouseId)));
 
-            logger.info("Retrieved {} warehouse for warehouseId {} successfully.", warehouse, warehouseId);
+            logger.debug("Retrieved {} warehouse for warehouseId {} successfully.", warehouse, warehouseId);
             return toModel(warehouse);
         }, warehouseId);
     }
 
     @Override
-    public WarehouseModel upsertWarehouseModel(WarehouseModel warehouseModel) {
-        logger.info("Upsert operation for model: {}", warehouseModel);
+    public CompletableFuture<WarehouseModel> upsertWarehouseModel(WarehouseModel warehouseModel) {
+        logger.debug("Upsert operation for model: {}", warehouseModel);
         requireNonNull(warehouseModel, "Model provided cannot be null or empty.");
-        List<String> errorList = new ArrayList<>();
         final var warehouseId = ofNullable(warehouseModel.getId());
         if (warehouseId.isPresent()) {
-            validate(warehouseModel, isWarehouseModelValidForUpdate(errorList), errorList);
+            validate(warehouseModel, WAREHOUSE_UPDATE_VALIDATOR);
         } else {
-            validate(warehouseModel, isWarehouseModelValidForInsert(errorList), errorList);
+            validate(warehouseModel, WAREHOUSE_INSERT_VALIDATOR);
         }
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing upsert transaction for model: {}", warehouseModel);
+        return transactionService.performWriteTransactionAsync("warehouse.upsert", status -> {
+            logger.debug("Performing upsert transaction for model: {}", warehouseModel);
             WarehouseModel result;
             if (warehouseId.isPresent()) {
-                validate(warehouseModel, isWarehouseModelValidForUpdate(errorList), errorList);
                 // Try to perform the update
                 final var warehouseExists = warehouseRepository.existsById(warehouseId.get());
                 if (!warehouseExists) {
@@ -85,30 +146,48 @@ public class WarehouseServiceImpl extends BaseService implements WarehouseServic
                 }
 
                 // Definitely update the record on the DB.
-                logger.info("Preparing to update warehouse: {}", warehouseModel);
+                logger.debug("Preparing to update warehouse: {}", warehouseModel);
                 result = WarehouseMapper.toModel(warehouseRepository.save(toEntity(warehouseModel)));
-                logger.info("Successful update operation for warehouse: {}", warehouseModel);
+                logger.debug("Successful update operation for warehouse: {}", warehouseModel);
             } else {
-                validate(warehouseModel, isWarehouseModelValidForInsert(errorList), errorList);
                 // Try to perform insert if the rest of the values is valid
-                logger.info("Preparing to insert warehouse: {}", warehouseModel);
+                logger.debug("Preparing to insert warehouse: {}", warehouseModel);
                 result = WarehouseMapper.toModel(warehouseRepository.save(toEntity(warehouseModel)));
-                logger.info("Successful insert operation for warehouse: {}", warehouseModel);
+                logger.debug("Successful insert operation for warehouse: {}", warehouseModel);
             }
-            logger.info("Upsert operation completed for model: {}", warehouseModel);
+            logger.debug("Upsert operation completed for model: {}", warehouseModel);
             return result;
         }, warehouseModel);
     }
 
     @Override
-    public ActiveWarehouseModel activateWarehouse(final ActiveWarehouseModel activeWarehouseModel) {
-        logger.info("Activation operation for model: {}", activeWarehouseModel);
+    public CompletableFuture<List<BatchItemModel<WarehouseModel>>> upsertWarehouseModels(final List<WarehouseModel> warehouseModels) {
+        requireNonNull(warehouseModels, "Models provided cannot be null.");
+        logger.info("Batch upsert operation for {} warehouses.", warehouseModels.size());
+        validate(warehouseModels, isBatchSizeValid(), BATCH_SIZE_INVALID_MESSAGE);
+        final var items = validateBatch(warehouseModels, WarehouseModel::getId,
+                WAREHOUSE_INSERT_VALIDATOR, WAREHOUSE_UPDATE_VALIDATOR);
+        if (items.stream().allMatch(item -> item.getOutcome() == INVALID)) {
+            logger.debug("No valid warehouses to upsert in batch of {}.", items.size());
+            return completedFuture(items);
+        }
+
+        return transactionService.performWriteTransactionAsync("warehouse.upsertBatch", status -> {
+            logger.debug("Performing batch upsert transaction for {} warehouses.", items.size());
+            final var result = saveBatch(items, warehouseRepository, WarehouseModel::getId, Warehouse::getWarehouseId, WarehouseMapper::toEntity, WarehouseMapper::toModel);
+            logger.debug("Batch upsert operation completed for {} warehouses.", result.size());
+            return result;
+        }, format("batch upsert of %d warehouses", warehouseModels.size()));
+    }
+
+    @Override
+    public CompletableFuture<ActiveWarehouseModel> activateWarehouse(final ActiveWarehouseModel activeWarehouseModel) {
+        logger.debug("Activation operation for model: {}", activeWarehouseModel);
         requireNonNull(activeWarehouseModel, "Active status warehouse cannot be null or empty.");
-        List<String> errorList = new ArrayList<>();
-        validate(activeWarehouseModel, isActiveWarehouseModelValid(errorList), errorList);
+        validate(activeWarehouseModel, ACTIVE_WAREHOUSE_VALIDATOR);
 
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing warehouse activation transaction for model: {}", activeWarehouseModel);
+        return transactionService.performTransactionAsync("warehouse.activate", CONFLICTING_WRITE, status -> {
+            logger.debug("Performing warehouse activation transaction for model: {}", activeWarehouseModel);
             final var optionalWarehouse = warehouseRepository.findById(activeWarehouseModel.getId());
             if (optionalWarehouse.isEmpty()) {
                 throw new NotFoundException(String.format("Unable to update a warehouse with the id specified: %s", activeWarehouseModel.getId()));
@@ -116,37 +195,26 @@ public class WarehouseServiceImpl extends BaseService implements WarehouseServic
 
             var result = toActiveModel(warehouseRepository.save(toEntity(optionalWarehouse.get(), activeWarehouseModel)));
 
-            logger.info("Warehouse activation operation completed for result: {}", activeWarehouseModel);
+            logger.debug("Warehouse activation operation completed for result: {}", activeWarehouseModel);
             return result;
         }, activeWarehouseModel);
     }
 
     @Override
-    public Set<ActiveWarehouseModel> activateWarehouseSet(final Set<ActiveWarehouseModel> activeWarehouseModelSet) {
-        logger.info("Activation operation for set of models: {}", activeWarehouseModelSet);
+    public CompletableFuture<Set<ActiveWarehouseModel>> activateWarehouseSet(final Set<ActiveWarehouseModel> activeWarehouseModelSet) {
+        logger.debug("Activation operation for set of models: {}", activeWarehouseModelSet);
         requireNonNull(activeWarehouseModelSet, "Active status set provided cannot be null or empty.");
         if (activeWarehouseModelSet.isEmpty()) {
-            return emptySet();
+            return completedFuture(emptySet());
         }
-        List<String> errorList = new ArrayList<>();
-        validate(activeWarehouseModelSet, isActiveWarehouseSetValid(errorList), errorList);
-
-        return transactionService.performWriteTransaction(status -> {
-            logger.info("Performing warehouse activation transaction for set of models: {}", activeWarehouseModelSet);
-            final var warehouseIds = activeWarehouseModelSet.stream().map(ActiveWarehouseModel::getId).collect(toSet());
-            final Boolean existsAllById = warehouseRepository.existsAllByWarehouseIdIn(warehouseIds);
-            if (!existsAllById) {
-                throw new NotFoundException(String.format("Unable to update warehouses with the ids specified: %s", warehouseIds));
-            }
+        validateSet(activeWarehouseModelSet, ACTIVE_WAREHOUSE_VALIDATOR, ActiveWarehouseModel::getId);
 
-            final var warehouseSet = Set.copyOf(warehouseRepository.findAllById(warehouseIds));
-            if (warehouseSet.isEmpty()) {
-                throw new NotFoundException(String.format("Unable to update all warehouses with the ids specified since none where found: %s", warehouseIds));
-            }
+        return transactionService.performWriteTransactionAsync("warehouse.activateSet", status -> {
+            logger.debug("Performing warehouse activation transaction for set of models: {}", activeWarehouseModelSet);
+            var result = activateSet(activationRepository, WAREHOUSE, activeWarehouseModelSet, ActiveWarehouseModel::getId,
+                    ActiveWarehouseModel::isEnabled, ActiveWarehouseModel::getLastUser, WarehouseMapper::toActiveModel);
 
-            var result = toActiveModel(Set.copyOf(warehouseRepository.saveAll(WarehouseMapper.toEntity(warehouseSet, activeWarehouseModelSet))));
-
-            logger.info("Warehouse activation operation completed for results: {}", activeWarehouseModelSet);
+            logger.debug("Warehouse activation operation completed for results: {}", activeWarehouseModelSet);
             return result;
         }, activeWarehouseModelSet);
     }
@@ -157,8 +225,18 @@ public class WarehouseServiceImpl extends BaseService implements WarehouseServic
         this.warehouseRepository = warehouseRepository;
     }
 
+    @Autowired
+    public void setActivationRepository(final ActivationRepository activationRepository) {
+        this.activationRepository = activationRepository;
+    }
+
     @Autowired
     public void setTransactionService(TransactionService transactionService) {
         this.transactionService = transactionService;
     }
+
+    @PersistenceContext
+    public void setEntityManager(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
 }
@@ -0,0 +1,13 @@
+package config;
+
+import net.erp.eveline.data.entity.Product;
+import net.erp.eveline.data.repository.ProductRepository;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@EntityScan(basePackageClasses = Product.class)
+@EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+public class RepositoryTestConfiguration {
+}
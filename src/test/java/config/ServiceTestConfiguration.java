@@ -1,66 +1,75 @@
 package config;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import net.erp.eveline.common.TransactionService;
-import net.erp.eveline.common.exception.NonRetryableException;
-import net.erp.eveline.common.exception.RetryableException;
-import org.springframework.beans.factory.annotation.Qualifier;
+import net.erp.eveline.common.limit.ConcurrencyLimiter;
+import net.erp.eveline.common.retry.CircuitBreaker;
+import net.erp.eveline.common.retry.RetryBudget;
+import net.erp.eveline.common.retry.RetryPolicy;
+import net.erp.eveline.common.transaction.PayloadLogSampler;
+import net.erp.eveline.common.transaction.TransactionMetrics;
+import net.erp.eveline.common.transaction.TransactionProfileRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.retry.backoff.ExponentialBackOffPolicy;
-import org.springframework.retry.policy.SimpleRetryPolicy;
-import org.springframework.retry.support.RetryTemplate;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.support.AbstractPlatformTransactionManager;
 import org.springframework.transaction.support.DefaultTransactionStatus;
-import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 @Configuration
 public class ServiceTestConfiguration {
 
-    @Qualifier("writeTransactionTemplate")
-    @Bean(name = "writeTransactionTemplate")
-    public TransactionTemplate getWriteTransactionTemplate() {
+    @Bean
+    public TransactionProfileRegistry getTransactionProfileRegistry() {
+        return new TransactionProfileRegistry(new FakePlatformTransactionManager());
+    }
+
+    @Bean
+    public TransactionMetrics getTransactionMetrics() {
+        return new TransactionMetrics(new SimpleMeterRegistry());
+    }
+
+    @Bean
+    public PayloadLogSampler getPayloadLogSampler() {
+        return new PayloadLogSampler(1);
+    }
+
+    @Bean
+    public RetryPolicy getRetryPolicy() {
+        //Short pauses to speedup testing and project building.
+        return new RetryPolicy(4, Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    @Bean
+    public RetryBudget getRetryBudget() {
+        //Every test retries, the budget must never be the reason a test stops retrying.
+        return new RetryBudget(1, 1000, Duration.ofSeconds(1));
+    }
 
-        TransactionTemplate writeTransactionTemplate = new TransactionTemplate(new FakePlatformTransactionManager());
-        writeTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
-        writeTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
-        writeTransactionTemplate.setReadOnly(false);
-        return writeTransactionTemplate;
+    @Bean
+    public CircuitBreaker getCircuitBreaker() {
+        return new CircuitBreaker(5, Duration.ofMillis(100));
+    }
+
+    @Bean
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return new ConcurrencyLimiter(100, 100, 100, 1.5, 0.2, Duration.ofSeconds(1), 1, 1, Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
     }
 
-    @Qualifier("readOnlyTransactionTemplate")
-    @Bean(name = "readOnlyTransactionTemplate")
-    public TransactionTemplate getReadOnlyTransactionTemplate() {
-        TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(new FakePlatformTransactionManager());
-        readOnlyTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
-        readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
-        readOnlyTransactionTemplate.setReadOnly(true);
-        return readOnlyTransactionTemplate;
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService transactionRetryScheduler() {
+        return Executors.newSingleThreadScheduledExecutor();
     }
 
-    @Bean(name = "retryTransactionTemplate")
-    @Qualifier("retryTransactionTemplate")
-    public RetryTemplate getRetryTemplate() {
-        RetryTemplate retryTemplate = new RetryTemplate();
-
-        // Backoff Policy (*in seconds): 3, 6, 9, 12, 15
-        ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
-        backOffPolicy.setInitialInterval(100L);
-        backOffPolicy.setMultiplier(1);//This multiplier was updated to speedup testing and project building.
-        backOffPolicy.setMaxInterval(15000);
-
-        Map<Class<? extends Throwable>, Boolean> retryableExceptions = new HashMap<>();
-        retryableExceptions.put(RetryableException.class, true);
-        retryableExceptions.put(NonRetryableException.class, false);
-        SimpleRetryPolicy simpleRetryPolicy = new SimpleRetryPolicy(4, retryableExceptions);
-
-        retryTemplate.setBackOffPolicy(backOffPolicy);
-        retryTemplate.setRetryPolicy(simpleRetryPolicy);
-        return retryTemplate;
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService transactionRetryExecutor() {
+        return Executors.newSingleThreadExecutor();
     }
 
     @Bean
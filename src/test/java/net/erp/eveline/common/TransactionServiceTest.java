@@ -0,0 +1,312 @@
+package net.erp.eveline.common;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.erp.eveline.common.exception.NonRetryableException;
+import net.erp.eveline.common.exception.RetryableException;
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+import net.erp.eveline.common.limit.ConcurrencyLimiter;
+import net.erp.eveline.common.limit.Priority;
+import net.erp.eveline.common.retry.CircuitBreaker;
+import net.erp.eveline.common.retry.RetryBudget;
+import net.erp.eveline.common.retry.RetryPolicy;
+import net.erp.eveline.common.transaction.PayloadLogSampler;
+import net.erp.eveline.common.transaction.TransactionMetrics;
+import net.erp.eveline.common.transaction.TransactionProfileRegistry;
+import net.erp.eveline.common.transaction.TransactionProfiles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.support.TransactionCallback;
+
+import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+    private final List<Duration> statementTimeouts = new ArrayList<>();
+    private final TransactionService transactionService = new TransactionService();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(4, 4, 4, 1.5, 0.2, Duration.ofSeconds(1),
+            0.5, 0.25, Duration.ofSeconds(1), meterRegistry);
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService retryExecutor = Executors.newSingleThreadExecutor();
+    private TransactionProfileRegistry transactionProfileRegistry;
+
+    @BeforeEach
+    void setUp() {
+        transactionProfileRegistry = new TransactionProfileRegistry(transactionManager);
+        transactionProfileRegistry.setStatementTimeoutApplier(statementTimeouts::add);
+        transactionService.setTransactionProfileRegistry(transactionProfileRegistry);
+        transactionService.setTransactionMetrics(new TransactionMetrics(meterRegistry));
+        transactionService.setPayloadLogSampler(new PayloadLogSampler(1));
+        transactionService.setRetryPolicy(new RetryPolicy(4, Duration.ofMillis(1), Duration.ofMillis(1)));
+        transactionService.setRetryBudget(new RetryBudget(1, 1000, Duration.ofSeconds(1)));
+        transactionService.setCircuitBreaker(circuitBreaker);
+        transactionService.setConcurrencyLimiter(concurrencyLimiter);
+        transactionService.setRetryScheduler(retryScheduler);
+        transactionService.setRetryExecutor(retryExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        retryScheduler.shutdownNow();
+        retryExecutor.shutdownNow();
+    }
+
+    @Test
+    void retryableFailuresAreRetriedUpToTheMaxAttempts() {
+        //Execution
+        final var ex = assertThrows(RetryableException.class, () -> transactionService.performWriteTransaction("test.operation", status -> {
+            throw new OptimisticLockException("Optimistic lock exception");
+        }, "test"));
+
+        //Validation
+        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
+        verify(transactionManager, times(4)).getTransaction(any());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(1, transactionTimer("retryable", "4").count());
+        assertEquals(3, meterRegistry.get(TransactionMetrics.RETRY_COUNTER).tag("operation", "test.operation").counter().count());
+    }
+
+    @Test
+    void retriesAreScheduledWithoutHoldingAPermitDuringThePause() {
+        //Initialization
+        final List<Runnable> retries = new ArrayList<>();
+        final var attempts = new AtomicInteger();
+        final ScheduledExecutorService pausingScheduler = mock(ScheduledExecutorService.class);
+
+        //Set up
+        when(pausingScheduler.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(invocation -> {
+            retries.add(invocation.getArgument(0));
+            return null;
+        });
+        transactionService.setRetryScheduler(pausingScheduler);
+
+        //Execution
+        final var result = transactionService.performWriteTransactionAsync("test.operation", status -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new OptimisticLockException("Optimistic lock exception");
+            }
+            return "written";
+        }, "test");
+
+        //Validation
+        assertFalse(result.isDone());
+        assertEquals(1, retries.size());
+        assertEquals(0, concurrencyLimiter.getInFlight());
+        retries.get(0).run();
+        assertEquals("written", result.join());
+        assertEquals(0, concurrencyLimiter.getInFlight());
+        assertEquals(1, transactionTimer("success", "2").count());
+    }
+
+    @Test
+    void retriesRejectedByTheRetryExecutorFail() {
+        //Set up
+        transactionService.setRetryExecutor(runnable -> {
+            throw new RejectedExecutionException("Queue is full");
+        });
+
+        //Execution
+        final var ex = assertThrows(RetryableException.class, () -> transactionService.performWriteTransaction("test.operation", status -> {
+            throw new OptimisticLockException("Optimistic lock exception");
+        }, "test"));
+
+        //Validation
+        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
+        verify(transactionManager, times(1)).getTransaction(any());
+        assertEquals(0, concurrencyLimiter.getInFlight());
+        assertEquals(1, transactionTimer("retryable", "1").count());
+    }
+
+    @Test
+    void unavailableDatabaseOpensTheBreakerAndStopsRetrying() {
+        //Initialization
+        final TransactionCallback<Object> callback = status -> {
+            throw new CannotCreateTransactionException("Connection refused");
+        };
+
+        //Execution
+        assertThrows(RetryableException.class, () -> transactionService.performReadOnlyTransaction("test.operation", callback, "test"));
+        assertThrows(ServiceUnavailableException.class, () -> transactionService.performReadOnlyTransaction("test.operation", callback, "test"));
+
+        //Validation
+        verify(transactionManager, times(2)).getTransaction(any());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(1, transactionTimer("rejected", "0").count());
+    }
+
+    @Test
+    void transactionsOverTheLimitOfTheirPriorityAreRejectedWithoutReachingTheDatabase() {
+        //Set up
+        final var export = concurrencyLimiter.acquire(Priority.BULK);
+        final var write = concurrencyLimiter.acquire(Priority.WRITE);
+        final TransactionCallback<Object> callback = status -> null;
+
+        //Execution
+        assertThrows(ServiceUnavailableException.class, () -> transactionService.performWriteTransactionWithoutRetry("test.operation", callback, "test"));
+        assertThrows(ServiceUnavailableException.class, () -> transactionService.performWriteTransaction("test.operation", callback, "test"));
+        transactionService.performReadOnlyTransaction("test.operation", callback, "test");
+        export.release();
+        write.release();
+
+        //Validation
+        verify(transactionManager, times(1)).getTransaction(any());
+        assertEquals(2, transactionTimer("rejected", "0").count());
+        assertEquals(1, concurrencyLimiter.getRejections(Priority.BULK));
+        assertEquals(1, concurrencyLimiter.getRejections(Priority.WRITE));
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    void permitsAreGivenBackWhenTheBreakerRejects() {
+        //Set up
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+
+        //Execution
+        assertThrows(ServiceUnavailableException.class, () -> transactionService.performReadOnlyTransaction("test.operation", status -> null, "test"));
+
+        //Validation
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    void exhaustedRetryBudgetStopsRetrying() {
+        //Set up
+        transactionService.setRetryBudget(new RetryBudget(0, 0, Duration.ofSeconds(1)));
+
+        //Execution
+        assertThrows(RetryableException.class, () -> transactionService.performWriteTransaction("test.operation", status -> {
+            throw new OptimisticLockException("Optimistic lock exception");
+        }, "test"));
+
+        //Validation
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void transactionsWithoutRetryAreAlsoRejectedWhileTheBreakerIsOpen() {
+        //Set up
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        final TransactionCallback<Object> callback = status -> null;
+
+        //Execution
+        assertThrows(ServiceUnavailableException.class, () -> transactionService.performWriteTransactionWithoutRetry("test.operation", callback, "test"));
+
+        //Validation
+        verify(transactionManager, times(0)).getTransaction(any());
+    }
+
+    @Test
+    void nonRetryableFailuresAreNotRetried() {
+        //Execution
+        final var ex = assertThrows(NonRetryableException.class, () -> transactionService.performWriteTransaction("test.operation", status -> {
+            throw new RuntimeException("Regular exception test.");
+        }, "test"));
+
+        //Validation
+        assertEquals(RuntimeException.class, getRootCause(ex).getClass());
+        verify(transactionManager, times(1)).getTransaction(any());
+        assertEquals(1, transactionTimer("non_retryable", "1").count());
+    }
+
+    @Test
+    void transactionsRunWithTheDefinitionOfTheirProfile() {
+        //Initialization
+        final var definitionCaptor = ArgumentCaptor.forClass(TransactionDefinition.class);
+
+        //Execution
+        transactionService.performTransaction("test.operation", TransactionProfiles.HOT_READ, status -> null, "test");
+        transactionService.performTransaction("test.operation", TransactionProfiles.CONFLICTING_WRITE, status -> null, "test");
+
+        //Validation
+        verify(transactionManager, times(2)).getTransaction(definitionCaptor.capture());
+        final var hotRead = definitionCaptor.getAllValues().get(0);
+        assertEquals(TransactionDefinition.ISOLATION_READ_COMMITTED, hotRead.getIsolationLevel());
+        assertEquals(2, hotRead.getTimeout());
+        assertTrue(hotRead.isReadOnly());
+        final var conflictingWrite = definitionCaptor.getAllValues().get(1);
+        assertEquals(TransactionDefinition.ISOLATION_REPEATABLE_READ, conflictingWrite.getIsolationLevel());
+        assertFalse(conflictingWrite.isReadOnly());
+        assertTrue(statementTimeouts.isEmpty());
+        assertEquals(2, transactionTimer("success", "1").count());
+    }
+
+    @Test
+    void registeredProfilesOverrideTheDeclaredOnes() {
+        //Initialization
+        final var definitionCaptor = ArgumentCaptor.forClass(TransactionDefinition.class);
+
+        //Set up
+        transactionProfileRegistry.register(TransactionProfiles.HOT_READ
+                .withIsolation(Isolation.SERIALIZABLE)
+                .withMaxAttempts(2)
+                .withStatementTimeout(Duration.ofMillis(500)));
+
+        //Execution
+        assertThrows(RetryableException.class, () -> transactionService.performTransaction("test.operation", TransactionProfiles.HOT_READ, status -> {
+            throw new OptimisticLockException("Optimistic lock exception");
+        }, "test"));
+
+        //Validation
+        verify(transactionManager, times(2)).getTransaction(definitionCaptor.capture());
+        assertEquals(TransactionDefinition.ISOLATION_SERIALIZABLE, definitionCaptor.getValue().getIsolationLevel());
+        assertEquals(List.of(Duration.ofMillis(500), Duration.ofMillis(500)), statementTimeouts);
+    }
+
+    @Test
+    void profilesWithASingleAttemptAreNotRetried() {
+        //Execution
+        final var ex = assertThrows(NonRetryableException.class, () -> transactionService.performTransaction("test.operation", TransactionProfiles.BULK_WRITE, status -> {
+            throw new OptimisticLockException("Optimistic lock exception");
+        }, "test"));
+
+        //Validation
+        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
+        verify(transactionManager, times(1)).getTransaction(any());
+        assertEquals(List.of(Duration.ofSeconds(30)), statementTimeouts);
+    }
+
+    private Timer transactionTimer(final String outcome, final String attempts) {
+        return meterRegistry.get(TransactionMetrics.TRANSACTION_TIMER)
+                .tag("operation", "test.operation")
+                .tag("outcome", outcome)
+                .tag("attempts", attempts)
+                .timer();
+    }
+}
@@ -0,0 +1,143 @@
+package net.erp.eveline.common.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long now;
+
+    @Test
+    void loadsOnceAndServesTheStoredValue() {
+        //Initialization
+        final var cache = cache(10, Duration.ofMinutes(1));
+        final var loads = new AtomicInteger();
+
+        //Execution
+        final String first = cache.get("b00001", key -> "brand " + loads.incrementAndGet());
+        final String second = cache.get("b00001", key -> "brand " + loads.incrementAndGet());
+
+        //Validation
+        assertEquals("brand 1", first);
+        assertEquals("brand 1", second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRatio());
+        assertEquals(1, meterRegistry.get(EntityCache.GETS_COUNTER).tag("result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get(EntityCache.SIZE_GAUGE).gauge().value());
+    }
+
+    @Test
+    void frequentKeysSurviveAScanOfNewOnes() {
+        //Initialization
+        final var cache = cache(100, Duration.ofMinutes(1));
+
+        //Set up
+        for (int round = 0; round < 5; round++) {
+            IntStream.range(0, 50).forEach(idx -> cache.get("hot" + idx, key -> key));
+        }
+
+        //Execution
+        IntStream.range(0, 10_000).forEach(idx -> cache.get("scan" + idx, key -> key));
+
+        //Validation
+        final long hotKeys = IntStream.range(0, 50).filter(idx -> cache.getIfPresent("hot" + idx) != null).count();
+        assertTrue(hotKeys >= 45, "Only " + hotKeys + " hot keys survived the scan");
+        assertEquals(100, cache.getSize());
+        assertTrue(cache.getEvictions() >= 10_000 - 50);
+    }
+
+    @Test
+    void entriesExpireOnceOlderThanTheTimeToLive() {
+        //Initialization
+        final var cache = cache(10, Duration.ofSeconds(1));
+
+        //Set up
+        cache.get("b00001", key -> "brand");
+
+        //Execution
+        now += TimeUnit.MILLISECONDS.toNanos(900);
+        final String live = cache.getIfPresent("b00001");
+        now += TimeUnit.MILLISECONDS.toNanos(200);
+        final String expired = cache.getIfPresent("b00001");
+
+        //Validation
+        assertEquals("brand", live);
+        assertNull(expired);
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.getExpirations());
+        assertEquals(0, cache.getEstimatedBytes());
+    }
+
+    @Test
+    void valueLoadedWhileTheCacheIsInvalidatedIsNotStored() {
+        //Initialization
+        final var cache = cache(10, Duration.ofMinutes(1));
+
+        //Execution
+        final String loaded = cache.get("b00001", key -> {
+            cache.invalidate(List.of("b00001"));
+            return "stale brand";
+        });
+
+        //Validation
+        assertEquals("stale brand", loaded);
+        assertNull(cache.getIfPresent("b00001"));
+    }
+
+    @Test
+    void keysAreInvalidatedOnlyOnceTheTransactionCommits() {
+        //Initialization
+        final var cache = cache(10, Duration.ofMinutes(1));
+        cache.get("b00001", key -> "brand");
+        cache.get("b00002", key -> "other brand");
+
+        //Execution
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidateAfterCommit(List.of("b00001"));
+            assertEquals("brand", cache.getIfPresent("b00001"));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        //Validation
+        assertNull(cache.getIfPresent("b00001"));
+        assertEquals("other brand", cache.getIfPresent("b00002"));
+    }
+
+    @Test
+    void memoryFollowsTheFootprintOfTheEntries() {
+        //Initialization
+        final var cache = cache(10, Duration.ofMinutes(1));
+
+        //Execution
+        cache.get("b00001", key -> "brand");
+        cache.get("b00002", key -> "other brand");
+        final long twoEntries = cache.getEstimatedBytes();
+        cache.invalidate(List.of("b00002"));
+
+        //Validation
+        assertEquals(2 * 80 + "brand".length() + "other brand".length(), twoEntries);
+        assertEquals(80 + "brand".length(), cache.getEstimatedBytes());
+        assertEquals(80 + "brand".length(), meterRegistry.get(EntityCache.MEMORY_GAUGE).gauge().value());
+    }
+
+    private EntityCache<String, String> cache(final int maximumSize, final Duration timeToLive) {
+        return new EntityCache<>("brand", maximumSize, timeToLive, String::length, meterRegistry, () -> now);
+    }
+}
@@ -0,0 +1,122 @@
+package net.erp.eveline.common.execution;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Optional.ofNullable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestExecutorTest {
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(2);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RequestExecutor requestExecutor;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void platformModeRunsTheHandlerOnTheCallingThread() {
+        //Initialization
+        requestExecutor = new RequestExecutor(ExecutionMode.PLATFORM, null, 1, 1, RETRY_AFTER, meterRegistry);
+        final var caller = Thread.currentThread();
+
+        //Execution
+        final var result = requestExecutor.supply("brand", Thread::currentThread);
+
+        //Validation
+        assertTrue(result.isDone());
+        assertSame(caller, result.join());
+    }
+
+    @Test
+    void platformModeThrowsTheExceptionsOfTheHandler() {
+        //Initialization
+        requestExecutor = new RequestExecutor(ExecutionMode.PLATFORM, null, 1, 1, RETRY_AFTER, meterRegistry);
+
+        //Validation
+        assertThrows(IllegalArgumentException.class, () -> requestExecutor.supply("brand", () -> {
+            throw new IllegalArgumentException();
+        }));
+    }
+
+    @Test
+    void bulkheadModeRunsTheHandlerWithTheSecurityContextOfTheRequest() {
+        //Initialization
+        requestExecutor = new RequestExecutor(ExecutionMode.BULKHEAD, null, 2, 10, RETRY_AFTER, meterRegistry);
+        final var caller = Thread.currentThread();
+
+        //Set up
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("eveline", "secret"));
+
+        //Execution
+        final var thread = requestExecutor.supply("brand", Thread::currentThread).join();
+        final var client = requestExecutor.supply("brand", () -> ofNullable(SecurityContextHolder.getContext()
+                .getAuthentication())
+                .map(Authentication::getName)
+                .orElse(null))
+                .join();
+
+        //Validation
+        assertNotEquals(caller, thread);
+        assertTrue(thread.getName().startsWith("bulkhead-brand-"));
+        assertEquals("eveline", client);
+        assertEquals(2, meterRegistry.get(MeteredExecutor.WAIT_TIMER).tag("executor", "brand").timer().count());
+    }
+
+    @Test
+    void bulkheadModeRejectsRequestsOnceTheQueueIsFull() throws InterruptedException {
+        //Initialization
+        requestExecutor = new RequestExecutor(ExecutionMode.BULKHEAD, null, 1, 1, RETRY_AFTER, meterRegistry);
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+
+        //Set up
+        final var running = requestExecutor.supply("product", () -> {
+            started.countDown();
+            return await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        final var queued = requestExecutor.supply("product", () -> true);
+
+        //Execution
+        final var ex = assertThrows(ServiceUnavailableException.class, () -> requestExecutor.supply("product", () -> true));
+        final var otherEntity = requestExecutor.supply("provider", () -> true).join();
+
+        //Validation
+        assertEquals(RETRY_AFTER, ex.getRetryAfter());
+        assertTrue(otherEntity);
+        assertEquals(1, meterRegistry.get(MeteredExecutor.ACTIVE_GAUGE).tag("executor", "product").gauge().value());
+        assertEquals(1, meterRegistry.get(MeteredExecutor.QUEUED_GAUGE).tag("executor", "product").gauge().value());
+        release.countDown();
+        assertTrue(running.join());
+        assertTrue(queued.join());
+    }
+
+    private static boolean await(final CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package net.erp.eveline.common.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.erp.eveline.common.exception.BadRequestException;
+import net.erp.eveline.model.ProviderModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.erp.eveline.common.imports.ProductImportReader.CSV_ROW_INCONSISTENT_MESSAGE;
+import static net.erp.eveline.common.imports.ProductImportReader.ENABLED_INVALID_MESSAGE;
+import static net.erp.eveline.common.imports.ProductImportReader.NDJSON_ROW_INVALID_MESSAGE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductImportReaderTest {
+
+    private static final String CSV_HEADER = "upc,title,description,sanitaryRegistryNumber,brandId,providerIds,lastUser,enabled\n";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void readCsvParsesEveryRow() {
+        //Initialization
+        final String body = CSV_HEADER +
+                "123456789012,Valid title,\"Description, with comma\",RS-1,b00001,p00001;p00002,valid,true\n" +
+                "\n" +
+                "123456789013,Other title,,,b00002,,valid,\n";
+
+        //Execution
+        final List<ProductImportRow> rows = read(body, ProductImportFormat.CSV);
+
+        //Validation
+        assertEquals(2, rows.size());
+        final var first = rows.get(0);
+        assertTrue(first.isParsed());
+        assertEquals(1, first.getRowNumber());
+        assertEquals("Description, with comma", first.getModel().getDescription());
+        assertEquals("b00001", first.getModel().getBrand().getId());
+        assertEquals(Set.of("p00001", "p00002"), first.getModel().getProviderSet().stream().map(ProviderModel::getId).collect(Collectors.toSet()));
+        assertTrue(first.getModel().isEnabled());
+
+        final var second = rows.get(1);
+        assertEquals(2, second.getRowNumber());
+        assertNull(second.getModel().getDescription());
+        assertNull(second.getModel().getSanitaryRegistryNumber());
+        assertNull(second.getModel().isEnabled());
+        assertTrue(second.getModel().getProviderSet().isEmpty());
+    }
+
+    @Test
+    void readCsvReportsMalformedRows() {
+        //Initialization
+        final String body = CSV_HEADER +
+                "123456789012,Valid title\n" +
+                "123456789013,Valid title,,,b00001,p00001,valid,maybe\n";
+
+        //Execution
+        final List<ProductImportRow> rows = read(body, ProductImportFormat.CSV);
+
+        //Validation
+        assertFalse(rows.get(0).isParsed());
+        assertEquals("123456789012", rows.get(0).getUpc());
+        assertEquals(List.of(CSV_ROW_INCONSISTENT_MESSAGE), rows.get(0).getErrors());
+        assertFalse(rows.get(1).isParsed());
+        assertEquals(List.of(ENABLED_INVALID_MESSAGE), rows.get(1).getErrors());
+    }
+
+    @Test
+    void readCsvThrowsBadRequestExceptionOnMissingColumns() {
+        assertThrows(BadRequestException.class, () -> read("upc,title\n123456789012,Valid title\n", ProductImportFormat.CSV));
+    }
+
+    @Test
+    void readNdjsonParsesEveryRowAndReportsInvalidDocuments() {
+        //Initialization
+        final String body = "{\"upc\":\"123456789012\",\"title\":\"Valid title\",\"brand\":{\"id\":\"b00001\"},\"providerSet\":[{\"id\":\"p00001\"}],\"lastUser\":\"valid\"}\n" +
+                "\n" +
+                "{\"upc\":\"123456789013\",\n";
+
+        //Execution
+        final List<ProductImportRow> rows = read(body, ProductImportFormat.NDJSON);
+
+        //Validation
+        assertEquals(2, rows.size());
+        assertTrue(rows.get(0).isParsed());
+        assertEquals("123456789012", rows.get(0).getUpc());
+        assertEquals("b00001", rows.get(0).getModel().getBrand().getId());
+        assertFalse(rows.get(1).isParsed());
+        assertEquals(2, rows.get(1).getRowNumber());
+        assertEquals(1, rows.get(1).getErrors().size());
+    }
+
+    @Test
+    void readNdjsonReportsRowsThatAreNotObjects() {
+        //Initialization
+        final String body = "null\n" +
+                "[\"123456789012\"]\n" +
+                "{\"upc\":\"123456789012\",\"title\":\"Valid title\"}\n";
+
+        //Execution
+        final List<ProductImportRow> rows = read(body, ProductImportFormat.NDJSON);
+
+        //Validation
+        assertEquals(3, rows.size());
+        assertFalse(rows.get(0).isParsed());
+        assertEquals(List.of(format(NDJSON_ROW_INVALID_MESSAGE, "a product must be a JSON object")), rows.get(0).getErrors());
+        assertFalse(rows.get(1).isParsed());
+        assertEquals(1, rows.get(1).getErrors().size());
+        assertTrue(rows.get(2).isParsed());
+    }
+
+    @Test
+    void fromContentTypeIgnoresParameters() {
+        assertEquals(ProductImportFormat.CSV, ProductImportFormat.fromContentType("text/csv; charset=UTF-8"));
+        assertEquals(ProductImportFormat.NDJSON, ProductImportFormat.fromContentType("application/x-ndjson"));
+        assertThrows(BadRequestException.class, () -> ProductImportFormat.fromContentType("application/json"));
+        assertThrows(BadRequestException.class, () -> ProductImportFormat.fromContentType(null));
+    }
+
+    private List<ProductImportRow> read(final String body, final ProductImportFormat format) {
+        final List<ProductImportRow> rows = new ArrayList<>();
+        final InputStream inputStream = new ByteArrayInputStream(body.getBytes(UTF_8));
+        final long read = ProductImportReader.read(inputStream, format, objectMapper, rows::add);
+        assertEquals(rows.size(), read);
+        return rows;
+    }
+}
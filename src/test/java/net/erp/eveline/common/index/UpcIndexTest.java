@@ -0,0 +1,176 @@
+package net.erp.eveline.common.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpcIndexTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void findsTheRecordPutForTheUpc() {
+        //Initialization
+        final var index = index(10, 4096);
+        final var lastModified = OffsetDateTime.of(2021, 7, 1, 12, 30, 15, 0, ZoneOffset.ofHours(-6));
+        final var record = record("s00001", "000000012345", "title")
+                .setProviderIds(List.of("p00001", "p00002"))
+                .setDescription("Descripción con acentos")
+                .setLastModified(lastModified)
+                .setEnabled(null);
+
+        //Execution
+        index.put(record);
+        index.markReady();
+        final var actual = index.find("000000012345").orElseThrow();
+
+        //Validation
+        assertEquals("s00001", actual.getProductId());
+        assertEquals("000000012345", actual.getUpc());
+        assertEquals("b00001", actual.getBrandId());
+        assertEquals(List.of("p00001", "p00002"), actual.getProviderIds());
+        assertEquals("title", actual.getTitle());
+        assertEquals("Descripción con acentos", actual.getDescription());
+        assertNull(actual.getCreateDate());
+        assertEquals(lastModified, actual.getLastModified());
+        assertEquals("test", actual.getLastUser());
+        assertNull(actual.isEnabled());
+        assertEquals(1, meterRegistry.get(UpcIndex.LOOKUPS_COUNTER).tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void lookupsMissUntilTheIndexIsReady() {
+        //Initialization
+        final var index = index(10, 4096);
+        index.put(record("s00001", "123456789012", "title"));
+
+        //Execution
+        final boolean foundBeforeReady = index.find("123456789012").isPresent();
+        index.markReady();
+        final boolean foundAfterReady = index.find("123456789012").isPresent();
+
+        //Validation
+        assertFalse(foundBeforeReady);
+        assertTrue(foundAfterReady);
+    }
+
+    @Test
+    void productsAreFoundOnlyByTheirCurrentUpc() {
+        //Initialization
+        final var index = index(10, 4096);
+        index.markReady();
+
+        //Set up
+        index.put(record("s00001", "123456789012", "first"));
+        index.put(record("s00002", "210987654321", "second"));
+
+        //Execution
+        index.put(record("s00001", "111111111111", "first"));
+        index.put(record("s00002", "123456789012", "second"));
+
+        //Validation
+        assertEquals("s00001", index.find("111111111111").orElseThrow().getProductId());
+        assertEquals("s00002", index.find("123456789012").orElseThrow().getProductId());
+        assertFalse(index.find("210987654321").isPresent());
+        assertEquals(2, index.getSize());
+    }
+
+    @Test
+    void recordsOlderThanTheIndexedOneAreIgnored() {
+        //Initialization
+        final var index = index(10, 4096);
+        final var lastModified = OffsetDateTime.of(2021, 7, 1, 12, 30, 15, 0, ZoneOffset.UTC);
+        index.markReady();
+
+        //Set up
+        index.put(record("s00001", "123456789012", "fresh").setLastModified(lastModified));
+
+        //Execution
+        index.put(record("s00001", "111111111111", "stale").setLastModified(lastModified.minusSeconds(1)));
+
+        //Validation
+        assertEquals("fresh", index.find("123456789012").orElseThrow().getTitle());
+        assertFalse(index.find("111111111111").isPresent());
+        assertEquals(1, index.getSize());
+    }
+
+    @Test
+    void removedProductsAreNotFound() {
+        //Initialization
+        final var index = index(10, 4096);
+        index.markReady();
+        index.put(record("s00001", "123456789012", "first"));
+        index.put(record("s00002", "210987654321", "second"));
+
+        //Execution
+        index.removeProducts(List.of("s00001"));
+
+        //Validation
+        assertFalse(index.find("123456789012").isPresent());
+        assertTrue(index.find("210987654321").isPresent());
+        assertEquals(1, index.getSize());
+    }
+
+    @Test
+    void replacedRecordsAreCompactedOnceTheMemoryRunsOut() {
+        //Initialization
+        final var index = index(100, 4096);
+        index.markReady();
+
+        //Execution
+        for (int version = 0; version < 100; version++) {
+            final int current = version;
+            IntStream.range(0, 10).forEach(idx ->
+                    index.put(record(String.format("s%05d", idx), String.format("%012d", idx), "title " + current)));
+        }
+
+        //Validation
+        IntStream.range(0, 10).forEach(idx ->
+                assertEquals("title 99", index.find(String.format("%012d", idx)).orElseThrow().getTitle()));
+        assertEquals(10, index.getSize());
+        assertEquals(0, index.getRejections());
+    }
+
+    @Test
+    void productsOverTheMaximumAreLeftOut() {
+        //Initialization
+        final var index = index(2, 4096);
+        index.markReady();
+
+        //Execution
+        final boolean first = index.put(record("s00001", "000000000001", "first"));
+        final boolean second = index.put(record("s00002", "000000000002", "second"));
+        final boolean third = index.put(record("s00003", "000000000003", "third"));
+
+        //Validation
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertFalse(index.find("000000000003").isPresent());
+        assertEquals(1, index.getRejections());
+        assertEquals(1, meterRegistry.get(UpcIndex.REJECTIONS_COUNTER).functionCounter().count());
+    }
+
+    private UpcIndex index(final int maximumProducts, final long recordMemory) {
+        return new UpcIndex(maximumProducts, recordMemory, meterRegistry);
+    }
+
+    private static ProductRecord record(final String productId, final String upc, final String title) {
+        return new ProductRecord()
+                .setProductId(productId)
+                .setUpc(upc)
+                .setBrandId("b00001")
+                .setTitle(title)
+                .setLastUser("test")
+                .setEnabled(true);
+    }
+}
@@ -0,0 +1,129 @@
+package net.erp.eveline.common.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long now;
+
+    @Test
+    void prioritiesAreAdmittedUpToTheirShareOfTheLimit() {
+        //Initialization
+        final var limiter = limiter(20, 4, 100);
+
+        //Set up
+        final List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int idx = 0; idx < 5; idx++) {
+            permits.add(limiter.acquire(Priority.BULK));
+        }
+
+        //Execution
+        final var bulkEx = assertThrows(ServiceUnavailableException.class, () -> limiter.acquire(Priority.BULK));
+        for (int idx = 0; idx < 11; idx++) {
+            permits.add(limiter.acquire(Priority.WRITE));
+        }
+        assertThrows(ServiceUnavailableException.class, () -> limiter.acquire(Priority.WRITE));
+        for (int idx = 0; idx < 4; idx++) {
+            permits.add(limiter.acquire(Priority.READ));
+        }
+        assertThrows(ServiceUnavailableException.class, () -> limiter.acquire(Priority.READ));
+        permits.forEach(ConcurrencyLimiter.Permit::cancel);
+
+        //Validation
+        assertEquals(Duration.ofSeconds(2), bulkEx.getRetryAfter());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(20, limiter.getLimit());
+        assertEquals(1, rejections(Priority.BULK));
+        assertEquals(1, rejections(Priority.WRITE));
+        assertEquals(1, rejections(Priority.READ));
+        assertEquals(5, meterRegistry.get(ConcurrencyLimiter.LIMIT_GAUGE).tag("priority", "bulk").gauge().value());
+    }
+
+    @Test
+    void limitGrowsWhileTheLatencyHolds() {
+        //Initialization
+        final var limiter = limiter(10, 4, 100);
+
+        //Execution
+        runAtLimit(limiter, 50, TimeUnit.MILLISECONDS.toNanos(5));
+
+        //Validation
+        assertTrue(limiter.getLimit() > 10, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void limitShrinksWhenTheLatencyRises() {
+        //Initialization
+        final var limiter = limiter(40, 4, 100);
+        runAtLimit(limiter, 5, TimeUnit.MILLISECONDS.toNanos(1));
+        final int limitBefore = limiter.getLimit();
+
+        //Execution
+        runAtLimit(limiter, 20, TimeUnit.MILLISECONDS.toNanos(20));
+
+        //Validation
+        assertTrue(limiter.getLimit() < limitBefore * 3 / 4, "limit " + limiter.getLimit() + " was " + limitBefore);
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void droppedCallsShrinkTheLimitAndBulkCallsDoNotSample() {
+        //Initialization
+        final var limiter = limiter(20, 4, 100);
+
+        //Execution
+        final var bulk = limiter.acquire(Priority.BULK);
+        now += TimeUnit.SECONDS.toNanos(1);
+        bulk.release();
+        final int afterBulk = limiter.getLimit();
+        final var dropped = limiter.acquire(Priority.READ);
+        dropped.markDropped();
+        final List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int idx = 0; idx < 9; idx++) {
+            permits.add(limiter.acquire(Priority.READ));
+        }
+        now += TimeUnit.MILLISECONDS.toNanos(20);
+        permits.forEach(ConcurrencyLimiter.Permit::release);
+        dropped.release();
+        dropped.release();
+
+        //Validation
+        assertEquals(20, afterBulk);
+        assertEquals(18, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    // Fills the limit with reads and releases them after the given latency, round after round.
+    private void runAtLimit(final ConcurrencyLimiter limiter, final int rounds, final long latencyNanos) {
+        for (int round = 0; round < rounds; round++) {
+            final List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            final int limit = limiter.getLimit();
+            for (int idx = 0; idx < limit; idx++) {
+                permits.add(limiter.acquire(Priority.READ));
+            }
+            now += latencyNanos;
+            permits.forEach(ConcurrencyLimiter.Permit::release);
+        }
+    }
+
+    private ConcurrencyLimiter limiter(final int initialLimit, final int minLimit, final int maxLimit) {
+        return new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, 1.5, 0.2, Duration.ofMillis(10), 0.8, 0.25,
+                Duration.ofSeconds(2), meterRegistry, () -> now);
+    }
+
+    private double rejections(final Priority priority) {
+        return meterRegistry.get(ConcurrencyLimiter.REJECTION_COUNTER).tag("priority", priority.getTag()).counter().count();
+    }
+}
@@ -1,9 +1,16 @@
 package net.erp.eveline.common.predicate;
 
+import net.erp.eveline.model.ActiveProviderModel;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -37,4 +44,23 @@ public class CommonPredicatesTest {
         assertFalse(CommonPredicates.isLastUserValid().test(invalidUsername));
         assertFalse(CommonPredicates.isLastUserValid().test(invalidEmptyUsername));
     }
+
+    @Test
+    void isBatchSizeValid() {
+        assertTrue(CommonPredicates.isBatchSizeValid().test(List.of()));
+        assertTrue(CommonPredicates.isBatchSizeValid().test(Collections.nCopies(CommonPredicates.MAX_BATCH_SIZE, "item")));
+        assertFalse(CommonPredicates.isBatchSizeValid().test(Collections.nCopies(CommonPredicates.MAX_BATCH_SIZE + 1, "item")));
+        assertFalse(CommonPredicates.isBatchSizeValid().test(null));
+    }
+
+    @Test
+    void areActiveSetIdsUnique() {
+        final List<String> errorList = new ArrayList<>();
+        final var activeModel1 = new ActiveProviderModel().setId("p00001").setEnabled(true);
+        final var activeModel2 = new ActiveProviderModel().setId("p00001").setEnabled(false);
+        assertTrue(CommonPredicates.areActiveSetIdsUnique(ActiveProviderModel::getId, errorList).test(Set.of(activeModel1)));
+        assertTrue(errorList.isEmpty());
+        assertFalse(CommonPredicates.areActiveSetIdsUnique(ActiveProviderModel::getId, errorList).test(Set.of(activeModel1, activeModel2)));
+        assertEquals(List.of(CommonPredicates.ACTIVE_SET_ID_REPEATED_MESSAGE), errorList);
+    }
 }
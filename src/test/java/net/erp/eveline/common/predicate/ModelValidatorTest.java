@@ -0,0 +1,113 @@
+package net.erp.eveline.common.predicate;
+
+import net.erp.eveline.model.ActiveProviderModel;
+import net.erp.eveline.model.ProviderModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static net.erp.eveline.common.predicate.CommonPredicates.ACTIVE_SET_ID_REPEATED_MESSAGE;
+import static net.erp.eveline.common.predicate.ProviderPredicates.ACTIVE_PROVIDER_VALIDATOR;
+import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_EMAIL_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_ID_INVALID_AT_INSERT_MESSAGE;
+import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_ID_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_INSERT_VALIDATOR;
+import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_LAST_USER_INVALID_MESSAGE;
+import static net.erp.eveline.common.predicate.ProviderPredicates.PROVIDER_NAME_INVALID_MESSAGE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelValidatorTest {
+
+    @Test
+    void validModelHasNoFailures() {
+        //Initialization
+        final var providerModel = new ProviderModel()
+                .setName("valid")
+                .setDescription("Descripción válida.")
+                .setEmail("test@test.com")
+                .setTelephone1("12345678")
+                .setLastUser("valid");
+
+        //Validation
+        assertEquals(0L, PROVIDER_INSERT_VALIDATOR.check(providerModel));
+    }
+
+    @Test
+    void failuresAreReportedInTheOrderOfTheRules() {
+        //Initialization
+        final var providerModel = new ProviderModel()
+                .setId("p00001")
+                .setName(null)
+                .setEmail("test@")
+                .setTelephone1("12345678")
+                .setLastUser("valid");
+
+        //Execution
+        final long failures = PROVIDER_INSERT_VALIDATOR.check(providerModel);
+
+        //Validation
+        assertEquals(3, Long.bitCount(failures));
+        assertEquals(List.of(PROVIDER_ID_INVALID_AT_INSERT_MESSAGE, PROVIDER_NAME_INVALID_MESSAGE, PROVIDER_EMAIL_INVALID_MESSAGE),
+                PROVIDER_INSERT_VALIDATOR.messages(failures));
+    }
+
+    @Test
+    void setIsValidatedInOnePass() {
+        //Initialization
+        final List<String> errorList = new ArrayList<>();
+        final var activeProviderSet = new LinkedHashSet<ActiveProviderModel>();
+        activeProviderSet.add(new ActiveProviderModel().setId("p00001").setEnabled(true).setLastUser("valid"));
+        activeProviderSet.add(new ActiveProviderModel().setId("p00002").setEnabled(true).setLastUser("valid"));
+
+        //Validation
+        assertTrue(ACTIVE_PROVIDER_VALIDATOR.validateSet(activeProviderSet, ActiveProviderModel::getId, errorList));
+        assertTrue(errorList.isEmpty());
+    }
+
+    @Test
+    void setReportsTheFirstInvalidModelBeforeRepeatedIds() {
+        //Initialization
+        final List<String> errorList = new ArrayList<>();
+        final var activeProviderSet = new LinkedHashSet<ActiveProviderModel>();
+        activeProviderSet.add(new ActiveProviderModel().setId("p00001").setEnabled(true).setLastUser("valid"));
+        activeProviderSet.add(new ActiveProviderModel().setId("p00001").setEnabled(false).setLastUser("valid"));
+        activeProviderSet.add(new ActiveProviderModel().setId("x").setEnabled(true).setLastUser("-"));
+
+        //Execution
+        final boolean valid = ACTIVE_PROVIDER_VALIDATOR.validateSet(activeProviderSet, ActiveProviderModel::getId, errorList);
+
+        //Validation
+        assertFalse(valid);
+        assertEquals(List.of(PROVIDER_ID_INVALID_MESSAGE, PROVIDER_LAST_USER_INVALID_MESSAGE), errorList);
+    }
+
+    @Test
+    void setReportsRepeatedIds() {
+        //Initialization
+        final List<String> errorList = new ArrayList<>();
+        final var activeProviderSet = new LinkedHashSet<ActiveProviderModel>();
+        activeProviderSet.add(new ActiveProviderModel().setId("p00001").setEnabled(true).setLastUser("valid"));
+        activeProviderSet.add(new ActiveProviderModel().setId("p00001").setEnabled(false).setLastUser("valid"));
+
+        //Validation
+        assertFalse(ACTIVE_PROVIDER_VALIDATOR.validateSet(activeProviderSet, ActiveProviderModel::getId, errorList));
+        assertEquals(List.of(ACTIVE_SET_ID_REPEATED_MESSAGE), errorList);
+    }
+
+    @Test
+    void atMostSixtyFourRules() {
+        //Initialization
+        final var builder = ModelValidator.<String>builder();
+        for (int rule = 0; rule < Long.SIZE; rule++) {
+            builder.rule("rule " + rule, value -> true);
+        }
+
+        //Validation
+        assertThrows(IllegalStateException.class, () -> builder.rule("one too many", value -> true));
+    }
+}
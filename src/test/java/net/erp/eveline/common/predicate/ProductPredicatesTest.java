@@ -65,6 +65,20 @@ class ProductPredicatesTest {
         assertEquals(1, errorList.size());
     }
 
+    @Test
+    void isProductModelValidForInsertFailsOnNullTitle() {
+        final List<String> errorList = new ArrayList<>();
+        final ProductModel productModel = new ProductModel()
+                .setBrand(generateBrandModel())
+                .setUpc("123456789012")
+                .setLastUser("valid")
+                .setDescription("Valid Desc")
+                .setProviderSet(of(generateProviderModel().setId("p12345")));
+
+        assertFalse(ProductPredicates.isProductModelValidForInsert(errorList).test(productModel));
+        assertEquals(1, errorList.size());
+    }
+
     @Test
     void isProductModelValidForInsertFailsOnInvalidDescription() {
         final List<String> errorList = new ArrayList<>();
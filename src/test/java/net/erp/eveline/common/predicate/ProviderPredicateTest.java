@@ -454,6 +454,30 @@ public class ProviderPredicateTest {
         assertEquals(1, errorList.size());
     }
 
+    @Test
+    public void isProviderModelValidForUpdateSuccessfulOnWideId() {
+        final List<String> errorList = new ArrayList<>();
+        final ProviderModel providerModel = new ProviderModel()
+                .setId("p100000")
+                .setName("valid")
+                .setDescription("Esta es una descripción totalmente válida. Por eso no puede fa$har.")
+                .setEmail("test@test.com")
+                .setTelephone1("12345678")
+                .setLastUser("valid");
+
+        assertTrue(isProviderModelValidForUpdate(errorList).test(providerModel));
+        assertEquals(0, errorList.size());
+    }
+
+    @Test
+    public void isProviderIdValidOnWideIds() {
+        assertTrue(ProviderPredicates.isProviderIdValid().test("p99999"));
+        assertTrue(ProviderPredicates.isProviderIdValid().test("p100000"));
+        assertTrue(ProviderPredicates.isProviderIdValid().test("p9999999999"));
+        assertFalse(ProviderPredicates.isProviderIdValid().test("p10000000000"));
+        assertFalse(ProviderPredicates.isProviderIdValid().test("p0100000"));
+    }
+
     @Test
     public void isProviderModelValidForUpdateShouldFailOnInvalidId() {
         final List<String> errorList = new ArrayList<>();
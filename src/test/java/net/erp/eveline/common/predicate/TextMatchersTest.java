@@ -0,0 +1,80 @@
+package net.erp.eveline.common.predicate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextMatchersTest {
+    private static final Pattern emailPattern = Pattern.compile("^[\\w!#$%&’*+/=?`{|}~^-]+(?:\\.[\\w!#$%&’*+/=?`{|}~^-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,6}$");
+    private static final Pattern texFieldPattern = Pattern.compile("[\\wáéíóúÁÉÍÓÚüÜñÑ$₡€@%|\\s()\\[\\]{}¡!¿?\";,&/.:'<>_+-]*");
+    private static final Pattern providerNamePattern = Pattern.compile("[\\w\\s&.-]+");
+    private static final Pattern entityIdPattern = Pattern.compile("p(?:[0-9]{5}|[1-9][0-9]{5,9})");
+
+    private static final List<String> EMAILS = List.of("test@test.com", "first.last@mail.co.cr", "a@b.cd", "a@b.cdefghi",
+            "o’neil@mail.com", "x+tag@sub-domain.example.org", "weird!#$%&*/=?`{|}~^-@mail.com", "a..b@mail.com",
+            ".a@mail.com", "a.@mail.com", "a@mail", "a@.com", "a@mail..com", "a@mail.c0m", "a@mail.c", "a@-.com",
+            "a@b@mail.com", "@mail.com", "a@", "", "a b@mail.com", "ñ@mail.com", "a@mail.com\n", "a@mail_x.com",
+            "a@mail.com.", "a@1.2.com", "a@mail.COM");
+    private static final List<String> TEXTS = List.of("", " ", "Texto válido (nuevo) 50% $12.50 ₡500 €3",
+            "comillas \" y 'simples' <b>", "tab\tand\nnewline", "ö", "emoji 😀", "[corchetes] {llaves} ¡hola! ¿qué?",
+            "ÁÉÍÓÚüÜñÑ", "back\\slash", "#hash", "a=b", "a~b");
+    private static final List<String> NAMES = List.of("valid", "Grupo & Hijos S.A.", "with-dash_and_underscore",
+            " padded ", "", "   ", "Ñandú", "semi;colon");
+    private static final List<String> IDS = List.of("p00001", "p99999", "p100000", "p012345", "p1234567890",
+            "p12345678901", "p0001", "s00001", "p0000a", " p00001 ", "P00001", "p");
+
+    @Test
+    void emailMatchesWhatTheExpressionMatches() {
+        EMAILS.forEach(email -> assertEquals(emailPattern.matcher(email.trim()).matches(), TextMatchers.emailTrimmed(email), email));
+    }
+
+    @Test
+    void textMatchesWhatTheExpressionMatches() {
+        TEXTS.forEach(text -> {
+            assertEquals(texFieldPattern.matcher(text).matches(), TextMatchers.matches(TextMatchers.TEXT_CHARS, text, true), text);
+            assertEquals(texFieldPattern.matcher(text.trim()).matches(), TextMatchers.matchesTrimmed(TextMatchers.TEXT_CHARS, text, true), text);
+        });
+    }
+
+    @Test
+    void nameMatchesWhatTheExpressionMatches() {
+        NAMES.forEach(name -> assertEquals(providerNamePattern.matcher(name.trim()).matches(),
+                TextMatchers.matchesTrimmed(TextMatchers.PROVIDER_NAME_CHARS, name, false), name));
+    }
+
+    @Test
+    void entityIdMatchesWhatTheExpressionMatches() {
+        IDS.forEach(id -> assertEquals(entityIdPattern.matcher(id.trim()).matches(), TextMatchers.entityIdTrimmed('p', id), id));
+    }
+
+    @Test
+    void digits() {
+        assertTrue(TextMatchers.digits("12345678", 8, 25));
+        assertFalse(TextMatchers.digits("1234567", 8, 25));
+        assertFalse(TextMatchers.digits("1234567a", 8, 25));
+        assertTrue(TextMatchers.digitsTrimmed(" 123456789012 ", 12));
+        assertFalse(TextMatchers.digitsTrimmed("12345678901", 12));
+    }
+
+    @Test
+    void hostileEmailsAreRejectedInLinearTime() {
+        //Initialization
+        final var dots = "a.".repeat(50_000) + "a@";
+        final var labels = "a@" + "a-.".repeat(50_000) + "a";
+        final var atoms = "a".repeat(100_000) + "!";
+
+        //Validation
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            assertFalse(TextMatchers.emailTrimmed(dots));
+            assertFalse(TextMatchers.emailTrimmed(labels));
+            assertFalse(TextMatchers.emailTrimmed(atoms));
+        });
+    }
+}
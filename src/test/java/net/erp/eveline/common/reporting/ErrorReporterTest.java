@@ -0,0 +1,124 @@
+package net.erp.eveline.common.reporting;
+
+import io.sentry.SentryEvent;
+import net.erp.eveline.common.exception.NonRetryableException;
+import net.erp.eveline.common.exception.NotFoundException;
+import net.erp.eveline.common.exception.RetryableException;
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ErrorReporterTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong(100 * SECOND);
+    private final List<SentryEvent> sentEvents = new ArrayList<>();
+
+    @Test
+    void clientErrorsAndRejectionsAreNotReported() {
+        //Initialization
+        final var errorReporter = errorReporter(1, Runnable::run);
+
+        //Execution
+        errorReporter.report(new NotFoundException("Unable to find a product with the upc specified: 000000000000"));
+        errorReporter.report(new NonRetryableException("Unable to process request", new NotFoundException("Missing")));
+        errorReporter.report(new ServiceUnavailableException("Circuit breaker is open", Duration.ofSeconds(1)));
+
+        //Validation
+        assertEquals(0, sentEvents.size());
+        assertEquals(3, errorReporter.getIgnored());
+    }
+
+    @Test
+    void repeatedFailuresAreReportedOncePerWindowWithTheSuppressedCount() {
+        //Initialization
+        final var errorReporter = errorReporter(1, Runnable::run);
+
+        //Execution
+        IntStream.range(0, 5).forEach(idx -> errorReporter.report(failure("product p0000" + idx)));
+        clock.addAndGet(61 * SECOND);
+        errorReporter.report(failure("product p00009"));
+
+        //Validation
+        assertEquals(2, sentEvents.size());
+        assertNull(sentEvents.get(0).getExtra("suppressedSinceLastReport"));
+        assertEquals(4L, sentEvents.get(1).getExtra("suppressedSinceLastReport"));
+        assertEquals(sentEvents.get(0).getFingerprints(), sentEvents.get(1).getFingerprints());
+        assertEquals(4, errorReporter.getDeduplicated());
+    }
+
+    @Test
+    void failuresOverTheMaximumFingerprintsAreReportedWithoutDeduplication() {
+        //Initialization
+        final var errorReporter = new ErrorReporter(Duration.ofMinutes(1), 1, 1, Runnable::run, sentEvents::add, clock::get);
+
+        //Execution
+        IntStream.range(0, 2).forEach(idx -> errorReporter.report(failure("product p0000" + idx)));
+        IntStream.range(0, 3).forEach(idx ->
+                errorReporter.report(new RetryableException("Unable to process request", new IllegalStateException("Conflict"))));
+
+        //Validation
+        assertEquals(4, sentEvents.size());
+        assertEquals(1, errorReporter.getDeduplicated());
+    }
+
+    @Test
+    void differentFailuresHaveDifferentFingerprints() {
+        //Initialization
+        final var retryable = new RetryableException("Unable to process request", new IllegalStateException("Conflict"));
+
+        //Validation
+        assertNotEquals(ErrorReporter.fingerprint(failure("product p00001")), ErrorReporter.fingerprint(retryable));
+        assertEquals(ErrorReporter.fingerprint(failure("product p00001")), ErrorReporter.fingerprint(failure("brand b00001")));
+    }
+
+    @Test
+    void failuresOutsideTheSampleAreNotReported() {
+        //Initialization
+        final var errorReporter = errorReporter(0, Runnable::run);
+
+        //Execution
+        errorReporter.report(failure("product p00001"));
+
+        //Validation
+        assertEquals(0, sentEvents.size());
+        assertEquals(1, errorReporter.getSampledOut());
+    }
+
+    @Test
+    void eventsAreDroppedWhenTheQueueIsFull() {
+        //Initialization
+        final Executor fullQueue = runnable -> {
+            throw new RejectedExecutionException("Queue is full");
+        };
+        final var errorReporter = errorReporter(1, fullQueue);
+
+        //Execution
+        errorReporter.report(failure("product p00001"));
+
+        //Validation
+        assertEquals(0, sentEvents.size());
+        assertEquals(1, errorReporter.getDropped());
+    }
+
+    private ErrorReporter errorReporter(final double sampleRate, final Executor executor) {
+        return new ErrorReporter(Duration.ofMinutes(1), sampleRate, 100, executor, sentEvents::add, clock::get);
+    }
+
+    private static NonRetryableException failure(final String parameter) {
+        return new NonRetryableException("Unable to process request probably due to exhaust for: " + parameter,
+                new IllegalArgumentException("Invalid value for " + parameter));
+    }
+}
@@ -0,0 +1,81 @@
+package net.erp.eveline.common.retry;
+
+import net.erp.eveline.common.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofSeconds(10), clock::get);
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRejectsWithTheRemainingTime() {
+        //Execution
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+
+        //Validation
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        final var ex = assertThrows(ServiceUnavailableException.class, circuitBreaker::acquirePermission);
+        assertEquals(Duration.ofSeconds(6), ex.getRetryAfter());
+        assertEquals(1, circuitBreaker.getRejectedCalls());
+    }
+
+    @Test
+    void successesResetTheFailureCount() {
+        //Execution
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+
+        //Validation
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertDoesNotThrow(circuitBreaker::acquirePermission);
+    }
+
+    @Test
+    void letsASingleProbeThroughOnceTheOpenDurationPasses() {
+        //Set up
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        //Execution
+        assertDoesNotThrow(circuitBreaker::acquirePermission);
+        assertThrows(ServiceUnavailableException.class, circuitBreaker::acquirePermission);
+        circuitBreaker.recordSuccess();
+
+        //Validation
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertDoesNotThrow(circuitBreaker::acquirePermission);
+    }
+
+    @Test
+    void aFailedProbeOpensTheBreakerAgain() {
+        //Set up
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        //Execution
+        circuitBreaker.acquirePermission();
+        circuitBreaker.recordFailure();
+
+        //Validation
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(2, circuitBreaker.getTimesOpened());
+        assertThrows(ServiceUnavailableException.class, circuitBreaker::acquirePermission);
+    }
+}
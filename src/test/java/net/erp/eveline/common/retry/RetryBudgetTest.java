@@ -0,0 +1,65 @@
+package net.erp.eveline.common.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong(100 * SECOND);
+
+    @Test
+    void retriesAreCappedToARatioOfTheCalls() {
+        //Initialization
+        final var retryBudget = new RetryBudget(0.1, 0, Duration.ofSeconds(10), clock::get);
+
+        //Set up
+        IntStream.range(0, 50).forEach(idx -> retryBudget.recordCall());
+
+        //Execution
+        final long granted = IntStream.range(0, 10).filter(idx -> retryBudget.tryAcquireRetry()).count();
+
+        //Validation
+        assertEquals(5, granted);
+        assertEquals(5, retryBudget.getRejectedRetries());
+    }
+
+    @Test
+    void lowTrafficCanStillRetryUpToTheFloor() {
+        //Initialization
+        final var retryBudget = new RetryBudget(0.1, 1, Duration.ofSeconds(2), clock::get);
+
+        //Validation
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertFalse(retryBudget.tryAcquireRetry());
+    }
+
+    @Test
+    void callsAndRetriesOlderThanTheWindowAreForgotten() {
+        //Initialization
+        final var retryBudget = new RetryBudget(0.1, 0, Duration.ofSeconds(10), clock::get);
+
+        //Set up
+        IntStream.range(0, 20).forEach(idx -> retryBudget.recordCall());
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertFalse(retryBudget.tryAcquireRetry());
+
+        //Execution
+        clock.addAndGet(10 * SECOND);
+
+        //Validation
+        assertEquals(0, retryBudget.getCalls());
+        assertEquals(0, retryBudget.getRetries());
+        assertFalse(retryBudget.tryAcquireRetry());
+    }
+}
@@ -0,0 +1,85 @@
+package net.erp.eveline.configuration.datasource;
+
+import net.erp.eveline.common.limit.Priority;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriorityRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        final var routingDataSource = new PriorityRoutingDataSource(Map.of(
+                Priority.READ, pool("read"),
+                Priority.WRITE, pool("write"),
+                Priority.BULK, pool("bulk")));
+        routingDataSource.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(routingDataSource));
+    }
+
+    @Test
+    void transactionsTakeTheirConnectionFromThePoolOfTheirPriority() {
+        //Execution
+        final String read = PriorityRoutingDataSource.callWith(Priority.READ, this::readPoolInTransaction);
+        final String write = PriorityRoutingDataSource.callWith(Priority.WRITE, this::readPoolInTransaction);
+        final String bulk = PriorityRoutingDataSource.callWith(Priority.BULK, this::readPoolInTransaction);
+
+        //Validation
+        assertEquals("read", read);
+        assertEquals("write", write);
+        assertEquals("bulk", bulk);
+    }
+
+    @Test
+    void connectionsTakenWithoutAPriorityComeFromTheReadPool() {
+        //Execution
+        final String outside = readPoolInTransaction();
+        final String afterBulk = PriorityRoutingDataSource.callWith(Priority.BULK, this::readPool) + "," + readPool();
+
+        //Validation
+        assertEquals("read", outside);
+        assertEquals("bulk,read", afterBulk);
+    }
+
+    @Test
+    void nestedPrioritiesRestoreTheOuterOne() {
+        //Execution
+        final String pools = PriorityRoutingDataSource.callWith(Priority.WRITE, () -> {
+            final String inner = PriorityRoutingDataSource.callWith(Priority.BULK, this::readPool);
+            return inner + "," + readPool();
+        });
+
+        //Validation
+        assertEquals("bulk,write", pools);
+    }
+
+    private String readPoolInTransaction() {
+        return transactionTemplate.execute(status -> readPool());
+    }
+
+    private String readPool() {
+        return jdbcTemplate.queryForObject("SELECT name FROM pool", String.class);
+    }
+
+    private static DataSource pool(final String name) {
+        final var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:pool-" + name + ";DB_CLOSE_DELAY=-1");
+        final var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS pool (name varchar(20))");
+        jdbcTemplate.update("DELETE FROM pool");
+        jdbcTemplate.update("INSERT INTO pool (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
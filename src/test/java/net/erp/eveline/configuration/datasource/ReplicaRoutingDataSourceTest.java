@@ -0,0 +1,234 @@
+package net.erp.eveline.configuration.datasource;
+
+import net.erp.eveline.common.limit.Priority;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicReference<String> client = new AtomicReference<>("user");
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private TransactionTemplate writeTransactionTemplate;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routingDataSource.destroy();
+    }
+
+    @Test
+    void readOnlyTransactionsAreBalancedOverTheReplicas() {
+        //Set up
+        setUp(Map.of("replica-1", node("replica-1"), "replica-2", node("replica-2")), Duration.ZERO);
+
+        //Execution
+        final List<String> nodes = IntStream.range(0, 4)
+                .mapToObj(idx -> readNodeInReadOnlyTransaction())
+                .collect(Collectors.toList());
+
+        //Validation
+        assertEquals(2, nodes.stream().filter("replica-1"::equals).count());
+        assertEquals(2, nodes.stream().filter("replica-2"::equals).count());
+    }
+
+    @Test
+    void bulkReadsTakeTheBulkPoolOfTheReplica() {
+        //Set up
+        setUp(Map.of("replica-1", node("replica-1")), Map.of("replica-1", node("replica-1-bulk")), Duration.ZERO);
+
+        //Execution
+        final String bulkNode = PriorityRoutingDataSource.callWith(Priority.BULK, this::readNodeInReadOnlyTransaction);
+        final String readNode = PriorityRoutingDataSource.callWith(Priority.READ, this::readNodeInReadOnlyTransaction);
+
+        //Validation
+        assertEquals("replica-1-bulk", bulkNode);
+        assertEquals("replica-1", readNode);
+    }
+
+    @Test
+    void writeTransactionsAndReadsOutsideTransactionsGoToThePrimary() {
+        //Set up
+        setUp(Map.of("replica-1", node("replica-1")), Duration.ZERO);
+
+        //Execution
+        final String writeNode = writeTransactionTemplate.execute(status -> readNode());
+
+        //Validation
+        assertEquals("primary", writeNode);
+        assertEquals("primary", readNode());
+    }
+
+    @Test
+    void readsAfterAWriteArePinnedToThePrimaryWithinTheWindow() {
+        //Set up
+        setUp(Map.of("replica-1", node("replica-1")), Duration.ofMinutes(1));
+
+        //Execution
+        writeTransactionTemplate.executeWithoutResult(status -> readNode());
+        final String pinnedNode = readNodeInReadOnlyTransaction();
+        client.set("other");
+        final String otherClientNode = readNodeInReadOnlyTransaction();
+
+        //Validation
+        assertEquals("primary", pinnedNode);
+        assertEquals("replica-1", otherClientNode);
+    }
+
+    @Test
+    void writesWithoutAClientDoNotPinThePrimary() {
+        //Set up
+        setUp(Map.of("replica-1", node("replica-1")), Duration.ofMinutes(1));
+        client.set(null);
+
+        //Execution
+        writeTransactionTemplate.executeWithoutResult(status -> readNode());
+        client.set("user");
+
+        //Validation
+        assertEquals("replica-1", readNodeInReadOnlyTransaction());
+    }
+
+    @Test
+    void connectionsWithCredentialsAreRoutedToo() {
+        //Set up
+        setUp(Map.of("replica-1", node("replica-1")), Duration.ZERO);
+
+        //Execution
+        final String node = readOnlyTransactionTemplate.execute(status -> {
+            try (var connection = routingDataSource.getConnection("", "");
+                 var resultSet = connection.createStatement().executeQuery("SELECT name FROM node")) {
+                resultSet.next();
+                return resultSet.getString(1);
+            } catch (final SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        //Validation
+        assertEquals("replica-1", node);
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinThePrimary() {
+        //Set up
+        setUp(Map.of("replica-1", node("replica-1")), Duration.ofMinutes(1));
+
+        //Execution
+        writeTransactionTemplate.executeWithoutResult(status -> {
+            readNode();
+            status.setRollbackOnly();
+        });
+
+        //Validation
+        assertEquals("replica-1", readNodeInReadOnlyTransaction());
+    }
+
+    @Test
+    void readOnlyTransactionsThatRequireThePrimaryAreNotRouted() {
+        //Set up
+        setUp(Map.of("replica-1", node("replica-1")), Duration.ZERO);
+
+        //Execution
+        final String primaryNode = readOnlyTransactionTemplate.execute(status -> {
+            ReplicaRoutingDataSource.requirePrimary();
+            return readNode();
+        });
+
+        //Validation
+        assertEquals("primary", primaryNode);
+        assertEquals("replica-1", readNodeInReadOnlyTransaction());
+    }
+
+    @Test
+    void unavailableReplicasAreSkippedUntilTheyPassTheHealthCheck() throws SQLException {
+        //Initialization
+        final DataSource brokenReplica = mock(DataSource.class);
+        final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("broken", brokenReplica);
+        replicas.put("replica-1", node("replica-1"));
+
+        //Set up
+        when(brokenReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        setUp(replicas, Duration.ZERO);
+
+        //Execution
+        final String fallbackNode = readNodeInReadOnlyTransaction();
+        final List<String> nodes = IntStream.range(0, 3)
+                .mapToObj(idx -> readNodeInReadOnlyTransaction())
+                .collect(Collectors.toList());
+
+        //Validation
+        assertEquals("primary", fallbackNode);
+        assertEquals(List.of("replica-1", "replica-1", "replica-1"), nodes);
+    }
+
+    @Test
+    void unhealthyReplicasFallBackToThePrimary() throws SQLException {
+        //Initialization
+        final DataSource brokenReplica = mock(DataSource.class);
+
+        //Set up
+        when(brokenReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        setUp(Map.of("broken", brokenReplica), Duration.ZERO);
+
+        //Execution
+        routingDataSource.checkReplicas();
+
+        //Validation
+        assertEquals("primary", readNodeInReadOnlyTransaction());
+    }
+
+    private void setUp(final Map<String, DataSource> replicas, final Duration readYourWritesWindow) {
+        setUp(replicas, Map.of(), readYourWritesWindow);
+    }
+
+    private void setUp(final Map<String, DataSource> replicas, final Map<String, DataSource> bulkReplicas,
+                       final Duration readYourWritesWindow) {
+        routingDataSource = new ReplicaRoutingDataSource(node("primary"), replicas, bulkReplicas, client::get,
+                readYourWritesWindow, Duration.ofMinutes(10), Duration.ofSeconds(1));
+        final var dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        final var transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        writeTransactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private String readNodeInReadOnlyTransaction() {
+        return readOnlyTransactionTemplate.execute(status -> readNode());
+    }
+
+    private String readNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource node(final String name) {
+        final var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        final var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name varchar(20))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
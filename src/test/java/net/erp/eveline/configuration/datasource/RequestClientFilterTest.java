@@ -0,0 +1,85 @@
+package net.erp.eveline.configuration.datasource;
+
+import net.erp.eveline.common.execution.RequestClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.Cookie;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestClientFilterTest {
+    private final RequestClientFilter filter = new RequestClientFilter();
+
+    @Test
+    void theClientHeaderWinsOverTheCookie() throws Exception {
+        //Initialization
+        final var request = new MockHttpServletRequest("GET", "/eveline-erp/product/");
+        request.addHeader(RequestClientFilter.CLIENT_HEADER, "terminal-1");
+        request.setCookies(new Cookie(RequestClientFilter.CLIENT_COOKIE, "browser-1"));
+        final var response = new MockHttpServletResponse();
+        final var client = new AtomicReference<String>();
+
+        //Execution
+        filter.doFilter(request, response, (req, res) -> client.set(RequestClient.get()));
+
+        //Validation
+        assertEquals("header:terminal-1", client.get());
+        assertNull(response.getCookie(RequestClientFilter.CLIENT_COOKIE));
+        assertNull(RequestClient.get());
+    }
+
+    @Test
+    void theClientCookieIsReused() throws Exception {
+        //Initialization
+        final var request = new MockHttpServletRequest("GET", "/eveline-erp/product/");
+        request.setCookies(new Cookie(RequestClientFilter.CLIENT_COOKIE, "browser-1"));
+        final var response = new MockHttpServletResponse();
+        final var client = new AtomicReference<String>();
+
+        //Execution
+        filter.doFilter(request, response, (req, res) -> client.set(RequestClient.get()));
+
+        //Validation
+        assertEquals("cookie:browser-1", client.get());
+        assertNull(response.getCookie(RequestClientFilter.CLIENT_COOKIE));
+    }
+
+    @Test
+    void clientsSendingNeitherAreGivenACookieOnAWrite() throws Exception {
+        //Initialization
+        final var request = new MockHttpServletRequest("POST", "/eveline-erp/product/");
+        request.setContextPath("/eveline-erp");
+        final var response = new MockHttpServletResponse();
+        final var client = new AtomicReference<String>();
+
+        //Execution
+        filter.doFilter(request, response, (req, res) -> client.set(RequestClient.get()));
+
+        //Validation
+        final Cookie cookie = response.getCookie(RequestClientFilter.CLIENT_COOKIE);
+        assertNotNull(cookie);
+        assertEquals("/eveline-erp", cookie.getPath());
+        assertEquals("cookie:" + cookie.getValue(), client.get());
+        assertNull(RequestClient.get());
+    }
+
+    @Test
+    void readsOfClientsSendingNeitherGoWithoutAClient() throws Exception {
+        //Initialization
+        final var request = new MockHttpServletRequest("GET", "/eveline-erp/product/");
+        final var response = new MockHttpServletResponse();
+        final var client = new AtomicReference<String>("unset");
+
+        //Execution
+        filter.doFilter(request, response, (req, res) -> client.set(RequestClient.get()));
+
+        //Validation
+        assertNull(client.get());
+        assertNull(response.getCookie(RequestClientFilter.CLIENT_COOKIE));
+    }
+}
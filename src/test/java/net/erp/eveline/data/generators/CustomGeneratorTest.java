@@ -0,0 +1,146 @@
+package net.erp.eveline.data.generators;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQL95Dialect;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.service.ServiceRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static net.erp.eveline.data.generators.CustomGenerator.BLOCK_SIZE_PARAMETER;
+import static net.erp.eveline.data.generators.CustomGenerator.MAX_ID_VALUE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomGeneratorTest {
+
+    @Mock
+    private ServiceRegistry serviceRegistry;
+
+    @Mock
+    private JdbcEnvironment jdbcEnvironment;
+
+    @Mock
+    private SharedSessionContractImplementor session;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private final CustomGenerator generator = new CustomGenerator();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(serviceRegistry.getService(JdbcEnvironment.class)).thenReturn(jdbcEnvironment);
+    }
+
+    @Test
+    void generateReservesBlocksWithASingleStatement() throws SQLException {
+        //Set up
+        when(jdbcEnvironment.getDialect()).thenReturn(new PostgreSQL95Dialect());
+        generator.configure(null, properties("3"), serviceRegistry);
+        when(session.connection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT nextval('provider_id_seq') FROM generate_series(1, ?) ORDER BY 1")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, true, false, true, true, true, false);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L, 3L, 4L, 5L, 6L);
+
+        //Execution
+        final List<Object> ids = IntStream.range(0, 5)
+                .mapToObj(idx -> generator.generate(session, null))
+                .collect(Collectors.toList());
+
+        //Validation
+        assertEquals(List.of("p00001", "p00002", "p00003", "p00004", "p00005"), ids);
+        verify(statement, times(2)).setInt(1, 3);
+        verify(statement, times(2)).executeQuery();
+        verify(statement, times(2)).close();
+        verify(resultSet, times(2)).close();
+    }
+
+    @Test
+    void generateWithoutGenerateSeriesReservesOneValuePerStatement() throws SQLException {
+        //Set up
+        final var dialect = new H2Dialect();
+        when(jdbcEnvironment.getDialect()).thenReturn(dialect);
+        generator.configure(null, properties("3"), serviceRegistry);
+        when(session.connection()).thenReturn(connection);
+        when(connection.prepareStatement(dialect.getSequenceNextValString("provider_id_seq"))).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false, true, false);
+        when(resultSet.getLong(1)).thenReturn(41L, 42L);
+
+        //Execution
+        assertEquals("p00041", generator.generate(session, null));
+        assertEquals("p00042", generator.generate(session, null));
+
+        //Validation
+        verify(statement, times(2)).executeQuery();
+        verify(statement, times(0)).setInt(1, 3);
+    }
+
+    @Test
+    void generateWrapsSqlExceptionIntoHibernateException() throws SQLException {
+        //Set up
+        when(jdbcEnvironment.getDialect()).thenReturn(new PostgreSQL95Dialect());
+        generator.configure(null, properties("3"), serviceRegistry);
+        when(session.connection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenThrow(new SQLException("Connection closed"));
+
+        //Execution
+        assertThrows(HibernateException.class, () -> generator.generate(session, null));
+    }
+
+    @Test
+    void configureWithInvalidBlockSizeThrowsMappingException() {
+        assertThrows(MappingException.class, () -> generator.configure(null, properties("0"), serviceRegistry));
+    }
+
+    @Test
+    void formatIdPadsUpToFiveDigitsAndWidensPastThem() {
+        assertEquals("s00042", CustomGenerator.formatId("s", 42L));
+        assertEquals("s99999", CustomGenerator.formatId("s", 99_999L));
+        assertEquals("s100000", CustomGenerator.formatId("s", 100_000L));
+        assertEquals("s9999999999", CustomGenerator.formatId("s", MAX_ID_VALUE));
+    }
+
+    @Test
+    void formatIdOutOfRangeThrowsHibernateException() {
+        assertThrows(HibernateException.class, () -> CustomGenerator.formatId("s", MAX_ID_VALUE + 1));
+        assertThrows(HibernateException.class, () -> CustomGenerator.formatId("s", 0L));
+    }
+
+    private Properties properties(final String blockSize) {
+        final var properties = new Properties();
+        properties.setProperty("prefix", "p");
+        properties.setProperty("sequence", "provider_id_seq");
+        properties.setProperty(BLOCK_SIZE_PARAMETER, blockSize);
+        return properties;
+    }
+}
@@ -0,0 +1,175 @@
+package net.erp.eveline.data.repository;
+
+import config.RepositoryTestConfiguration;
+import net.erp.eveline.common.mapper.ProductMapper;
+import net.erp.eveline.common.mapper.ProviderMapper;
+import net.erp.eveline.data.entity.Brand;
+import net.erp.eveline.data.entity.Product;
+import net.erp.eveline.data.entity.Provider;
+import net.erp.eveline.model.ProductModel;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.spatial.dialect.h2geodb.GeoDBDialect",
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=100",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ContextConfiguration(classes = {RepositoryTestConfiguration.class})
+@Sql(statements = {
+        "CREATE SEQUENCE IF NOT EXISTS brand_id_seq",
+        "CREATE SEQUENCE IF NOT EXISTS provider_id_seq",
+        "CREATE SEQUENCE IF NOT EXISTS product_id_seq"})
+class ProductRepositoryTest {
+
+    private static final int PRODUCTS = 10;
+    private static final int PROVIDERS_PER_PRODUCT = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Statistics statistics;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        final var brands = List.of(persistBrand(), persistBrand(), persistBrand());
+        products = IntStream.range(0, PRODUCTS)
+                .mapToObj(idx -> persistProduct(idx, brands.get(idx % brands.size())))
+                .collect(Collectors.toList());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllLoadsBrandsAndProvidersInOneStatement() {
+        final Set<ProductModel> productModels = ProductMapper.toModel(Set.copyOf(productRepository.findAll()));
+
+        assertEquals(PRODUCTS, productModels.size());
+        productModels.forEach(this::assertFullyMapped);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByProviderSetProviderIdLoadsAllProvidersOfTheProductInOneStatement() {
+        final var providerId = products.get(3).getProviderSet().iterator().next().getProviderId();
+
+        final Set<ProductModel> productModels = ProductMapper.toModel(productRepository.findByProviderSetProviderId(providerId));
+
+        assertEquals(1, productModels.size());
+        productModels.forEach(this::assertFullyMapped);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByIdLoadsBrandAndProvidersInOneStatement() {
+        final ProductModel productModel = ProductMapper.toModel(productRepository.findById(products.get(5).getProductId()).orElseThrow());
+
+        assertFullyMapped(productModel);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByUpcLoadsBrandAndProvidersInOneStatement() {
+        final ProductModel productModel = ProductMapper.toModel(productRepository.findByUpc(products.get(7).getUpc()).orElseThrow());
+
+        assertFullyMapped(productModel);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findPageOrderByIdBatchesBrandsAndProviders() {
+        final List<ProductModel> productModels = productRepository.findPageOrderById("", PRODUCTS)
+                .stream()
+                .map(ProductMapper::toModel)
+                .collect(Collectors.toList());
+
+        assertEquals(PRODUCTS, productModels.size());
+        productModels.forEach(this::assertFullyMapped);
+        // page rows, one batch for the brands and one batch for the provider sets
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updatingProvidersWritesOnlyTheChangedAssignations() {
+        final var addedProvider = persistProvider();
+        entityManager.flush();
+        final var product = productRepository.findById(products.get(2).getProductId()).orElseThrow();
+        final ProductModel productModel = ProductMapper.toModel(product);
+        final var keptProviderModel = productModel.getProviderSet().iterator().next();
+        productModel.setProviderSet(Set.of(keptProviderModel, ProviderMapper.toModel(addedProvider)));
+        statistics.clear();
+
+        ProductMapper.toEntity(product, productModel, List.of(addedProvider));
+        entityManager.flush();
+
+        // one DELETE for the removed provider and one INSERT for the added one, the product row is untouched
+        assertEquals(2, statistics.getPrepareStatementCount());
+        entityManager.clear();
+        assertEquals(Set.of(keptProviderModel.getId(), addedProvider.getProviderId()),
+                productRepository.findById(product.getProductId()).orElseThrow()
+                        .getProviderSet()
+                        .stream()
+                        .map(Provider::getProviderId)
+                        .collect(Collectors.toSet()));
+    }
+
+    private void assertFullyMapped(final ProductModel productModel) {
+        assertEquals("brand", productModel.getBrand().getName());
+        assertEquals(PROVIDERS_PER_PRODUCT, productModel.getProviderSet().size());
+    }
+
+    private Brand persistBrand() {
+        return entityManager.persist(new Brand()
+                .setName("brand")
+                .setDescription("brand description")
+                .setLastUser("user")
+                .setEnabled(true));
+    }
+
+    private Provider persistProvider() {
+        return entityManager.persist(new Provider()
+                .setName("provider")
+                .setEmail("test@test.com")
+                .setTelephone1("12345678")
+                .setLastUser("user")
+                .setEnabled(true));
+    }
+
+    private Product persistProduct(final int idx, final Brand brand) {
+        final Set<Provider> providers = IntStream.range(0, PROVIDERS_PER_PRODUCT)
+                .mapToObj(providerIdx -> persistProvider())
+                .collect(Collectors.toSet());
+        return entityManager.persist(new Product()
+                .setBrand(brand)
+                .setProviderSet(providers)
+                .setUpc(String.format("%012d", idx))
+                .setTitle("product")
+                .setLastUser("user")
+                .setEnabled(true));
+    }
+}
@@ -0,0 +1,88 @@
+package net.erp.eveline.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import net.erp.eveline.model.ProviderModel;
+import org.junit.jupiter.api.Test;
+import org.owasp.esapi.errors.IntrusionException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XSSAdversarialTest {
+    private static final Duration SANITIZATION_LIMIT = Duration.ofSeconds(5);
+
+    @Test
+    void encodedMarkupIsDecodedBeforeItIsStripped() {
+        //Validation
+        assertEquals("", XSSUtils.stripXSS("&lt;script&gt;alert(1)&lt;/script&gt;"));
+        assertEquals("", XSSUtils.stripXSS("%3Cscript%3Ealert(1)%3C%2Fscript%3E"));
+        assertEquals("", XSSUtils.stripXSS("<scr\0ipt>alert(1)</scr\0ipt>"));
+        assertEquals("", XSSUtils.stripXSS("<img src=x onerror=alert(1)>"));
+        assertEquals("click", XSSUtils.stripXSS("<a href=\"javascript:alert(1)\">click</a>"));
+        assertFalse(XSSUtils.stripXSS("<img src=x onerror=alert(1)").contains("<"));
+    }
+
+    @Test
+    void multipleEncodingIsRejected() {
+        //Validation
+        assertThrows(IntrusionException.class, () -> XSSUtils.stripXSS("%253Cscript%253Ealert(1)%253C%252Fscript%253E"));
+    }
+
+    @Test
+    void deeplyNestedTagsAreStrippedInBoundedTime() {
+        //Initialization
+        final var nestedTags = "<div><span>".repeat(2000) + "texto" + "</span></div>".repeat(2000);
+
+        //Execution
+        final var sanitized = assertTimeoutPreemptively(SANITIZATION_LIMIT, () -> XSSUtils.stripXSS(nestedTags));
+
+        //Validation
+        assertEquals("texto", sanitized.trim());
+    }
+
+    @Test
+    void longEncodedSequencesAreStrippedInBoundedTime() {
+        //Initialization
+        final var encodedScripts = "&lt;script&gt;alert(1)&lt;/script&gt;".repeat(5000);
+        final var unclosedTags = "<img src=x onerror=alert(1) ".repeat(5000);
+
+        //Execution
+        final var sanitizedScripts = assertTimeoutPreemptively(SANITIZATION_LIMIT, () -> XSSUtils.stripXSS(encodedScripts));
+        final var sanitizedTags = assertTimeoutPreemptively(SANITIZATION_LIMIT, () -> XSSUtils.stripXSS(unclosedTags));
+
+        //Validation
+        assertFalse(sanitizedScripts.contains("<"));
+        assertFalse(sanitizedTags.contains("<"));
+    }
+
+    @Test
+    void everyValueOfALargeBodyIsSanitized() throws Exception {
+        //Initialization
+        final var objectMapper = new ObjectMapper().registerModule(new XSSModule());
+        final var providers = JsonNodeFactory.instance.arrayNode();
+        IntStream.range(0, 1000).forEach(idx -> providers.addObject()
+                .put("id", String.format("p%05d", idx))
+                .put("name", "provName <script>alert('XSS')</script>")
+                .put("description", "descripciÃ³n <b onmouseover=alert('XSS')>click me!</b>"));
+        final var body = objectMapper.writeValueAsString(providers);
+
+        //Execution
+        final List<ProviderModel> providerModels = assertTimeoutPreemptively(SANITIZATION_LIMIT,
+                () -> objectMapper.readValue(body, new TypeReference<List<ProviderModel>>() {
+                }));
+
+        //Validation
+        assertEquals(1000, providerModels.size());
+        assertTrue(providerModels.stream().allMatch(providerModel -> "provName ".equals(providerModel.getName())
+                && "descripción click me!".equals(providerModel.getDescription())));
+    }
+}
@@ -0,0 +1,48 @@
+package net.erp.eveline.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.erp.eveline.controller.ProviderController;
+import net.erp.eveline.model.ProviderModel;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XSSMessageConverterTest {
+
+    @Test
+    void onlyTheBodiesOfTheBusinessControllersAreRead() {
+        //Initialization
+        final var converter = new XSSMessageConverter(new ObjectMapper());
+
+        //Validation
+        assertTrue(converter.canRead(ProviderModel.class, ProviderController.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(ProviderModel.class, XSSMessageConverterTest.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(ProviderModel.class, null, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(ProviderModel.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(ProviderModel.class, ProviderModel.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(ProviderModel.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void bodiesAreSanitizedWithoutChangingTheApplicationMapper() throws IOException {
+        //Initialization
+        final var objectMapper = new ObjectMapper();
+        final var converter = new XSSMessageConverter(objectMapper);
+        final var body = "{\"id\":\"p00001\",\"name\":\"provName <script>alert('XSS')</script>\"}";
+
+        //Execution
+        final var providerModel = (ProviderModel) converter.read(ProviderModel.class, ProviderController.class,
+                new MockHttpInputMessage(body.getBytes(StandardCharsets.UTF_8)));
+
+        //Validation
+        assertEquals("provName ", providerModel.getName());
+        assertEquals("provName <script>alert('XSS')</script>", objectMapper.readValue(body, ProviderModel.class).getName());
+    }
+}
@@ -0,0 +1,51 @@
+package net.erp.eveline.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XSSRequestWrapperTest {
+
+    @Test
+    void headersAndParametersAreSanitizedOncePerRequest() {
+        //Initialization
+        final var request = new MockHttpServletRequest("GET", "/eveline-erp/product/");
+        request.addHeader("Accept", "application/json");
+        request.addHeader("header_1", "<body onload=alert('XSS')>Hello header");
+        request.addHeader("header_2", "first <b>value</b>,second");
+        request.addParameter("upc", "<script>alert('XSS')</script>012345678905");
+        request.addParameter("provider", "p00001", "<b>p00002</b>");
+
+        //Execution
+        final var wrapper = new XSSRequestWrapper(request);
+
+        //Validation
+        assertSame(request.getHeader("Accept"), wrapper.getHeader("Accept"));
+        assertEquals("Hello header", wrapper.getHeader("header_1"));
+        assertSame(wrapper.getHeader("header_1"), wrapper.getHeader("header_1"));
+        assertEquals(List.of("first value", "second"), Collections.list(wrapper.getHeaders("header_2")));
+        assertEquals("012345678905", wrapper.getParameter("upc"));
+        assertArrayEquals(new String[]{"p00001", "p00002"}, wrapper.getParameterValues("provider"));
+        assertNull(wrapper.getHeader("missing"));
+        assertNull(wrapper.getParameterValues("missing"));
+    }
+
+    @Test
+    void onlyTheAdminServerRoutesAreExcluded() {
+        //Validation
+        assertTrue(XSSFilter.isExcluded("/eveline-erp/sba/instances"));
+        assertTrue(XSSFilter.isExcluded("/sba/"));
+        assertFalse(XSSFilter.isExcluded("/sba"));
+        assertFalse(XSSFilter.isExcluded("/eveline-erp/product/sba"));
+        assertFalse(XSSFilter.isExcluded("/eveline-erp/product/"));
+    }
+}
@@ -0,0 +1,83 @@
+package net.erp.eveline.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.erp.eveline.model.ProviderModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XSSUtilsTest {
+
+    @Test
+    void repairMojibakeRepairsEveryLetterInASinglePass() {
+        //Validation
+        assertEquals("Acción de café en Ñandú", XSSUtils.repairMojibake("AcciÃ³n de cafÃ© en Ã‘andÃº"));
+        assertEquals("Árbol Índice Ópalo Único Éter", XSSUtils.repairMojibake("Ã\u0081rbol Ã\u008Dndice Ã“palo Ãšnico Ã‰ter"));
+        assertEquals("niño", XSSUtils.repairMojibake("niÃ±o"));
+        assertEquals("a la", XSSUtils.repairMojibake("Ã\u00A0 la"));
+        assertEquals("a la", XSSUtils.sanitize("Ã\u00A0 <b>la</b>"));
+    }
+
+    @Test
+    void repairMojibakeKeepsValuesWithoutMojibake() {
+        //Initialization
+        final String value = "Leche entera 1L";
+
+        //Validation
+        assertSame(value, XSSUtils.repairMojibake(value));
+        assertEquals("SÃO PAULO Ã", XSSUtils.repairMojibake("SÃO PAULO Ã"));
+        assertNull(XSSUtils.repairMojibake(null));
+    }
+
+    @Test
+    void jsonStringValuesAreSanitizedWhileDeserialized() throws JsonProcessingException {
+        //Initialization
+        final var objectMapper = new ObjectMapper().registerModule(new XSSModule());
+        final var body = "{\"id\":\"p00001\",\"name\":\"provName <script>alert('XSS')</script>\"," +
+                "\"description\":\"descripciÃ³n <b onmouseover=alert('XSS')>click me!</b>\"}";
+
+        //Execution
+        final var providerModel = objectMapper.readValue(body, ProviderModel.class);
+
+        //Validation
+        assertEquals("p00001", providerModel.getId());
+        assertEquals("provName ", providerModel.getName());
+        assertEquals("descripción click me!", providerModel.getDescription());
+    }
+
+    @Test
+    void safeValuesSkipSanitizationAndAreLeftAsTheFullSanitizationWouldLeaveThem() {
+        //Initialization
+        final var safeValues = List.of("application/json", "gzip, deflate, br",
+                "text/html,application/xhtml+xml,*/*;q=0.8", "Mozilla/5.0 (X11; Linux x86_64) Firefox/89.0",
+                "Basic dXNlcjpwYXNzd29yZA==", "JSESSIONID=ABC123; XSRF-TOKEN=a1-b2", "Acción de café", "p00001", "");
+
+        //Validation
+        safeValues.forEach(value -> {
+            assertTrue(XSSUtils.isSafe(value), value);
+            assertSame(value, XSSUtils.stripXSS(value));
+            assertEquals(XSSUtils.stripXSSFully(value), value);
+        });
+    }
+
+    @Test
+    void unsafeValuesAreFullySanitized() {
+        //Initialization
+        final var unsafeValues = List.of("<script>alert('XSS')</script>", "%3Cscript%3E", "&lt;b&gt;", "a\\u003c",
+                "say \"hi\"", "it's", "two  spaces", " leading", "trailing ", "tab\tvalue", "no\u00A0break", "nul\0");
+
+        //Validation
+        unsafeValues.forEach(value -> {
+            assertFalse(XSSUtils.isSafe(value), value);
+            assertEquals(XSSUtils.stripXSSFully(value), XSSUtils.stripXSS(value));
+        });
+        assertEquals("", XSSUtils.stripXSS("<script>alert('XSS')</script>"));
+    }
+}
@@ -1,14 +1,21 @@
 package net.erp.eveline.service.brand;
 
 import config.ServiceTestConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import net.erp.eveline.common.TransactionService;
+import net.erp.eveline.common.cache.EntityCache;
 import net.erp.eveline.common.exception.BadRequestException;
 import net.erp.eveline.common.exception.NonRetryableException;
 import net.erp.eveline.common.exception.NotFoundException;
 import net.erp.eveline.common.exception.RetryableException;
+import net.erp.eveline.common.pagination.PageCursor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.data.entity.Brand;
+import net.erp.eveline.data.repository.ActivationRepository;
 import net.erp.eveline.data.repository.BrandRepository;
 import net.erp.eveline.model.ActiveBrandModel;
+import net.erp.eveline.model.BatchItemModel;
+import net.erp.eveline.model.PageModel;
 import net.erp.eveline.model.BrandModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,20 +28,26 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import javax.persistence.OptimisticLockException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static java.util.Optional.*;
 import static java.util.Optional.of;
+import static net.erp.eveline.common.execution.Futures.join;
 import static net.erp.eveline.common.mapper.BrandMapper.toActiveModel;
 import static net.erp.eveline.common.mapper.BrandMapper.toModel;
+import static net.erp.eveline.common.predicate.CommonPredicates.ACTIVE_SET_ID_REPEATED_MESSAGE;
+import static net.erp.eveline.data.repository.ActivationRepository.ActivationTable.BRAND;
+import static net.erp.eveline.model.BatchItemModel.Outcome.INSERTED;
+import static net.erp.eveline.model.BatchItemModel.Outcome.UPDATED;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
@@ -46,6 +59,9 @@ public class BrandServiceImplTest {
     @Mock
     private BrandRepository brandRepository;
 
+    @Mock
+    private ActivationRepository activationRepository;
+
 
     @Autowired
     private TransactionService transactionService;
@@ -57,6 +73,7 @@ public class BrandServiceImplTest {
     @BeforeEach
     void setUp() {
         service.setTransactionService(transactionService);
+        service.setBrandCache(new EntityCache<>("brand", 100, Duration.ofMinutes(1), brand -> 0, new SimpleMeterRegistry()));
     }
 
     @Test
@@ -120,6 +137,34 @@ public class BrandServiceImplTest {
         verify(brandRepository, times(1)).findById(any(String.class));
     }
 
+    @Test
+    void getBrandModelIsServedFromTheCacheUntilTheBrandIsUpdated() {
+        //Initialization
+        final String brandId = "b00001";
+        final var brandModel = new BrandModel()
+                .setId(brandId)
+                .setName("renamed brand")
+                .setLastUser("user")
+                .setDescription("brand description")
+                .setEnabled(true);
+
+        //Set up
+        when(brandRepository.findById(brandId)).thenReturn(of(mockBrand(1)), of(mockBrand(1).setName("renamed brand")));
+        when(brandRepository.existsById(brandId)).thenReturn(true);
+        when(brandRepository.save(any(Brand.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //Execution
+        service.getBrandModel(brandId).setName("changed by the caller");
+        final BrandModel cachedBrandModel = service.getBrandModel(brandId);
+        join(service.upsertBrandModel(brandModel));
+        final BrandModel updatedBrandModel = service.getBrandModel(brandId);
+
+        //Validation
+        verify(brandRepository, times(2)).findById(brandId);
+        assertEquals("brand", cachedBrandModel.getName());
+        assertEquals("renamed brand", updatedBrandModel.getName());
+    }
+
     @Test
     void getBrandModelNotFoundEntityThrowsNotFoundException() {
         final String brandId = "b00001";
@@ -156,7 +201,7 @@ public class BrandServiceImplTest {
 
     @Test
     void upsertBrandModelWithNullModelThrowsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> service.upsertBrandModel(null));
+        assertThrows(NullPointerException.class, () -> join(service.upsertBrandModel(null)));
         verify(brandRepository, times(0)).save(any(Brand.class));
         verify(brandRepository, times(0)).findById(any(String.class));
     }
@@ -173,7 +218,7 @@ public class BrandServiceImplTest {
 
         when(brandRepository.save(any(Brand.class))).thenReturn(brand);
 
-        var resultModel = service.upsertBrandModel(brandModel);
+        var resultModel = join(service.upsertBrandModel(brandModel));
         assertEquals(toModel(brand), resultModel);
         verify(brandRepository, times(1)).save(any(Brand.class));
         verify(brandRepository, times(0)).findById(any(String.class));
@@ -188,7 +233,7 @@ public class BrandServiceImplTest {
                 .setDescription("")
                 .setEnabled(true);
 
-        assertThrows(BadRequestException.class, () -> service.upsertBrandModel(brandModel));
+        assertThrows(BadRequestException.class, () -> join(service.upsertBrandModel(brandModel)));
         verify(brandRepository, times(0)).save(any(Brand.class));
         verify(brandRepository, times(0)).findById(any(String.class));
     }
@@ -203,7 +248,7 @@ public class BrandServiceImplTest {
 
         when(brandRepository.save(any(Brand.class))).thenThrow(new OptimisticLockException("Optimistic lock test"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.upsertBrandModel(brandModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.upsertBrandModel(brandModel)));
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(brandRepository, times(4)).save(any(Brand.class));
         verify(brandRepository, times(0)).findById(any(String.class));
@@ -221,7 +266,7 @@ public class BrandServiceImplTest {
         when(brandRepository.existsById("b00001")).thenReturn(true);
         when(brandRepository.save(any(Brand.class))).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.upsertBrandModel(brandModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.upsertBrandModel(brandModel)));
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(brandRepository, times(1)).save(any(Brand.class));
         verify(brandRepository, times(1)).existsById(any(String.class));
@@ -238,7 +283,7 @@ public class BrandServiceImplTest {
 
         when(brandRepository.existsById("b00001")).thenThrow(new OptimisticLockException("Optimistic lock test"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.upsertBrandModel(brandModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.upsertBrandModel(brandModel)));
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(brandRepository, times(0)).save(any(Brand.class));
         verify(brandRepository, times(4)).existsById(any(String.class));
@@ -254,7 +299,7 @@ public class BrandServiceImplTest {
                 .setEnabled(true);
         when(brandRepository.existsById("b00001")).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.upsertBrandModel(brandModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.upsertBrandModel(brandModel)));
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(brandRepository, times(0)).save(any(Brand.class));
         verify(brandRepository, times(1)).existsById(any(String.class));
@@ -276,7 +321,7 @@ public class BrandServiceImplTest {
         when(brandRepository.findById("b00001")).thenReturn(of(mockBrand));
         when(brandRepository.save(any(Brand.class))).thenReturn(resultMock);
 
-        var result = service.activateBrand(activeBrandModel);
+        var result = join(service.activateBrand(activeBrandModel));
 
         assertEquals(toActiveModel(resultMock), result);
         verify(brandRepository, times(1)).save(any(Brand.class));
@@ -285,7 +330,7 @@ public class BrandServiceImplTest {
 
     @Test
     void activateBrandNullModelThrowsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> service.activateBrand(null));
+        assertThrows(NullPointerException.class, () -> join(service.activateBrand(null)));
         verify(brandRepository, times(0)).save(any(Brand.class));
         verify(brandRepository, times(0)).findById(any(String.class));
     }
@@ -297,7 +342,7 @@ public class BrandServiceImplTest {
                 .setLastUser("")
                 .setEnabled(null);
 
-        var ex = assertThrows(BadRequestException.class, () -> service.activateBrand(activeBrandModel));
+        var ex = assertThrows(BadRequestException.class, () -> join(service.activateBrand(activeBrandModel)));
 
         assertEquals(BadRequestException.class, getRootCause(ex).getClass());
         verify(brandRepository, times(0)).save(any(Brand.class));
@@ -313,7 +358,7 @@ public class BrandServiceImplTest {
 
         when(brandRepository.findById("b00001")).thenThrow(new OptimisticLockException("Optimistic lock exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateBrand(activeBrandModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.activateBrand(activeBrandModel)));
 
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(brandRepository, times(0)).save(any(Brand.class));
@@ -329,7 +374,7 @@ public class BrandServiceImplTest {
 
         when(brandRepository.findById("b00001")).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateBrand(activeBrandModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateBrand(activeBrandModel)));
 
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(brandRepository, times(0)).save(any(Brand.class));
@@ -345,7 +390,7 @@ public class BrandServiceImplTest {
 
         when(brandRepository.findById("b00001")).thenReturn(empty());
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateBrand(activeBrandModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateBrand(activeBrandModel)));
 
         assertEquals(NotFoundException.class, getRootCause(ex).getClass());
         verify(brandRepository, times(0)).save(any(Brand.class));
@@ -364,7 +409,7 @@ public class BrandServiceImplTest {
         when(brandRepository.findById("b00001")).thenReturn(of(mockBrand));
         when(brandRepository.save(any(Brand.class))).thenThrow(new OptimisticLockException("Optimistic lock exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateBrand(activeBrandModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.activateBrand(activeBrandModel)));
 
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(brandRepository, times(4)).save(any(Brand.class));
@@ -384,7 +429,7 @@ public class BrandServiceImplTest {
 
         when(brandRepository.save(any(Brand.class))).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateBrand(activeBrandModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateBrand(activeBrandModel)));
 
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(brandRepository, times(1)).save(any(Brand.class));
@@ -393,219 +438,166 @@ public class BrandServiceImplTest {
 
     @Test
     void activateBrandSetSuccessfulRequest() {
-        var activeBrandModel1 = new ActiveBrandModel()
-                .setId("b00000")
-                .setLastUser("user")
-                .setEnabled(true);
-
-        var activeBrandModel2 = new ActiveBrandModel()
+        //Initialization
+        final var activeBrandModel1 = new ActiveBrandModel()
                 .setId("b00001")
-                .setLastUser("user")
+                .setLastUser("eavendano")
+                .setEnabled(true);
+        final var activeBrandModel2 = new ActiveBrandModel()
+                .setId("b00002")
+                .setLastUser("eavendano")
                 .setEnabled(false);
 
-        final var brandList = mockBrandList(2);
-        final var mockBrand1 = brandList.get(0);
-        final var mockBrand2 = brandList.get(1);
-
-        final var resultBrandList = mockBrandList(2);
-        final var resultMock1 = resultBrandList.get(0);
-        resultMock1.setLastUser("user");
-        resultMock1.setEnabled(true);
-
-        final var resultMock2 = resultBrandList.get(1);
-        resultMock1.setLastUser("user");
-        resultMock1.setEnabled(true);
-
-        when(brandRepository.existsAllByBrandIdIn(anySet())).thenReturn(true);
-        when(brandRepository.findAllById(anySet())).thenReturn(List.of(mockBrand1, mockBrand2));
-        when(brandRepository.saveAll(anySet())).thenReturn(List.of(resultMock1, resultMock2));
+        //Set up
+        when(activationRepository.<ActiveBrandModel>activate(eq(BRAND), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(List.of(activeBrandModel1, activeBrandModel2));
 
-        var result = service.activateBrandSet(Set.of(activeBrandModel1, activeBrandModel2));
+        //Execution
+        final var result = join(service.activateBrandSet(Set.of(activeBrandModel1, activeBrandModel2)));
 
-        assertIterableEquals(toActiveModel(Set.of(resultMock1, resultMock2)), result);
-        verify(brandRepository, times(1)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(1)).findAllById(anySet());
-        verify(brandRepository, times(1)).saveAll(anySet());
+        //Validation
+        assertEquals(Set.of(activeBrandModel1, activeBrandModel2), result);
+        verify(activationRepository, times(1)).activate(eq(BRAND), anyCollection(), any(), any(), any(), any());
+        verify(brandRepository, times(0)).findAllById(anySet());
+        verify(brandRepository, times(0)).saveAll(anySet());
     }
 
     @Test
     void activateBrandSetWithEmptySetReturnsEmptySet() {
-        var result = service.activateBrandSet(emptySet());
+        final var result = join(service.activateBrandSet(emptySet()));
 
-        assertIterableEquals(emptySet(), result);
-        verify(brandRepository, times(0)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(0)).findAllById(anySet());
-        verify(brandRepository, times(0)).saveAll(anySet());
+        assertEquals(emptySet(), result);
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
     void activateBrandSetNullModelThrowsNullPointerException() {
-        var ex = assertThrows(NullPointerException.class, () -> service.activateBrandSet(null));
-        verify(brandRepository, times(0)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(0)).findAllById(anySet());
-        verify(brandRepository, times(0)).saveAll(anySet());
+        assertThrows(NullPointerException.class, () -> join(service.activateBrandSet(null)));
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
     void activateBrandSetThrowsBadRequestException() {
-        var activeBrandModel = new ActiveBrandModel()
+        final var activeBrandModel = new ActiveBrandModel()
                 .setId("")
                 .setLastUser("")
                 .setEnabled(null);
 
-        var ex = assertThrows(BadRequestException.class, () -> service.activateBrandSet(Set.of(activeBrandModel)));
+        final var ex = assertThrows(BadRequestException.class, () -> join(service.activateBrandSet(Set.of(activeBrandModel))));
 
         assertEquals(BadRequestException.class, getRootCause(ex).getClass());
-        verify(brandRepository, times(0)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(0)).findAllById(anySet());
-        verify(brandRepository, times(0)).saveAll(anySet());
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateBrandSetExistByIdFailsThrowsRetryableException() {
-        var activeBrandModel = new ActiveBrandModel()
+    void activateBrandSetWithRepeatedIdThrowsBadRequestException() {
+        final var activeBrandModel1 = new ActiveBrandModel()
                 .setId("b00001")
-                .setLastUser("user")
+                .setLastUser("eavendano")
                 .setEnabled(true);
-
-        when(brandRepository.existsAllByBrandIdIn(Set.of("b00001"))).thenThrow(new OptimisticLockException("Optimistic lock exception"));
-
-        var ex = assertThrows(RetryableException.class, () -> service.activateBrandSet(Set.of(activeBrandModel)));
-
-        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
-        verify(brandRepository, times(4)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(0)).findAllById(anySet());
-        verify(brandRepository, times(0)).saveAll(anySet());
-    }
-
-    @Test
-    void activateBrandExistsByIdFailsThrowsNonRetryableException() {
-        var activeBrandModel = new ActiveBrandModel()
+        final var activeBrandModel2 = new ActiveBrandModel()
                 .setId("b00001")
-                .setLastUser("user")
-                .setEnabled(true);
-
-        when(brandRepository.existsAllByBrandIdIn(Set.of("b00001"))).thenThrow(new RuntimeException("Regular exception test."));
+                .setLastUser("eavendano")
+                .setEnabled(false);
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateBrandSet(Set.of(activeBrandModel)));
+        final var ex = assertThrows(BadRequestException.class, () -> join(service.activateBrandSet(Set.of(activeBrandModel1, activeBrandModel2))));
 
-        assertEquals(RuntimeException.class, getRootCause(ex).getClass());
-        verify(brandRepository, times(1)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(0)).findAllById(anySet());
-        verify(brandRepository, times(0)).saveAll(anySet());
+        assertEquals(ACTIVE_SET_ID_REPEATED_MESSAGE, ex.getMessage());
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateBrandExistsByIdFailsThrowsNotFoundException() {
-        var activeBrandModel = new ActiveBrandModel()
+    void activateBrandSetMissingIdThrowsNotFoundException() {
+        final var activeBrandModel1 = new ActiveBrandModel()
                 .setId("b00001")
-                .setLastUser("user")
+                .setLastUser("eavendano")
+                .setEnabled(true);
+        final var activeBrandModel2 = new ActiveBrandModel()
+                .setId("b00002")
+                .setLastUser("eavendano")
                 .setEnabled(true);
 
-        when(brandRepository.existsAllByBrandIdIn(Set.of("b00001"))).thenReturn(false);
+        when(activationRepository.<ActiveBrandModel>activate(eq(BRAND), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(List.of(activeBrandModel1));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateBrandSet(Set.of(activeBrandModel)));
+        final var ex = assertThrows(NonRetryableException.class, () -> join(service.activateBrandSet(Set.of(activeBrandModel1, activeBrandModel2))));
 
         assertEquals(NotFoundException.class, getRootCause(ex).getClass());
-        verify(brandRepository, times(1)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(0)).findAllById(anySet());
-        verify(brandRepository, times(0)).saveAll(anySet());
+        assertTrue(getRootCause(ex).getMessage().contains("b00002"));
+        verify(activationRepository, times(1)).activate(eq(BRAND), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateBrandSetFindAllByIdFailsThrowsRetryableException() {
-        var activeBrandModel = new ActiveBrandModel()
+    void activateBrandSetActivateFailsThrowsRetryableException() {
+        final var activeBrandModel = new ActiveBrandModel()
                 .setId("b00001")
-                .setLastUser("user")
+                .setLastUser("eavendano")
                 .setEnabled(true);
 
-        when(brandRepository.existsAllByBrandIdIn(anySet())).thenReturn(true);
-        when(brandRepository.findAllById(anySet())).thenThrow(new OptimisticLockException("Optimistic lock exception"));
+        when(activationRepository.<ActiveBrandModel>activate(eq(BRAND), anyCollection(), any(), any(), any(), any()))
+                .thenThrow(new OptimisticLockException("Optimistic lock exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateBrandSet(Set.of(activeBrandModel)));
+        final var ex = assertThrows(RetryableException.class, () -> join(service.activateBrandSet(Set.of(activeBrandModel))));
 
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
-        verify(brandRepository, times(4)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(4)).findAllById(anySet());
-        verify(brandRepository, times(0)).saveAll(anySet());
+        verify(activationRepository, times(4)).activate(eq(BRAND), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateBrandFindAllByIdFailsThrowsNonRetryableException() {
-        var activeBrandModel = new ActiveBrandModel()
+    void activateBrandSetActivateFailsThrowsNonRetryableException() {
+        final var activeBrandModel = new ActiveBrandModel()
                 .setId("b00001")
-                .setLastUser("user")
+                .setLastUser("eavendano")
                 .setEnabled(true);
 
-        when(brandRepository.existsAllByBrandIdIn(anySet())).thenReturn(true);
-        when(brandRepository.findAllById(anySet())).thenThrow(new RuntimeException("Regular exception test."));
+        when(activationRepository.<ActiveBrandModel>activate(eq(BRAND), anyCollection(), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateBrandSet(Set.of(activeBrandModel)));
+        final var ex = assertThrows(NonRetryableException.class, () -> join(service.activateBrandSet(Set.of(activeBrandModel))));
 
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
-        verify(brandRepository, times(1)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(1)).findAllById(anySet());
-        verify(brandRepository, times(0)).saveAll(anySet());
-    }
-
-    @Test
-    void activateBrandFindAllByIdFailsThrowsNotFoundException() {
-        var activeBrandModel = new ActiveBrandModel()
-                .setId("b00001")
-                .setLastUser("user")
-                .setEnabled(true);
-
-        when(brandRepository.existsAllByBrandIdIn(Set.of("b00001"))).thenReturn(true);
-        when(brandRepository.findAllById(anySet())).thenReturn(emptyList());
-
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateBrandSet(Set.of(activeBrandModel)));
-
-        assertEquals(NotFoundException.class, getRootCause(ex).getClass());
-        verify(brandRepository, times(1)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(1)).findAllById(anySet());
-        verify(brandRepository, times(0)).saveAll(anySet());
+        verify(activationRepository, times(1)).activate(eq(BRAND), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateBrandSaveAllFailsThrowsRetryableException() {
-        var activeBrandModel = new ActiveBrandModel()
-                .setId("b00000")
-                .setLastUser("user")
-                .setEnabled(true);
-
-        final var mockBrand = mockBrandList(1).get(0);
+    void findPageByIdReturnsNextCursorWhenMoreRowsExist() {
+        //Initialization
+        final int size = 2;
 
-        when(brandRepository.existsAllByBrandIdIn(anySet())).thenReturn(true);
-        when(brandRepository.findAllById(anySet())).thenReturn(List.of(mockBrand));
-        when(brandRepository.saveAll(anySet())).thenThrow(new OptimisticLockException("Optimistic lock exception"));
+        //Set up
+        final var mockBrandList = mockBrandList(size + 1);
+        when(brandRepository.findPageOrderById("", size + 1)).thenReturn(mockBrandList);
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateBrandSet(Set.of(activeBrandModel)));
+        //Execution
+        final PageModel<BrandModel> page = service.findPage(null, size, PageSort.ID);
 
-        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
-        verify(brandRepository, times(4)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(4)).findAllById(anySet());
-        verify(brandRepository, times(4)).saveAll(anySet());
+        //Validation
+        verify(brandRepository, times(1)).findPageOrderById("", size + 1);
+        assertEquals(size, page.getSize());
+        assertEquals(toModel(mockBrandList.get(0)), page.getItems().get(0));
+        assertEquals(PageCursor.after(PageSort.ID, "b00001", null).encode(), page.getNextCursor());
     }
 
     @Test
-    void activateBrandSaveAllFailsThrowsNonRetryableException() {
-        var activeBrandModel = new ActiveBrandModel()
-                .setId("b00000")
-                .setLastUser("user")
-                .setEnabled(true);
-
-        final var mockBrand = mockBrandList(1).get(0);
+    void upsertBrandModelsSavesEveryValidItemAtOnce() {
+        //Initialization
+        final List<Brand> brands = mockBrandList(2);
+        final var insertModel = toModel(brands.get(0)).setId(null);
+        final var updateModel = toModel(brands.get(1));
 
-        when(brandRepository.existsAllByBrandIdIn(anySet())).thenReturn(true);
-        when(brandRepository.findAllById(anySet())).thenReturn(List.of(mockBrand));
-        when(brandRepository.saveAll(anySet())).thenThrow(new RuntimeException("Regular exception test."));
+        //Set up
+        when(brandRepository.findAllById(anySet())).thenReturn(List.of(brands.get(1)));
+        when(brandRepository.saveAll(anyList())).thenReturn(brands);
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateBrandSet(Set.of(activeBrandModel)));
+        //Execution
+        final List<BatchItemModel<BrandModel>> results = join(service.upsertBrandModels(List.of(insertModel, updateModel)));
 
-        assertEquals(RuntimeException.class, getRootCause(ex).getClass());
-        verify(brandRepository, times(1)).existsAllByBrandIdIn(anySet());
-        verify(brandRepository, times(1)).findAllById(anySet());
-        verify(brandRepository, times(1)).saveAll(anySet());
+        //Validation
+        assertEquals(List.of(INSERTED, UPDATED), results.stream().map(BatchItemModel::getOutcome).collect(Collectors.toList()));
+        assertEquals(toModel(brands.get(0)), results.get(0).getItem());
+        verify(brandRepository, times(1)).findAllById(Set.of("b00001"));
+        verify(brandRepository, times(1)).saveAll(anyList());
+        verify(brandRepository, times(0)).save(any(Brand.class));
     }
 
     private List<Brand> mockBrandList(int length) {
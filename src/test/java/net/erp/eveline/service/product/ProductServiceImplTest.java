@@ -1,18 +1,30 @@
 package net.erp.eveline.service.product;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import config.ServiceTestConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import net.erp.eveline.common.TransactionService;
+import net.erp.eveline.common.cache.EntityCache;
 import net.erp.eveline.common.exception.BadRequestException;
 import net.erp.eveline.common.exception.NonRetryableException;
 import net.erp.eveline.common.exception.NotFoundException;
 import net.erp.eveline.common.exception.RetryableException;
+import net.erp.eveline.common.imports.ProductImportRow;
+import net.erp.eveline.common.mapper.ProviderMapper;
+import net.erp.eveline.common.pagination.PageCursor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.data.entity.Brand;
 import net.erp.eveline.data.entity.Product;
 import net.erp.eveline.data.entity.Provider;
+import net.erp.eveline.data.repository.ActivationRepository;
+import net.erp.eveline.data.repository.ProductImportRepository;
 import net.erp.eveline.data.repository.ProductRepository;
 import net.erp.eveline.data.repository.ProviderRepository;
 import net.erp.eveline.model.ActiveProductModel;
 import net.erp.eveline.model.BrandModel;
+import net.erp.eveline.model.ImportErrorModel;
+import net.erp.eveline.model.PageModel;
+import net.erp.eveline.model.ProductImportReportModel;
 import net.erp.eveline.model.ProductModel;
 import net.erp.eveline.model.ProviderModel;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,25 +38,44 @@ import org.springframework.dao.PermissionDeniedDataAccessException;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.EntityManager;
 import javax.persistence.OptimisticLockException;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptySet;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static net.erp.eveline.common.execution.Futures.join;
 import static net.erp.eveline.common.mapper.ProductMapper.toActiveModel;
 import static net.erp.eveline.common.mapper.ProductMapper.toEntity;
 import static net.erp.eveline.common.mapper.ProductMapper.toModel;
+import static net.erp.eveline.common.predicate.CommonPredicates.ACTIVE_SET_ID_REPEATED_MESSAGE;
+import static net.erp.eveline.common.predicate.ProductPredicates.PRODUCT_TITLE_INVALID_MESSAGE;
+import static net.erp.eveline.data.repository.ActivationRepository.ActivationTable.PRODUCT;
+import static net.erp.eveline.data.repository.ProductImportRepository.BRAND_NOT_FOUND_MESSAGE;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyCollection;
+import static org.mockito.Mockito.anySet;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -62,13 +93,32 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ActivationRepository activationRepository;
+
+    @Mock
+    private ProductImportRepository productImportRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ProductUpcIndex productUpcIndex;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     @Spy
     private final ProductServiceImpl service = new ProductServiceImpl();
 
+    private final EntityCache<String, ProviderModel> providerCache =
+            new EntityCache<>("provider", 100, Duration.ofMinutes(1), provider -> 0, new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
         service.setTransactionService(transactionService);
+        service.setProviderCache(providerCache);
     }
 
 
@@ -95,6 +145,25 @@ class ProductServiceImplTest {
                 .findByProviderSetProviderId(anyString());
     }
 
+    @Test
+    void findAllByProviderDoesNotLookUpACachedProvider() {
+        //Initialization
+        final Provider expectedProvider = mockProvider();
+        final Product expectedProduct = mockProduct(expectedProvider);
+
+        //Set up
+        providerCache.get(expectedProvider.getProviderId(), providerId -> ProviderMapper.toModel(expectedProvider));
+        when(productRepository.findByProviderSetProviderId(anyString())).thenReturn(Set.of(expectedProduct));
+
+        //Execution
+        final Set<ProductModel> actualProducts = service.findAllByProvider(expectedProvider.getProviderId());
+
+        //Validation
+        assertEquals(Set.of(toModel(expectedProduct)), actualProducts);
+        verify(providerRepository, times(0))
+                .findById(anyString());
+    }
+
     @Test
     void findAllByProviderThrowsBadRequestExceptionOnInvalidProviderId() {
         //Initialization
@@ -309,6 +378,23 @@ class ProductServiceImplTest {
                 .findByUpc(anyString());
     }
 
+    @Test
+    void findByUpcIsServedFromTheUpcIndex() {
+        //Initialization
+        final ProductModel expectedProduct = toModel(mockProduct(mockProvider()));
+
+        //Set up
+        when(productUpcIndex.find(expectedProduct.getUpc())).thenReturn(of(expectedProduct));
+
+        //Execution
+        final ProductModel actualProduct = service.findByUpc(expectedProduct.getUpc());
+
+        //Validation
+        assertEquals(expectedProduct, actualProduct);
+        verify(productRepository, times(0))
+                .findByUpc(anyString());
+    }
+
     @Test
     void findByUpcThrowsBadRequestExceptionOnInvalidUpc() {
         //Initialization
@@ -386,19 +472,17 @@ class ProductServiceImplTest {
                 .map(ProviderModel::getId).collect(Collectors.toSet());
 
         //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true);
         when(providerRepository.findAllById(providerSet))
                 .thenReturn(List.of(provider));
         when(productRepository.save(any()))
                 .thenReturn(toEntity(product, Set.of(provider)));
 
         //Execution
-        final ProductModel actualProduct = service.upsertProductModel(product);
+        final ProductModel actualProduct = join(service.upsertProductModel(product));
 
         //Validation
         assertEquals(product, actualProduct);
-        verify(providerRepository, times(1))
+        verify(providerRepository, times(0))
                 .existsById(any());
         verify(providerRepository, times(1))
                 .findAllById(any());
@@ -420,22 +504,20 @@ class ProductServiceImplTest {
                 .map(ProviderModel::getId).collect(Collectors.toSet());
 
         //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true);
         when(providerRepository.findAllById(providerSet))
                 .thenReturn(List.of(provider));
         when(productRepository.findById(any()))
-                .thenReturn(Optional.of(toEntity(product)));
+                .thenReturn(Optional.of(toEntity(product, new HashSet<>(Set.of(provider)))));
         when(productRepository.save(any()))
                 .thenReturn(toEntity(product, Set.of(provider)));
 
         //Execution
-        final ProductModel actualProduct = service.upsertProductModel(product);
+        final ProductModel actualProduct = join(service.upsertProductModel(product));
 
         //Validation
         assertEquals(product, actualProduct);
         assertEquals(productId, actualProduct.getId());
-        verify(providerRepository, times(1))
+        verify(providerRepository, times(0))
                 .existsById(any());
         verify(providerRepository, times(1))
                 .findAllById(any());
@@ -445,11 +527,66 @@ class ProductServiceImplTest {
                 .save(any());
     }
 
+    @Test
+    void upsertProductModelRefreshesTheUpcIndexOnceCommitted() {
+        //Initialization
+        final String productId = "s00001";
+        final String providerId = "p99999";
+        final ProductModel product = mockProductModel(productId, providerId);
+        final Provider provider = mockProvider()
+                .setProviderId(providerId);
+
+        //Set up
+        when(providerRepository.findAllById(any()))
+                .thenReturn(List.of(provider));
+        when(productRepository.findById(any()))
+                .thenReturn(Optional.of(toEntity(product, new HashSet<>(Set.of(provider)))));
+        when(productRepository.save(any()))
+                .thenReturn(toEntity(product, Set.of(provider)));
+
+        //Execution
+        join(service.upsertProductModel(product));
+
+        //Validation
+        verify(productUpcIndex, times(1))
+                .refresh(Set.of(productId));
+    }
+
+    @Test
+    void upsertProductModelAppliesOnlyProviderChangesOnUpdate() {
+        //Initialization
+        final Provider keptProvider = mockProvider().setProviderId("p00002");
+        final Provider removedProvider = mockProvider().setProviderId("p00001");
+        final Provider addedProvider = mockProvider().setProviderId("p00003");
+        final ProductModel productModel = mockProductModel("s00001", "p00002");
+        productModel.setProviderSet(Set.of(new ProviderModel().setId("p00002"), new ProviderModel().setId("p00003")));
+        final Product product = toEntity(productModel, new HashSet<>(Set.of(keptProvider, removedProvider)));
+
+        //Set up
+        when(providerRepository.findAllById(Set.of("p00002", "p00003")))
+                .thenReturn(List.of(keptProvider, addedProvider));
+        when(productRepository.findById("s00001"))
+                .thenReturn(Optional.of(product));
+        when(productRepository.save(any()))
+                .then(returnsFirstArg());
+
+        //Execution
+        final ProductModel actualProduct = join(service.upsertProductModel(productModel));
+
+        //Validation
+        assertEquals(Set.of("p00002", "p00003"), actualProduct.getProviderSet().stream().map(ProviderModel::getId).collect(Collectors.toSet()));
+        assertTrue(product.getProviderSet().stream().anyMatch(provider -> provider == keptProvider));
+        verify(providerRepository, times(1))
+                .findAllById(any());
+        verify(productRepository, times(1))
+                .save(product);
+    }
+
     @Test
     void upsertProductModelThrowsNPEOnNullModel() {
         //Execution
         assertThrows(NullPointerException.class,
-                () -> service.upsertProductModel(null));
+                () -> join(service.upsertProductModel(null)));
         //Validation
         verify(providerRepository, times(0))
                 .existsById(any());
@@ -470,19 +607,18 @@ class ProductServiceImplTest {
         ProviderModel provider2 = generateProviderModel();
         provider2.setId("p00002");
         //Set up
-        product.setProviderSet(Set.of(provider1, provider2));//let's force a failure in the second call.
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true)
-                .thenReturn(false);
+        product.setProviderSet(Set.of(provider1, provider2));//only one of the two providers exists.
+        when(providerRepository.findAllById(Set.of("p99999", "p00002")))
+                .thenReturn(List.of(mockProvider().setProviderId("p99999")));
 
         //Execution
         assertThrows(NonRetryableException.class,
-                () -> service.upsertProductModel(product));
+                () -> join(service.upsertProductModel(product)));
 
         //Validation
-        verify(providerRepository, times(2))
-                .existsById(any());
         verify(providerRepository, times(0))
+                .existsById(any());
+        verify(providerRepository, times(1))
                 .findAllById(any());
         verify(productRepository, times(0))
                 .findById(any());
@@ -501,14 +637,12 @@ class ProductServiceImplTest {
                 .map(ProviderModel::getId).collect(Collectors.toSet());
 
         //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true);
         when(providerRepository.findAllById(providerSet))
                 .thenReturn(List.of(provider));
 
         //Execution
         assertThrows(BadRequestException.class,
-                () -> service.upsertProductModel(product));
+                () -> join(service.upsertProductModel(product)));
 
         //Validation
         verify(providerRepository, times(0))
@@ -533,8 +667,6 @@ class ProductServiceImplTest {
                 .setProviderId(providerId);
 
         //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true);
         when(providerRepository.findAllById(providerSet))
                 .thenReturn(List.of(provider));
         when(productRepository.findById(any()))
@@ -542,10 +674,10 @@ class ProductServiceImplTest {
 
         //Execution
         assertThrows(NonRetryableException.class,
-                () -> service.upsertProductModel(product));
+                () -> join(service.upsertProductModel(product)));
 
         //Validation
-        verify(providerRepository, times(1))
+        verify(providerRepository, times(0))
                 .existsById(any());
         verify(providerRepository, times(1))
                 .findAllById(any());
@@ -555,31 +687,6 @@ class ProductServiceImplTest {
                 .save(any());
     }
 
-    @Test
-    void upsertProductModelThrowsServiceExceptionOnExistByIdAfterRetries() {
-        //Initialization
-        final String productId = "s00001";
-        final String providerId = "p99999";
-        final ProductModel product = mockProductModel(productId, providerId);
-
-        //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenThrow(new OptimisticLockException("Optimistic lock test"));
-
-        //Execution
-        assertThrows(RetryableException.class, () -> service.upsertProductModel(product));
-
-        //Validation
-        verify(providerRepository, times(4))
-                .existsById(any());
-        verify(providerRepository, times(0))
-                .findAllById(any());
-        verify(productRepository, times(0))
-                .findById(any());
-        verify(productRepository, times(0))
-                .save(any());
-    }
-
     @Test
     void upsertProductModelThrowsServiceExceptionOnFindAllByIdAfterRetries() {
         //Initialization
@@ -590,16 +697,14 @@ class ProductServiceImplTest {
                 .map(ProviderModel::getId).collect(Collectors.toSet());
 
         //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true);
         when(providerRepository.findAllById(providerSet))
                 .thenThrow(new OptimisticLockException("Optimistic lock test"));
 
         //Execution
-        assertThrows(RetryableException.class, () -> service.upsertProductModel(product));
+        assertThrows(RetryableException.class, () -> join(service.upsertProductModel(product)));
 
         //Validation
-        verify(providerRepository, times(4))
+        verify(providerRepository, times(0))
                 .existsById(any());
         verify(providerRepository, times(4))
                 .findAllById(any());
@@ -621,18 +726,16 @@ class ProductServiceImplTest {
                 .setProviderId(providerId);
 
         //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true);
         when(providerRepository.findAllById(providerSet))
                 .thenReturn(List.of(provider));
         when(productRepository.findById(any()))
                 .thenThrow(new OptimisticLockException("Optimistic lock test"));
 
         //Execution
-        assertThrows(RetryableException.class, () -> service.upsertProductModel(product));
+        assertThrows(RetryableException.class, () -> join(service.upsertProductModel(product)));
 
         //Validation
-        verify(providerRepository, times(4))
+        verify(providerRepository, times(0))
                 .existsById(any());
         verify(providerRepository, times(4))
                 .findAllById(any());
@@ -654,20 +757,18 @@ class ProductServiceImplTest {
                 .setProviderId(providerId);
 
         //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true);
         when(providerRepository.findAllById(providerSet))
                 .thenReturn(List.of(provider));
         when(productRepository.findById(any()))
-                .thenReturn(Optional.of(toEntity(product)));
+                .thenReturn(Optional.of(toEntity(product, new HashSet<>(Set.of(provider)))));
         when(productRepository.save(any()))
                 .thenThrow(new OptimisticLockException("Optimistic lock test"));
 
         //Execution
-        assertThrows(RetryableException.class, () -> service.upsertProductModel(product));
+        assertThrows(RetryableException.class, () -> join(service.upsertProductModel(product)));
 
         //Validation
-        verify(providerRepository, times(4))
+        verify(providerRepository, times(0))
                 .existsById(any());
         verify(providerRepository, times(4))
                 .findAllById(any());
@@ -677,32 +778,6 @@ class ProductServiceImplTest {
                 .save(any());
     }
 
-    @Test
-    void upsertProductModelExistsByIdThrowsServiceExceptionOnNonRetryableException() {
-        //Initialization
-        final String productId = "s00001";
-        final String providerId = "p99999";
-        final ProductModel product = mockProductModel(productId, providerId);
-
-        //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenThrow(new PermissionDeniedDataAccessException("Optimistic lock test",
-                        new Throwable()));
-
-        //Execution
-        assertThrows(NonRetryableException.class, () -> service.upsertProductModel(product));
-
-        //Validation
-        verify(providerRepository, times(1))
-                .existsById(any());
-        verify(providerRepository, times(0))
-                .findAllById(any());
-        verify(productRepository, times(0))
-                .findById(any());
-        verify(productRepository, times(0))
-                .save(any());
-    }
-
     @Test
     void upsertProductModelFindAllByIdThrowsServiceExceptionOnNonRetryableException() {
         //Initialization
@@ -712,17 +787,15 @@ class ProductServiceImplTest {
         final Set<String> providerSet = product.getProviderSet().stream()
                 .map(ProviderModel::getId).collect(Collectors.toSet());
         //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true);
         when(providerRepository.findAllById(providerSet))
                 .thenThrow(new PermissionDeniedDataAccessException("Optimistic lock test",
                         new Throwable()));
 
         //Execution
-        assertThrows(NonRetryableException.class, () -> service.upsertProductModel(product));
+        assertThrows(NonRetryableException.class, () -> join(service.upsertProductModel(product)));
 
         //Validation
-        verify(providerRepository, times(1))
+        verify(providerRepository, times(0))
                 .existsById(any());
         verify(providerRepository, times(1))
                 .findAllById(any());
@@ -744,8 +817,6 @@ class ProductServiceImplTest {
                 .setProviderId(providerId);
 
         //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true);
         when(providerRepository.findAllById(providerSet))
                 .thenReturn(List.of(provider));
         when(productRepository.findById(any()))
@@ -753,10 +824,10 @@ class ProductServiceImplTest {
                         new Throwable()));
 
         //Execution
-        assertThrows(NonRetryableException.class, () -> service.upsertProductModel(product));
+        assertThrows(NonRetryableException.class, () -> join(service.upsertProductModel(product)));
 
         //Validation
-        verify(providerRepository, times(1))
+        verify(providerRepository, times(0))
                 .existsById(any());
         verify(providerRepository, times(1))
                 .findAllById(any());
@@ -778,21 +849,19 @@ class ProductServiceImplTest {
                 .setProviderId(providerId);
 
         //Set up
-        when(providerRepository.existsById(anyString()))
-                .thenReturn(true);
         when(providerRepository.findAllById(providerSet))
                 .thenReturn(List.of(provider));
         when(productRepository.findById(any()))
-                .thenReturn(Optional.of(toEntity(product)));
+                .thenReturn(Optional.of(toEntity(product, new HashSet<>(Set.of(provider)))));
         when(productRepository.save(any()))
                 .thenThrow(new PermissionDeniedDataAccessException("Optimistic lock test",
                         new Throwable()));
 
         //Execution
-        assertThrows(NonRetryableException.class, () -> service.upsertProductModel(product));
+        assertThrows(NonRetryableException.class, () -> join(service.upsertProductModel(product)));
 
         //Validation
-        verify(providerRepository, times(1))
+        verify(providerRepository, times(0))
                 .existsById(any());
         verify(providerRepository, times(1))
                 .findAllById(any());
@@ -817,7 +886,7 @@ class ProductServiceImplTest {
         when(productRepository.save(any())).thenReturn(expectedProduct);
 
         //Execution
-        final var actualProductModel = service.activateProduct(activeProductModel);
+        final var actualProductModel = join(service.activateProduct(activeProductModel));
 
         //Validation
         assertEquals(toActiveModel(expectedProduct), actualProductModel);
@@ -832,7 +901,7 @@ class ProductServiceImplTest {
     void activateProductThrowsNPEOnNullModel() {
         //Execution
         assertThrows(NullPointerException.class,
-                () -> service.activateProduct(null));
+                () -> join(service.activateProduct(null)));
         //Validation
         verify(productRepository, times(0))
                 .findById(any());
@@ -847,7 +916,7 @@ class ProductServiceImplTest {
 
         //Execution
         assertThrows(BadRequestException.class,
-                () -> service.activateProduct(activateProductModel));
+                () -> join(service.activateProduct(activateProductModel)));
         //Validation
         verify(productRepository, times(0))
                 .findById(any());
@@ -866,7 +935,7 @@ class ProductServiceImplTest {
 
         //Execution
         assertThrows(NonRetryableException.class,
-                () -> service.activateProduct(activateProductModel));
+                () -> join(service.activateProduct(activateProductModel)));
 
         //Validation
         verify(productRepository, times(1))
@@ -884,7 +953,7 @@ class ProductServiceImplTest {
 
         when(productRepository.findById(anyString())).thenThrow(new OptimisticLockException("Optimistic Lock Exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateProduct(activeProductModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.activateProduct(activeProductModel)));
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(productRepository, times(4)).findById(any());
         verify(productRepository, times(0)).save(any());
@@ -899,7 +968,7 @@ class ProductServiceImplTest {
 
         when(productRepository.findById(anyString())).thenThrow(new RuntimeException("Runtime Exception"));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProduct(activeProductModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateProduct(activeProductModel)));
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(productRepository, times(1)).findById(any());
         verify(productRepository, times(0)).save(any());
@@ -914,7 +983,7 @@ class ProductServiceImplTest {
 
         when(productRepository.findById(anyString())).thenReturn(empty());
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProduct(activeProductModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateProduct(activeProductModel)));
         assertEquals(NotFoundException.class, getRootCause(ex).getClass());
         verify(productRepository, times(1)).findById(any());
         verify(productRepository, times(0)).save(any());
@@ -935,7 +1004,7 @@ class ProductServiceImplTest {
         when(productRepository.findById(anyString())).thenReturn(of(expectedProduct));
         when(productRepository.save(any(Product.class))).thenThrow(new OptimisticLockException("Optimistic Lock Exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateProduct(activeProductModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.activateProduct(activeProductModel)));
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(productRepository, times(4)).findById(any());
         verify(productRepository, times(4)).save(any());
@@ -956,12 +1025,135 @@ class ProductServiceImplTest {
         when(productRepository.findById(anyString())).thenReturn(of(expectedProduct));
         when(productRepository.save(any(Product.class))).thenThrow(new RuntimeException("Runtime Exception"));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProduct(activeProductModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateProduct(activeProductModel)));
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(productRepository, times(1)).findById(any());
         verify(productRepository, times(1)).save(any());
     }
 
+    @Test
+    void activateProductSetSuccessfulRequest() {
+        //Initialization
+        final var activeProductModel1 = new ActiveProductModel()
+                .setId("s00001")
+                .setLastUser("eavendano")
+                .setEnabled(true);
+        final var activeProductModel2 = new ActiveProductModel()
+                .setId("s00002")
+                .setLastUser("eavendano")
+                .setEnabled(false);
+
+        //Set up
+        when(activationRepository.<ActiveProductModel>activate(eq(PRODUCT), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(List.of(activeProductModel1, activeProductModel2));
+
+        //Execution
+        final var result = join(service.activateProductSet(Set.of(activeProductModel1, activeProductModel2)));
+
+        //Validation
+        assertEquals(Set.of(activeProductModel1, activeProductModel2), result);
+        verify(activationRepository, times(1)).activate(eq(PRODUCT), anyCollection(), any(), any(), any(), any());
+        verify(productRepository, times(0)).findAllById(anySet());
+        verify(productRepository, times(0)).saveAll(anySet());
+    }
+
+    @Test
+    void activateProductSetWithEmptySetReturnsEmptySet() {
+        final var result = join(service.activateProductSet(emptySet()));
+
+        assertEquals(emptySet(), result);
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
+    }
+
+    @Test
+    void activateProductSetNullModelThrowsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> join(service.activateProductSet(null)));
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
+    }
+
+    @Test
+    void activateProductSetThrowsBadRequestException() {
+        final var activeProductModel = new ActiveProductModel()
+                .setId("")
+                .setLastUser("")
+                .setEnabled(null);
+
+        final var ex = assertThrows(BadRequestException.class, () -> join(service.activateProductSet(Set.of(activeProductModel))));
+
+        assertEquals(BadRequestException.class, getRootCause(ex).getClass());
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
+    }
+
+    @Test
+    void activateProductSetWithRepeatedIdThrowsBadRequestException() {
+        final var activeProductModel1 = new ActiveProductModel()
+                .setId("s00001")
+                .setLastUser("eavendano")
+                .setEnabled(true);
+        final var activeProductModel2 = new ActiveProductModel()
+                .setId("s00001")
+                .setLastUser("eavendano")
+                .setEnabled(false);
+
+        final var ex = assertThrows(BadRequestException.class, () -> join(service.activateProductSet(Set.of(activeProductModel1, activeProductModel2))));
+
+        assertEquals(ACTIVE_SET_ID_REPEATED_MESSAGE, ex.getMessage());
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
+    }
+
+    @Test
+    void activateProductSetMissingIdThrowsNotFoundException() {
+        final var activeProductModel1 = new ActiveProductModel()
+                .setId("s00001")
+                .setLastUser("eavendano")
+                .setEnabled(true);
+        final var activeProductModel2 = new ActiveProductModel()
+                .setId("s00002")
+                .setLastUser("eavendano")
+                .setEnabled(true);
+
+        when(activationRepository.<ActiveProductModel>activate(eq(PRODUCT), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(List.of(activeProductModel1));
+
+        final var ex = assertThrows(NonRetryableException.class, () -> join(service.activateProductSet(Set.of(activeProductModel1, activeProductModel2))));
+
+        assertEquals(NotFoundException.class, getRootCause(ex).getClass());
+        assertTrue(getRootCause(ex).getMessage().contains("s00002"));
+        verify(activationRepository, times(1)).activate(eq(PRODUCT), anyCollection(), any(), any(), any(), any());
+    }
+
+    @Test
+    void activateProductSetActivateFailsThrowsRetryableException() {
+        final var activeProductModel = new ActiveProductModel()
+                .setId("s00001")
+                .setLastUser("eavendano")
+                .setEnabled(true);
+
+        when(activationRepository.<ActiveProductModel>activate(eq(PRODUCT), anyCollection(), any(), any(), any(), any()))
+                .thenThrow(new OptimisticLockException("Optimistic lock exception"));
+
+        final var ex = assertThrows(RetryableException.class, () -> join(service.activateProductSet(Set.of(activeProductModel))));
+
+        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
+        verify(activationRepository, times(4)).activate(eq(PRODUCT), anyCollection(), any(), any(), any(), any());
+    }
+
+    @Test
+    void activateProductSetActivateFailsThrowsNonRetryableException() {
+        final var activeProductModel = new ActiveProductModel()
+                .setId("s00001")
+                .setLastUser("eavendano")
+                .setEnabled(true);
+
+        when(activationRepository.<ActiveProductModel>activate(eq(PRODUCT), anyCollection(), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("Regular exception test."));
+
+        final var ex = assertThrows(NonRetryableException.class, () -> join(service.activateProductSet(Set.of(activeProductModel))));
+
+        assertEquals(RuntimeException.class, getRootCause(ex).getClass());
+        verify(activationRepository, times(1)).activate(eq(PRODUCT), anyCollection(), any(), any(), any(), any());
+    }
+
     private ActiveProductModel mockActiveProductModel() {
         return new ActiveProductModel()
                 .setEnabled(true)
@@ -984,6 +1176,94 @@ class ProductServiceImplTest {
     }
 
 
+    @Test
+    void findFirstPageByLastModifiedReturnsNextCursorWhenMoreRowsExist() {
+        //Initialization
+        final int size = 1;
+        final var lastModified = OffsetDateTime.parse("2021-06-21T10:15:30-06:00");
+        final Product firstProduct = mockProduct(mockProvider()).setLastModified(lastModified);
+        final Product secondProduct = mockProduct(mockProvider()).setProductId("s00002").setLastModified(lastModified.minusDays(1));
+
+        //Set up
+        when(productRepository.findFirstPageOrderByLastModified(size + 1)).thenReturn(List.of(firstProduct, secondProduct));
+
+        //Execution
+        final PageModel<ProductModel> page = service.findPage("", size, PageSort.LAST_MODIFIED);
+
+        //Validation
+        verify(productRepository, times(1)).findFirstPageOrderByLastModified(size + 1);
+        assertEquals(size, page.getSize());
+        assertEquals(toModel(firstProduct), page.getItems().get(0));
+        assertEquals(PageCursor.after(PageSort.LAST_MODIFIED, "s00001", lastModified).encode(), page.getNextCursor());
+    }
+
+    @Test
+    void exportAllWritesEveryProduct() {
+        //Initialization
+        final Product firstProduct = mockProduct(mockProvider());
+        final Product secondProduct = mockProduct(mockProvider()).setProductId("s00002");
+        final List<ProductModel> exported = new ArrayList<>();
+
+        //Set up
+        when(productRepository.streamAll()).thenReturn(Stream.of(firstProduct, secondProduct));
+
+        //Execution
+        service.exportAll(exported::add);
+
+        //Validation
+        verify(productRepository, times(1)).streamAll();
+        verify(productRepository, times(1)).fetchProviderSets(List.of(firstProduct.getProductId(), "s00002"));
+        verify(entityManager, times(1)).clear();
+        assertEquals(List.of(toModel(firstProduct), toModel(secondProduct)), exported);
+    }
+
+    @Test
+    void importProductsStagesValidRowsAndReportsRejectedOnes() {
+        //Initialization
+        final String body = "upc,title,description,sanitaryRegistryNumber,brandId,providerIds,lastUser,enabled\n" +
+                "123456789012,Valid title,,,b00001,p00001,valid,true\n" +
+                "123456789013,,,,b00001,p00001,valid,true\n" +
+                "123456789014,Other title,,,b99999,p00001,valid,false\n";
+        final List<ProductImportRow> staged = new ArrayList<>();
+        final var rejectedByDatabase = new ImportErrorModel()
+                .setRow(3L)
+                .setUpc("123456789014")
+                .setMessages(List.of(BRAND_NOT_FOUND_MESSAGE));
+
+        //Set up
+        when(productImportRepository.copyToStaging(any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Consumer<ProductImportRow>>>getArgument(0).accept(staged::add);
+            return (long) staged.size();
+        });
+        when(productImportRepository.mergeStaging()).thenReturn(new ProductImportReportModel().setInserted(1L).setUpdated(0L));
+        when(productImportRepository.findRejectedStaging()).thenReturn(List.of(rejectedByDatabase));
+
+        //Execution
+        final ProductImportReportModel report = service.importProducts(new ByteArrayInputStream(body.getBytes(UTF_8)), "text/csv");
+
+        //Validation
+        assertEquals(List.of("123456789012", "123456789014"), staged.stream().map(ProductImportRow::getUpc).collect(Collectors.toList()));
+        assertEquals(3L, report.getReceived());
+        assertEquals(1L, report.getInserted());
+        assertEquals(0L, report.getUpdated());
+        assertEquals(2L, report.getRejected());
+        assertEquals(2L, report.getErrors().get(0).getRow());
+        assertEquals(List.of(PRODUCT_TITLE_INVALID_MESSAGE), report.getErrors().get(0).getMessages());
+        assertEquals(rejectedByDatabase, report.getErrors().get(1));
+        verify(productImportRepository, times(1)).createStagingTable();
+        verify(productImportRepository, times(1)).classifyStaging();
+    }
+
+    @Test
+    void importProductsThrowsBadRequestExceptionOnUnsupportedContentType() {
+        //Execution
+        assertThrows(BadRequestException.class,
+                () -> service.importProducts(new ByteArrayInputStream(new byte[0]), "application/json"));
+
+        //Validation
+        verify(productImportRepository, times(0)).createStagingTable();
+    }
+
     private Provider mockProvider() {
         return new Provider()
                 .setProviderId("p00001");
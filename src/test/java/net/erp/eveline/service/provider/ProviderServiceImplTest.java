@@ -1,14 +1,21 @@
 package net.erp.eveline.service.provider;
 
 import config.ServiceTestConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import net.erp.eveline.common.TransactionService;
+import net.erp.eveline.common.cache.EntityCache;
 import net.erp.eveline.common.exception.BadRequestException;
 import net.erp.eveline.common.exception.NonRetryableException;
 import net.erp.eveline.common.exception.NotFoundException;
 import net.erp.eveline.common.exception.RetryableException;
+import net.erp.eveline.common.pagination.PageCursor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.data.entity.Provider;
+import net.erp.eveline.data.repository.ActivationRepository;
 import net.erp.eveline.data.repository.ProviderRepository;
 import net.erp.eveline.model.ActiveProviderModel;
+import net.erp.eveline.model.BatchItemModel;
+import net.erp.eveline.model.PageModel;
 import net.erp.eveline.model.ProviderModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,7 +27,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.EntityManager;
 import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -33,14 +44,33 @@ import static java.util.Collections.emptySet;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
+import static net.erp.eveline.common.execution.Futures.join;
+import static net.erp.eveline.common.export.NdjsonExport.EXPORT_FETCH_SIZE;
 import static net.erp.eveline.common.mapper.ProviderMapper.toActiveModel;
 import static net.erp.eveline.common.mapper.ProviderMapper.toModel;
+import static net.erp.eveline.common.predicate.CommonPredicates.ACTIVE_SET_ID_REPEATED_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.MAX_PAGE_SIZE;
+import static net.erp.eveline.common.predicate.CommonPredicates.BATCH_ID_REPEATED_MESSAGE;
+import static net.erp.eveline.common.predicate.CommonPredicates.MAX_BATCH_SIZE;
+import static net.erp.eveline.data.repository.ActivationRepository.ActivationTable.PROVIDER;
+import static net.erp.eveline.model.BatchItemModel.Outcome.INSERTED;
+import static net.erp.eveline.model.BatchItemModel.Outcome.INVALID;
+import static net.erp.eveline.model.BatchItemModel.Outcome.NOT_FOUND;
+import static net.erp.eveline.model.BatchItemModel.Outcome.UPDATED;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -52,6 +82,12 @@ class ProviderServiceImplTest {
     @Mock
     private ProviderRepository providerRepository;
 
+    @Mock
+    private ActivationRepository activationRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
     @Autowired
     private TransactionService transactionService;
 
@@ -62,6 +98,7 @@ class ProviderServiceImplTest {
     @BeforeEach
     void setUp() {
         service.setTransactionService(transactionService);
+        service.setProviderCache(new EntityCache<>("provider", 100, Duration.ofMinutes(1), provider -> 0, new SimpleMeterRegistry()));
     }
 
     @Test
@@ -113,6 +150,119 @@ class ProviderServiceImplTest {
                 .findAll();
     }
 
+    @Test
+    void findPageByIdReturnsNextCursorWhenMoreRowsExist() {
+        //Initialization
+        final int size = 2;
+
+        //Set up
+        final var mockProviderList = mockProviderList(size + 1);
+        when(providerRepository.findPageOrderById("", size + 1)).thenReturn(mockProviderList);
+
+        //Execution
+        final PageModel<ProviderModel> page = service.findPage(null, size, PageSort.ID);
+
+        //Validation
+        verify(providerRepository, times(1)).findPageOrderById("", size + 1);
+        assertEquals(size, page.getSize());
+        assertEquals(toModel(mockProviderList.get(1)), page.getItems().get(1));
+        assertEquals(PageCursor.after(PageSort.ID, "p1", null).encode(), page.getNextCursor());
+    }
+
+    @Test
+    void findPageByIdUsesCursorAndReturnsLastPage() {
+        //Initialization
+        final int size = 2;
+        final var cursor = PageCursor.after(PageSort.ID, "p1", null).encode();
+
+        //Set up
+        when(providerRepository.findPageOrderById("p1", size + 1)).thenReturn(mockProviderList(1));
+
+        //Execution
+        final PageModel<ProviderModel> page = service.findPage(cursor, size, PageSort.ID);
+
+        //Validation
+        verify(providerRepository, times(1)).findPageOrderById("p1", size + 1);
+        assertEquals(1, page.getSize());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findPageByLastModifiedUsesCursorValues() {
+        //Initialization
+        final int size = 2;
+        final var lastModified = OffsetDateTime.parse("2021-06-21T10:15:30-06:00");
+        final var cursor = PageCursor.after(PageSort.LAST_MODIFIED, "p00010", lastModified).encode();
+
+        //Set up
+        when(providerRepository.findPageOrderByLastModified(lastModified, "p00010", size + 1)).thenReturn(emptyList());
+
+        //Execution
+        final PageModel<ProviderModel> page = service.findPage(cursor, size, PageSort.LAST_MODIFIED);
+
+        //Validation
+        verify(providerRepository, times(1)).findPageOrderByLastModified(lastModified, "p00010", size + 1);
+        verify(providerRepository, times(0)).findFirstPageOrderByLastModified(anyInt());
+        assertEquals(0, page.getSize());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findPageWithCursorFromAnotherSortThrowsBadRequestException() {
+        final var cursor = PageCursor.after(PageSort.ID, "p00010", null).encode();
+
+        assertThrows(BadRequestException.class, () -> service.findPage(cursor, 10, PageSort.LAST_MODIFIED));
+        verify(providerRepository, times(0)).findFirstPageOrderByLastModified(anyInt());
+    }
+
+    @Test
+    void findPageWithMalformedCursorThrowsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> service.findPage("not a cursor", 10, PageSort.ID));
+        verify(providerRepository, times(0)).findPageOrderById(anyString(), anyInt());
+    }
+
+    @Test
+    void findPageWithInvalidSizeThrowsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> service.findPage(null, 0, PageSort.ID));
+        assertThrows(BadRequestException.class, () -> service.findPage(null, MAX_PAGE_SIZE + 1, PageSort.ID));
+        assertThrows(BadRequestException.class, () -> service.findPage(null, null, PageSort.ID));
+        verify(providerRepository, times(0)).findPageOrderById(anyString(), anyInt());
+    }
+
+    @Test
+    void exportAllWritesEveryProviderAndClearsPersistenceContext() {
+        //Initialization
+        final int expectedLength = EXPORT_FETCH_SIZE + 1;
+        final List<ProviderModel> exported = new ArrayList<>();
+
+        //Set up
+        final var mockProviderList = mockProviderList(expectedLength);
+        when(providerRepository.streamAll()).thenReturn(mockProviderList.stream());
+
+        //Execution
+        service.exportAll(exported::add);
+
+        //Validation
+        verify(providerRepository, times(1)).streamAll();
+        verify(entityManager, times(1)).clear();
+        assertEquals(expectedLength, exported.size());
+        assertEquals(toModel(mockProviderList.get(EXPORT_FETCH_SIZE)), exported.get(EXPORT_FETCH_SIZE));
+    }
+
+    @Test
+    void exportAllIsNotRetried() {
+        //Set up
+        when(providerRepository.streamAll()).thenThrow(new OptimisticLockException("Optimistic lock test"));
+
+        //Execution
+        var ex = assertThrows(NonRetryableException.class, () -> service.exportAll(model -> {
+        }));
+
+        //Validation
+        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
+        verify(providerRepository, times(1)).streamAll();
+    }
+
     @Test
     void getProviderModelSuccessful() {
         final var providerId = "p00001";
@@ -124,6 +274,31 @@ class ProviderServiceImplTest {
         verify(providerRepository, times(1)).findById(any(String.class));
     }
 
+    @Test
+    void getProviderModelIsServedFromTheCacheUntilTheProviderIsActivated() {
+        //Initialization
+        final var providerId = "p00001";
+        final var activeProviderModel = new ActiveProviderModel()
+                .setId(providerId)
+                .setLastUser("eavendano")
+                .setEnabled(false);
+
+        //Set up
+        when(providerRepository.findById(providerId)).thenReturn(ofNullable(mockIndividualProvider(providerId)));
+        when(providerRepository.save(any(Provider.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //Execution
+        service.getProviderModel(providerId);
+        service.getProviderModel(providerId);
+        join(service.activateProvider(activeProviderModel));
+        final var resultProviderModel = service.getProviderModel(providerId);
+
+        //Validation
+        verify(providerRepository, times(3)).findById(providerId);
+        assertFalse(resultProviderModel.isEnabled());
+        assertEquals("eavendano", resultProviderModel.getLastUser());
+    }
+
     @Test
     void getProviderModelNotFoundEntityThrowsNotFoundException() {
         final var providerId = "p00001";
@@ -160,7 +335,7 @@ class ProviderServiceImplTest {
 
     @Test
     void upsertProviderModelWithNullModelThrowsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> service.upsertProviderModel(null));
+        assertThrows(NullPointerException.class, () -> join(service.upsertProviderModel(null)));
         verify(providerRepository, times(0)).save(any(Provider.class));
         verify(providerRepository, times(0)).findById(any(String.class));
     }
@@ -178,7 +353,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.save(any(Provider.class))).thenReturn(provider);
 
-        var resultModel = service.upsertProviderModel(providerModel);
+        var resultModel = join(service.upsertProviderModel(providerModel));
         assertEquals(toModel(provider), resultModel);
         verify(providerRepository, times(1)).save(any(Provider.class));
         verify(providerRepository, times(0)).findById(any(String.class));
@@ -193,7 +368,7 @@ class ProviderServiceImplTest {
                 .setTelephone1("")
                 .setLastUser("");
 
-        var ex = assertThrows(BadRequestException.class, () -> service.upsertProviderModel(providerModel));
+        var ex = assertThrows(BadRequestException.class, () -> join(service.upsertProviderModel(providerModel)));
         verify(providerRepository, times(0)).save(any(Provider.class));
         verify(providerRepository, times(0)).findById(any(String.class));
     }
@@ -209,7 +384,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.save(any(Provider.class))).thenThrow(new OptimisticLockException("Optimistic lock test"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.upsertProviderModel(providerModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.upsertProviderModel(providerModel)));
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(4)).save(any(Provider.class));
         verify(providerRepository, times(0)).findById(any(String.class));
@@ -226,7 +401,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.save(any(Provider.class))).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.upsertProviderModel(providerModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.upsertProviderModel(providerModel)));
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(1)).save(any(Provider.class));
         verify(providerRepository, times(0)).findById(any(String.class));
@@ -247,7 +422,7 @@ class ProviderServiceImplTest {
         when(providerRepository.existsById("p00003")).thenReturn(true);
         when(providerRepository.save(any(Provider.class))).thenReturn(mockIndividualProvider("p00003"));
 
-        var resultModel = service.upsertProviderModel(providerModel);
+        var resultModel = join(service.upsertProviderModel(providerModel));
         assertEquals(toModel(provider), resultModel);
         verify(providerRepository, times(1)).save(any(Provider.class));
         verify(providerRepository, times(1)).existsById(any(String.class));
@@ -263,7 +438,7 @@ class ProviderServiceImplTest {
                 .setTelephone1("")
                 .setLastUser("");
 
-        assertThrows(BadRequestException.class, () -> service.upsertProviderModel(providerModel));
+        assertThrows(BadRequestException.class, () -> join(service.upsertProviderModel(providerModel)));
         verify(providerRepository, times(0)).save(any(Provider.class));
         verify(providerRepository, times(0)).findById(any(String.class));
     }
@@ -280,7 +455,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.existsById("p00003")).thenReturn(false);
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.upsertProviderModel(providerModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.upsertProviderModel(providerModel)));
 
         assertEquals(NotFoundException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(0)).save(any(Provider.class));
@@ -301,7 +476,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.save(any(Provider.class))).thenThrow(new OptimisticLockException("Optimistic lock test"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.upsertProviderModel(providerModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.upsertProviderModel(providerModel)));
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(4)).save(any(Provider.class));
         verify(providerRepository, times(4)).existsById(any(String.class));
@@ -320,7 +495,7 @@ class ProviderServiceImplTest {
         when(providerRepository.existsById("p00003")).thenReturn(true);
         when(providerRepository.save(any(Provider.class))).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.upsertProviderModel(providerModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.upsertProviderModel(providerModel)));
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(1)).save(any(Provider.class));
         verify(providerRepository, times(1)).existsById(any(String.class));
@@ -338,7 +513,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.existsById("p00003")).thenThrow(new OptimisticLockException("Optimistic lock test"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.upsertProviderModel(providerModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.upsertProviderModel(providerModel)));
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(0)).save(any(Provider.class));
         verify(providerRepository, times(4)).existsById(any(String.class));
@@ -356,7 +531,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.existsById("p00003")).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.upsertProviderModel(providerModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.upsertProviderModel(providerModel)));
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(0)).save(any(Provider.class));
         verify(providerRepository, times(1)).existsById(any(String.class));
@@ -378,7 +553,7 @@ class ProviderServiceImplTest {
         when(providerRepository.findById("p00001")).thenReturn(of(mockProvider));
         when(providerRepository.save(any(Provider.class))).thenReturn(resultMock);
 
-        var result = service.activateProvider(activeProviderModel);
+        var result = join(service.activateProvider(activeProviderModel));
 
         assertEquals(toActiveModel(resultMock), result);
         verify(providerRepository, times(1)).save(any(Provider.class));
@@ -387,7 +562,7 @@ class ProviderServiceImplTest {
 
     @Test
     void activateProviderNullModelThrowsNullPointerException() {
-        var ex = assertThrows(NullPointerException.class, () -> service.activateProvider(null));
+        var ex = assertThrows(NullPointerException.class, () -> join(service.activateProvider(null)));
         verify(providerRepository, times(0)).save(any(Provider.class));
         verify(providerRepository, times(0)).findById(any(String.class));
     }
@@ -399,7 +574,7 @@ class ProviderServiceImplTest {
                 .setLastUser("")
                 .setEnabled(null);
 
-        var ex = assertThrows(BadRequestException.class, () -> service.activateProvider(activeProviderModel));
+        var ex = assertThrows(BadRequestException.class, () -> join(service.activateProvider(activeProviderModel)));
 
         assertEquals(BadRequestException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(0)).save(any(Provider.class));
@@ -415,7 +590,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.findById("p00001")).thenThrow(new OptimisticLockException("Optimistic lock exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateProvider(activeProviderModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.activateProvider(activeProviderModel)));
 
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(0)).save(any(Provider.class));
@@ -431,7 +606,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.findById("p00001")).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProvider(activeProviderModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateProvider(activeProviderModel)));
 
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(0)).save(any(Provider.class));
@@ -447,7 +622,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.findById("p00001")).thenReturn(empty());
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProvider(activeProviderModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateProvider(activeProviderModel)));
 
         assertEquals(NotFoundException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(0)).save(any(Provider.class));
@@ -466,7 +641,7 @@ class ProviderServiceImplTest {
         when(providerRepository.findById("p00001")).thenReturn(of(mockProvider));
         when(providerRepository.save(any(Provider.class))).thenThrow(new OptimisticLockException("Optimistic lock exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateProvider(activeProviderModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.activateProvider(activeProviderModel)));
 
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(4)).save(any(Provider.class));
@@ -486,7 +661,7 @@ class ProviderServiceImplTest {
 
         when(providerRepository.save(any(Provider.class))).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProvider(activeProviderModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateProvider(activeProviderModel)));
 
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(providerRepository, times(1)).save(any(Provider.class));
@@ -495,217 +670,199 @@ class ProviderServiceImplTest {
 
     @Test
     void activateProviderSetSuccessfulRequest() {
-        var activeProviderModel1 = new ActiveProviderModel()
+        //Initialization
+        final var activeProviderModel1 = new ActiveProviderModel()
                 .setId("p00001")
                 .setLastUser("eavendano")
                 .setEnabled(true);
-
-        var activeProviderModel2 = new ActiveProviderModel()
+        final var activeProviderModel2 = new ActiveProviderModel()
                 .setId("p00002")
                 .setLastUser("eavendano")
                 .setEnabled(false);
 
-        final var mockProvider1 = mockIndividualProvider("p00001");
-        final var mockProvider2 = mockIndividualProvider("p00002");
-
-        final var resultMock1 = mockIndividualProvider("p00001");
-        resultMock1.setLastUser("eavendano");
-        resultMock1.setEnabled(true);
-
-        final var resultMock2 = mockIndividualProvider("p00001");
-        resultMock1.setLastUser("eavendano");
-        resultMock1.setEnabled(true);
-
-        when(providerRepository.existsAllByProviderIdIn(anySet())).thenReturn(true);
-        when(providerRepository.findAllById(anySet())).thenReturn(List.of(mockProvider1, mockProvider2));
-        when(providerRepository.saveAll(anySet())).thenReturn(List.of(resultMock1, resultMock2));
+        //Set up
+        when(activationRepository.<ActiveProviderModel>activate(eq(PROVIDER), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(List.of(activeProviderModel1, activeProviderModel2));
 
-        var result = service.activateProviderSet(Set.of(activeProviderModel1, activeProviderModel2));
+        //Execution
+        final var result = join(service.activateProviderSet(Set.of(activeProviderModel1, activeProviderModel2)));
 
-        assertIterableEquals(toActiveModel(Set.of(resultMock1, resultMock2)), result);
-        verify(providerRepository, times(1)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(1)).findAllById(anySet());
-        verify(providerRepository, times(1)).saveAll(anySet());
+        //Validation
+        assertEquals(Set.of(activeProviderModel1, activeProviderModel2), result);
+        verify(activationRepository, times(1)).activate(eq(PROVIDER), anyCollection(), any(), any(), any(), any());
+        verify(providerRepository, times(0)).findAllById(anySet());
+        verify(providerRepository, times(0)).saveAll(anySet());
     }
 
     @Test
     void activateProviderSetWithEmptySetReturnsEmptySet() {
-        var result = service.activateProviderSet(emptySet());
+        final var result = join(service.activateProviderSet(emptySet()));
 
-        assertIterableEquals(emptySet(), result);
-        verify(providerRepository, times(0)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(0)).findAllById(anySet());
-        verify(providerRepository, times(0)).saveAll(anySet());
+        assertEquals(emptySet(), result);
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
     void activateProviderSetNullModelThrowsNullPointerException() {
-        var ex = assertThrows(NullPointerException.class, () -> service.activateProviderSet(null));
-        verify(providerRepository, times(0)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(0)).findAllById(anySet());
-        verify(providerRepository, times(0)).saveAll(anySet());
+        assertThrows(NullPointerException.class, () -> join(service.activateProviderSet(null)));
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
     void activateProviderSetThrowsBadRequestException() {
-        var activeProviderModel = new ActiveProviderModel()
+        final var activeProviderModel = new ActiveProviderModel()
                 .setId("")
                 .setLastUser("")
                 .setEnabled(null);
 
-        var ex = assertThrows(BadRequestException.class, () -> service.activateProviderSet(Set.of(activeProviderModel)));
+        final var ex = assertThrows(BadRequestException.class, () -> join(service.activateProviderSet(Set.of(activeProviderModel))));
 
         assertEquals(BadRequestException.class, getRootCause(ex).getClass());
-        verify(providerRepository, times(0)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(0)).findAllById(anySet());
-        verify(providerRepository, times(0)).saveAll(anySet());
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateProviderSetExistByIdFailsThrowsRetryableException() {
-        var activeProviderModel = new ActiveProviderModel()
+    void activateProviderSetWithRepeatedIdThrowsBadRequestException() {
+        final var activeProviderModel1 = new ActiveProviderModel()
                 .setId("p00001")
                 .setLastUser("eavendano")
                 .setEnabled(true);
-
-        when(providerRepository.existsAllByProviderIdIn(Set.of("p00001"))).thenThrow(new OptimisticLockException("Optimistic lock exception"));
-
-        var ex = assertThrows(RetryableException.class, () -> service.activateProviderSet(Set.of(activeProviderModel)));
-
-        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
-        verify(providerRepository, times(4)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(0)).findAllById(anySet());
-        verify(providerRepository, times(0)).saveAll(anySet());
-    }
-
-    @Test
-    void activateProviderExistsByIdFailsThrowsNonRetryableException() {
-        var activeProviderModel = new ActiveProviderModel()
+        final var activeProviderModel2 = new ActiveProviderModel()
                 .setId("p00001")
                 .setLastUser("eavendano")
-                .setEnabled(true);
-
-        when(providerRepository.existsAllByProviderIdIn(Set.of("p00001"))).thenThrow(new RuntimeException("Regular exception test."));
+                .setEnabled(false);
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProviderSet(Set.of(activeProviderModel)));
+        final var ex = assertThrows(BadRequestException.class, () -> join(service.activateProviderSet(Set.of(activeProviderModel1, activeProviderModel2))));
 
-        assertEquals(RuntimeException.class, getRootCause(ex).getClass());
-        verify(providerRepository, times(1)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(0)).findAllById(anySet());
-        verify(providerRepository, times(0)).saveAll(anySet());
+        assertEquals(ACTIVE_SET_ID_REPEATED_MESSAGE, ex.getMessage());
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateProviderExistsByIdFailsThrowsNotFoundException() {
-        var activeProviderModel = new ActiveProviderModel()
+    void activateProviderSetMissingIdThrowsNotFoundException() {
+        final var activeProviderModel1 = new ActiveProviderModel()
                 .setId("p00001")
                 .setLastUser("eavendano")
                 .setEnabled(true);
+        final var activeProviderModel2 = new ActiveProviderModel()
+                .setId("p00002")
+                .setLastUser("eavendano")
+                .setEnabled(true);
 
-        when(providerRepository.existsAllByProviderIdIn(Set.of("p00001"))).thenReturn(false);
+        when(activationRepository.<ActiveProviderModel>activate(eq(PROVIDER), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(List.of(activeProviderModel1));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProviderSet(Set.of(activeProviderModel)));
+        final var ex = assertThrows(NonRetryableException.class, () -> join(service.activateProviderSet(Set.of(activeProviderModel1, activeProviderModel2))));
 
         assertEquals(NotFoundException.class, getRootCause(ex).getClass());
-        verify(providerRepository, times(1)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(0)).findAllById(anySet());
-        verify(providerRepository, times(0)).saveAll(anySet());
+        assertTrue(getRootCause(ex).getMessage().contains("p00002"));
+        verify(activationRepository, times(1)).activate(eq(PROVIDER), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateProviderSetFindAllByIdFailsThrowsRetryableException() {
-        var activeProviderModel = new ActiveProviderModel()
+    void activateProviderSetActivateFailsThrowsRetryableException() {
+        final var activeProviderModel = new ActiveProviderModel()
                 .setId("p00001")
                 .setLastUser("eavendano")
                 .setEnabled(true);
 
-        when(providerRepository.existsAllByProviderIdIn(anySet())).thenReturn(true);
-        when(providerRepository.findAllById(anySet())).thenThrow(new OptimisticLockException("Optimistic lock exception"));
+        when(activationRepository.<ActiveProviderModel>activate(eq(PROVIDER), anyCollection(), any(), any(), any(), any()))
+                .thenThrow(new OptimisticLockException("Optimistic lock exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateProviderSet(Set.of(activeProviderModel)));
+        final var ex = assertThrows(RetryableException.class, () -> join(service.activateProviderSet(Set.of(activeProviderModel))));
 
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
-        verify(providerRepository, times(4)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(4)).findAllById(anySet());
-        verify(providerRepository, times(0)).saveAll(anySet());
+        verify(activationRepository, times(4)).activate(eq(PROVIDER), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateProviderFindAllByIdFailsThrowsNonRetryableException() {
-        var activeProviderModel = new ActiveProviderModel()
+    void activateProviderSetActivateFailsThrowsNonRetryableException() {
+        final var activeProviderModel = new ActiveProviderModel()
                 .setId("p00001")
                 .setLastUser("eavendano")
                 .setEnabled(true);
 
-        when(providerRepository.existsAllByProviderIdIn(anySet())).thenReturn(true);
-        when(providerRepository.findAllById(anySet())).thenThrow(new RuntimeException("Regular exception test."));
+        when(activationRepository.<ActiveProviderModel>activate(eq(PROVIDER), anyCollection(), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProviderSet(Set.of(activeProviderModel)));
+        final var ex = assertThrows(NonRetryableException.class, () -> join(service.activateProviderSet(Set.of(activeProviderModel))));
 
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
-        verify(providerRepository, times(1)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(1)).findAllById(anySet());
-        verify(providerRepository, times(0)).saveAll(anySet());
+        verify(activationRepository, times(1)).activate(eq(PROVIDER), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateProviderFindAllByIdFailsThrowsNotFoundException() {
-        var activeProviderModel = new ActiveProviderModel()
-                .setId("p00001")
-                .setLastUser("eavendano")
-                .setEnabled(true);
+    void upsertProviderModelsReportsAnOutcomePerItem() {
+        //Initialization
+        final var insertModel = toModel(mockIndividualProvider(null));
+        final var updateModel = toModel(mockIndividualProvider("p00001"));
+        final var missingModel = toModel(mockIndividualProvider("p00003"));
+        final var invalidModel = toModel(mockIndividualProvider(null)).setEmail("");
+        final var repeatedModel = toModel(mockIndividualProvider("p00001"));
+        final var inserted = mockIndividualProvider("p00002");
+        final var updated = mockIndividualProvider("p00001");
 
-        when(providerRepository.existsAllByProviderIdIn(Set.of("p00001"))).thenReturn(true);
-        when(providerRepository.findAllById(anySet())).thenReturn(emptyList());
+        //Set up
+        when(providerRepository.findAllById(anySet())).thenReturn(List.of(updated));
+        when(providerRepository.saveAll(anyList())).thenReturn(List.of(inserted, updated));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProviderSet(Set.of(activeProviderModel)));
+        //Execution
+        final List<BatchItemModel<ProviderModel>> results = join(service.upsertProviderModels(
+                List.of(insertModel, updateModel, missingModel, invalidModel, repeatedModel)));
 
-        assertEquals(NotFoundException.class, getRootCause(ex).getClass());
-        verify(providerRepository, times(1)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(1)).findAllById(anySet());
-        verify(providerRepository, times(0)).saveAll(anySet());
+        //Validation
+        assertEquals(List.of(INSERTED, UPDATED, NOT_FOUND, INVALID, INVALID),
+                results.stream().map(BatchItemModel::getOutcome).collect(Collectors.toList()));
+        assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(BatchItemModel::getIndex).collect(Collectors.toList()));
+        assertEquals(toModel(inserted), results.get(0).getItem());
+        assertEquals(List.of(BATCH_ID_REPEATED_MESSAGE), results.get(4).getErrors());
+        verify(providerRepository, times(1)).findAllById(Set.of("p00001", "p00003"));
+        verify(providerRepository, times(1)).saveAll(anyList());
+        verify(providerRepository, times(0)).save(any(Provider.class));
     }
 
     @Test
-    void activateProviderSaveAllFailsThrowsRetryableException() {
-        var activeProviderModel = new ActiveProviderModel()
-                .setId("p00001")
-                .setLastUser("eavendano")
-                .setEnabled(true);
+    void upsertProviderModelsWithOnlyInvalidItemsDoesNotOpenTransaction() {
+        //Initialization
+        final var invalidModel = toModel(mockIndividualProvider(null)).setName("");
 
-        final var mockProvider = mockIndividualProvider("p00001");
+        //Execution
+        final List<BatchItemModel<ProviderModel>> results = join(service.upsertProviderModels(List.of(invalidModel)));
+
+        //Validation
+        assertEquals(INVALID, results.get(0).getOutcome());
+        verify(providerRepository, times(0)).findAllById(anySet());
+        verify(providerRepository, times(0)).saveAll(anyList());
+    }
 
-        when(providerRepository.existsAllByProviderIdIn(anySet())).thenReturn(true);
-        when(providerRepository.findAllById(anySet())).thenReturn(List.of(mockProvider));
-        when(providerRepository.saveAll(anySet())).thenThrow(new OptimisticLockException("Optimistic lock exception"));
+    @Test
+    void upsertProviderModelsThrowsBadRequestExceptionOnOversizedBatch() {
+        //Initialization
+        final List<ProviderModel> providerModels = IntStream.rangeClosed(0, MAX_BATCH_SIZE)
+                .mapToObj(idx -> toModel(mockIndividualProvider(null)))
+                .collect(Collectors.toList());
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateProviderSet(Set.of(activeProviderModel)));
+        //Execution
+        assertThrows(BadRequestException.class, () -> join(service.upsertProviderModels(providerModels)));
 
-        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
-        verify(providerRepository, times(4)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(4)).findAllById(anySet());
-        verify(providerRepository, times(4)).saveAll(anySet());
+        //Validation
+        verify(providerRepository, times(0)).saveAll(anyList());
     }
 
     @Test
-    void activateProviderSaveAllFailsThrowsNonRetryableException() {
-        var activeProviderModel = new ActiveProviderModel()
-                .setId("p00001")
-                .setLastUser("eavendano")
-                .setEnabled(true);
-
-        final var mockProvider = mockIndividualProvider("p00001");
+    void upsertProviderModelsThrowsServiceExceptionOnSaveAllAfterRetries() {
+        //Initialization
+        final var insertModel = toModel(mockIndividualProvider(null));
 
-        when(providerRepository.existsAllByProviderIdIn(anySet())).thenReturn(true);
-        when(providerRepository.findAllById(anySet())).thenReturn(List.of(mockProvider));
-        when(providerRepository.saveAll(anySet())).thenThrow(new RuntimeException("Regular exception test."));
+        //Set up
+        when(providerRepository.saveAll(anyList())).thenThrow(new OptimisticLockException("Optimistic lock test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateProviderSet(Set.of(activeProviderModel)));
+        //Execution
+        var ex = assertThrows(RetryableException.class, () -> join(service.upsertProviderModels(List.of(insertModel))));
 
-        assertEquals(RuntimeException.class, getRootCause(ex).getClass());
-        verify(providerRepository, times(1)).existsAllByProviderIdIn(anySet());
-        verify(providerRepository, times(1)).findAllById(anySet());
-        verify(providerRepository, times(1)).saveAll(anySet());
+        //Validation
+        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
+        verify(providerRepository, times(4)).saveAll(anyList());
     }
 
     private List<Provider> mockProviderList(int length) {
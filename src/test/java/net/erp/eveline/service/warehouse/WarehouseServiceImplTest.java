@@ -6,10 +6,15 @@ import net.erp.eveline.common.exception.BadRequestException;
 import net.erp.eveline.common.exception.NonRetryableException;
 import net.erp.eveline.common.exception.NotFoundException;
 import net.erp.eveline.common.exception.RetryableException;
+import net.erp.eveline.common.pagination.PageCursor;
+import net.erp.eveline.common.pagination.PageSort;
 import net.erp.eveline.common.mapper.WarehouseMapper;
 import net.erp.eveline.data.entity.Warehouse;
+import net.erp.eveline.data.repository.ActivationRepository;
 import net.erp.eveline.data.repository.WarehouseRepository;
 import net.erp.eveline.model.ActiveWarehouseModel;
+import net.erp.eveline.model.BatchItemModel;
+import net.erp.eveline.model.PageModel;
 import net.erp.eveline.model.WarehouseModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,17 +37,25 @@ import static java.util.Collections.emptySet;
 import static java.util.Optional.ofNullable;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static net.erp.eveline.common.execution.Futures.join;
 import static net.erp.eveline.common.mapper.WarehouseMapper.toActiveModel;
 import static net.erp.eveline.common.mapper.WarehouseMapper.toModel;
+import static net.erp.eveline.common.predicate.CommonPredicates.ACTIVE_SET_ID_REPEATED_MESSAGE;
+import static net.erp.eveline.data.repository.ActivationRepository.ActivationTable.WAREHOUSE;
+import static net.erp.eveline.model.BatchItemModel.Outcome.INSERTED;
+import static net.erp.eveline.model.BatchItemModel.Outcome.NOT_FOUND;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.mockito.Mockito.anyCollection;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anySet;
 
 @ExtendWith(SpringExtension.class)
@@ -52,6 +65,9 @@ public class WarehouseServiceImplTest {
     @Mock
     private WarehouseRepository warehouseRepository;
 
+    @Mock
+    private ActivationRepository activationRepository;
+
 
     @Autowired
     private TransactionService transactionService;
@@ -162,7 +178,7 @@ public class WarehouseServiceImplTest {
 
     @Test
     void upsertWarehouseModelWithNullModelThrowsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> service.upsertWarehouseModel(null));
+        assertThrows(NullPointerException.class, () -> join(service.upsertWarehouseModel(null)));
         verify(warehouseRepository, times(0)).save(any(Warehouse.class));
         verify(warehouseRepository, times(0)).findById(any(String.class));
     }
@@ -186,7 +202,7 @@ public class WarehouseServiceImplTest {
 
         when(warehouseRepository.save(any(Warehouse.class))).thenReturn(warehouse);
 
-        var resultModel = service.upsertWarehouseModel(warehouseModel);
+        var resultModel = join(service.upsertWarehouseModel(warehouseModel));
         assertEquals(WarehouseMapper.toModel(warehouse), resultModel);
         verify(warehouseRepository, times(1)).save(any(Warehouse.class));
         verify(warehouseRepository, times(0)).findById(any(String.class));
@@ -206,7 +222,7 @@ public class WarehouseServiceImplTest {
                 .setNotes("")
                 .setEnabled(true);
 
-        assertThrows(BadRequestException.class, () -> service.upsertWarehouseModel(warehouseModel));
+        assertThrows(BadRequestException.class, () -> join(service.upsertWarehouseModel(warehouseModel)));
         verify(warehouseRepository, times(0)).save(any(Warehouse.class));
         verify(warehouseRepository, times(0)).findById(any(String.class));
     }
@@ -228,7 +244,7 @@ public class WarehouseServiceImplTest {
 
         when(warehouseRepository.save(any(Warehouse.class))).thenThrow(new OptimisticLockException("Optimistic lock test"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.upsertWarehouseModel(warehouseModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.upsertWarehouseModel(warehouseModel)));
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(warehouseRepository, times(4)).save(any(Warehouse.class));
         verify(warehouseRepository, times(0)).findById(any(String.class));
@@ -253,7 +269,7 @@ public class WarehouseServiceImplTest {
         when(warehouseRepository.existsById("w00001")).thenReturn(true);
         when(warehouseRepository.save(any(Warehouse.class))).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.upsertWarehouseModel(warehouseModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.upsertWarehouseModel(warehouseModel)));
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(warehouseRepository, times(1)).save(any(Warehouse.class));
         verify(warehouseRepository, times(1)).existsById(any(String.class));
@@ -277,7 +293,7 @@ public class WarehouseServiceImplTest {
 
         when(warehouseRepository.existsById("w00001")).thenThrow(new OptimisticLockException("Optimistic lock test"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.upsertWarehouseModel(warehouseModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.upsertWarehouseModel(warehouseModel)));
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(warehouseRepository, times(0)).save(any(Warehouse.class));
         verify(warehouseRepository, times(4)).existsById(any(String.class));
@@ -300,7 +316,7 @@ public class WarehouseServiceImplTest {
                 .setEnabled(true);
         when(warehouseRepository.existsById("w00001")).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.upsertWarehouseModel(warehouseModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.upsertWarehouseModel(warehouseModel)));
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(warehouseRepository, times(0)).save(any(Warehouse.class));
         verify(warehouseRepository, times(1)).existsById(any(String.class));
@@ -322,7 +338,7 @@ public class WarehouseServiceImplTest {
         when(warehouseRepository.findById("w00001")).thenReturn(of(mockWarehouse));
         when(warehouseRepository.save(any(Warehouse.class))).thenReturn(resultMock);
 
-        var result = service.activateWarehouse(activeWarehouseModel);
+        var result = join(service.activateWarehouse(activeWarehouseModel));
 
         assertEquals(toActiveModel(resultMock), result);
         verify(warehouseRepository, times(1)).save(any(Warehouse.class));
@@ -331,7 +347,7 @@ public class WarehouseServiceImplTest {
 
     @Test
     void activateWarehouseNullModelThrowsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> service.activateWarehouse(null));
+        assertThrows(NullPointerException.class, () -> join(service.activateWarehouse(null)));
         verify(warehouseRepository, times(0)).save(any(Warehouse.class));
         verify(warehouseRepository, times(0)).findById(any(String.class));
     }
@@ -343,7 +359,7 @@ public class WarehouseServiceImplTest {
                 .setLastUser("")
                 .setEnabled(null);
 
-        var ex = assertThrows(BadRequestException.class, () -> service.activateWarehouse(activeWarehouseModel));
+        var ex = assertThrows(BadRequestException.class, () -> join(service.activateWarehouse(activeWarehouseModel)));
 
         assertEquals(BadRequestException.class, getRootCause(ex).getClass());
         verify(warehouseRepository, times(0)).save(any(Warehouse.class));
@@ -359,7 +375,7 @@ public class WarehouseServiceImplTest {
 
         when(warehouseRepository.findById("w00001")).thenThrow(new OptimisticLockException("Optimistic lock exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateWarehouse(activeWarehouseModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.activateWarehouse(activeWarehouseModel)));
 
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(warehouseRepository, times(0)).save(any(Warehouse.class));
@@ -375,7 +391,7 @@ public class WarehouseServiceImplTest {
 
         when(warehouseRepository.findById("w00001")).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateWarehouse(activeWarehouseModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateWarehouse(activeWarehouseModel)));
 
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(warehouseRepository, times(0)).save(any(Warehouse.class));
@@ -391,7 +407,7 @@ public class WarehouseServiceImplTest {
 
         when(warehouseRepository.findById("w00001")).thenReturn(empty());
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateWarehouse(activeWarehouseModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateWarehouse(activeWarehouseModel)));
 
         assertEquals(NotFoundException.class, getRootCause(ex).getClass());
         verify(warehouseRepository, times(0)).save(any(Warehouse.class));
@@ -410,7 +426,7 @@ public class WarehouseServiceImplTest {
         when(warehouseRepository.findById("w00001")).thenReturn(of(mockWarehouse));
         when(warehouseRepository.save(any(Warehouse.class))).thenThrow(new OptimisticLockException("Optimistic lock exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateWarehouse(activeWarehouseModel));
+        var ex = assertThrows(RetryableException.class, () -> join(service.activateWarehouse(activeWarehouseModel)));
 
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
         verify(warehouseRepository, times(4)).save(any(Warehouse.class));
@@ -430,7 +446,7 @@ public class WarehouseServiceImplTest {
 
         when(warehouseRepository.save(any(Warehouse.class))).thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateWarehouse(activeWarehouseModel));
+        var ex = assertThrows(NonRetryableException.class, () -> join(service.activateWarehouse(activeWarehouseModel)));
 
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
         verify(warehouseRepository, times(1)).save(any(Warehouse.class));
@@ -439,219 +455,165 @@ public class WarehouseServiceImplTest {
 
     @Test
     void activateWarehouseSetSuccessfulRequest() {
-        var activeWarehouseModel1 = new ActiveWarehouseModel()
-                .setId("w00000")
-                .setLastUser("user")
-                .setEnabled(true);
-
-        var activeWarehouseModel2 = new ActiveWarehouseModel()
+        //Initialization
+        final var activeWarehouseModel1 = new ActiveWarehouseModel()
                 .setId("w00001")
-                .setLastUser("user")
+                .setLastUser("eavendano")
+                .setEnabled(true);
+        final var activeWarehouseModel2 = new ActiveWarehouseModel()
+                .setId("w00002")
+                .setLastUser("eavendano")
                 .setEnabled(false);
 
-        final var warehouseList = mockWarehouseList(2);
-        final var mockWarehouse1 = warehouseList.get(0);
-        final var mockWarehouse2 = warehouseList.get(1);
-
-        final var resultWarehouseList = mockWarehouseList(2);
-        final var resultMock1 = resultWarehouseList.get(0);
-        resultMock1.setLastUser("user");
-        resultMock1.setEnabled(true);
-
-        final var resultMock2 = resultWarehouseList.get(1);
-        resultMock1.setLastUser("user");
-        resultMock1.setEnabled(true);
-
-        when(warehouseRepository.existsAllByWarehouseIdIn(anySet())).thenReturn(true);
-        when(warehouseRepository.findAllById(anySet())).thenReturn(List.of(mockWarehouse1, mockWarehouse2));
-        when(warehouseRepository.saveAll(anySet())).thenReturn(List.of(resultMock1, resultMock2));
+        //Set up
+        when(activationRepository.<ActiveWarehouseModel>activate(eq(WAREHOUSE), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(List.of(activeWarehouseModel1, activeWarehouseModel2));
 
-        var result = service.activateWarehouseSet(Set.of(activeWarehouseModel1, activeWarehouseModel2));
+        //Execution
+        final var result = join(service.activateWarehouseSet(Set.of(activeWarehouseModel1, activeWarehouseModel2)));
 
-        assertIterableEquals(toActiveModel(Set.of(resultMock1, resultMock2)), result);
-        verify(warehouseRepository, times(1)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(1)).findAllById(anySet());
-        verify(warehouseRepository, times(1)).saveAll(anySet());
+        //Validation
+        assertEquals(Set.of(activeWarehouseModel1, activeWarehouseModel2), result);
+        verify(activationRepository, times(1)).activate(eq(WAREHOUSE), anyCollection(), any(), any(), any(), any());
+        verify(warehouseRepository, times(0)).findAllById(anySet());
+        verify(warehouseRepository, times(0)).saveAll(anySet());
     }
 
     @Test
     void activateWarehouseSetWithEmptySetReturnsEmptySet() {
-        var result = service.activateWarehouseSet(emptySet());
+        final var result = join(service.activateWarehouseSet(emptySet()));
 
-        assertIterableEquals(emptySet(), result);
-        verify(warehouseRepository, times(0)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(0)).findAllById(anySet());
-        verify(warehouseRepository, times(0)).saveAll(anySet());
+        assertEquals(emptySet(), result);
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
     void activateWarehouseSetNullModelThrowsNullPointerException() {
-        var ex = assertThrows(NullPointerException.class, () -> service.activateWarehouseSet(null));
-        verify(warehouseRepository, times(0)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(0)).findAllById(anySet());
-        verify(warehouseRepository, times(0)).saveAll(anySet());
+        assertThrows(NullPointerException.class, () -> join(service.activateWarehouseSet(null)));
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
     void activateWarehouseSetThrowsBadRequestException() {
-        var activeWarehouseModel = new ActiveWarehouseModel()
+        final var activeWarehouseModel = new ActiveWarehouseModel()
                 .setId("")
                 .setLastUser("")
                 .setEnabled(null);
 
-        var ex = assertThrows(BadRequestException.class, () -> service.activateWarehouseSet(Set.of(activeWarehouseModel)));
+        final var ex = assertThrows(BadRequestException.class, () -> join(service.activateWarehouseSet(Set.of(activeWarehouseModel))));
 
         assertEquals(BadRequestException.class, getRootCause(ex).getClass());
-        verify(warehouseRepository, times(0)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(0)).findAllById(anySet());
-        verify(warehouseRepository, times(0)).saveAll(anySet());
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateWarehouseSetExistByIdFailsThrowsRetryableException() {
-        var activeWarehouseModel = new ActiveWarehouseModel()
+    void activateWarehouseSetWithRepeatedIdThrowsBadRequestException() {
+        final var activeWarehouseModel1 = new ActiveWarehouseModel()
                 .setId("w00001")
-                .setLastUser("user")
+                .setLastUser("eavendano")
                 .setEnabled(true);
-
-        when(warehouseRepository.existsAllByWarehouseIdIn(Set.of("w00001"))).thenThrow(new OptimisticLockException("Optimistic lock exception"));
-
-        var ex = assertThrows(RetryableException.class, () -> service.activateWarehouseSet(Set.of(activeWarehouseModel)));
-
-        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
-        verify(warehouseRepository, times(4)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(0)).findAllById(anySet());
-        verify(warehouseRepository, times(0)).saveAll(anySet());
-    }
-
-    @Test
-    void activateWarehouseExistsByIdFailsThrowsNonRetryableException() {
-        var activeWarehouseModel = new ActiveWarehouseModel()
+        final var activeWarehouseModel2 = new ActiveWarehouseModel()
                 .setId("w00001")
-                .setLastUser("user")
-                .setEnabled(true);
-
-        when(warehouseRepository.existsAllByWarehouseIdIn(Set.of("w00001"))).thenThrow(new RuntimeException("Regular exception test."));
+                .setLastUser("eavendano")
+                .setEnabled(false);
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateWarehouseSet(Set.of(activeWarehouseModel)));
+        final var ex = assertThrows(BadRequestException.class, () -> join(service.activateWarehouseSet(Set.of(activeWarehouseModel1, activeWarehouseModel2))));
 
-        assertEquals(RuntimeException.class, getRootCause(ex).getClass());
-        verify(warehouseRepository, times(1)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(0)).findAllById(anySet());
-        verify(warehouseRepository, times(0)).saveAll(anySet());
+        assertEquals(ACTIVE_SET_ID_REPEATED_MESSAGE, ex.getMessage());
+        verify(activationRepository, times(0)).activate(any(), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateWarehouseExistsByIdFailsThrowsNotFoundException() {
-        var activeWarehouseModel = new ActiveWarehouseModel()
+    void activateWarehouseSetMissingIdThrowsNotFoundException() {
+        final var activeWarehouseModel1 = new ActiveWarehouseModel()
                 .setId("w00001")
-                .setLastUser("user")
+                .setLastUser("eavendano")
+                .setEnabled(true);
+        final var activeWarehouseModel2 = new ActiveWarehouseModel()
+                .setId("w00002")
+                .setLastUser("eavendano")
                 .setEnabled(true);
 
-        when(warehouseRepository.existsAllByWarehouseIdIn(Set.of("w00001"))).thenReturn(false);
+        when(activationRepository.<ActiveWarehouseModel>activate(eq(WAREHOUSE), anyCollection(), any(), any(), any(), any()))
+                .thenReturn(List.of(activeWarehouseModel1));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateWarehouseSet(Set.of(activeWarehouseModel)));
+        final var ex = assertThrows(NonRetryableException.class, () -> join(service.activateWarehouseSet(Set.of(activeWarehouseModel1, activeWarehouseModel2))));
 
         assertEquals(NotFoundException.class, getRootCause(ex).getClass());
-        verify(warehouseRepository, times(1)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(0)).findAllById(anySet());
-        verify(warehouseRepository, times(0)).saveAll(anySet());
+        assertTrue(getRootCause(ex).getMessage().contains("w00002"));
+        verify(activationRepository, times(1)).activate(eq(WAREHOUSE), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateWarehouseSetFindAllByIdFailsThrowsRetryableException() {
-        var activeWarehouseModel = new ActiveWarehouseModel()
+    void activateWarehouseSetActivateFailsThrowsRetryableException() {
+        final var activeWarehouseModel = new ActiveWarehouseModel()
                 .setId("w00001")
-                .setLastUser("user")
+                .setLastUser("eavendano")
                 .setEnabled(true);
 
-        when(warehouseRepository.existsAllByWarehouseIdIn(anySet())).thenReturn(true);
-        when(warehouseRepository.findAllById(anySet())).thenThrow(new OptimisticLockException("Optimistic lock exception"));
+        when(activationRepository.<ActiveWarehouseModel>activate(eq(WAREHOUSE), anyCollection(), any(), any(), any(), any()))
+                .thenThrow(new OptimisticLockException("Optimistic lock exception"));
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateWarehouseSet(Set.of(activeWarehouseModel)));
+        final var ex = assertThrows(RetryableException.class, () -> join(service.activateWarehouseSet(Set.of(activeWarehouseModel))));
 
         assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
-        verify(warehouseRepository, times(4)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(4)).findAllById(anySet());
-        verify(warehouseRepository, times(0)).saveAll(anySet());
+        verify(activationRepository, times(4)).activate(eq(WAREHOUSE), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateWarehouseFindAllByIdFailsThrowsNonRetryableException() {
-        var activeWarehouseModel = new ActiveWarehouseModel()
+    void activateWarehouseSetActivateFailsThrowsNonRetryableException() {
+        final var activeWarehouseModel = new ActiveWarehouseModel()
                 .setId("w00001")
-                .setLastUser("user")
+                .setLastUser("eavendano")
                 .setEnabled(true);
 
-        when(warehouseRepository.existsAllByWarehouseIdIn(anySet())).thenReturn(true);
-        when(warehouseRepository.findAllById(anySet())).thenThrow(new RuntimeException("Regular exception test."));
+        when(activationRepository.<ActiveWarehouseModel>activate(eq(WAREHOUSE), anyCollection(), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("Regular exception test."));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateWarehouseSet(Set.of(activeWarehouseModel)));
+        final var ex = assertThrows(NonRetryableException.class, () -> join(service.activateWarehouseSet(Set.of(activeWarehouseModel))));
 
         assertEquals(RuntimeException.class, getRootCause(ex).getClass());
-        verify(warehouseRepository, times(1)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(1)).findAllById(anySet());
-        verify(warehouseRepository, times(0)).saveAll(anySet());
-    }
-
-    @Test
-    void activateWarehouseFindAllByIdFailsThrowsNotFoundException() {
-        var activeWarehouseModel = new ActiveWarehouseModel()
-                .setId("w00001")
-                .setLastUser("user")
-                .setEnabled(true);
-
-        when(warehouseRepository.existsAllByWarehouseIdIn(Set.of("w00001"))).thenReturn(true);
-        when(warehouseRepository.findAllById(anySet())).thenReturn(emptyList());
-
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateWarehouseSet(Set.of(activeWarehouseModel)));
-
-        assertEquals(NotFoundException.class, getRootCause(ex).getClass());
-        verify(warehouseRepository, times(1)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(1)).findAllById(anySet());
-        verify(warehouseRepository, times(0)).saveAll(anySet());
+        verify(activationRepository, times(1)).activate(eq(WAREHOUSE), anyCollection(), any(), any(), any(), any());
     }
 
     @Test
-    void activateWarehouseSaveAllFailsThrowsRetryableException() {
-        var activeWarehouseModel = new ActiveWarehouseModel()
-                .setId("w00000")
-                .setLastUser("user")
-                .setEnabled(true);
-
-        final var mockWarehouse = mockWarehouseList(1).get(0);
+    void findPageByIdReturnsNextCursorWhenMoreRowsExist() {
+        //Initialization
+        final int size = 2;
 
-        when(warehouseRepository.existsAllByWarehouseIdIn(anySet())).thenReturn(true);
-        when(warehouseRepository.findAllById(anySet())).thenReturn(List.of(mockWarehouse));
-        when(warehouseRepository.saveAll(anySet())).thenThrow(new OptimisticLockException("Optimistic lock exception"));
+        //Set up
+        final var mockWarehouseList = mockWarehouseList(size + 1);
+        when(warehouseRepository.findPageOrderById("", size + 1)).thenReturn(mockWarehouseList);
 
-        var ex = assertThrows(RetryableException.class, () -> service.activateWarehouseSet(Set.of(activeWarehouseModel)));
+        //Execution
+        final PageModel<WarehouseModel> page = service.findPage(null, size, PageSort.ID);
 
-        assertEquals(OptimisticLockException.class, getRootCause(ex).getClass());
-        verify(warehouseRepository, times(4)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(4)).findAllById(anySet());
-        verify(warehouseRepository, times(4)).saveAll(anySet());
+        //Validation
+        verify(warehouseRepository, times(1)).findPageOrderById("", size + 1);
+        assertEquals(size, page.getSize());
+        assertEquals(toModel(mockWarehouseList.get(0)), page.getItems().get(0));
+        assertEquals(PageCursor.after(PageSort.ID, "w00001", null).encode(), page.getNextCursor());
     }
 
     @Test
-    void activateWarehouseSaveAllFailsThrowsNonRetryableException() {
-        var activeWarehouseModel = new ActiveWarehouseModel()
-                .setId("w00000")
-                .setLastUser("user")
-                .setEnabled(true);
-
-        final var mockWarehouse = mockWarehouseList(1).get(0);
+    void upsertWarehouseModelsReportsNotFoundItems() {
+        //Initialization
+        final List<Warehouse> warehouses = mockWarehouseList(2);
+        final var insertModel = WarehouseMapper.toModel(warehouses.get(0)).setId(null).setLatitude(0.0).setLongitude(0.0);
+        final var missingModel = WarehouseMapper.toModel(warehouses.get(1)).setLatitude(0.0).setLongitude(0.0);
 
-        when(warehouseRepository.existsAllByWarehouseIdIn(anySet())).thenReturn(true);
-        when(warehouseRepository.findAllById(anySet())).thenReturn(List.of(mockWarehouse));
-        when(warehouseRepository.saveAll(anySet())).thenThrow(new RuntimeException("Regular exception test."));
+        //Set up
+        when(warehouseRepository.findAllById(anySet())).thenReturn(emptyList());
+        when(warehouseRepository.saveAll(anyList())).thenReturn(List.of(warehouses.get(0)));
 
-        var ex = assertThrows(NonRetryableException.class, () -> service.activateWarehouseSet(Set.of(activeWarehouseModel)));
+        //Execution
+        final List<BatchItemModel<WarehouseModel>> results = join(service.upsertWarehouseModels(List.of(insertModel, missingModel)));
 
-        assertEquals(RuntimeException.class, getRootCause(ex).getClass());
-        verify(warehouseRepository, times(1)).existsAllByWarehouseIdIn(anySet());
-        verify(warehouseRepository, times(1)).findAllById(anySet());
-        verify(warehouseRepository, times(1)).saveAll(anySet());
+        //Validation
+        assertEquals(List.of(INSERTED, NOT_FOUND), results.stream().map(BatchItemModel::getOutcome).collect(Collectors.toList()));
+        assertEquals(WarehouseMapper.toModel(warehouses.get(0)), results.get(0).getItem());
+        assertEquals(missingModel, results.get(1).getItem());
+        verify(warehouseRepository, times(1)).saveAll(anyList());
     }
 
     private List<Warehouse> mockWarehouseList(int length) {